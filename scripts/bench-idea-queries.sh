@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# 워크스페이스 단위 아이디어 조회 벤치마크.
+# 전체 아이디어 수를 10k → 100k → 1M 으로 늘려 가며, canvas-service 가 사용하는
+# 워크스페이스 스코프 키셋 쿼리의 실행 시간이 전체 행 수와 무관하게 유지되는지 확인한다.
+# 운영 테이블을 건드리지 않도록 같은 컬럼/인덱스를 가진 bench_ideas 스크래치 테이블을 사용한다.
+#
+# 사용법: docker compose up -d postgres && ./scripts/bench-idea-queries.sh
+
+PG_CONTAINER="${PG_CONTAINER:-capstone-postgres}"
+PG_USER="${POSTGRES_USER:-postgres}"
+PG_DB="${POSTGRES_DB:-capstone_db}"
+IDEAS_PER_WORKSPACE="${IDEAS_PER_WORKSPACE:-200}"
+PAGE_SIZE="${PAGE_SIZE:-100}"
+RUNS="${RUNS:-20}"
+
+psql_exec() {
+  docker exec -i "$PG_CONTAINER" psql -q -U "$PG_USER" -d "$PG_DB" -v ON_ERROR_STOP=1 "$@"
+}
+
+psql_exec <<'SQL'
+DROP TABLE IF EXISTS bench_ideas;
+CREATE TABLE bench_ideas (
+  id BIGSERIAL PRIMARY KEY,
+  workspace_id BIGINT NOT NULL,
+  canvas_id BIGINT,
+  content TEXT,
+  patch_size_x DOUBLE PRECISION,
+  patch_size_y DOUBLE PRECISION,
+  position_x DOUBLE PRECISION,
+  position_y DOUBLE PRECISION,
+  created_at TIMESTAMP DEFAULT now(),
+  updated_at TIMESTAMP DEFAULT now()
+);
+CREATE INDEX idx_bench_ideas_workspace_canvas ON bench_ideas (workspace_id, canvas_id);
+CREATE INDEX idx_bench_ideas_workspace_id_id ON bench_ideas (workspace_id, id);
+SQL
+
+loaded=0
+for total in 10000 100000 1000000; do
+  add=$((total - loaded))
+  psql_exec <<SQL
+INSERT INTO bench_ideas (workspace_id, canvas_id, content, patch_size_x, patch_size_y, position_x, position_y)
+SELECT (g / ${IDEAS_PER_WORKSPACE}) + 1, (g % 4) + 1, 'idea ' || g, 160, 120, random() * 4000, random() * 3000
+FROM generate_series(${loaded}, ${loaded} + ${add} - 1) AS g;
+ANALYZE bench_ideas;
+SQL
+  loaded=$total
+
+  # 매 라운드 같은 크기(IDEAS_PER_WORKSPACE)의 워크스페이스 하나를 골라 첫 페이지를 측정
+  target_ws=$(( (total / IDEAS_PER_WORKSPACE) / 2 ))
+  timings=""
+  for _ in $(seq 1 "$RUNS"); do
+    t=$(psql_exec -At <<SQL | sed -n 's/^Execution Time: \([0-9.]*\) ms$/\1/p'
+EXPLAIN (ANALYZE, FORMAT TEXT)
+SELECT id, workspace_id, canvas_id, content, patch_size_x, patch_size_y, position_x, position_y, created_at, updated_at
+FROM bench_ideas
+WHERE workspace_id = ${target_ws} AND id > 0
+  AND (content IS NULL OR trim(content) NOT LIKE '[PRD!_PIPELINE]%' ESCAPE '!')
+ORDER BY id ASC
+LIMIT $((PAGE_SIZE + 1));
+SQL
+    )
+    timings="$timings $t"
+  done
+
+  echo "$timings" | tr ' ' '\n' | sed '/^$/d' | sort -n | awk -v total="$total" '
+    { v[NR] = $1 }
+    END {
+      p50 = v[int((NR + 1) * 0.50)]; p95 = v[int((NR + 1) * 0.95)]
+      if (p95 == "") p95 = v[NR]
+      printf "total_ideas=%-8d runs=%d p50=%.3fms p95=%.3fms\n", total, NR, p50, p95
+    }'
+done
+
+psql_exec -c "DROP TABLE IF EXISTS bench_ideas;"
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# 업로드 파일 서빙(GET /api/uploads/**) 벤치마크.
+# storage-service 컨테이너의 업로드 볼륨에 1KB(썸네일 크기)와 50MB(첨부 크기) 파일을 만들고, 각각 RUNS 번
+# 받아 요청당 지연 시간(p50/p95)과 처리량(MB/s), 요청당 storage-service CPU 시간을 출력한다. CPU 시간은
+# 컨테이너 안 JVM 프로세스(pid 1)의 utime+stime 변화량을 요청 수로 나눈 값이다.
+# 마지막으로 같은 파일에 대한 재검증(If-None-Match → 304)과 Range 요청 응답 코드를 확인한다.
+#
+# 사용법: ./scripts/run-msa.sh && ./scripts/bench-uploads.sh
+# 게이트웨이를 거치지 않고 storage-service 만 보려면 API_BASE=http://localhost:8087/api
+# 측정용 파일은 uploads/bench-upload-* 이며 끝나면 삭제한다.
+
+API_BASE="${API_BASE:-http://localhost:8080/api}"
+STORAGE_CONTAINER="${STORAGE_CONTAINER:-capstone-storage-service}"
+UPLOAD_DIR="${UPLOAD_DIR:-/var/lib/capstone/uploads}"
+SMALL_RUNS="${SMALL_RUNS:-500}"
+LARGE_RUNS="${LARGE_RUNS:-20}"
+
+storage_exec() {
+  docker exec -i "$STORAGE_CONTAINER" sh -c "$1"
+}
+
+cleanup() {
+  storage_exec "rm -f '$UPLOAD_DIR'/bench-upload-*"
+}
+
+# JVM 프로세스의 누적 CPU 시간 (clock tick)
+cpu_ticks() {
+  storage_exec "awk '{ print \$14 + \$15 }' /proc/1/stat"
+}
+
+cleanup
+trap cleanup EXIT
+
+storage_exec "head -c 1024 /dev/urandom > '$UPLOAD_DIR/bench-upload-1k.bin' \
+  && head -c $((50 * 1024 * 1024)) /dev/urandom > '$UPLOAD_DIR/bench-upload-50m.bin'"
+hz=$(storage_exec "getconf CLK_TCK" 2>/dev/null || echo 100)
+
+# 파일 하나를 runs 번 받아 p50/p95, MB/s, 요청당 CPU 출력
+bench() {
+  local name="$1" runs="$2" url="$API_BASE/uploads/$1"
+  curl -sf -o /dev/null "$url" # 워밍업 (페이지 캐시, JIT)
+  local before after timings
+  before=$(cpu_ticks)
+  timings=$(for _ in $(seq 1 "$runs"); do
+    curl -s -o /dev/null -w '%{time_total} %{size_download}\n' "$url"
+  done)
+  after=$(cpu_ticks)
+  echo "$timings" | sort -n | awk -v name="$name" -v ticks="$((after - before))" -v hz="$hz" '
+    { t[NR] = $1; total_t += $1; total_b += $2 }
+    END {
+      p50 = t[int((NR + 1) * 0.50)]; p95 = t[int((NR + 1) * 0.95)]
+      if (p95 == "") p95 = t[NR]
+      printf "%s runs=%d p50=%.2fms p95=%.2fms throughput=%.1fMB/s cpu_per_req=%.3fms\n",
+        name, NR, p50 * 1000, p95 * 1000, total_b / total_t / 1048576, ticks * 1000 / hz / NR
+    }'
+}
+
+bench bench-upload-1k.bin "$SMALL_RUNS"
+bench bench-upload-50m.bin "$LARGE_RUNS"
+
+url="$API_BASE/uploads/bench-upload-50m.bin"
+etag=$(curl -sI "$url" | tr -d '\r' | sed -n 's/^[Ee][Tt][Aa][Gg]: //p')
+echo "conditional=$(curl -s -o /dev/null -w '%{http_code}' -H "If-None-Match: $etag" "$url")" \
+  "range=$(curl -s -o /dev/null -w '%{http_code}/%{size_download}B' -H 'Range: bytes=0-1048575' "$url")"
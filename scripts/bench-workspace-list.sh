@@ -0,0 +1,120 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# 워크스페이스 목록(GET /api/v1/workspaces) 부하 테스트.
+# 개발 부트스트랩 사용자에게 워크스페이스 WORKSPACES 개(각각 아이디어 IDEAS_PER_WORKSPACE 개, 썸네일 없음)를
+# 붙인 뒤 목록 지연 시간을 측정한다. 첫 호출(cold)은 예전에는 썸네일을 전부 요청 스레드에서 렌더링하던 경우이고,
+# 지금은 백그라운드 예약만 하므로 이후 호출과 같은 수준이어야 한다. 마지막에 백그라운드 렌더링이 끝나
+# 썸네일이 채워지는 데 걸린 시간도 출력한다. 채워진 뒤에는 목록 한 페이지에 드는 전송량(JSON + 카드 이미지)을
+# 클라이언트 종류별로 출력한다: thumbnailUrl 만 쓰는 예전 클라이언트(legacy), 작은 카드에서 자리표시 후 140w 를 받는
+# 경우(small), 고해상도 화면에서 560w 를 받는 경우(hidpi).
+#
+# 사용법: APP_DEV_BOOTSTRAP_AUTH=true ./scripts/run-msa.sh && ./scripts/bench-workspace-list.sh
+# 측정용 워크스페이스는 이름이 'bench-list-' 로 시작하며 끝나면 삭제한다.
+
+API_BASE="${API_BASE:-http://localhost:8080/api}"
+PG_CONTAINER="${PG_CONTAINER:-capstone-postgres}"
+PG_USER="${POSTGRES_USER:-postgres}"
+PG_DB="${POSTGRES_DB:-capstone_db}"
+WORKSPACES="${WORKSPACES:-200}"
+IDEAS_PER_WORKSPACE="${IDEAS_PER_WORKSPACE:-20}"
+RUNS="${RUNS:-30}"
+FILL_TIMEOUT_SEC="${FILL_TIMEOUT_SEC:-300}"
+
+psql_exec() {
+  docker exec -i "$PG_CONTAINER" psql -q -U "$PG_USER" -d "$PG_DB" -v ON_ERROR_STOP=1 "$@"
+}
+
+cleanup() {
+  psql_exec <<'SQL'
+DELETE FROM ideas WHERE workspace_id IN (SELECT id FROM workspaces WHERE name LIKE 'bench-list-%');
+DELETE FROM workspace_users WHERE workspace_id IN (SELECT id FROM workspaces WHERE name LIKE 'bench-list-%');
+DELETE FROM workspaces WHERE name LIKE 'bench-list-%';
+SQL
+}
+
+token=$(curl -sf -X POST "$API_BASE/v1/auth/dev/bootstrap" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+if [ -z "$token" ]; then
+  echo "개발 부트스트랩 로그인 실패 (APP_DEV_BOOTSTRAP_AUTH=true 인지 확인)" >&2
+  exit 1
+fi
+
+cleanup
+trap cleanup EXIT
+
+psql_exec <<SQL
+WITH dev AS (SELECT id FROM users WHERE email = 'dev@localhost.local'),
+ws AS (
+  INSERT INTO workspaces (name, owner_id, created_at)
+  SELECT 'bench-list-' || g, dev.id, now() FROM dev, generate_series(1, ${WORKSPACES}) AS g
+  RETURNING id, owner_id
+),
+members AS (
+  INSERT INTO workspace_users (workspace_id, user_id, role, joined_at)
+  SELECT id, owner_id, 0, now() FROM ws
+)
+INSERT INTO ideas (workspace_id, content, patch_size_x, patch_size_y, position_x, position_y,
+                   created_at, updated_at)
+SELECT ws.id, 'bench idea ' || i, 160, 120, (i % 5) * 200, (i / 5) * 150, now(), now()
+FROM ws, generate_series(1, ${IDEAS_PER_WORKSPACE}) AS i;
+SQL
+
+request_ms() {
+  curl -s -o /dev/null -w '%{time_total}\n' -H "Authorization: Bearer $token" \
+    "$API_BASE/v1/workspaces" | awk '{ printf "%.1f\n", $1 * 1000 }'
+}
+
+start=$(date +%s)
+cold=$(request_ms)
+timings=""
+for _ in $(seq 1 "$RUNS"); do
+  timings="$timings $(request_ms)"
+done
+
+echo "$timings" | tr ' ' '\n' | sed '/^$/d' | sort -n | awk -v ws="$WORKSPACES" -v cold="$cold" '
+  { v[NR] = $1 }
+  END {
+    p50 = v[int((NR + 1) * 0.50)]; p95 = v[int((NR + 1) * 0.95)]
+    if (p95 == "") p95 = v[NR]
+    printf "workspaces=%d cold=%.1fms runs=%d p50=%.1fms p95=%.1fms max=%.1fms\n",
+      ws, cold, NR, p50, p95, v[NR]
+  }'
+
+# 백그라운드 렌더링으로 썸네일이 모두 채워질 때까지 대기
+while :; do
+  missing=$(psql_exec -At -c "SELECT count(*) FROM workspaces
+    WHERE name LIKE 'bench-list-%' AND (thumbnail_url IS NULL OR thumbnail_url NOT LIKE '%-content-%')")
+  if [ "$missing" -eq 0 ]; then
+    echo "background_fill=$(( $(date +%s) - start ))s"
+    break
+  fi
+  if [ $(( $(date +%s) - start )) -ge "$FILL_TIMEOUT_SEC" ]; then
+    echo "background_fill=timeout (missing=$missing)"
+    break
+  fi
+  sleep 1
+done
+
+# 목록 한 페이지 전송량 (썸네일 변형이 없으면 해당 항목은 thumbnailUrl 로 대체)
+url_bytes() {
+  curl -s -o /dev/null -w '%{size_download}' "$1"
+}
+list_json=$(curl -s -H "Authorization: Bearer $token" "$API_BASE/v1/workspaces")
+json_bytes=$(printf '%s' "$list_json" | wc -c)
+legacy=0; small=0; hidpi=0
+for url in $(printf '%s' "$list_json" | grep -o '"thumbnailUrl":"[^"]*"' \
+    | sed 's/"thumbnailUrl":"\(.*\)"/\1/' | sort -u); do
+  base=$(url_bytes "$url")
+  legacy=$((legacy + base))
+  case "$url" in
+    */versions/*.png)
+      stem="${url%.png}"
+      small=$((small + $(url_bytes "$stem-placeholder.jpg") + $(url_bytes "$stem-sm.png")))
+      hidpi=$((hidpi + $(url_bytes "$stem-2x.png")))
+      ;;
+    *)
+      small=$((small + base)); hidpi=$((hidpi + base))
+      ;;
+  esac
+done
+echo "page_bytes json=${json_bytes} legacy=$((json_bytes + legacy)) small=$((json_bytes + small)) hidpi=$((json_bytes + hidpi))"
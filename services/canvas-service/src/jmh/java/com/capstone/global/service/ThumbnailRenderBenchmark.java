@@ -0,0 +1,63 @@
+package com.capstone.global.service;
+
+import com.capstone.domain.idea.Idea;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 워크스페이스 썸네일 렌더링 처리량: 아이디어 10/100/1000개 보드를 {@link ThumbnailRenderer} 로 그립니다.
+ * {@code render} 는 그리기만, {@code renderPng} 는 PNG 인코딩까지 포함합니다. 렌더링 1회당 할당량은 gc 프로파일러의
+ * {@code gc.alloc.rate.norm} (B/op) 로 출력됩니다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ThumbnailRenderBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int ideas;
+
+  private final ThumbnailRenderer renderer = new ThumbnailRenderer(1);
+  private final ByteArrayOutputStream png = new ByteArrayOutputStream(64 * 1024);
+  private List<Idea> board;
+
+  @Setup
+  public void setUp() {
+    board = new ArrayList<>(ideas);
+    int columns = (int) Math.ceil(Math.sqrt(ideas));
+    for (int i = 0; i < ideas; i++) {
+      board.add(Idea.builder()
+          .id((long) i + 1)
+          .positionX((double) (i % columns) * 220)
+          .positionY((double) (i / columns) * 140)
+          .patchSizeX(200.0)
+          .patchSizeY(120.0)
+          .content("아이디어 " + i + " 사용자 인터뷰에서 나온 온보딩 개선 제안과 후속 실험 계획")
+          .build());
+    }
+  }
+
+  @Benchmark
+  public boolean render(Blackhole blackhole) throws Exception {
+    return renderer.renderContent(board, blackhole::consume);
+  }
+
+  @Benchmark
+  public int renderPng() throws Exception {
+    png.reset();
+    renderer.renderContent(board, image -> ImageIO.write(image, "png", png));
+    return png.size();
+  }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -24,7 +25,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "ideas")
+@Table(name = "ideas", indexes = {
+    @Index(name = "idx_ideas_workspace_canvas", columnList = "workspace_id, canvas_id"),
+    @Index(name = "idx_ideas_workspace_id_id", columnList = "workspace_id, id")
+})
 public class Idea {
 
   @Id
@@ -23,11 +23,46 @@ public class IdeaController {
     return ResponseEntity.ok(ideaService.createIdea(userId, request));
   }
 
+  /**
+   * 뷰포트 조회 GET /v1/ideas?workspaceId=&canvasId=&minX=&minY=&maxX=&maxY=
+   */
+  @GetMapping
+  public ResponseEntity<List<IdeaResponse>> getIdeasInViewport(
+      @RequestParam Long workspaceId,
+      @RequestParam(required = false) Long canvasId,
+      @RequestParam(required = false) Double minX,
+      @RequestParam(required = false) Double minY,
+      @RequestParam(required = false) Double maxX,
+      @RequestParam(required = false) Double maxY) {
+    return ResponseEntity.ok(
+        ideaService.getIdeasInViewport(workspaceId, canvasId, minX, minY, maxX, maxY));
+  }
+
   @GetMapping("/workspaces/{workspaceId}")
   public ResponseEntity<List<IdeaResponse>> getAllIdeas(@PathVariable Long workspaceId) {
     return ResponseEntity.ok(ideaService.getAllIdeas(workspaceId));
   }
 
+  @GetMapping("/workspaces/{workspaceId}/page")
+  public ResponseEntity<IdeaPageResponse> getIdeasPage(
+      @PathVariable Long workspaceId,
+      @RequestParam(required = false) Long afterId,
+      @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(ideaService.getIdeasPage(workspaceId, afterId, size));
+  }
+
+  /**
+   * 아이디어 검색 GET /v1/ideas/workspaces/{workspaceId}/search?q=&page=0&size=20
+   */
+  @GetMapping("/workspaces/{workspaceId}/search")
+  public ResponseEntity<IdeaSearchResponse> searchIdeas(
+      @PathVariable Long workspaceId,
+      @RequestParam("q") String query,
+      @RequestParam(required = false) Integer page,
+      @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(ideaService.searchIdeas(workspaceId, query, page, size));
+  }
+
   @GetMapping("/{ideaId}")
   public ResponseEntity<IdeaResponse> getIdea(@PathVariable Long ideaId) {
     return ResponseEntity.ok(ideaService.getIdea(ideaId));
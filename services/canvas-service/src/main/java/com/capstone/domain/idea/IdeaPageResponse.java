@@ -0,0 +1,15 @@
+package com.capstone.domain.idea;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class IdeaPageResponse {
+
+  private List<IdeaResponse> items;
+  /** 다음 페이지 요청 시 {@code afterId} 로 넘길 값. 마지막 페이지면 null */
+  private Long nextCursor;
+  private boolean hasNext;
+}
@@ -1,12 +1,79 @@
 package com.capstone.domain.idea;
 
 import com.capstone.domain.workspace.Workspace;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface IdeaRepository extends JpaRepository<Idea, Long> {
   List<Idea> findByWorkspace(Workspace workspace);
+
+  /**
+   * 워크스페이스의 캔버스 아이디어를 id 순으로 조회 (내부 PRD 파이프라인 아이디어 제외)
+   */
+  @Query("SELECT new com.capstone.domain.idea.IdeaSummary("
+      + "i.id, i.workspace.workspaceId, c.id, i.content, i.patchSizeX, i.patchSizeY, "
+      + "i.positionX, i.positionY, i.createdAt, i.updatedAt) "
+      + "FROM Idea i LEFT JOIN i.canvas c "
+      + "WHERE i.workspace.workspaceId = :workspaceId "
+      + "AND (i.content IS NULL OR TRIM(i.content) NOT LIKE :excludedPrefix ESCAPE '!') "
+      + "ORDER BY i.id ASC")
+  List<IdeaSummary> findSummariesByWorkspaceId(@Param("workspaceId") Long workspaceId,
+      @Param("excludedPrefix") String excludedPrefix);
+
+  /**
+   * 키셋 페이지네이션: {@code afterId} 보다 큰 id 부터 pageable 크기만큼 조회
+   */
+  @Query("SELECT new com.capstone.domain.idea.IdeaSummary("
+      + "i.id, i.workspace.workspaceId, c.id, i.content, i.patchSizeX, i.patchSizeY, "
+      + "i.positionX, i.positionY, i.createdAt, i.updatedAt) "
+      + "FROM Idea i LEFT JOIN i.canvas c "
+      + "WHERE i.workspace.workspaceId = :workspaceId AND i.id > :afterId "
+      + "AND (i.content IS NULL OR TRIM(i.content) NOT LIKE :excludedPrefix ESCAPE '!') "
+      + "ORDER BY i.id ASC")
+  List<IdeaSummary> findSummariesByWorkspaceIdAfter(@Param("workspaceId") Long workspaceId,
+      @Param("afterId") Long afterId,
+      @Param("excludedPrefix") String excludedPrefix,
+      Pageable pageable);
+
+  /**
+   * 특정 캔버스의 아이디어 조회 (뷰포트 인덱스 적재용, idx_ideas_workspace_canvas 사용)
+   */
+  @Query("SELECT new com.capstone.domain.idea.IdeaSummary("
+      + "i.id, i.workspace.workspaceId, c.id, i.content, i.patchSizeX, i.patchSizeY, "
+      + "i.positionX, i.positionY, i.createdAt, i.updatedAt) "
+      + "FROM Idea i JOIN i.canvas c "
+      + "WHERE i.workspace.workspaceId = :workspaceId AND c.id = :canvasId "
+      + "AND (i.content IS NULL OR TRIM(i.content) NOT LIKE :excludedPrefix ESCAPE '!')")
+  List<IdeaSummary> findSummariesByWorkspaceIdAndCanvasId(@Param("workspaceId") Long workspaceId,
+      @Param("canvasId") Long canvasId,
+      @Param("excludedPrefix") String excludedPrefix);
+
+  /**
+   * 캔버스에 속하지 않은 아이디어 조회 (뷰포트 인덱스 적재용)
+   */
+  @Query("SELECT new com.capstone.domain.idea.IdeaSummary("
+      + "i.id, i.workspace.workspaceId, c.id, i.content, i.patchSizeX, i.patchSizeY, "
+      + "i.positionX, i.positionY, i.createdAt, i.updatedAt) "
+      + "FROM Idea i LEFT JOIN i.canvas c "
+      + "WHERE i.workspace.workspaceId = :workspaceId AND c.id IS NULL "
+      + "AND (i.content IS NULL OR TRIM(i.content) NOT LIKE :excludedPrefix ESCAPE '!')")
+  List<IdeaSummary> findSummariesByWorkspaceIdWithoutCanvas(@Param("workspaceId") Long workspaceId,
+      @Param("excludedPrefix") String excludedPrefix);
+
+  /**
+   * id 목록의 아이디어 조회 (검색 결과 본문 적재용, 순서 보장 안 함)
+   */
+  @Query("SELECT new com.capstone.domain.idea.IdeaSummary("
+      + "i.id, i.workspace.workspaceId, c.id, i.content, i.patchSizeX, i.patchSizeY, "
+      + "i.positionX, i.positionY, i.createdAt, i.updatedAt) "
+      + "FROM Idea i LEFT JOIN i.canvas c "
+      + "WHERE i.id IN :ids")
+  List<IdeaSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
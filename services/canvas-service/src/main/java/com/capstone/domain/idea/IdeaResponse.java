@@ -36,4 +36,23 @@ public class IdeaResponse {
         .updatedAt(updated)
         .build();
   }
+
+  public static IdeaResponse from(IdeaSummary summary) {
+    String created =
+        summary.getCreatedAt() != null ? summary.getCreatedAt().toString() : "";
+    String updated =
+        summary.getUpdatedAt() != null ? summary.getUpdatedAt().toString() : "";
+    return IdeaResponse.builder()
+        .id(summary.getId())
+        .workspaceId(summary.getWorkspaceId())
+        .canvasId(summary.getCanvasId())
+        .content(summary.getContent())
+        .patchSizeX(summary.getPatchSizeX())
+        .patchSizeY(summary.getPatchSizeY())
+        .positionX(summary.getPositionX())
+        .positionY(summary.getPositionY())
+        .createdAt(created)
+        .updatedAt(updated)
+        .build();
+  }
 }
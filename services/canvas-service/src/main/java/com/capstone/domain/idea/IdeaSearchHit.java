@@ -0,0 +1,13 @@
+package com.capstone.domain.idea;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class IdeaSearchHit {
+
+  private IdeaResponse idea;
+  /** 관련도 점수 (ts_rank_cd). 같은 검색 결과 안에서만 비교 가능 */
+  private double score;
+}
@@ -0,0 +1,39 @@
+package com.capstone.domain.idea;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@code ideas.search_vector} (GIN, {@link IdeasSearchIndexMigration}) 기반 전문 검색. 관련도순 id 만 고르고
+ * 본문은 {@link IdeaRepository#findSummariesByIdIn} 으로 읽습니다.
+ */
+@Repository
+public class IdeaSearchRepository {
+
+  /** 내부 PRD 파이프라인 아이디어는 목록 조회와 같은 기준으로 제외 */
+  private static final String SEARCH_SQL = """
+      SELECT id, ts_rank_cd(search_vector, query) AS score
+      FROM ideas, to_tsquery('simple', ?) AS query
+      WHERE workspace_id = ? AND search_vector @@ query
+        AND (content IS NULL OR btrim(content) NOT LIKE '[PRD!_PIPELINE]%' ESCAPE '!')
+      ORDER BY score DESC, id DESC
+      LIMIT ? OFFSET ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public IdeaSearchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** @return 점수 내림차순 (같은 점수는 최신 id 순) */
+  public List<Match> search(Long workspaceId, String tsQuery, int limit, int offset) {
+    return jdbcTemplate.query(SEARCH_SQL,
+        (rs, rowNum) -> new Match(rs.getLong("id"), rs.getDouble("score")),
+        tsQuery, workspaceId, limit, offset);
+  }
+
+  public record Match(Long id, double score) {
+  }
+}
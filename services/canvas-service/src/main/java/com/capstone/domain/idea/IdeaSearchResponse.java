@@ -0,0 +1,15 @@
+package com.capstone.domain.idea;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class IdeaSearchResponse {
+
+  private List<IdeaSearchHit> items;
+  private int page;
+  private int size;
+  private boolean hasNext;
+}
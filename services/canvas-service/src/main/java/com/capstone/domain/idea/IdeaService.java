@@ -10,14 +10,18 @@ import com.capstone.domain.canvas.Canvas;
 import com.capstone.domain.canvas.CanvasRepository;
 import com.capstone.domain.workspace.Workspace;
 import com.capstone.domain.workspace.WorkspaceRepository;
-import com.capstone.domain.workspace.WorkspaceService;
+import com.capstone.domain.workspace.ThumbnailRegenerationScheduler;
 import com.capstone.domain.workspaceUser.WorkspaceUserRepository;
 import com.capstone.domain.user.UserRepository;
 import com.capstone.global.exception.CustomException;
 import com.capstone.global.exception.ErrorCode;
+import com.capstone.global.service.FullTextQuery;
 import com.capstone.global.service.WebSocketService;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -29,6 +33,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class IdeaService {
 
   private static final String PRD_PIPELINE_MARKER = "[PRD_PIPELINE]";
+  /** JPQL LIKE 패턴 ('_' 를 '!' 로 이스케이프) — {@link #isInternalPrdPipelineContent} 와 같은 기준 */
+  private static final String PRD_PIPELINE_LIKE_PATTERN = "[PRD!_PIPELINE]%";
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int DEFAULT_SEARCH_SIZE = 20;
+  private static final int MAX_SEARCH_SIZE = 50;
+  /** 관련도순 정렬은 OFFSET 으로 넘기므로 깊은 페이지는 막음 */
+  private static final int MAX_SEARCH_OFFSET = 1_000;
 
   private final IdeaRepository ideaRepository;
   private final WorkspaceRepository workspaceRepository;
@@ -36,7 +48,9 @@ public class IdeaService {
   private final UserRepository userRepository;
   private final WorkspaceUserRepository workspaceUserRepository;
   private final WebSocketService webSocketService;
-  private final WorkspaceService workspaceService;
+  private final ThumbnailRegenerationScheduler thumbnailRegenerationScheduler;
+  private final IdeaSpatialIndex ideaSpatialIndex;
+  private final IdeaSearchRepository ideaSearchRepository;
 
   @Transactional
   public IdeaResponse createIdea(Long userId, IdeaRequest request) {
@@ -71,6 +85,8 @@ public class IdeaService {
     IdeaResponse response = IdeaResponse.from(ideaRepository.save(idea));
 
     if (!internalPrdPipelineIdea) {
+      ideaSpatialIndex.upsert(response);
+
       // WebSocket 브로드캐스트 (실패해도 API 응답은 성공 — STOMP/직렬화 이슈로 500 방지)
       try {
         webSocketService.broadcastIdeaChange(request.getWorkspaceId(), "created", response);
@@ -79,26 +95,118 @@ public class IdeaService {
       }
     }
 
-    // 썸네일 자동 갱신 (비동기)
-    try {
-      workspaceService.updateWorkspaceThumbnailIfNeeded(request.getWorkspaceId());
-    } catch (Exception e) {
-      log.warn("아이디어 생성 후 썸네일 갱신 실패 - workspaceId: {}, error: {}", 
-          request.getWorkspaceId(), e.getMessage());
-    }
+    // 썸네일 자동 갱신 (커밋 후 워크스페이스별로 모아서 백그라운드 렌더링)
+    thumbnailRegenerationScheduler.request(request.getWorkspaceId());
 
     return response;
   }
 
 
+  @Transactional(readOnly = true)
   public List<IdeaResponse> getAllIdeas(Long workspaceId) {
-    return ideaRepository.findAll().stream()
-        .filter(i -> i.getWorkspace().getWorkspaceId().equals(workspaceId))
-        .filter(i -> !isInternalPrdPipelineIdea(i))
+    return ideaRepository.findSummariesByWorkspaceId(workspaceId, PRD_PIPELINE_LIKE_PATTERN)
+        .stream()
         .map(IdeaResponse::from)
         .collect(Collectors.toList());
   }
 
+  /**
+   * 워크스페이스 아이디어 키셋 페이지 조회. {@code afterId} 가 null 이면 첫 페이지.
+   */
+  @Transactional(readOnly = true)
+  public IdeaPageResponse getIdeasPage(Long workspaceId, Long afterId, Integer size) {
+    int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    long cursor = afterId != null ? afterId : 0L;
+
+    // 한 건 더 읽어서 다음 페이지 존재 여부를 판단 (count 쿼리 없이)
+    List<IdeaSummary> rows = ideaRepository.findSummariesByWorkspaceIdAfter(
+        workspaceId, cursor, PRD_PIPELINE_LIKE_PATTERN, PageRequest.of(0, pageSize + 1));
+
+    boolean hasNext = rows.size() > pageSize;
+    List<IdeaSummary> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+    return IdeaPageResponse.builder()
+        .items(page.stream().map(IdeaResponse::from).collect(Collectors.toList()))
+        .nextCursor(hasNext ? page.get(page.size() - 1).getId() : null)
+        .hasNext(hasNext)
+        .build();
+  }
+
+  /**
+   * 워크스페이스 아이디어 전문 검색 (관련도순). 검색어의 모든 단어를 접두 일치로 포함하는 아이디어를 찾습니다.
+   *
+   * @param page 0 부터
+   */
+  @Transactional(readOnly = true)
+  public IdeaSearchResponse searchIdeas(Long workspaceId, String query, Integer page,
+      Integer size) {
+    int pageSize = size == null || size <= 0 ? DEFAULT_SEARCH_SIZE : Math.min(size, MAX_SEARCH_SIZE);
+    int pageIndex = page == null || page < 0 ? 0 : page;
+    long offset = (long) pageIndex * pageSize;
+    if (offset > MAX_SEARCH_OFFSET) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+    String tsQuery = FullTextQuery.toTsQuery(query);
+    if (tsQuery == null) {
+      return IdeaSearchResponse.builder().items(List.of()).page(pageIndex).size(pageSize).build();
+    }
+
+    List<IdeaSearchRepository.Match> matches = ideaSearchRepository.search(workspaceId, tsQuery,
+        pageSize + 1, (int) offset);
+    boolean hasNext = matches.size() > pageSize;
+    List<IdeaSearchRepository.Match> pageMatches = hasNext ? matches.subList(0, pageSize) : matches;
+    Map<Long, IdeaSummary> summaries = pageMatches.isEmpty() ? Map.of()
+        : ideaRepository.findSummariesByIdIn(
+                pageMatches.stream().map(IdeaSearchRepository.Match::id).toList())
+            .stream()
+            .collect(Collectors.toMap(IdeaSummary::getId, Function.identity()));
+
+    // 검색과 본문 조회 사이에 삭제된 아이디어는 건너뜀
+    List<IdeaSearchHit> items = pageMatches.stream()
+        .filter(m -> summaries.containsKey(m.id()))
+        .map(m -> IdeaSearchHit.builder()
+            .idea(IdeaResponse.from(summaries.get(m.id())))
+            .score(m.score())
+            .build())
+        .collect(Collectors.toList());
+    return IdeaSearchResponse.builder()
+        .items(items)
+        .page(pageIndex)
+        .size(pageSize)
+        .hasNext(hasNext)
+        .build();
+  }
+
+  /**
+   * 뷰포트(바운딩 박스)와 겹치는 아이디어만 조회. 경계가 비어 있으면 해당 캔버스 전체를 반환합니다.
+   */
+  @Transactional(readOnly = true)
+  public List<IdeaResponse> getIdeasInViewport(Long workspaceId, Long canvasId,
+      Double minX, Double minY, Double maxX, Double maxY) {
+    if (workspaceId == null) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+    double qMinX = minX != null ? minX : Double.NEGATIVE_INFINITY;
+    double qMinY = minY != null ? minY : Double.NEGATIVE_INFINITY;
+    double qMaxX = maxX != null ? maxX : Double.POSITIVE_INFINITY;
+    double qMaxY = maxY != null ? maxY : Double.POSITIVE_INFINITY;
+    if (qMinX > qMaxX || qMinY > qMaxY) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+
+    return ideaSpatialIndex.query(workspaceId, canvasId, qMinX, qMinY, qMaxX, qMaxY,
+        () -> loadCanvasIdeas(workspaceId, canvasId));
+  }
+
+  private List<IdeaResponse> loadCanvasIdeas(Long workspaceId, Long canvasId) {
+    List<IdeaSummary> rows = canvasId != null
+        ? ideaRepository.findSummariesByWorkspaceIdAndCanvasId(
+            workspaceId, canvasId, PRD_PIPELINE_LIKE_PATTERN)
+        : ideaRepository.findSummariesByWorkspaceIdWithoutCanvas(
+            workspaceId, PRD_PIPELINE_LIKE_PATTERN);
+    return rows.stream().map(IdeaResponse::from).collect(Collectors.toList());
+  }
+
   public IdeaResponse getIdea(Long ideaId) {
     Idea idea = ideaRepository.findById(ideaId)
         .orElseThrow(() -> new CustomException(NOT_FOUND_IDEA));
@@ -162,7 +270,11 @@ public class IdeaService {
 
     IdeaResponse response = IdeaResponse.from(idea);
 
-    if (!internalPrdPipelineIdea) {
+    if (internalPrdPipelineIdea) {
+      ideaSpatialIndex.remove(idea.getId());
+    } else {
+      ideaSpatialIndex.upsert(response);
+
       // WebSocket 브로드캐스트 (실패해도 API는 성공 — 직렬화/메시지 크기 등으로 500 방지)
       try {
         webSocketService.broadcastIdeaChange(idea.getWorkspace().getWorkspaceId(), "updated", response);
@@ -174,13 +286,8 @@ public class IdeaService {
       }
     }
 
-    // 썸네일 자동 갱신 (비동기)
-    try {
-      workspaceService.updateWorkspaceThumbnailIfNeeded(idea.getWorkspace().getWorkspaceId());
-    } catch (Exception e) {
-      log.warn("아이디어 수정 후 썸네일 갱신 실패 - workspaceId: {}, error: {}", 
-          idea.getWorkspace().getWorkspaceId(), e.getMessage());
-    }
+    // 썸네일 자동 갱신 (커밋 후 워크스페이스별로 모아서 백그라운드 렌더링)
+    thumbnailRegenerationScheduler.request(idea.getWorkspace().getWorkspaceId());
 
     return response;
   }
@@ -199,6 +306,7 @@ public class IdeaService {
     Long deletedIdeaId = idea.getId();
 
     ideaRepository.delete(idea);
+    ideaSpatialIndex.remove(deletedIdeaId);
 
     try {
       webSocketService.broadcastIdeaChange(workspaceId, "deleted", java.util.Map.of("id", deletedIdeaId));
@@ -206,12 +314,7 @@ public class IdeaService {
       log.warn("아이디어 삭제 브로드캐스트 실패 workspaceId={}: {}", workspaceId, e.getMessage());
     }
 
-    // 썸네일 자동 갱신 (비동기)
-    try {
-      workspaceService.updateWorkspaceThumbnailIfNeeded(workspaceId);
-    } catch (Exception e) {
-      log.warn("아이디어 삭제 후 썸네일 갱신 실패 - workspaceId: {}, error: {}", 
-          workspaceId, e.getMessage());
-    }
+    // 썸네일 자동 갱신 (커밋 후 워크스페이스별로 모아서 백그라운드 렌더링)
+    thumbnailRegenerationScheduler.request(workspaceId);
   }
 }
@@ -0,0 +1,374 @@
+package com.capstone.domain.idea;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 캔버스별 아이디어 패치의 메모리 격자(grid) 인덱스. 뷰포트(바운딩 박스) 조회 시 보이는 셀만 훑어서 전체 보드를
+ * 내려보내지 않도록 합니다.
+ *
+ * <p>캔버스 격자는 처음 조회될 때 DB 에서 적재하고, 이후에는 {@link IdeaService} 의 생성/수정/삭제에서
+ * {@link #upsert}/{@link #remove} 로 동기화합니다. 변경은 트랜잭션이 커밋된 뒤에 반영하므로 롤백된 변경은 인덱스에
+ * 남지 않습니다. 아직 적재되지 않은 캔버스에 대한 변경은 무시합니다 (다음 조회 때 DB 에서 최신 상태를 읽음).
+ * 적재된 캔버스 수가 상한을 넘으면 가장 오래 조회되지 않은 캔버스부터 버립니다.
+ *
+ * <p>적재(DB 조회)는 락 밖에서 하고, 적재하는 동안 커밋된 변경이 있으면 읽어 온 스냅샷에 빠졌을 수 있으므로 설치하지
+ * 않고 버립니다 (이번 조회는 스냅샷으로 응답하고 다음 조회 때 다시 적재). 다른 서비스·인스턴스가 바꾼 아이디어(워크스페이스
+ * 영구 삭제, 회원 탈퇴 등)는 알 수 없으므로 적재한 지 {@code max-age} 가 지난 격자는 버리고 다시 적재합니다 — 이런
+ * 변경은 최대 {@code max-age} 늦게 반영됩니다.
+ */
+@Slf4j
+@Component
+public class IdeaSpatialIndex {
+
+  private final double cellSize;
+  private final int maxCanvases;
+  private final long maxAgeNanos;
+
+  private final Map<CanvasKey, CanvasGrid> grids = new ConcurrentHashMap<>();
+  /** 아이디어가 어느 캔버스 격자에 들어 있는지 (캔버스 이동·삭제 시 이전 격자에서 빼기 위함) */
+  private final Map<Long, CanvasKey> locations = new ConcurrentHashMap<>();
+
+  public IdeaSpatialIndex(
+      @Value("${app.canvas.viewport-index.cell-size:512}") double cellSize,
+      @Value("${app.canvas.viewport-index.max-canvases:1024}") int maxCanvases,
+      @Value("${app.canvas.viewport-index.max-age:30s}") Duration maxAge) {
+    this.cellSize = cellSize > 0 ? cellSize : 512;
+    this.maxCanvases = Math.max(1, maxCanvases);
+    this.maxAgeNanos = maxAge.toNanos();
+  }
+
+  /**
+   * 뷰포트와 겹치는 아이디어 조회. 캔버스가 아직 적재되지 않았다면 {@code loader} 로 채웁니다.
+   */
+  public List<IdeaResponse> query(Long workspaceId, Long canvasId,
+      double minX, double minY, double maxX, double maxY,
+      Supplier<List<IdeaResponse>> loader) {
+    CanvasGrid grid = grid(new CanvasKey(workspaceId, canvasId), loader);
+    return grid.query(minX, minY, maxX, maxY);
+  }
+
+  /**
+   * 커밋된 아이디어를 적재된 캔버스 격자에 반영 (캔버스가 바뀌었으면 이전 격자에서 제거). 트랜잭션 안에서 부르면
+   * 커밋 후에 반영합니다.
+   */
+  public void upsert(IdeaResponse idea) {
+    if (idea == null || idea.getId() == null || idea.getWorkspaceId() == null) {
+      return;
+    }
+    afterCommit(() -> applyUpsert(idea));
+  }
+
+  /** 커밋된 삭제를 반영. 트랜잭션 안에서 부르면 커밋 후에 반영합니다 */
+  public void remove(Long ideaId) {
+    if (ideaId == null) {
+      return;
+    }
+    afterCommit(() -> applyRemove(ideaId));
+  }
+
+  private synchronized void applyUpsert(IdeaResponse idea) {
+    markLoadingDirty();
+    CanvasKey key = new CanvasKey(idea.getWorkspaceId(), idea.getCanvasId());
+    CanvasKey previous = locations.get(idea.getId());
+    if (previous != null && !previous.equals(key)) {
+      applyRemove(idea.getId());
+    }
+    CanvasGrid grid = grids.get(key);
+    if (grid != null && grid.loaded) {
+      grid.put(idea);
+      locations.put(idea.getId(), key);
+    }
+  }
+
+  private synchronized void applyRemove(Long ideaId) {
+    markLoadingDirty();
+    CanvasKey key = locations.remove(ideaId);
+    if (key == null) {
+      return;
+    }
+    CanvasGrid grid = grids.get(key);
+    if (grid != null) {
+      grid.remove(ideaId);
+    }
+  }
+
+  /**
+   * 적재 중인 격자의 스냅샷에 방금 커밋된 변경이 빠졌을 수 있음. 삭제는 어느 캔버스였는지 모를 수 있으므로 적재 중인
+   * 격자를 모두 표시합니다 (적재는 짧아 동시에 몇 개 없음).
+   */
+  private void markLoadingDirty() {
+    for (CanvasGrid grid : grids.values()) {
+      if (!grid.loaded) {
+        grid.dirty = true;
+      }
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private synchronized void evict(CanvasKey key) {
+    CanvasGrid grid = grids.remove(key);
+    if (grid != null) {
+      grid.ideaIds().forEach(id -> locations.remove(id, key));
+    }
+  }
+
+  int loadedCanvasCount() {
+    return grids.size();
+  }
+
+  private CanvasGrid grid(CanvasKey key, Supplier<List<IdeaResponse>> loader) {
+    CanvasGrid loading;
+    synchronized (this) {
+      CanvasGrid existing = grids.get(key);
+      if (existing != null && existing.loaded
+          && System.nanoTime() - existing.loadedAt > maxAgeNanos) {
+        // 다른 서비스·인스턴스의 변경을 반영하도록 버리고 다시 적재
+        evict(key);
+        existing = null;
+      }
+      if (existing != null && existing.loaded) {
+        existing.touch();
+        return existing;
+      }
+      if (existing == null) {
+        loading = new CanvasGrid(cellSize);
+        grids.put(key, loading);
+      } else {
+        // 다른 요청이 적재 중: 이번 요청은 DB 결과로만 응답
+        loading = null;
+      }
+    }
+
+    List<IdeaResponse> ideas;
+    try {
+      ideas = loader.get();
+    } catch (RuntimeException e) {
+      if (loading != null) {
+        synchronized (this) {
+          grids.remove(key, loading);
+        }
+      }
+      throw e;
+    }
+    CanvasGrid snapshot = loading != null ? loading : new CanvasGrid(cellSize);
+    for (IdeaResponse idea : ideas) {
+      snapshot.put(idea);
+    }
+    if (loading != null) {
+      install(key, loading);
+      log.debug("캔버스 뷰포트 인덱스 적재 - workspaceId={}, canvasId={}, ideas={}",
+          key.workspaceId(), key.canvasId(), ideas.size());
+    }
+    return snapshot;
+  }
+
+  private synchronized void install(CanvasKey key, CanvasGrid grid) {
+    if (grids.get(key) != grid) {
+      // 적재하는 사이 제거됨 (축출)
+      return;
+    }
+    if (grid.dirty) {
+      grids.remove(key);
+      return;
+    }
+    grid.ideaIds().forEach(id -> locations.put(id, key));
+    grid.loaded = true;
+    grid.loadedAt = System.nanoTime();
+    evictIfNeeded(key);
+  }
+
+  private void evictIfNeeded(CanvasKey keep) {
+    int overflow = grids.size() - maxCanvases;
+    if (overflow <= 0) {
+      return;
+    }
+    grids.entrySet().stream()
+        .filter(e -> !e.getKey().equals(keep))
+        .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+        .limit(overflow)
+        .map(Map.Entry::getKey)
+        .toList()
+        .forEach(this::evict);
+  }
+
+  private record CanvasKey(Long workspaceId, Long canvasId) {
+  }
+
+  /**
+   * 한 캔버스의 격자. 셀 좌표 (cx, cy) 를 long 하나로 묶어 키로 쓰고, 각 아이디어는 자신의 바운딩 박스가 걸치는 모든
+   * 셀에 등록됩니다.
+   */
+  private static final class CanvasGrid {
+
+    /** 이보다 많은 셀에 걸치는 패치는 셀에 넣지 않고 매 조회마다 직접 검사 */
+    private static final double MAX_CELLS_PER_ENTRY = 256;
+
+    private final double cellSize;
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final Set<Long> oversized = new HashSet<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile long lastAccess = System.nanoTime();
+    /** 적재가 끝나 변경을 받는 상태 (IdeaSpatialIndex 락 안에서만 바뀜) */
+    private volatile boolean loaded;
+    /** 적재 중에 변경이 커밋되어 스냅샷을 믿을 수 없음 */
+    private boolean dirty;
+    private long loadedAt;
+
+    CanvasGrid(double cellSize) {
+      this.cellSize = cellSize;
+    }
+
+    void touch() {
+      lastAccess = System.nanoTime();
+    }
+
+    synchronized Set<Long> ideaIds() {
+      return new HashSet<>(entries.keySet());
+    }
+
+    synchronized void put(IdeaResponse idea) {
+      removeInternal(idea.getId());
+      Entry entry = new Entry(idea);
+      entries.put(idea.getId(), entry);
+      if (cellCount(entry.minX, entry.minY, entry.maxX, entry.maxY) > MAX_CELLS_PER_ENTRY) {
+        oversized.add(idea.getId());
+        return;
+      }
+      forEachCell(entry.minX, entry.minY, entry.maxX, entry.maxY,
+          cell -> cells.computeIfAbsent(cell, c -> new HashSet<>()).add(idea.getId()));
+    }
+
+    synchronized void remove(Long ideaId) {
+      removeInternal(ideaId);
+    }
+
+    synchronized List<IdeaResponse> query(double minX, double minY, double maxX, double maxY) {
+      List<IdeaResponse> result = new ArrayList<>();
+      if (cellCount(minX, minY, maxX, maxY) >= entries.size()) {
+        // 뷰포트가 보드 전체보다 넓을 때는 셀 순회보다 전체 순회가 저렴
+        for (Entry entry : entries.values()) {
+          if (entry.intersects(minX, minY, maxX, maxY)) {
+            result.add(entry.idea);
+          }
+        }
+      } else {
+        Set<Long> seen = new HashSet<>();
+        for (Long id : oversized) {
+          Entry entry = entries.get(id);
+          if (seen.add(id) && entry.intersects(minX, minY, maxX, maxY)) {
+            result.add(entry.idea);
+          }
+        }
+        forEachCell(minX, minY, maxX, maxY, cell -> {
+          Set<Long> ids = cells.get(cell);
+          if (ids == null) {
+            return;
+          }
+          for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (seen.add(id) && entry.intersects(minX, minY, maxX, maxY)) {
+              result.add(entry.idea);
+            }
+          }
+        });
+      }
+      result.sort(Comparator.comparing(IdeaResponse::getId));
+      touch();
+      return result;
+    }
+
+    private void removeInternal(Long ideaId) {
+      Entry old = entries.remove(ideaId);
+      if (old == null) {
+        return;
+      }
+      if (oversized.remove(ideaId)) {
+        return;
+      }
+      forEachCell(old.minX, old.minY, old.maxX, old.maxY, cell -> {
+        Set<Long> ids = cells.get(cell);
+        if (ids != null) {
+          ids.remove(ideaId);
+          if (ids.isEmpty()) {
+            cells.remove(cell);
+          }
+        }
+      });
+    }
+
+    private void forEachCell(double minX, double minY, double maxX, double maxY,
+        LongConsumer action) {
+      long fromX = cellIndex(minX);
+      long toX = cellIndex(maxX);
+      long fromY = cellIndex(minY);
+      long toY = cellIndex(maxY);
+      for (long cx = fromX; cx <= toX; cx++) {
+        for (long cy = fromY; cy <= toY; cy++) {
+          action.accept((cx << 32) ^ (cy & 0xffffffffL));
+        }
+      }
+    }
+
+    private double cellCount(double minX, double minY, double maxX, double maxY) {
+      double spanX = Math.floor(maxX / cellSize) - Math.floor(minX / cellSize) + 1;
+      double spanY = Math.floor(maxY / cellSize) - Math.floor(minY / cellSize) + 1;
+      return spanX * spanY;
+    }
+
+    private long cellIndex(double coordinate) {
+      return (long) Math.floor(coordinate / cellSize);
+    }
+  }
+
+  private static final class Entry {
+
+    private final IdeaResponse idea;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    Entry(IdeaResponse idea) {
+      this.idea = idea;
+      this.minX = valueOrZero(idea.getPositionX());
+      this.minY = valueOrZero(idea.getPositionY());
+      this.maxX = minX + Math.max(0, valueOrZero(idea.getPatchSizeX()));
+      this.maxY = minY + Math.max(0, valueOrZero(idea.getPatchSizeY()));
+    }
+
+    boolean intersects(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+      return minX <= qMaxX && maxX >= qMinX && minY <= qMaxY && maxY >= qMinY;
+    }
+
+    private static double valueOrZero(Double value) {
+      return value != null && Double.isFinite(value) ? value : 0;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.capstone.domain.idea;
+
+import java.sql.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 캔버스 조회용 아이디어 프로젝션. {@link Idea} 엔티티를 그대로 읽으면 EAGER 인 workspace → owner, canvas →
+ * workspace 연관이 함께 로딩되므로, 목록 조회는 이 DTO 로 필요한 컬럼만 가져옵니다.
+ */
+@Getter
+@AllArgsConstructor
+public class IdeaSummary {
+
+  private Long id;
+  private Long workspaceId;
+  private Long canvasId;
+  private String content;
+  private Double patchSizeX;
+  private Double patchSizeY;
+  private Double positionX;
+  private Double positionY;
+  private Timestamp createdAt;
+  private Timestamp updatedAt;
+}
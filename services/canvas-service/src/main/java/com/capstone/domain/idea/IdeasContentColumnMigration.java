@@ -1,6 +1,7 @@
 package com.capstone.domain.idea;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,13 @@ public class IdeasContentColumnMigration implements ApplicationRunner {
     try (Connection c = dataSource.getConnection();
         Statement st = c.createStatement()) {
       c.setAutoCommit(true);
+      // 이미 TEXT 면 건너뜀 (content 를 참조하는 generated 컬럼이 있으면 타입 변경 자체가 거부됨)
+      try (ResultSet rs = st.executeQuery("SELECT data_type FROM information_schema.columns "
+          + "WHERE table_name = 'ideas' AND column_name = 'content'")) {
+        if (rs.next() && "text".equalsIgnoreCase(rs.getString(1))) {
+          return;
+        }
+      }
       st.execute("ALTER TABLE ideas ALTER COLUMN content TYPE TEXT USING content::text");
       log.info("ideas.content 컬럼을 TEXT 로 맞췄습니다.");
     } catch (Exception e) {
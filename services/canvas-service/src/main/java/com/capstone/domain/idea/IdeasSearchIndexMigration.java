@@ -0,0 +1,41 @@
+package com.capstone.domain.idea;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 아이디어 전문 검색 컬럼/인덱스. {@code search_vector} 는 content 에서 만드는 STORED generated 컬럼이라 아이디어
+ * 생성·수정 INSERT/UPDATE 와 같은 문장 안에서 색인이 갱신됩니다. content 가 TEXT 로 맞춰진 뒤
+ * ({@link IdeasContentColumnMigration}) 실행합니다.
+ *
+ * <p>기존 테이블에 처음 추가할 때는 테이블을 한 번 다시 씁니다(ACCESS EXCLUSIVE).
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class IdeasSearchIndexMigration implements ApplicationRunner {
+
+  private final DataSource dataSource;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    try (Connection c = dataSource.getConnection();
+        Statement st = c.createStatement()) {
+      c.setAutoCommit(true);
+      st.execute("ALTER TABLE ideas ADD COLUMN IF NOT EXISTS search_vector tsvector "
+          + "GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED");
+      st.execute("CREATE INDEX IF NOT EXISTS idx_ideas_search ON ideas USING GIN (search_vector)");
+      log.info("ideas 전문 검색 인덱스를 확인했습니다.");
+    } catch (Exception e) {
+      log.warn("ideas 전문 검색 인덱스 생성을 건너뜁니다: {}", e.getMessage());
+    }
+  }
+}
@@ -25,6 +25,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -108,7 +110,7 @@ public class WorkspaceService {
       String currentThumbnailUrl = workspace.getThumbnailUrl();
       boolean needsUpdate = currentThumbnailUrl == null || 
                            currentThumbnailUrl.trim().isEmpty() ||
-                           currentThumbnailUrl.contains("-default.png");
+                           FileStorageService.isDefaultThumbnailUrl(currentThumbnailUrl);
       
       if (needsUpdate) {
         try {
@@ -126,11 +128,16 @@ public class WorkspaceService {
                 workspace.getName(), workspace.getWorkspaceId());
           }
           
+          if (thumbnailUrl.equals(currentThumbnailUrl)) {
+            continue;
+          }
+
           // 영속성 컨텍스트에 연결된 엔티티로 다시 조회하여 저장
           Workspace managedWorkspace = workspaceRepository.findById(workspace.getWorkspaceId())
               .orElse(workspace);
           managedWorkspace.setThumbnailUrl(thumbnailUrl);
           workspaceRepository.saveAndFlush(managedWorkspace);
+          pruneThumbnailsAfterCommit(workspace.getWorkspaceId(), thumbnailUrl);
           
           // 반환 리스트의 엔티티도 업데이트
           workspace.setThumbnailUrl(thumbnailUrl);
@@ -423,9 +430,16 @@ public class WorkspaceService {
             workspace.getName(), workspace.getWorkspaceId());
       }
       
+      // 지문이 같아 같은 버전을 재사용했으면 저장·브로드캐스트 생략
+      if (thumbnailUrl.equals(workspace.getThumbnailUrl())) {
+        log.debug("워크스페이스 썸네일 변경 없음 - workspaceId: {}", workspaceId);
+        return;
+      }
+
       // 썸네일 URL 업데이트
       workspace.setThumbnailUrl(thumbnailUrl);
       workspaceRepository.saveAndFlush(workspace);
+      pruneThumbnailsAfterCommit(workspaceId, thumbnailUrl);
       
       log.info("워크스페이스 썸네일 자동 갱신 완료 - workspaceId: {}, thumbnailUrl: {}, 아이디어 수: {}", 
           workspaceId, thumbnailUrl, ideas != null ? ideas.size() : 0);
@@ -440,6 +454,20 @@ public class WorkspaceService {
     }
   }
 
+  /** 새 썸네일 URL 이 커밋된 뒤 이전 버전 파일을 정리 (롤백되면 이전 URL 이 계속 쓰이므로 남겨 둠) */
+  private void pruneThumbnailsAfterCommit(Long workspaceId, String thumbnailUrl) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      fileStorageService.pruneGeneratedThumbnails(workspaceId, thumbnailUrl);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        fileStorageService.pruneGeneratedThumbnails(workspaceId, thumbnailUrl);
+      }
+    });
+  }
+
   @Transactional
   public String updateThumbnail(Long workspaceId, MultipartFile file, Long userId) throws java.io.IOException {
     // owner를 함께 로드하여 조회
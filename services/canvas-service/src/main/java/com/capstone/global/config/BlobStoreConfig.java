@@ -0,0 +1,25 @@
+package com.capstone.global.config;
+
+import com.capstone.global.storage.BlobStore;
+import com.capstone.global.storage.LocalBlobStore;
+import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 썸네일 저장소. {@code app.storage.backend} 로 구현을 고르며, 지금은 로컬 디스크(local)만 있습니다. 키는
+ * {@code app.file.thumbnail-dir} 기준 상대 경로이고 storage-service 가 {@code /uploads/thumbnails/**} 로 서빙합니다.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+  public BlobStore thumbnailBlobStore(
+      @Value("${app.file.thumbnail-dir:./uploads/thumbnails}") String thumbnailDir,
+      @Value("${app.storage.local.object-dir:./data/blobs}") String objectDir) {
+    return new LocalBlobStore(Paths.get(thumbnailDir), Paths.get(objectDir));
+  }
+}
@@ -0,0 +1,50 @@
+package com.capstone.global.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * 사용자 검색어 → Postgres {@code to_tsquery('simple', ...)} 입력 변환.
+ *
+ * <p>글자·숫자가 아닌 문자는 모두 구분자로 보고 버리므로 tsquery 연산자(&amp;, |, !, :, 괄호)를 사용자가 주입할 수
+ * 없습니다. 각 단어는 접두 일치({@code :*})로 검색해 한국어 조사가 붙은 형태("회의는", "회의에서")도 "회의" 로
+ * 찾을 수 있게 하고, 모든 단어를 AND 로 묶습니다.
+ */
+public final class FullTextQuery {
+
+  /** 한 검색어에서 사용하는 최대 단어 수 */
+  public static final int MAX_TERMS = 8;
+  private static final int MAX_TERM_LENGTH = 64;
+
+  private FullTextQuery() {
+  }
+
+  /** @return tsquery 문자열, 검색할 단어가 없으면 null */
+  public static String toTsQuery(String input) {
+    if (input == null || input.isBlank()) {
+      return null;
+    }
+    Set<String> terms = new LinkedHashSet<>();
+    StringBuilder term = new StringBuilder();
+    for (int i = 0; i <= input.length() && terms.size() < MAX_TERMS; ) {
+      int codePoint = i < input.length() ? input.codePointAt(i) : ' ';
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (term.length() < MAX_TERM_LENGTH) {
+          term.appendCodePoint(codePoint);
+        }
+      } else if (!term.isEmpty()) {
+        terms.add(term.toString().toLowerCase(Locale.ROOT));
+        term.setLength(0);
+      }
+      i += i < input.length() ? Character.charCount(codePoint) : 1;
+    }
+    if (terms.isEmpty()) {
+      return null;
+    }
+    StringJoiner query = new StringJoiner(" & ");
+    terms.forEach(t -> query.add(t + ":*"));
+    return query.toString();
+  }
+}
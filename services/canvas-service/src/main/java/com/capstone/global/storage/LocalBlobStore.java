@@ -0,0 +1,391 @@
+package com.capstone.global.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 로컬 디스크 {@link BlobStore}.
+ *
+ * <p>내용은 {@code {objectDir}/ab/cd/abcd...} (SHA-256, 앞 두 바이트로 샤딩)에 한 벌만 두고, 키는 {@code {root}/{key}}
+ * 위치에 그 객체를 가리키는 하드 링크로 만듭니다. 그래서 같은 내용을 여러 키로 저장해도 디스크는 한 번만 쓰고,
+ * {@code root} 아래는 그대로 일반 파일 트리라 정적 서빙(storage-service {@code /uploads/**})도 바뀌지 않습니다.
+ * 하드 링크를 만들 수 없는 파일 시스템(다른 볼륨 등)이면 복사로 대신합니다.
+ *
+ * <p>쓰기는 {@code {objectDir}/tmp} 에 쓰면서 해시를 계산하고, 객체 이동과 키 교체 모두 같은 디렉토리 안의 rename
+ * 이라 중간 상태가 보이지 않습니다. 객체 파일은 읽기 전용으로 두어 한 키를 제자리에서 고쳐 쓰다 같은 내용의 다른
+ * 키까지 바뀌는 일을 막습니다. 같은 내용의 키들은 수정 시각도 공유하므로(한쪽을 다시 쓰거나 {@link #touch} 하면 함께
+ * 갱신) 수정 시각 기준 정리는 늦어질 수는 있어도 빨라지지는 않습니다. 키를 지워도 객체는 남으며(링크 수 1), 정리는 별도
+ * 작업의 몫입니다({@link #listUnreferencedObjects}, {@link #deleteUnreferencedObject}).
+ */
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+  /** 정리 작업과 겹쳐 객체·샤드 디렉토리가 사라졌을 때 다시 시도하는 횟수 */
+  private static final int MAX_PUT_ATTEMPTS = 3;
+  private static final Pattern OBJECT_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}");
+
+  private final Path root;
+  private final Path objectDir;
+  private final Path tempDir;
+  private volatile boolean hardLinks = true;
+
+  public LocalBlobStore(Path root, Path objectDir) {
+    this.root = root.toAbsolutePath().normalize();
+    this.objectDir = objectDir.toAbsolutePath().normalize();
+    this.tempDir = this.objectDir.resolve("tmp");
+  }
+
+  @Override
+  public String put(String key, BlobWriter writer) throws IOException {
+    Path target = resolve(key);
+    Files.createDirectories(tempDir);
+    Path temp = Files.createTempFile(tempDir, "put-", TEMP_SUFFIX);
+    try {
+      MessageDigest digest = sha256();
+      try (OutputStream out = new BufferedOutputStream(
+          new DigestOutputStream(Files.newOutputStream(temp), digest), WRITE_BUFFER_BYTES)) {
+        writer.writeTo(out);
+      }
+      String hash = HexFormat.of().formatHex(digest.digest());
+      Path object = objectPath(hash);
+      for (int attempt = 1; ; attempt++) {
+        if (!refresh(object)) {
+          Files.createDirectories(object.getParent());
+          makeReadOnly(temp);
+          try {
+            Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE);
+          } catch (FileAlreadyExistsException e) {
+            // 같은 내용을 다른 요청이 먼저 저장함
+          } catch (NoSuchFileException e) {
+            // 정리 작업이 빈 샤드 디렉토리를 방금 지운 경우
+            if (attempt >= MAX_PUT_ATTEMPTS) {
+              throw e;
+            }
+            continue;
+          }
+        }
+        try {
+          link(object, target);
+          return hash;
+        } catch (NoSuchFileException e) {
+          // 있던 객체를 정리 작업이 방금 지운 경우: 아직 임시 파일이 있으면 그것으로 다시 만듦
+          if (attempt >= MAX_PUT_ATTEMPTS || !Files.exists(temp)) {
+            throw e;
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  @Override
+  public Optional<InputStream> open(String key) throws IOException {
+    Path path = resolve(key);
+    if (!Files.isRegularFile(path)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Files.newInputStream(path));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public Optional<BlobInfo> stat(String key) throws IOException {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+      return attributes.isRegularFile()
+          ? Optional.of(new BlobInfo(key, attributes.size(), attributes.lastModifiedTime().toInstant()))
+          : Optional.empty();
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public List<BlobInfo> list(String prefix) throws IOException {
+    return list(prefix, null, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public List<BlobInfo> list(String prefix, String startAfter, int limit) throws IOException {
+    if (prefix.startsWith("/") || prefix.contains("\\") || prefix.contains("..")) {
+      throw new IllegalArgumentException("잘못된 저장소 접두어: " + prefix);
+    }
+    return walk(root, prefix, startAfter, limit, objectDir);
+  }
+
+  /**
+   * 어떤 키도 가리키지 않는(링크 수 1) 객체 중 {@code olderThan} 전에 마지막으로 쓰인 것. 객체 이름
+   * ({@code ab/cd/abcd...}) 순으로 {@code startAfter} 다음부터 최대 {@code limit} 개를 살펴봅니다. 링크 수를 알 수
+   * 없는 파일 시스템이면 빈 마지막 페이지입니다.
+   */
+  public ObjectPage listUnreferencedObjects(String startAfter, int limit, Instant olderThan)
+      throws IOException {
+    List<BlobInfo> page = walk(objectDir, "", startAfter, limit, tempDir);
+    List<BlobInfo> unreferenced = new ArrayList<>();
+    for (BlobInfo object : page) {
+      Integer links = linkCount(objectDir.resolve(object.key()));
+      if (links == null) {
+        return new ObjectPage(List.of(), page.size(), null);
+      }
+      if (links == 1 && object.lastModified().isBefore(olderThan)) {
+        unreferenced.add(object);
+      }
+    }
+    String next = page.size() < limit ? null : page.get(page.size() - 1).key();
+    return new ObjectPage(unreferenced, page.size(), next);
+  }
+
+  /**
+   * {@link #listUnreferencedObjects} 가 돌려준 객체를 지웁니다. 그사이 키가 생겼거나 다시 쓰였으면 지우지 않습니다.
+   * 지운 직후 같은 내용을 저장하는 요청은 객체를 새로 만듭니다.
+   *
+   * @return 지웠으면 true
+   */
+  public boolean deleteUnreferencedObject(String objectKey, Instant olderThan) throws IOException {
+    if (!OBJECT_KEY.matcher(objectKey).matches()) {
+      throw new IllegalArgumentException("잘못된 객체 이름: " + objectKey);
+    }
+    Path object = objectDir.resolve(objectKey);
+    try {
+      if (!Integer.valueOf(1).equals(linkCount(object))
+          || !Files.getLastModifiedTime(object).toInstant().isBefore(olderThan)) {
+        return false;
+      }
+      Files.delete(object);
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+    for (Path dir = object.getParent(); !dir.equals(objectDir); dir = dir.getParent()) {
+      try {
+        Files.deleteIfExists(dir);
+      } catch (DirectoryNotEmptyException e) {
+        break;
+      }
+    }
+    return true;
+  }
+
+  /** 쓰다가 프로세스가 죽어 남은 임시 파일 삭제 */
+  public int deleteStaleTempFiles(Instant olderThan) throws IOException {
+    if (!Files.isDirectory(tempDir)) {
+      return 0;
+    }
+    int deleted = 0;
+    try (DirectoryStream<Path> temps = Files.newDirectoryStream(tempDir, "*" + TEMP_SUFFIX)) {
+      for (Path temp : temps) {
+        try {
+          if (Files.getLastModifiedTime(temp).toInstant().isBefore(olderThan)
+              && Files.deleteIfExists(temp)) {
+            deleted++;
+          }
+        } catch (NoSuchFileException e) {
+          // 그사이 쓰기가 끝나 옮겨진 경우
+        }
+      }
+    }
+    return deleted;
+  }
+
+  /** 객체 정리 한 페이지: 살펴본 개수와 그중 지울 수 있는 객체, 다음 페이지 시작 위치 (null 이면 끝) */
+  public record ObjectPage(List<BlobInfo> unreferenced, int scanned, String next) {
+  }
+
+  @Override
+  public boolean touch(String key) throws IOException {
+    try {
+      Files.setLastModifiedTime(resolve(key), FileTime.from(Instant.now()));
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean delete(String key) throws IOException {
+    Path path = resolve(key);
+    if (!Files.deleteIfExists(path)) {
+      return false;
+    }
+    // 비게 된 상위 디렉토리 정리 (root 는 남김)
+    for (Path dir = path.getParent(); !dir.equals(root); dir = dir.getParent()) {
+      try {
+        Files.deleteIfExists(dir);
+      } catch (DirectoryNotEmptyException e) {
+        break;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * {@code base} 아래 파일을 키 순으로 {@code startAfter} 다음부터 최대 {@code limit} 개. 접두어와 겹치지 않거나
+   * 전부 {@code startAfter} 이전인 하위 디렉토리, 이미 모은 것보다 뒤에 오는 하위 디렉토리는 건너뜁니다.
+   */
+  private static List<BlobInfo> walk(Path base, String prefix, String startAfter, int limit,
+      Path exclude) throws IOException {
+    Path start = base.resolve(prefix.substring(0, prefix.lastIndexOf('/') + 1));
+    if (limit <= 0 || !Files.isDirectory(start)) {
+      return List.of();
+    }
+    TreeMap<String, BlobInfo> out = new TreeMap<>();
+    Files.walkFileTree(start, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (dir.equals(start)) {
+          return FileVisitResult.CONTINUE;
+        }
+        String dirKey = keyOf(base, dir) + "/";
+        boolean overlaps = dirKey.startsWith(prefix) || prefix.startsWith(dirKey);
+        boolean passed = startAfter != null && dirKey.compareTo(startAfter) < 0
+            && !startAfter.startsWith(dirKey);
+        boolean beyond = out.size() >= limit && dirKey.compareTo(out.lastKey()) > 0;
+        return overlaps && !passed && !beyond && !dir.equals(exclude)
+            ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        String key = keyOf(base, file);
+        if (attrs.isRegularFile() && key.startsWith(prefix) && !isTemp(file)
+            && (startAfter == null || key.compareTo(startAfter) > 0)) {
+          out.put(key, new BlobInfo(key, attrs.size(), attrs.lastModifiedTime().toInstant()));
+          if (out.size() > limit) {
+            out.pollLastEntry();
+          }
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException e) {
+        // 탐색 중 다른 요청이 지운 항목
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return new ArrayList<>(out.values());
+  }
+
+  /** 객체를 임시 링크로 만든 뒤 이름을 바꿔 키를 교체 */
+  private void link(Path object, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path temp = target.resolveSibling(
+        "." + target.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+    try {
+      if (hardLinks) {
+        try {
+          Files.createLink(temp, object);
+        } catch (NoSuchFileException e) {
+          throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+          hardLinks = false;
+          log.warn("하드 링크를 만들 수 없어 복사로 저장합니다 (중복 제거 안 됨): {} -> {}, error: {}",
+              objectDir, root, e.getMessage());
+          Files.copy(object, temp);
+        }
+      } else {
+        Files.copy(object, temp);
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private Path resolve(String key) {
+    if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("\\")) {
+      throw new IllegalArgumentException("잘못된 저장소 키: " + key);
+    }
+    for (String segment : key.split("/", -1)) {
+      if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+        throw new IllegalArgumentException("잘못된 저장소 키: " + key);
+      }
+    }
+    Path path = root.resolve(key).normalize();
+    if (!path.startsWith(root) || path.equals(root)) {
+      throw new IllegalArgumentException("잘못된 저장소 키: " + key);
+    }
+    return path;
+  }
+
+  private static String keyOf(Path base, Path path) {
+    return base.relativize(path).toString().replace('\\', '/');
+  }
+
+  private Path objectPath(String hash) {
+    return objectDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+  }
+
+  /** 이미 있으면 수정 시각을 갱신하고 true (이 키는 방금 쓴 것으로 보여야 함: 수정 시각 기준 정리·캐시 검증) */
+  private static boolean refresh(Path object) throws IOException {
+    try {
+      Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  /** 하드 링크 수 (없으면 0, 알 수 없는 파일 시스템이면 null) */
+  private static Integer linkCount(Path file) throws IOException {
+    try {
+      return (Integer) Files.getAttribute(file, "unix:nlink");
+    } catch (NoSuchFileException e) {
+      return 0;
+    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static boolean isTemp(Path file) {
+    return file.getFileName().toString().endsWith(TEMP_SUFFIX);
+  }
+
+  private static void makeReadOnly(Path file) throws IOException {
+    try {
+      Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("r--r--r--"));
+    } catch (UnsupportedOperationException e) {
+      // POSIX 권한이 없는 파일 시스템
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
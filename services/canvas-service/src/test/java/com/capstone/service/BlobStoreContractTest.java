@@ -0,0 +1,128 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 모든 {@link BlobStore} 구현이 지켜야 하는 동작. 구현(또는 S3 호환 저장소의 로컬 대체물)마다 상속해
+ * {@link #createStore()} 만 구현하면 됩니다.
+ */
+abstract class BlobStoreContractTest {
+
+  protected BlobStore store;
+
+  protected abstract BlobStore createStore() throws Exception;
+
+  @BeforeEach
+  void createStoreUnderTest() throws Exception {
+    store = createStore();
+  }
+
+  @Test
+  @DisplayName("저장한 내용을 스트림으로 읽고 SHA-256 을 돌려줌")
+  void putAndOpen() throws Exception {
+    String hash = store.put("a/b/hello.txt", bytes("hello"));
+
+    assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", hash);
+    assertEquals("hello", read("a/b/hello.txt"));
+    BlobInfo info = store.stat("a/b/hello.txt").orElseThrow();
+    assertEquals(5, info.size());
+    assertEquals("a/b/hello.txt", info.key());
+  }
+
+  @Test
+  @DisplayName("같은 키에 다시 쓰면 교체, 쓰기가 실패하면 기존 내용 유지")
+  void replaceAndFailedWrite() throws Exception {
+    store.put("doc.txt", bytes("v1"));
+    store.put("doc.txt", bytes("v2"));
+    assertEquals("v2", read("doc.txt"));
+
+    assertThrows(IOException.class, () -> store.put("doc.txt", out -> {
+      out.write("partial".getBytes(StandardCharsets.UTF_8));
+      throw new IOException("끊김");
+    }));
+    assertEquals("v2", read("doc.txt"));
+    assertThrows(IOException.class, () -> store.put("never.txt", out -> {
+      throw new IOException("끊김");
+    }));
+    assertTrue(store.stat("never.txt").isEmpty());
+  }
+
+  @Test
+  @DisplayName("접두어 목록은 하위 경로를 포함하고 키 순으로 정렬")
+  void listByPrefix() throws Exception {
+    for (String key : List.of("1/src/App.tsx", "1/index.html", "12/index.html", "1-x.txt")) {
+      store.put(key, bytes(key));
+    }
+
+    assertEquals(List.of("1/index.html", "1/src/App.tsx"), keys(store.list("1/")));
+    assertEquals(List.of("1-x.txt", "1/index.html", "1/src/App.tsx", "12/index.html"),
+        keys(store.list("1")));
+    assertEquals(List.of("1/src/App.tsx"), keys(store.list("1/src/A")));
+    assertTrue(store.list("2/").isEmpty());
+  }
+
+  @Test
+  @DisplayName("페이지 목록은 startAfter 다음 키부터 limit 개씩 이어짐")
+  void listInPages() throws Exception {
+    List<String> all = List.of("a/1.txt", "a/2.txt", "b/c/3.txt", "b/d.txt", "e.txt");
+    for (String key : all) {
+      store.put(key, bytes(key));
+    }
+
+    assertEquals(List.of("a/1.txt", "a/2.txt"), keys(store.list("", null, 2)));
+    assertEquals(List.of("b/c/3.txt", "b/d.txt"), keys(store.list("", "a/2.txt", 2)));
+    assertEquals(List.of("e.txt"), keys(store.list("", "b/d.txt", 2)));
+    assertTrue(store.list("", "e.txt", 2).isEmpty());
+    assertEquals(List.of("b/d.txt"), keys(store.list("b/", "b/c/3.txt", 10)));
+    assertEquals(List.of("b/c/3.txt", "b/d.txt"), keys(store.list("", "a/zzz", 2)));
+  }
+
+  @Test
+  @DisplayName("삭제·수정 시각 갱신은 없는 키에 대해 false")
+  void deleteAndTouch() throws Exception {
+    store.put("x/y.txt", bytes("y"));
+
+    assertTrue(store.touch("x/y.txt"));
+    assertTrue(store.delete("x/y.txt"));
+    assertFalse(store.delete("x/y.txt"));
+    assertFalse(store.touch("x/y.txt"));
+    assertTrue(store.open("x/y.txt").isEmpty());
+    assertTrue(store.list("x/").isEmpty());
+  }
+
+  @Test
+  @DisplayName("경로를 벗어나는 키는 거부")
+  void invalidKeys() {
+    for (String key : List.of("", "/abs", "../up", "a/../../b", "a//b", "a/./b", "a\\b")) {
+      assertThrows(IllegalArgumentException.class, () -> store.put(key, bytes("x")), key);
+    }
+  }
+
+  protected String read(String key) throws IOException {
+    Optional<InputStream> stream = store.open(key);
+    assertTrue(stream.isPresent(), key);
+    try (InputStream in = stream.get()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  protected static InputStream bytes(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<String> keys(List<BlobInfo> blobs) {
+    return blobs.stream().map(BlobInfo::key).toList();
+  }
+}
@@ -0,0 +1,294 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.Idea;
+import com.capstone.global.service.FileStorageService;
+import com.capstone.global.service.ThumbnailRenderer;
+import com.capstone.global.storage.LocalBlobStore;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class FileStorageServiceTest {
+
+  @TempDir
+  Path thumbnailDir;
+
+  @TempDir
+  Path objectDir;
+
+  private FileStorageService fileStorageService;
+
+  @BeforeEach
+  void setUp() {
+    fileStorageService = new FileStorageService(new ThumbnailRenderer(),
+        new LocalBlobStore(thumbnailDir, objectDir));
+    ReflectionTestUtils.setField(fileStorageService, "baseUrl", "http://localhost:8080/api");
+    ReflectionTestUtils.setField(fileStorageService, "uploadMaxBytes", 10L * 1024 * 1024);
+    ReflectionTestUtils.setField(fileStorageService, "uploadMaxPixels", 50_000_000L);
+  }
+
+  @Test
+  @DisplayName("보이는 입력이 같으면 같은 버전 URL 을 재사용하고 다시 렌더링하지 않음")
+  void sameInputsReuseVersion() throws Exception {
+    String first = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어")));
+    Path file = versionsDir().resolve(first.substring(first.lastIndexOf('/') + 1));
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+    long size = Files.size(file);
+
+    String second = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어")));
+
+    assertEquals(first, second);
+    assertTrue(first.matches(
+        "http://localhost:8080/api/uploads/thumbnails/versions/workspace-1-content-[0-9a-f]{16}\\.png"));
+    assertEquals(size, Files.size(file));
+    assertEquals(variants(first), versionFiles());
+  }
+
+  @Test
+  @DisplayName("위치나 내용이 바뀌면 새 URL")
+  void changedInputsProduceNewVersion() throws Exception {
+    String original = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어")));
+    String moved = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 40, 0, "아이디어")));
+    String edited = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 40, 0, "수정된 아이디어")));
+
+    assertNotEquals(original, moved);
+    assertNotEquals(moved, edited);
+    assertEquals(12, versionFiles().size());
+  }
+
+  @Test
+  @DisplayName("이전 버전과 예전 고정 이름 파일은 유예 시간이 지나면 정리")
+  void pruneKeepsCurrentAndRecentVersions() throws Exception {
+    String old = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어")));
+    Path legacy = Files.createFile(thumbnailDir.resolve("workspace-1-content.png"));
+    Path otherWorkspace = Files.createFile(thumbnailDir.resolve("workspace-12-content.png"));
+    List<Path> stale = Stream.concat(variants(old).stream().map(versionsDir()::resolve),
+        Stream.of(legacy, otherWorkspace)).toList();
+    for (Path path : stale) {
+      Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+    // 렌더링 결과도 달라야 함 (같은 내용은 저장소에서 파일 하나를 공유하므로 수정 시각도 공유)
+    String recent = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어"), idea(2L, 400, 300, "두 번째")));
+    String current = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어"), idea(2L, 400, 0, "세 번째")));
+
+    fileStorageService.pruneGeneratedThumbnails(1L, current);
+
+    assertEquals(Stream.concat(variants(current).stream(), variants(recent).stream()).sorted()
+        .toList(), versionFiles());
+    assertFalse(Files.exists(legacy));
+    assertTrue(Files.exists(otherWorkspace));
+  }
+
+  @Test
+  @DisplayName("작은·1x·2x 변형과 흐린 자리표시를 함께 생성")
+  void variantsAreGenerated() throws Exception {
+    String url = fileStorageService.generateWorkspaceContentThumbnail("캡스톤", 1L,
+        List.of(idea(1L, 0, 0, "아이디어"), idea(2L, 400, 300, "두 번째 아이디어")));
+
+    assertSize(url, ThumbnailRenderer.WIDTH, ThumbnailRenderer.HEIGHT);
+    assertSize(FileStorageService.generatedVariantUrl(url, FileStorageService.HI_DPI_SUFFIX),
+        ThumbnailRenderer.WIDTH * 2, ThumbnailRenderer.HEIGHT * 2);
+    assertSize(FileStorageService.generatedVariantUrl(url, FileStorageService.SMALL_SUFFIX),
+        ThumbnailRenderer.WIDTH / 2, ThumbnailRenderer.HEIGHT / 2);
+    String placeholder = FileStorageService.generatedVariantUrl(url,
+        FileStorageService.PLACEHOLDER_SUFFIX);
+    assertTrue(placeholder.endsWith("-placeholder.jpg"));
+    assertSize(placeholder, ThumbnailRenderer.WIDTH / 8, ThumbnailRenderer.HEIGHT / 8);
+    assertNull(FileStorageService.generatedVariantUrl(
+        "http://localhost:8080/api/uploads/thumbnails/workspace-1-0f8fad5b.png",
+        FileStorageService.HI_DPI_SUFFIX));
+  }
+
+  @Test
+  @DisplayName("기본 썸네일 URL 판별 (버전 붙은 이름과 예전 이름)")
+  void defaultThumbnailUrl() throws Exception {
+    String url = fileStorageService.generateDefaultThumbnail("캡스톤", 3L);
+
+    assertTrue(FileStorageService.isDefaultThumbnailUrl(url));
+    assertTrue(FileStorageService.isDefaultThumbnailUrl(
+        "/api/uploads/thumbnails/workspace-3-default.png"));
+    assertFalse(FileStorageService.isDefaultThumbnailUrl(
+        "/api/uploads/thumbnails/versions/workspace-3-content-0123456789abcdef.png"));
+    assertEquals(url, fileStorageService.generateDefaultThumbnail("캡스톤", 3L));
+  }
+
+  @Test
+  @DisplayName("업로드 사진은 가운데를 잘라 크기별 JPEG 로 줄이고 메타데이터는 버림")
+  void uploadIsDownscaledAndStripped() throws Exception {
+    BufferedImage photo = new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2d = photo.createGraphics();
+    g2d.setPaint(new GradientPaint(0, 0, Color.ORANGE, 3000, 1500, Color.BLUE));
+    g2d.fillRect(0, 0, 3000, 1500);
+    g2d.dispose();
+    ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+    ImageIO.write(photo, "jpeg", jpeg);
+    byte[] withComment = withJpegComment(jpeg.toByteArray(), "GPS 37.5665,126.9780");
+
+    String url = fileStorageService.saveThumbnail(upload("photo.png", withComment), 1L);
+
+    assertTrue(url.matches(
+        "http://localhost:8080/api/uploads/thumbnails/versions/workspace-1-upload-[0-9a-f]{32}\\.jpg"));
+    assertSize(url, ThumbnailRenderer.WIDTH, ThumbnailRenderer.HEIGHT);
+    assertSize(FileStorageService.generatedVariantUrl(url, FileStorageService.HI_DPI_SUFFIX),
+        ThumbnailRenderer.WIDTH * 2, ThumbnailRenderer.HEIGHT * 2);
+    assertSize(FileStorageService.generatedVariantUrl(url, FileStorageService.SMALL_SUFFIX),
+        ThumbnailRenderer.WIDTH / 2, ThumbnailRenderer.HEIGHT / 2);
+    assertEquals(variants(url), versionFiles());
+    for (String name : versionFiles()) {
+      byte[] stored = Files.readAllBytes(versionsDir().resolve(name));
+      assertFalse(new String(stored, StandardCharsets.ISO_8859_1).contains("GPS"), name);
+    }
+  }
+
+  @Test
+  @DisplayName("아주 큰 해상도도 건너뛰며 디코딩해 일정한 메모리로 처리")
+  void hugeUploadIsSubsampled() throws Exception {
+    ReflectionTestUtils.setField(fileStorageService, "uploadMaxPixels", 200_000_000L);
+
+    // 12000x9000 RGB 전체 디코딩이면 약 320MB
+    String url = fileStorageService.saveThumbnail(upload("huge.png", png(12_000, 9_000, true)), 1L);
+
+    assertSize(url, ThumbnailRenderer.WIDTH, ThumbnailRenderer.HEIGHT);
+  }
+
+  @Test
+  @DisplayName("크기 제한을 넘거나 손상·미지원 이미지는 거부하고 파일을 남기지 않음")
+  void invalidUploadsAreRejected() throws Exception {
+    ReflectionTestUtils.setField(fileStorageService, "uploadMaxBytes", 64L * 1024);
+
+    assertRejected(upload("big.jpg", new byte[64 * 1024 + 1]), "최대");
+    // 헤더만으로 50MP 초과 (픽셀 데이터 없이)
+    assertRejected(upload("bomb.png", png(10_000, 10_000, false)), "해상도");
+    assertRejected(upload("wide.png", png(40_000, 10, false)), "해상도");
+    assertRejected(upload("truncated.png", Arrays.copyOf(png(100, 100, true), 60)), "손상");
+    assertRejected(upload("text.png", "not an image".getBytes(StandardCharsets.UTF_8)), "이미지");
+    assertRejected(upload("photo.webp", "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)),
+        "이미지");
+    assertFalse(Files.exists(versionsDir()) && !versionFiles().isEmpty());
+  }
+
+  private void assertRejected(MockMultipartFile file, String message) {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> fileStorageService.saveThumbnail(file, 1L), file.getOriginalFilename());
+    assertTrue(e.getMessage().contains(message), e.getMessage());
+  }
+
+  private static MockMultipartFile upload(String name, byte[] content) {
+    return new MockMultipartFile("file", name, "application/octet-stream", content);
+  }
+
+  /** 단색 RGB PNG. withPixels 가 false 면 IHDR 만 있는 (크기만 주장하는) 파일 */
+  private static byte[] png(int width, int height, boolean withPixels) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+    ByteBuffer header = ByteBuffer.allocate(13).putInt(width).putInt(height)
+        .put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0);
+    chunk(out, "IHDR", header.array());
+    if (withPixels) {
+      ByteArrayOutputStream idat = new ByteArrayOutputStream();
+      try (DeflaterOutputStream deflate = new DeflaterOutputStream(idat)) {
+        byte[] row = new byte[1 + width * 3];
+        Arrays.fill(row, 1, row.length, (byte) 0x7f);
+        for (int y = 0; y < height; y++) {
+          deflate.write(row);
+        }
+      }
+      chunk(out, "IDAT", idat.toByteArray());
+      chunk(out, "IEND", new byte[0]);
+    }
+    return out.toByteArray();
+  }
+
+  private static void chunk(ByteArrayOutputStream out, String type, byte[] data) {
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    crc.update(data);
+    out.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+    out.writeBytes(typeBytes);
+    out.writeBytes(data);
+    out.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+  }
+
+  /** SOI 바로 뒤에 COM 세그먼트 삽입 */
+  private static byte[] withJpegComment(byte[] jpeg, String comment) {
+    byte[] text = comment.getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer buffer = ByteBuffer.allocate(jpeg.length + 4 + text.length);
+    buffer.put(jpeg, 0, 2).put((byte) 0xFF).put((byte) 0xFE).putShort((short) (text.length + 2))
+        .put(text).put(jpeg, 2, jpeg.length - 2);
+    return buffer.array();
+  }
+
+  private Idea idea(Long id, double x, double y, String content) {
+    return Idea.builder()
+        .id(id)
+        .positionX(x)
+        .positionY(y)
+        .patchSizeX(200.0)
+        .patchSizeY(100.0)
+        .content(content)
+        .build();
+  }
+
+  private void assertSize(String url, int width, int height) throws Exception {
+    BufferedImage image = ImageIO.read(versionsDir().resolve(fileName(url)).toFile());
+    assertEquals(width, image.getWidth());
+    assertEquals(height, image.getHeight());
+  }
+
+  /** 1x URL 과 같이 생성되는 변형 파일 이름 (정렬) */
+  private static List<String> variants(String url) {
+    return Stream.of(url,
+            FileStorageService.generatedVariantUrl(url, FileStorageService.SMALL_SUFFIX),
+            FileStorageService.generatedVariantUrl(url, FileStorageService.HI_DPI_SUFFIX),
+            FileStorageService.generatedVariantUrl(url, FileStorageService.PLACEHOLDER_SUFFIX))
+        .map(FileStorageServiceTest::fileName)
+        .sorted()
+        .toList();
+  }
+
+  private Path versionsDir() {
+    return thumbnailDir.resolve(FileStorageService.VERSIONED_THUMBNAIL_DIR);
+  }
+
+  private List<String> versionFiles() throws Exception {
+    try (Stream<Path> files = Files.list(versionsDir())) {
+      return files.map(f -> f.getFileName().toString()).sorted().toList();
+    }
+  }
+
+  private static String fileName(String url) {
+    return url.substring(url.lastIndexOf('/') + 1);
+  }
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 import com.capstone.domain.canvas.Canvas;
 import com.capstone.domain.canvas.CanvasRepository;
 import com.capstone.domain.idea.*;
+import com.capstone.domain.workspace.ThumbnailRegenerationScheduler;
 import com.capstone.domain.workspace.Workspace;
 import com.capstone.domain.workspace.WorkspaceRepository;
 import com.capstone.domain.workspaceUser.WorkspaceUser;
@@ -22,6 +23,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 class IdeaServiceTest {
 
@@ -43,6 +46,15 @@ class IdeaServiceTest {
   @Mock
   private WebSocketService webSocketService;
 
+  @Mock
+  private IdeaSpatialIndex ideaSpatialIndex;
+
+  @Mock
+  private IdeaSearchRepository ideaSearchRepository;
+
+  @Mock
+  private ThumbnailRegenerationScheduler thumbnailRegenerationScheduler;
+
   @InjectMocks
   private IdeaService ideaService;
 
@@ -122,6 +134,8 @@ class IdeaServiceTest {
     doNothing().when(webSocketService).broadcastIdeaChange(any(), any(), any());
 
     IdeaResponse response = ideaService.createIdea(user.getId(), request);
+    verify(ideaSpatialIndex).upsert(response);
+    verify(thumbnailRegenerationScheduler).request(workspace.getWorkspaceId());
     assertEquals(request.getContent(), response.getContent());
     assertEquals(request.getPatchSizeX(), savedIdea.getPatchSizeX());
     assertEquals(request.getPatchSizeY(), savedIdea.getPatchSizeY());
@@ -132,29 +146,77 @@ class IdeaServiceTest {
   @Test
   @DisplayName("아이디어 전체 조회 성공")
   void getAllIdeas() {
-    Idea idea1 = Idea.builder()
-        .id(1L)
-        .workspace(workspace)
-        .content("Idea 1")
-        .createdAt(now)
-        .updatedAt(now)
-        .build();
+    IdeaSummary idea1 = summary(1L, "Idea 1");
+    IdeaSummary idea2 = summary(2L, "Idea 2");
 
-    Idea idea2 = Idea.builder()
-        .id(2L)
-        .workspace(workspace)
-        .content("Idea 2")
-        .createdAt(now)
-        .updatedAt(now)
-        .build();
-
-    when(ideaRepository.findAll()).thenReturn(List.of(idea1, idea2));
+    when(ideaRepository.findSummariesByWorkspaceId(eq(workspace.getWorkspaceId()), anyString()))
+        .thenReturn(List.of(idea1, idea2));
 
     List<IdeaResponse> responses = ideaService.getAllIdeas(workspace.getWorkspaceId());
 
     assertEquals(2, responses.size());
     assertEquals("Idea 1", responses.get(0).getContent());
     assertEquals("Idea 2", responses.get(1).getContent());
+    verify(ideaRepository, never()).findAll();
+  }
+
+  @Test
+  @DisplayName("아이디어 키셋 페이지 조회 - 다음 페이지가 있으면 마지막 id 를 커서로 반환")
+  void getIdeasPageHasNext() {
+    when(ideaRepository.findSummariesByWorkspaceIdAfter(
+        eq(workspace.getWorkspaceId()), eq(10L), anyString(), any(Pageable.class)))
+        .thenReturn(List.of(summary(11L, "A"), summary(12L, "B"), summary(13L, "C")));
+
+    IdeaPageResponse page = ideaService.getIdeasPage(workspace.getWorkspaceId(), 10L, 2);
+
+    assertTrue(page.isHasNext());
+    assertEquals(2, page.getItems().size());
+    assertEquals(12L, page.getNextCursor());
+    verify(ideaRepository).findSummariesByWorkspaceIdAfter(
+        eq(workspace.getWorkspaceId()), eq(10L), anyString(), eq(PageRequest.of(0, 3)));
+  }
+
+  @Test
+  @DisplayName("아이디어 키셋 페이지 조회 - 마지막 페이지")
+  void getIdeasPageLastPage() {
+    when(ideaRepository.findSummariesByWorkspaceIdAfter(
+        eq(workspace.getWorkspaceId()), eq(0L), anyString(), any(Pageable.class)))
+        .thenReturn(List.of(summary(1L, "A")));
+
+    IdeaPageResponse page = ideaService.getIdeasPage(workspace.getWorkspaceId(), null, null);
+
+    assertFalse(page.isHasNext());
+    assertNull(page.getNextCursor());
+    assertEquals(1, page.getItems().size());
+  }
+
+  @Test
+  @DisplayName("아이디어 검색 - 관련도순을 유지하고 접두 일치 tsquery 로 조회")
+  void searchIdeasKeepsRankOrder() {
+    when(ideaSearchRepository.search(workspace.getWorkspaceId(), "회의:* & 안건:*", 3, 0))
+        .thenReturn(List.of(new IdeaSearchRepository.Match(12L, 0.9),
+            new IdeaSearchRepository.Match(11L, 0.5),
+            new IdeaSearchRepository.Match(13L, 0.1)));
+    when(ideaRepository.findSummariesByIdIn(List.of(12L, 11L)))
+        .thenReturn(List.of(summary(11L, "회의 안건 B"), summary(12L, "회의는 안건 A")));
+
+    IdeaSearchResponse result =
+        ideaService.searchIdeas(workspace.getWorkspaceId(), "회의 & 안건!", 0, 2);
+
+    assertTrue(result.isHasNext());
+    assertEquals(List.of(12L, 11L),
+        result.getItems().stream().map(hit -> hit.getIdea().getId()).toList());
+    assertEquals(0.9, result.getItems().get(0).getScore());
+  }
+
+  @Test
+  @DisplayName("아이디어 검색 - 단어가 없는 검색어는 DB 조회 없이 빈 결과")
+  void searchIdeasBlankQuery() {
+    IdeaSearchResponse result = ideaService.searchIdeas(workspace.getWorkspaceId(), " !:* ", null,
+        null);
+
+    assertTrue(result.getItems().isEmpty());
+    verifyNoInteractions(ideaSearchRepository);
   }
 
   @Test
@@ -252,6 +314,20 @@ class IdeaServiceTest {
     assertEquals(2.0, response.getPositionY());
   }
 
+  @Test
+  @DisplayName("뷰포트 조회 - 최소 좌표가 최대 좌표보다 크면 예외")
+  void getIdeasInViewportRejectsInvertedBounds() {
+    assertThrows(com.capstone.global.exception.CustomException.class,
+        () -> ideaService.getIdeasInViewport(workspace.getWorkspaceId(), canvas.getId(),
+            100.0, 0.0, 0.0, 100.0));
+    verifyNoInteractions(ideaSpatialIndex);
+  }
+
+  private IdeaSummary summary(Long id, String content) {
+    return new IdeaSummary(id, workspace.getWorkspaceId(), null, content,
+        null, null, null, null, now, now);
+  }
+
   @Test
   @DisplayName("아이디어 삭제 성공")
   void deleteIdea() {
@@ -264,6 +340,8 @@ class IdeaServiceTest {
     doNothing().when(webSocketService).broadcastIdeaChange(any(), any(), any());
 
     assertDoesNotThrow(() -> ideaService.deleteIdea(user.getId(), idea.getId()));
+    verify(thumbnailRegenerationScheduler).request(workspace.getWorkspaceId());
     verify(ideaRepository, times(1)).delete(idea);
+    verify(ideaSpatialIndex).remove(idea.getId());
   }
 }
@@ -0,0 +1,201 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.IdeaResponse;
+import com.capstone.domain.idea.IdeaSpatialIndex;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class IdeaSpatialIndexTest {
+
+  private static final Long WORKSPACE_ID = 1L;
+  private static final Long CANVAS_ID = 10L;
+
+  private IdeaSpatialIndex index;
+  private List<IdeaResponse> board;
+  private AtomicInteger loads;
+  private Supplier<List<IdeaResponse>> loader;
+
+  @BeforeEach
+  void setUp() {
+    index = new IdeaSpatialIndex(100, 16, Duration.ofMinutes(1));
+    board = new ArrayList<>();
+    loads = new AtomicInteger();
+    loader = () -> {
+      loads.incrementAndGet();
+      return board;
+    };
+  }
+
+  @Test
+  @DisplayName("뷰포트와 겹치는 패치만 반환")
+  void queryReturnsOnlyIntersectingIdeas() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 50, 50));
+    board.add(idea(2L, CANVAS_ID, 500, 500, 50, 50));
+    board.add(idea(3L, CANVAS_ID, 180, 180, 40, 40));
+
+    List<IdeaResponse> visible = index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 200, 200, loader);
+
+    assertEquals(List.of(1L, 3L), ids(visible));
+  }
+
+  @Test
+  @DisplayName("셀 경계에 걸친 패치도 한 번만 반환")
+  void ideaSpanningCellsIsReturnedOnce() {
+    board.add(idea(1L, CANVAS_ID, 90, 90, 30, 30));
+
+    List<IdeaResponse> visible = index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 150, 150, loader);
+
+    assertEquals(List.of(1L), ids(visible));
+  }
+
+  @Test
+  @DisplayName("캔버스는 한 번만 적재하고 이후 변경은 upsert/remove 로 반영")
+  void mutationsAreAppliedToLoadedCanvas() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+    index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader);
+
+    index.upsert(idea(2L, CANVAS_ID, 20, 20, 10, 10));
+    index.upsert(idea(1L, CANVAS_ID, 900, 900, 10, 10));
+
+    assertEquals(List.of(2L), ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+    assertEquals(List.of(1L), ids(index.query(WORKSPACE_ID, CANVAS_ID, 850, 850, 950, 950, loader)));
+
+    index.remove(2L);
+
+    assertTrue(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader).isEmpty());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  @DisplayName("다른 캔버스로 옮겨진 아이디어는 이전 캔버스에서 사라짐")
+  void movingIdeaToAnotherCanvasRemovesItFromPreviousGrid() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+    index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader);
+
+    index.upsert(idea(1L, 20L, 0, 0, 10, 10));
+
+    assertTrue(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader).isEmpty());
+  }
+
+  @Test
+  @DisplayName("아주 큰 패치와 경계 없는 뷰포트도 처리")
+  void handlesOversizedPatchesAndUnboundedViewport() {
+    board.add(idea(1L, CANVAS_ID, -1_000_000, -1_000_000, 2_000_000, 2_000_000));
+    board.add(idea(2L, CANVAS_ID, 5_000, 5_000, 10, 10));
+
+    assertEquals(List.of(1L),
+        ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+    assertEquals(List.of(1L, 2L), ids(index.query(WORKSPACE_ID, CANVAS_ID,
+        Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, loader)));
+  }
+
+  @Test
+  @DisplayName("트랜잭션 안의 변경은 커밋 후에만 반영되고 롤백되면 남지 않음")
+  void mutationsInsideTransactionApplyOnlyAfterCommit() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+    index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader);
+
+    List<TransactionSynchronization> rolledBack = inTransaction(() -> {
+      index.upsert(idea(2L, CANVAS_ID, 20, 20, 10, 10));
+      index.remove(1L);
+    });
+    rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    assertEquals(List.of(1L), ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+
+    List<TransactionSynchronization> committed = inTransaction(() ->
+        index.upsert(idea(2L, CANVAS_ID, 20, 20, 10, 10)));
+    assertEquals(List.of(1L), ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+    committed.forEach(TransactionSynchronization::afterCommit);
+    assertEquals(List.of(1L, 2L),
+        ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+  }
+
+  @Test
+  @DisplayName("적재하는 사이 커밋된 변경이 있으면 스냅샷을 설치하지 않고 다음 조회 때 다시 적재")
+  void commitDuringLoadDiscardsSnapshot() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+
+    List<IdeaResponse> first = index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, () -> {
+      List<IdeaResponse> snapshot = new ArrayList<>(board);
+      // DB 조회 직후, 설치 전에 다른 요청의 생성이 커밋됨
+      IdeaResponse created = idea(2L, CANVAS_ID, 20, 20, 10, 10);
+      board.add(created);
+      index.upsert(created);
+      return snapshot;
+    });
+
+    assertEquals(List.of(1L), ids(first));
+    assertEquals(List.of(1L, 2L),
+        ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  @DisplayName("적재 중 어느 캔버스인지 모르는 삭제가 커밋돼도 스냅샷을 버림")
+  void removeDuringLoadDiscardsSnapshot() {
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+
+    index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, () -> {
+      List<IdeaResponse> snapshot = new ArrayList<>(board);
+      board.clear();
+      index.remove(1L);
+      return snapshot;
+    });
+
+    assertTrue(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader).isEmpty());
+  }
+
+  @Test
+  @DisplayName("다른 서비스가 지운 아이디어는 max-age 가 지나 다시 적재하면 사라짐")
+  void expiredGridIsReloaded() throws InterruptedException {
+    index = new IdeaSpatialIndex(100, 16, Duration.ofMillis(50));
+    board.add(idea(1L, CANVAS_ID, 0, 0, 10, 10));
+    index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader);
+
+    // 워크스페이스 영구 삭제처럼 인덱스 모르게 DB 에서 지워짐
+    board.clear();
+    assertEquals(List.of(1L), ids(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader)));
+    Thread.sleep(80);
+
+    assertTrue(index.query(WORKSPACE_ID, CANVAS_ID, 0, 0, 100, 100, loader).isEmpty());
+    assertEquals(2, loads.get());
+  }
+
+  /** 트랜잭션 동기화를 켠 채 실행하고 등록된 콜백을 돌려줌 (커밋·롤백은 호출한 쪽이 흉내) */
+  private static List<TransactionSynchronization> inTransaction(Runnable action) {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      action.run();
+      return TransactionSynchronizationManager.getSynchronizations();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private IdeaResponse idea(Long id, Long canvasId, double x, double y, double w, double h) {
+    return IdeaResponse.builder()
+        .id(id)
+        .workspaceId(WORKSPACE_ID)
+        .canvasId(canvasId)
+        .positionX(x)
+        .positionY(y)
+        .patchSizeX(w)
+        .patchSizeY(h)
+        .build();
+  }
+
+  private List<Long> ids(List<IdeaResponse> ideas) {
+    return ideas.stream().map(IdeaResponse::getId).toList();
+  }
+}
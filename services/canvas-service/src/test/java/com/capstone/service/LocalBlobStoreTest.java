@@ -0,0 +1,147 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
+import com.capstone.global.storage.LocalBlobStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalBlobStoreTest extends BlobStoreContractTest {
+
+  @TempDir
+  Path root;
+
+  @TempDir
+  Path objectDir;
+
+  @Override
+  protected BlobStore createStore() {
+    return new LocalBlobStore(root, objectDir);
+  }
+
+  @Test
+  @DisplayName("같은 내용은 샤딩된 객체 하나를 공유하고 키는 일반 파일로 보임")
+  void identicalContentIsStoredOnce() throws Exception {
+    String hash = store.put("1/package.json", bytes("{}"));
+    assertEquals(hash, store.put("2/package.json", bytes("{}")));
+
+    Path object = objectDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    assertEquals(List.of(object), objects());
+    assertTrue(Files.isSameFile(object, root.resolve("1/package.json")));
+    assertTrue(Files.isSameFile(object, root.resolve("2/package.json")));
+    assertEquals(PosixFilePermissions.fromString("r--r--r--"),
+        Files.getPosixFilePermissions(root.resolve("1/package.json")));
+    assertEquals("{}", Files.readString(root.resolve("2/package.json")));
+
+    store.delete("1/package.json");
+    assertFalse(Files.exists(root.resolve("1")));
+    assertEquals("{}", read("2/package.json"));
+  }
+
+  @Test
+  @DisplayName("이미 있는 내용을 다시 써도 수정 시각은 새로 쓴 시점")
+  void rewriteRefreshesModifiedTime() throws Exception {
+    store.put("old.png", bytes("same"));
+    Files.setLastModifiedTime(root.resolve("old.png"),
+        FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+    store.put("new.png", bytes("same"));
+
+    Instant cutoff = Instant.now().minus(1, ChronoUnit.MINUTES);
+    assertTrue(store.stat("new.png").orElseThrow().lastModified().isAfter(cutoff));
+  }
+
+  @Test
+  @DisplayName("예전 방식으로 직접 쓴 파일도 키로 읽히고, 임시 파일은 목록에서 제외")
+  void legacyFilesAndTempFiles() throws Exception {
+    Files.createDirectories(root.resolve("versions"));
+    Files.writeString(root.resolve("workspace-1-content.png"), "legacy");
+    Files.writeString(root.resolve("versions/.workspace-1.png.0f8f.tmp"), "partial");
+
+    assertEquals("legacy", read("workspace-1-content.png"));
+    assertEquals(List.of("workspace-1-content.png"),
+        store.list("").stream().map(BlobInfo::key).toList());
+    assertTrue(store.list("versions/").isEmpty());
+  }
+
+  @Test
+  @DisplayName("어떤 키도 가리키지 않는 오래된 객체만 정리 대상이고, 지운 뒤 같은 내용을 다시 저장할 수 있음")
+  void unreferencedObjects() throws Exception {
+    LocalBlobStore local = (LocalBlobStore) store;
+    String kept = store.put("kept.txt", bytes("kept"));
+    String dropped = store.put("dropped.txt", bytes("dropped"));
+    store.delete("dropped.txt");
+    Instant future = Instant.now().plus(1, ChronoUnit.MINUTES);
+
+    LocalBlobStore.ObjectPage page = local.listUnreferencedObjects(null, 10, future);
+    assertEquals(2, page.scanned());
+    assertNull(page.next());
+    assertEquals(List.of(objectKey(dropped)),
+        page.unreferenced().stream().map(BlobInfo::key).toList());
+    assertTrue(local.listUnreferencedObjects(null, 10, Instant.now().minus(1, ChronoUnit.HOURS))
+        .unreferenced().isEmpty());
+
+    assertFalse(local.deleteUnreferencedObject(objectKey(kept), future));
+    assertTrue(local.deleteUnreferencedObject(objectKey(dropped), future));
+    assertEquals(1, objects().size());
+
+    store.put("again.txt", bytes("dropped"));
+    assertEquals("dropped", read("again.txt"));
+    assertEquals(2, objects().size());
+  }
+
+  @Test
+  @DisplayName("객체 정리 목록도 페이지로 이어짐")
+  void unreferencedObjectsInPages() throws Exception {
+    LocalBlobStore local = (LocalBlobStore) store;
+    for (int i = 0; i < 5; i++) {
+      store.put("k" + i, bytes("v" + i));
+      store.delete("k" + i);
+    }
+    Instant future = Instant.now().plus(1, ChronoUnit.MINUTES);
+
+    int seen = 0;
+    String cursor = null;
+    do {
+      LocalBlobStore.ObjectPage page = local.listUnreferencedObjects(cursor, 2, future);
+      seen += page.unreferenced().size();
+      cursor = page.next();
+    } while (cursor != null);
+    assertEquals(5, seen);
+  }
+
+  @Test
+  @DisplayName("오래된 임시 파일만 삭제")
+  void staleTempFiles() throws Exception {
+    Files.createDirectories(objectDir.resolve("tmp"));
+    Path stale = Files.writeString(objectDir.resolve("tmp/put-1.tmp"), "x");
+    Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+    Path fresh = Files.writeString(objectDir.resolve("tmp/put-2.tmp"), "y");
+
+    assertEquals(1, ((LocalBlobStore) store)
+        .deleteStaleTempFiles(Instant.now().minus(1, ChronoUnit.HOURS)));
+    assertFalse(Files.exists(stale));
+    assertTrue(Files.exists(fresh));
+  }
+
+  private static String objectKey(String hash) {
+    return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+  }
+
+  private List<Path> objects() throws Exception {
+    try (Stream<Path> files = Files.walk(objectDir)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+}
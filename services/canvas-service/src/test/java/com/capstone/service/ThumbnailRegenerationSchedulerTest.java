@@ -0,0 +1,125 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.capstone.domain.workspace.ThumbnailRegenerationScheduler;
+import com.capstone.domain.workspace.WorkspaceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ThumbnailRegenerationSchedulerTest {
+
+  private WorkspaceService workspaceService;
+  private SimpleMeterRegistry meterRegistry;
+  private ThumbnailRegenerationScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    workspaceService = mock(WorkspaceService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    scheduler = newScheduler(100, 400);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    scheduler.shutdown();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("같은 워크스페이스의 연속 요청은 한 번만 렌더링")
+  void burstIsCoalesced() {
+    for (int i = 0; i < 20; i++) {
+      scheduler.request(1L);
+    }
+    scheduler.request(2L);
+
+    verify(workspaceService, timeout(2_000)).updateWorkspaceThumbnailIfNeeded(1L);
+    verify(workspaceService, timeout(2_000)).updateWorkspaceThumbnailIfNeeded(2L);
+    verify(workspaceService, after(300).times(1)).updateWorkspaceThumbnailIfNeeded(1L);
+    assertEquals(19.0, requests("coalesced"));
+    assertEquals(2.0, requests("scheduled"));
+    assertEquals(0, scheduler.pendingCount());
+  }
+
+  @Test
+  @DisplayName("편집이 계속돼도 최대 지연 시간이 지나면 렌더링")
+  void maxDelayBoundsContinuousEdits() throws Exception {
+    long deadline = System.currentTimeMillis() + 1_000;
+    while (System.currentTimeMillis() < deadline) {
+      scheduler.request(1L);
+      Thread.sleep(20);
+    }
+
+    // debounce(100ms) 보다 짧은 간격으로 1초 동안 요청 → maxDelay(400ms) 마다 렌더링
+    verify(workspaceService, atLeast(2)).updateWorkspaceThumbnailIfNeeded(1L);
+  }
+
+  @Test
+  @DisplayName("렌더링 중 들어온 요청은 렌더링이 끝난 뒤 한 번 더 처리")
+  void requestDuringRenderIsNotLost() throws Exception {
+    CountDownLatch rendering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(inv -> {
+      rendering.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).doNothing().when(workspaceService).updateWorkspaceThumbnailIfNeeded(1L);
+
+    scheduler.request(1L);
+    assertTrue(rendering.await(2, TimeUnit.SECONDS));
+    scheduler.request(1L);
+    scheduler.request(1L);
+    release.countDown();
+
+    verify(workspaceService, timeout(2_000).times(2)).updateWorkspaceThumbnailIfNeeded(1L);
+    verify(workspaceService, after(300).times(2)).updateWorkspaceThumbnailIfNeeded(1L);
+  }
+
+  @Test
+  @DisplayName("트랜잭션 안의 요청은 커밋 후에만 접수")
+  void requestInsideTransactionWaitsForCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    scheduler.request(1L);
+    assertEquals(0, scheduler.pendingCount());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    TransactionSynchronizationManager.clearSynchronization();
+
+    assertEquals(1, scheduler.pendingCount());
+    verify(workspaceService, timeout(2_000)).updateWorkspaceThumbnailIfNeeded(1L);
+  }
+
+  @Test
+  @DisplayName("비활성화 시 호출 스레드에서 바로 렌더링")
+  void disabledRendersSynchronously() throws Exception {
+    scheduler.shutdown();
+    scheduler = new ThumbnailRegenerationScheduler(workspaceService, meterRegistry, false, 100,
+        400, 1, 4);
+
+    scheduler.request(1L);
+
+    verify(workspaceService).updateWorkspaceThumbnailIfNeeded(1L);
+    assertEquals(0, scheduler.pendingCount());
+  }
+
+  private ThumbnailRegenerationScheduler newScheduler(long debounceMs, long maxDelayMs) {
+    return new ThumbnailRegenerationScheduler(workspaceService, meterRegistry, true, debounceMs,
+        maxDelayMs, 1, 4);
+  }
+
+  private double requests(String result) {
+    return meterRegistry.counter("thumbnail.regen.requests", "result", result).count();
+  }
+}
@@ -0,0 +1,94 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.Idea;
+import com.capstone.global.service.ThumbnailRenderer;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ThumbnailRendererTest {
+
+  private final ThumbnailRenderer renderer = new ThumbnailRenderer(1);
+
+  @Test
+  @DisplayName("이미지 버퍼를 재사용해도 이전 렌더링 내용이 남지 않음")
+  void pooledImageIsReusedAndCleared() throws Exception {
+    List<BufferedImage> images = new ArrayList<>();
+    List<int[]> pixels = new ArrayList<>();
+    List<Idea> board = List.of(idea(1L, 0, 0, "첫 번째 아이디어"), idea(2L, 300, 200, "두 번째"));
+
+    renderer.renderContent(board, image -> {
+      images.add(image);
+      pixels.add(pixels(image));
+    });
+    renderer.renderDefault("캡스톤", 7L, image -> images.add(image));
+    renderer.renderContent(board, image -> {
+      images.add(image);
+      pixels.add(pixels(image));
+    });
+
+    assertSame(images.get(0), images.get(1));
+    assertSame(images.get(0), images.get(2));
+    assertEquals(ThumbnailRenderer.WIDTH, images.get(0).getWidth());
+    assertEquals(ThumbnailRenderer.HEIGHT, images.get(0).getHeight());
+    assertArrayEquals(pixels.get(0), pixels.get(1));
+  }
+
+  @Test
+  @DisplayName("위치가 있는 아이디어가 없으면 그리지 않음")
+  void nothingDrawable() throws Exception {
+    Idea unplaced = Idea.builder().id(1L).content("위치 없음").build();
+
+    assertFalse(renderer.renderContent(List.of(unplaced), image -> fail("호출되면 안 됨")));
+  }
+
+  @Test
+  @DisplayName("음수 좌표만 있는 보드도 캔버스 범위를 올바르게 계산")
+  void negativeCoordinates() throws Exception {
+    int[][] result = new int[1][];
+    assertTrue(renderer.renderContent(List.of(idea(1L, -900, -600, "왼쪽 위")),
+        image -> result[0] = pixels(image)));
+
+    int center = result[0][(ThumbnailRenderer.HEIGHT / 2) * ThumbnailRenderer.WIDTH
+        + ThumbnailRenderer.WIDTH / 2];
+    int corner = result[0][0];
+    assertNotEquals(corner, center);
+  }
+
+  @Test
+  @DisplayName("배율 렌더링과 반씩 줄이기")
+  void pixelRatioAndDownscale() throws Exception {
+    List<int[]> sizes = new ArrayList<>();
+    renderer.renderContent(List.of(idea(1L, 0, 0, "아이디어")), 2, hiDpi -> {
+      sizes.add(new int[] {hiDpi.getWidth(), hiDpi.getHeight()});
+      renderer.downscale(hiDpi, 16,
+          small -> sizes.add(new int[] {small.getWidth(), small.getHeight()}));
+    });
+
+    assertArrayEquals(new int[] {ThumbnailRenderer.WIDTH * 2, ThumbnailRenderer.HEIGHT * 2},
+        sizes.get(0));
+    assertArrayEquals(new int[] {ThumbnailRenderer.WIDTH / 8, ThumbnailRenderer.HEIGHT / 8},
+        sizes.get(1));
+    assertThrows(IllegalArgumentException.class, () -> renderer.downscale(
+        new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), 3, image -> { }));
+  }
+
+  private Idea idea(Long id, double x, double y, String content) {
+    return Idea.builder()
+        .id(id)
+        .positionX(x)
+        .positionY(y)
+        .patchSizeX(200.0)
+        .patchSizeY(100.0)
+        .content(content)
+        .build();
+  }
+
+  private static int[] pixels(BufferedImage image) {
+    return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+  }
+}
@@ -0,0 +1,115 @@
+package com.capstone.domain.chat;
+
+import com.capstone.global.service.FullTextQuery;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * 채팅 전문 검색 지연 시간 (p50/p99 는 SampleTime 결과의 p0.50/p0.99).
+ *
+ * <p>실제 Postgres 가 필요합니다. {@code search_bench} 스키마에 운영과 같은 generated 컬럼 + GIN 인덱스를 가진
+ * {@code chat_messages} 를 만들고 100만 건(워크스페이스 1 에 절반)을 한 번만 채운 뒤 재사용합니다.
+ * <pre>
+ * ./gradlew :services:chat-service:jmh -PjmhIncludes=ChatMessageSearchBenchmark \
+ *     -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/capstone_db \
+ *     -Dbench.jdbc.user=postgres -Dbench.jdbc.password=...
+ * </pre>
+ *
+ * <p>목표 (첫 페이지 20건, 워크스페이스 1 = 50만 건):
+ * <ul>
+ *   <li>드문 단어 (수십~수백 건 일치): p99 &lt; 20 ms</li>
+ *   <li>흔한 단어 (수만 건 일치, 전부 점수 계산 후 정렬): p99 &lt; 150 ms</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(1)
+public class ChatMessageSearchBenchmark {
+
+  private static final int CORPUS_SIZE = 1_000_000;
+
+  /** 흔한 단어(회의, 배포), 접두 일치(회의 → 회의는), 두 단어 AND, 드문 단어(w48123) */
+  @Param({"배포", "회의", "회의 일정", "w7", "w48123"})
+  private String query;
+
+  private ChatMessageSearchRepository repository;
+  private String tsQuery;
+
+  @Setup
+  public void setUp() {
+    SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+        System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/capstone_db"),
+        System.getProperty("bench.jdbc.user", "postgres"),
+        System.getProperty("bench.jdbc.password", ""), true);
+    Properties properties = new Properties();
+    properties.setProperty("currentSchema", "search_bench");
+    dataSource.setConnectionProperties(properties);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    seed(jdbcTemplate);
+    repository = new ChatMessageSearchRepository(jdbcTemplate);
+    tsQuery = FullTextQuery.toTsQuery(query);
+  }
+
+  @Benchmark
+  public List<ChatMessageDtos.SearchHit> firstPage() {
+    return repository.search(1L, tsQuery, 21, 0);
+  }
+
+  private static void seed(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS search_bench");
+    jdbcTemplate.execute("""
+        CREATE TABLE IF NOT EXISTS search_bench.chat_messages (
+          id bigint PRIMARY KEY,
+          workspace_id bigint NOT NULL,
+          user_id bigint NOT NULL,
+          content text NOT NULL,
+          message_type varchar(20) NOT NULL,
+          file_url varchar(255),
+          file_name varchar(255),
+          mime_type varchar(255),
+          file_size bigint,
+          created_at timestamp(6) with time zone NOT NULL,
+          search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple',
+              coalesce(content, '') || ' ' || coalesce(file_name, ''))) STORED
+        )""");
+    Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM search_bench.chat_messages",
+        Long.class);
+    if (rows != null && rows >= CORPUS_SIZE) {
+      return;
+    }
+    jdbcTemplate.execute("TRUNCATE search_bench.chat_messages");
+    // 메시지당 8~19 단어: 30% 는 흔한 업무 단어(조사 붙은 형태 포함), 나머지는 5만 개 어휘에서 멱분포로 선택
+    jdbcTemplate.execute("""
+        INSERT INTO search_bench.chat_messages
+            (id, workspace_id, user_id, content, message_type, created_at)
+        SELECT g,
+               CASE WHEN g % 2 = 0 THEN 1 ELSE 2 + g % 19 END,
+               1 + g % 50,
+               (SELECT string_agg(CASE WHEN random() < 0.3
+                          THEN (ARRAY['회의', '배포', '일정', '디자인', '버그', '리뷰', '회의는',
+                                      '배포는', '일정을', '테스트'])[1 + floor(random() * 10)::int]
+                          ELSE 'w' || floor(power(random(), 3) * 50000)::int END, ' ')
+                  FROM generate_series(1, 8 + g % 12)),
+               'text',
+               now() - make_interval(secs => g)
+        FROM generate_series(1, """ + CORPUS_SIZE + ") g");
+    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_bench_chat_messages_search "
+        + "ON search_bench.chat_messages USING GIN (search_vector)");
+    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_bench_chat_messages_workspace_created_id "
+        + "ON search_bench.chat_messages (workspace_id, created_at, id)");
+    jdbcTemplate.execute("ANALYZE search_bench.chat_messages");
+  }
+}
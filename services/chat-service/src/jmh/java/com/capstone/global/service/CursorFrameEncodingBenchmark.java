@@ -0,0 +1,90 @@
+package com.capstone.global.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 커서 프레임 직렬화 비교: 현재 JSON(Jackson) vs {@link CursorFrameCodec}.
+ * ns/op 는 프레임 하나 직렬화 시간이고, 프레임 크기(bytes/frame)는 각 trial 시작 시 한 번 출력합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CursorFrameEncodingBenchmark {
+
+  @Param({"1", "10", "50"})
+  private int users;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private CursorPositionDto single;
+  private CursorBatchDto batch;
+  private Map<Long, Integer> indexes;
+
+  @Setup
+  public void setUp() throws Exception {
+    List<CursorPositionDto> cursors = new ArrayList<>(users);
+    indexes = new HashMap<>();
+    for (int i = 0; i < users; i++) {
+      long userId = 10_000L + i;
+      cursors.add(CursorPositionDto.builder()
+          .workspaceId(42L)
+          .userId(userId)
+          .userName("사용자" + i)
+          .x(1024.5 + i * 3.25)
+          .y(768.25 + i * 1.5)
+          .timestamp(1_700_000_000_000L)
+          .build());
+      indexes.put(userId, i);
+    }
+    single = cursors.get(0);
+    batch = CursorBatchDto.builder()
+        .workspaceId(42L)
+        .cursors(cursors)
+        .idleUserIds(List.of())
+        .timestamp(1_700_000_000_000L)
+        .build();
+    printFrameSizes();
+  }
+
+  private void printFrameSizes() throws Exception {
+    System.out.printf("%n[bytes/frame] users=%d jsonPerMove=%d (x%d moves) jsonBatch=%d "
+            + "compactBatch=%d compactBatchText=%d%n",
+        users, jsonPerMove().length, users, jsonBatch().length, compactBatch().length,
+        compactBatchText().length());
+  }
+
+  /** 병합 이전 방식: 이동 이벤트마다 CursorPositionDto 한 개를 JSON 으로 전송 */
+  @Benchmark
+  public byte[] jsonPerMove() throws Exception {
+    return objectMapper.writeValueAsBytes(single);
+  }
+
+  @Benchmark
+  public byte[] jsonBatch() throws Exception {
+    return objectMapper.writeValueAsBytes(batch);
+  }
+
+  @Benchmark
+  public byte[] compactBatch() {
+    return CursorFrameCodec.encodeBatch(batch, userId -> indexes.getOrDefault(userId, 0));
+  }
+
+  /** STOMP(SockJS) 경로에서 실제로 나가는 Base64 텍스트 */
+  @Benchmark
+  public String compactBatchText() {
+    return CursorFrameCodec.toText(
+        CursorFrameCodec.encodeBatch(batch, userId -> indexes.getOrDefault(userId, 0)));
+  }
+}
@@ -9,7 +9,15 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", uniqueConstraints = {
+    // 재시도한 생성 요청이 같은 메시지를 두 번 만들지 않도록 (키가 없으면 NULL 이라 제약 대상 아님)
+    @UniqueConstraint(name = "uk_chat_messages_user_idempotency_key",
+        columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+    // 키셋 페이지네이션: (workspace_id, created_at, id) 순서로 이어 읽기
+    @Index(name = "idx_chat_messages_workspace_created_id", columnList = "workspace_id, created_at, id"),
+    @Index(name = "idx_chat_messages_user_created_id", columnList = "user_id, created_at, id")
+})
 public class ChatMessage {
 
   @Id
@@ -42,6 +50,10 @@ public class ChatMessage {
   @Column(name = "file_size")
   private Long fileSize;
 
+  /** 생성 요청의 Idempotency-Key (storage-service 조각 업로드는 uploadId) */
+  @Column(name = "idempotency_key", length = 64)
+  private String idempotencyKey;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private Instant createdAt = Instant.now();
 
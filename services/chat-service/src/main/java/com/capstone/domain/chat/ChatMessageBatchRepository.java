@@ -0,0 +1,15 @@
+package com.capstone.domain.chat;
+
+import java.util.List;
+
+/**
+ * {@link ChatMessageRepository} 의 배치 INSERT 조각(fragment). write-behind 저장에서 사용합니다.
+ */
+public interface ChatMessageBatchRepository {
+
+  /**
+   * 서버가 미리 할당한 id 로 한 번의 JDBC 배치 INSERT. 이미 저장된 id 는 건너뛰므로(ON CONFLICT DO NOTHING) 저널 재생
+   * 등으로 같은 메시지를 다시 넣어도 안전합니다.
+   */
+  void insertAll(List<PendingChatMessage> messages);
+}
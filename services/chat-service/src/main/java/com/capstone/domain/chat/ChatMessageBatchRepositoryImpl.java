@@ -0,0 +1,45 @@
+package com.capstone.domain.chat;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ChatMessageBatchRepositoryImpl implements ChatMessageBatchRepository {
+
+  private static final String INSERT_SQL = """
+      INSERT INTO chat_messages (id, workspace_id, user_id, content, message_type,
+                                 file_url, file_name, mime_type, file_size, created_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (id) DO NOTHING
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  ChatMessageBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<PendingChatMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, m) -> {
+      ps.setLong(1, m.getId());
+      ps.setLong(2, m.getWorkspaceId());
+      ps.setLong(3, m.getUserId());
+      ps.setString(4, m.getContent() != null ? m.getContent() : "");
+      ps.setString(5, m.getMessageType() != null ? m.getMessageType() : "text");
+      ps.setString(6, m.getFileUrl());
+      ps.setString(7, m.getFileName());
+      ps.setString(8, m.getMimeType());
+      if (m.getFileSize() != null) {
+        ps.setLong(9, m.getFileSize());
+      } else {
+        ps.setNull(9, Types.BIGINT);
+      }
+      ps.setTimestamp(10, Timestamp.from(m.getCreatedAt()));
+    });
+  }
+}
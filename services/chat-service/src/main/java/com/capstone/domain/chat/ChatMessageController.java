@@ -1,32 +1,73 @@
 package com.capstone.domain.chat;
 
+import com.capstone.global.service.SocketIOService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
 
+@Slf4j
 @RestController
 @RequestMapping("/v1/chat/messages")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
 public class ChatMessageController {
 
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final int MAX_IDEMPOTENCY_KEY_CHARS = 64;
+
   private final ChatMessageService chatMessageService;
+  private final ObjectMapper objectMapper;
+  private final ObjectProvider<SocketIOService> socketIOService;
 
-  public ChatMessageController(ChatMessageService chatMessageService) {
+  public ChatMessageController(ChatMessageService chatMessageService, ObjectMapper objectMapper,
+      ObjectProvider<SocketIOService> socketIOService) {
     this.chatMessageService = chatMessageService;
+    this.objectMapper = objectMapper;
+    this.socketIOService = socketIOService;
   }
 
   /**
    * 파일/이미지 메시지(JSON 메타) 생성 POST /v1/chat/messages/file
+   *
+   * <p>storage-service 의 조각 업로드 완료처럼 소켓 밖에서 만든 메시지도 워크스페이스 방에 {@code new_message} 로
+   * 알립니다 (Socket.IO 가 켜져 있을 때).
+   *
+   * <p>{@code Idempotency-Key} 헤더가 있으면 같은 사용자가 같은 키로 이미 만든 메시지를 새로 만들지 않고 그대로
+   * 돌려줍니다(알림도 다시 보내지 않음). 응답을 받지 못해 다시 보낸 요청이 메시지를 두 번 만들지 않게 합니다.
    */
   @PostMapping("/file")
   public ResponseEntity<ChatMessageDtos.Response> createFileMessage(
-      @RequestBody ChatMessageDtos.FileMessageRequest request) {
+      @RequestBody ChatMessageDtos.FileMessageRequest request,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
     if (request.getWorkspaceId() == null || request.getUserId() == null
         || request.getFileUrl() == null) {
       return ResponseEntity.badRequest().build();
     }
+    String key = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey.trim();
+    if (key != null && key.length() > MAX_IDEMPOTENCY_KEY_CHARS) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (key != null) {
+      Optional<ChatMessage> existing =
+          chatMessageService.findByIdempotencyKey(request.getUserId(), key);
+      if (existing.isPresent()) {
+        log.info("중복 파일 메시지 요청 - userId: {}, key: {}, messageId: {}", request.getUserId(),
+            key, existing.get().getMessageId());
+        return ResponseEntity.ok(toResponse(existing.get()));
+      }
+    }
 
     String messageType = request.getMessageType();
     if (messageType == null || (!"image".equals(messageType) && !"file".equals(messageType))) {
@@ -35,17 +76,48 @@ public class ChatMessageController {
               : "file";
     }
 
-    ChatMessage saved = chatMessageService.saveFileMessage(
-        request.getWorkspaceId(),
-        request.getUserId(),
-        request.getContent(),
-        messageType,
-        request.getFileUrl(),
-        request.getFileName(),
-        request.getMimeType(),
-        request.getFileSize()
-    );
+    ChatMessage saved;
+    if (key == null) {
+      saved = chatMessageService.saveFileMessage(
+          request.getWorkspaceId(),
+          request.getUserId(),
+          request.getContent(),
+          messageType,
+          request.getFileUrl(),
+          request.getFileName(),
+          request.getMimeType(),
+          request.getFileSize()
+      );
+    } else {
+      try {
+        saved = chatMessageService.saveFileMessage(
+            request.getWorkspaceId(),
+            request.getUserId(),
+            request.getContent(),
+            messageType,
+            request.getFileUrl(),
+            request.getFileName(),
+            request.getMimeType(),
+            request.getFileSize(),
+            key
+        );
+      } catch (DataIntegrityViolationException e) {
+        // 같은 키의 요청이 동시에 들어와 다른 쪽이 먼저 저장함
+        Optional<ChatMessage> existing =
+            chatMessageService.findByIdempotencyKey(request.getUserId(), key);
+        if (existing.isEmpty()) {
+          throw e;
+        }
+        return ResponseEntity.ok(toResponse(existing.get()));
+      }
+    }
+
+    ChatMessageDtos.Response resp = toResponse(saved);
+    broadcastNewMessage(resp);
+    return ResponseEntity.ok(resp);
+  }
 
+  private static ChatMessageDtos.Response toResponse(ChatMessage saved) {
     ChatMessageDtos.Response resp = new ChatMessageDtos.Response();
     resp.setMessageId(saved.getMessageId());
     resp.setWorkspaceId(saved.getWorkspaceId());
@@ -57,8 +129,7 @@ public class ChatMessageController {
     resp.setMimeType(saved.getMimeType());
     resp.setFileSize(saved.getFileSize());
     resp.setCreatedAt(saved.getCreatedAt());
-
-    return ResponseEntity.ok(resp);
+    return resp;
   }
   // multipart 업로드 방식은 제거 (JSON 메타 방식만 유지)
 
@@ -98,25 +169,41 @@ public class ChatMessageController {
 
   /**
    * 특정 워크스페이스의 채팅 메시지 목록 조회 GET /v1/chat/messages/workspace/{workspaceId}
+   *
+   * <p>전체 히스토리를 시간순으로 내려줍니다. 키셋 페이지 단위로 읽어 바로 응답 스트림에 쓰므로 전체 목록을 메모리에
+   * 올리지 않습니다. 클라이언트는 가급적 {@code /page} 를 사용하세요.
    */
   @GetMapping("/workspace/{workspaceId}")
-  public ResponseEntity<List<ChatMessageDtos.Response>> getMessagesByWorkspace(
-      @PathVariable Long workspaceId) {
-    List<ChatMessage> messages = chatMessageService.getMessagesByWorkspace(workspaceId);
-
-    List<ChatMessageDtos.Response> response = messages.stream()
-        .map(message -> {
-          ChatMessageDtos.Response dto = new ChatMessageDtos.Response();
-          dto.setMessageId(message.getMessageId());
-          dto.setWorkspaceId(message.getWorkspaceId());
-          dto.setUserId(message.getUser().getId());
-          dto.setContent(message.getContent());
-          dto.setCreatedAt(message.getCreatedAt());
-          return dto;
-        })
-        .collect(Collectors.toList());
+  public void getMessagesByWorkspace(@PathVariable Long workspaceId,
+      HttpServletResponse response) throws IOException {
+    streamPages(response, cursor -> chatMessageService.getMessagePage(workspaceId, cursor,
+        ChatMessageCursor.Direction.AFTER, ChatMessageService.MAX_PAGE_SIZE), true);
+  }
 
-    return ResponseEntity.ok(response);
+  /**
+   * 특정 워크스페이스의 채팅 히스토리 키셋 페이지 조회
+   * GET /v1/chat/messages/workspace/{workspaceId}/page?cursor=&direction=before|after&limit=50
+   */
+  @GetMapping("/workspace/{workspaceId}/page")
+  public ResponseEntity<ChatMessageDtos.PageResponse> getMessagePage(
+      @PathVariable Long workspaceId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String direction,
+      @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(chatMessageService.getMessagePage(workspaceId, cursor,
+        ChatMessageCursor.Direction.from(direction), limit));
+  }
+
+  /**
+   * 특정 워크스페이스의 채팅 메시지 검색 GET /v1/chat/messages/workspace/{workspaceId}/search?q=&page=0&size=20
+   */
+  @GetMapping("/workspace/{workspaceId}/search")
+  public ResponseEntity<ChatMessageDtos.SearchResponse> searchMessages(
+      @PathVariable Long workspaceId,
+      @RequestParam("q") String query,
+      @RequestParam(required = false) Integer page,
+      @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(chatMessageService.search(workspaceId, query, page, size));
   }
 
   /**
@@ -126,45 +213,19 @@ public class ChatMessageController {
   public ResponseEntity<List<ChatMessageDtos.Response>> getRecentMessages(
       @PathVariable Long workspaceId,
       @RequestParam(defaultValue = "10") int limit) {
-
-    List<ChatMessage> messages = chatMessageService.getRecentMessages(workspaceId, limit);
-
-    List<ChatMessageDtos.Response> response = messages.stream()
-        .map(message -> {
-          ChatMessageDtos.Response dto = new ChatMessageDtos.Response();
-          dto.setMessageId(message.getMessageId());
-          dto.setWorkspaceId(message.getWorkspaceId());
-          dto.setUserId(message.getUser().getId());
-          dto.setContent(message.getContent());
-          dto.setCreatedAt(message.getCreatedAt());
-          return dto;
-        })
-        .collect(Collectors.toList());
-
-    return ResponseEntity.ok(response);
+    return ResponseEntity.ok(chatMessageService.getRecentResponses(workspaceId, limit));
   }
 
   /**
    * 특정 사용자의 채팅 메시지 목록 조회 GET /v1/chat/messages/user/{userId}
+   *
+   * <p>최신순 전체 목록을 키셋 페이지 단위로 스트리밍합니다.
    */
   @GetMapping("/user/{userId}")
-  public ResponseEntity<List<ChatMessageDtos.Response>> getMessagesByUser(
-      @PathVariable Long userId) {
-    List<ChatMessage> messages = chatMessageService.getMessagesByUser(userId);
-
-    List<ChatMessageDtos.Response> response = messages.stream()
-        .map(message -> {
-          ChatMessageDtos.Response dto = new ChatMessageDtos.Response();
-          dto.setMessageId(message.getMessageId());
-          dto.setWorkspaceId(message.getWorkspaceId());
-          dto.setUserId(message.getUser().getId());
-          dto.setContent(message.getContent());
-          dto.setCreatedAt(message.getCreatedAt());
-          return dto;
-        })
-        .collect(Collectors.toList());
-
-    return ResponseEntity.ok(response);
+  public void getMessagesByUser(@PathVariable Long userId, HttpServletResponse response)
+      throws IOException {
+    streamPages(response, cursor -> chatMessageService.getUserMessagePage(userId, cursor,
+        ChatMessageService.MAX_PAGE_SIZE), false);
   }
 
   /**
@@ -181,4 +242,47 @@ public class ChatMessageController {
 
     return ResponseEntity.ok(response);
   }
+
+  private void broadcastNewMessage(ChatMessageDtos.Response response) {
+    SocketIOService socket = socketIOService.getIfAvailable();
+    if (socket == null) {
+      return;
+    }
+    try {
+      socket.broadcastToWorkspace(String.valueOf(response.getWorkspaceId()), "new_message",
+          objectMapper.writeValueAsString(response));
+    } catch (JsonProcessingException | RuntimeException e) {
+      // 메시지는 이미 저장됨. 다른 참여자는 다음 조회 때 받음
+      log.warn("파일 메시지 브로드캐스트 실패 - messageId: {}, error: {}", response.getMessageId(),
+          e.getMessage());
+    }
+  }
+
+  /**
+   * 페이지를 하나씩 읽어 JSON 배열로 바로 씁니다. 페이지마다 별도 읽기 트랜잭션이라 느린 클라이언트가 DB 커넥션을
+   * 붙잡지 않습니다. 첫 페이지는 응답을 쓰기 전에 읽어 조회 오류가 정상적인 에러 응답으로 나가게 합니다.
+   *
+   * @param forward true 면 afterCursor, false 면 beforeCursor 로 이어 읽음
+   */
+  private void streamPages(HttpServletResponse response,
+      Function<String, ChatMessageDtos.PageResponse> fetch, boolean forward) throws IOException {
+    ChatMessageDtos.PageResponse page = fetch.apply(null);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    try (JsonGenerator generator = objectMapper.getFactory()
+        .createGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+      while (true) {
+        for (ChatMessageDtos.Response item : page.getItems()) {
+          generator.writeObject(item);
+        }
+        generator.flush();
+        if (!page.isHasMore()) {
+          break;
+        }
+        page = fetch.apply(forward ? page.getAfterCursor() : page.getBeforeCursor());
+      }
+      generator.writeEndArray();
+    }
+  }
 }
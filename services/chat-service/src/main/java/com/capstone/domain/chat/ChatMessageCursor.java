@@ -0,0 +1,76 @@
+package com.capstone.domain.chat;
+
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * 채팅 히스토리 키셋 커서. {@code (created_at, id)} 위치를 Base64url 토큰으로 감싸 클라이언트에는 불투명 문자열로만
+ * 노출합니다. 토큰 앞 1바이트는 포맷 버전입니다.
+ *
+ * @param createdAt 경계 메시지의 생성 시각
+ * @param messageId 경계 메시지 id (같은 시각 메시지의 순서 결정)
+ */
+public record ChatMessageCursor(Instant createdAt, Long messageId) {
+
+  private static final byte VERSION = 1;
+  private static final int LENGTH = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+  /** 페이지 조회 방향 */
+  public enum Direction {
+    /** 커서보다 오래된 메시지 */
+    BEFORE,
+    /** 커서보다 새로운 메시지 */
+    AFTER;
+
+    /** {@code before|after} (대소문자 무시), 비어 있으면 BEFORE */
+    public static Direction from(String value) {
+      if (value == null || value.isBlank()) {
+        return BEFORE;
+      }
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new CustomException(ErrorCode.BAD_REQUEST);
+      }
+    }
+  }
+
+  public static ChatMessageCursor of(ChatMessageView view) {
+    return new ChatMessageCursor(view.getCreatedAt(), view.getMessageId());
+  }
+
+  public String encode() {
+    ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+        .put(VERSION)
+        .putLong(createdAt.getEpochSecond())
+        .putInt(createdAt.getNano())
+        .putLong(messageId);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  /**
+   * @return 토큰이 비어 있으면 null
+   * @throws CustomException {@link ErrorCode#INVALID_CURSOR} 형식이 맞지 않는 토큰
+   */
+  public static ChatMessageCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      byte[] bytes = Base64.getUrlDecoder().decode(token.trim());
+      if (bytes.length != LENGTH || bytes[0] != VERSION) {
+        throw new CustomException(ErrorCode.INVALID_CURSOR);
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+      Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+      return new ChatMessageCursor(createdAt, buffer.getLong());
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new CustomException(ErrorCode.INVALID_CURSOR);
+    }
+  }
+}
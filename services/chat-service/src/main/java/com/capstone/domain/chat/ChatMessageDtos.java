@@ -1,6 +1,8 @@
 package com.capstone.domain.chat;
 
 import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -82,4 +84,49 @@ public class ChatMessageDtos {
     private long messageCount;
 
   }
+
+  /**
+   * 키셋 페이지 응답 DTO. 커서는 불투명 토큰이며 그대로 다시 넘기면 됩니다.
+   */
+  @Getter
+  @Builder
+  public static class PageResponse {
+
+    /** 워크스페이스 히스토리는 시간순(오래된 → 최신), 사용자 히스토리는 최신순 */
+    private List<Response> items;
+    /** 더 오래된 메시지 요청용 커서 (direction=before). 더 없으면 null */
+    private String beforeCursor;
+    /** 더 새로운 메시지 요청용 커서 (direction=after). 이후 새 메시지 폴링에도 사용 */
+    private String afterCursor;
+    /** 요청한 방향으로 더 가져올 메시지가 있는지 */
+    private boolean hasMore;
+
+  }
+
+  /**
+   * 검색 결과 한 건 DTO
+   */
+  @Setter
+  @Getter
+  public static class SearchHit {
+
+    private Response message;
+    /** 관련도 점수 (ts_rank_cd). 같은 검색 결과 안에서만 비교 가능 */
+    private double score;
+
+  }
+
+  /**
+   * 채팅 검색 응답 DTO (관련도순 페이지)
+   */
+  @Getter
+  @Builder
+  public static class SearchResponse {
+
+    private List<SearchHit> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+  }
 }
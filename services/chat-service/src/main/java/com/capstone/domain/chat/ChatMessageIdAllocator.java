@@ -0,0 +1,36 @@
+package com.capstone.domain.chat;
+
+import com.capstone.global.config.AppProperties;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * write-behind 메시지 id 할당기. chat_messages.id 의 identity 시퀀스에서 블록 단위로 미리 받아 두므로, 동기 저장
+ * 경로(IDENTITY)와 같은 시퀀스를 공유해 id 가 겹치지 않고 여러 인스턴스에서도 유일합니다.
+ */
+@Component
+public class ChatMessageIdAllocator {
+
+  private static final String RESERVE_SQL =
+      "SELECT nextval(pg_get_serial_sequence('chat_messages', 'id')) FROM generate_series(1, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int blockSize;
+  private final Deque<Long> reserved = new ArrayDeque<>();
+
+  public ChatMessageIdAllocator(JdbcTemplate jdbcTemplate, AppProperties appProperties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.blockSize = Math.max(1, appProperties.getChat().getWriteBehind().getIdBlockSize());
+  }
+
+  public synchronized long nextId() {
+    if (reserved.isEmpty()) {
+      List<Long> block = jdbcTemplate.queryForList(RESERVE_SQL, Long.class, blockSize);
+      reserved.addAll(block.stream().sorted().toList());
+    }
+    return reserved.removeFirst();
+  }
+}
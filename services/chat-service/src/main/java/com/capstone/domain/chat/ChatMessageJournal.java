@@ -0,0 +1,187 @@
+package com.capstone.domain.chat;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * write-behind 채팅 메시지 저널(WAL). 메시지는 브로드캐스트 전에 현재 세그먼트 파일에 JSON 한 줄로 추가되고, 세그먼트에
+ * 담긴 메시지가 모두 DB 에 저장되면 그 파일을 지웁니다. 프로세스가 저장 전에 죽으면 다음 기동 때 {@link #recover()} 로
+ * 남은 세그먼트를 다시 읽어 저장합니다.
+ *
+ * <p>세그먼트 파일명은 {@code chat-<번호>.wal}. 마지막 줄이 쓰다 만 상태(크래시)면 그 줄만 버립니다.
+ */
+@Slf4j
+class ChatMessageJournal implements AutoCloseable {
+
+  private static final String PREFIX = "chat-";
+  private static final String SUFFIX = ".wal";
+
+  private final Path dir;
+  private final boolean fsync;
+  private final int segmentMaxEntries;
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  /** 세그먼트 번호 → 아직 저장되지 않은 메시지 수 */
+  private final Map<Long, Integer> pending = new HashMap<>();
+  private long currentSegment;
+  private int currentEntries;
+  private FileChannel channel;
+
+  ChatMessageJournal(Path dir, boolean fsync, int segmentMaxEntries) {
+    this.dir = dir;
+    this.fsync = fsync;
+    this.segmentMaxEntries = Math.max(1, segmentMaxEntries);
+    try {
+      Files.createDirectories(dir);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 남아 있는 세그먼트의 메시지를 읽어 반환하고, 새 세그먼트를 엽니다. 반환된 메시지는 세그먼트 번호와 함께
+   * 미저장으로 집계되므로 저장 후 {@link #committed} 를 호출해야 파일이 지워집니다.
+   */
+  synchronized List<Recovered> recover() throws IOException {
+    List<Recovered> recovered = new ArrayList<>();
+    long maxSegment = 0;
+    for (Path file : segmentFiles()) {
+      long segment = segmentNumber(file);
+      maxSegment = Math.max(maxSegment, segment);
+      int count = 0;
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) {
+            continue;
+          }
+          try {
+            recovered.add(new Recovered(segment,
+                objectMapper.readValue(line, PendingChatMessage.class)));
+            count++;
+          } catch (IOException e) {
+            log.warn("채팅 저널 손상된 줄 무시 - file={}: {}", file.getFileName(), e.getMessage());
+          }
+        }
+      }
+      if (count == 0) {
+        Files.deleteIfExists(file);
+      } else {
+        pending.put(segment, count);
+      }
+    }
+    openSegment(maxSegment + 1);
+    return recovered;
+  }
+
+  /** 메시지를 현재 세그먼트에 추가하고 그 세그먼트 번호를 반환 */
+  synchronized long append(PendingChatMessage message) throws IOException {
+    if (channel == null) {
+      throw new IllegalStateException("journal is not open");
+    }
+    if (currentEntries >= segmentMaxEntries) {
+      rotate();
+    }
+    byte[] line = (objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(line);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    if (fsync) {
+      channel.force(false);
+    }
+    currentEntries++;
+    pending.merge(currentSegment, 1, Integer::sum);
+    return currentSegment;
+  }
+
+  /** 세그먼트의 메시지 {@code count} 건이 DB 에 저장됨. 닫힌 세그먼트가 모두 저장되면 파일 삭제 */
+  synchronized void committed(long segment, int count) {
+    Integer left = pending.computeIfPresent(segment, (s, n) -> n - count > 0 ? n - count : null);
+    if (left == null && segment != currentSegment) {
+      delete(segment);
+    }
+  }
+
+  synchronized int pendingCount() {
+    return pending.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    channel.close();
+    channel = null;
+    if (!pending.containsKey(currentSegment)) {
+      delete(currentSegment);
+    }
+  }
+
+  private void rotate() throws IOException {
+    channel.close();
+    long previous = currentSegment;
+    openSegment(currentSegment + 1);
+    if (!pending.containsKey(previous)) {
+      delete(previous);
+    }
+  }
+
+  private void openSegment(long segment) throws IOException {
+    currentSegment = segment;
+    currentEntries = 0;
+    channel = FileChannel.open(segmentPath(segment),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void delete(long segment) {
+    try {
+      Files.deleteIfExists(segmentPath(segment));
+    } catch (IOException e) {
+      log.warn("채팅 저널 세그먼트 삭제 실패 - segment={}: {}", segment, e.getMessage());
+    }
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files
+          .filter(f -> f.getFileName().toString().startsWith(PREFIX)
+              && f.getFileName().toString().endsWith(SUFFIX))
+          .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+          .toList();
+    }
+  }
+
+  private Path segmentPath(long segment) {
+    return dir.resolve(PREFIX + segment + SUFFIX);
+  }
+
+  private static long segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+
+  record Recovered(long segment, PendingChatMessage message) {
+  }
+}
@@ -1,35 +1,83 @@
 package com.capstone.domain.chat;
 
-import com.capstone.domain.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 
 @Repository
-public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>,
+    ChatMessageBatchRepository {
 
   /**
-   * 특정 워크스페이스의 모든 메시지를 시간순으로 조회
+   * 워크스페이스의 메시지 일괄 삭제 (엔티티를 읽지 않고 DELETE 한 번)
    */
-  List<ChatMessage> findByWorkspaceIdOrderByCreatedAtAsc(Long workspaceId);
+  @Modifying
+  @Query("DELETE FROM ChatMessage cm WHERE cm.workspaceId = :workspaceId")
+  int deleteByWorkspaceId(@Param("workspaceId") Long workspaceId);
 
   /**
-   * 특정 워크스페이스의 최근 N개 메시지 조회
+   * 같은 사용자가 같은 멱등 키로 만든 메시지 (uk_chat_messages_user_idempotency_key)
    */
-  @Query("SELECT cm FROM ChatMessage cm WHERE cm.workspaceId = :workspaceId ORDER BY cm.createdAt DESC")
-  List<ChatMessage> findRecentMessagesByWorkspaceId(@Param("workspaceId") Long workspaceId,
-      org.springframework.data.domain.Pageable pageable);
-
-  /**
-   * 특정 사용자의 메시지 조회
-   */
-  List<ChatMessage> findByUserOrderByCreatedAtDesc(User user);
+  Optional<ChatMessage> findByUser_IdAndIdempotencyKey(Long userId, String idempotencyKey);
 
   /**
    * 특정 워크스페이스의 메시지 개수 조회
    */
   long countByWorkspaceId(Long workspaceId);
+
+  // ---- 키셋 페이지네이션 (idx_chat_messages_workspace_created_id / idx_chat_messages_user_created_id) ----
+  // OFFSET 없이 (created_at, id) 경계부터 인덱스를 이어 읽습니다. 페이지 크기는 Pageable 로 제한합니다.
+
+  String VIEW_SELECT = "SELECT new com.capstone.domain.chat.ChatMessageView(cm.messageId, "
+      + "cm.workspaceId, cm.user.id, cm.content, cm.messageType, cm.fileUrl, cm.fileName, "
+      + "cm.mimeType, cm.fileSize, cm.createdAt) FROM ChatMessage cm ";
+
+  /** 워크스페이스의 가장 최근 메시지부터 (최신 → 과거) */
+  @Query(VIEW_SELECT + "WHERE cm.workspaceId = :workspaceId "
+      + "ORDER BY cm.createdAt DESC, cm.messageId DESC")
+  List<ChatMessageView> findLatestPage(@Param("workspaceId") Long workspaceId, Pageable pageable);
+
+  /** 커서보다 오래된 메시지 (최신 → 과거) */
+  @Query(VIEW_SELECT + "WHERE cm.workspaceId = :workspaceId "
+      + "AND cm.createdAt <= :createdAt "
+      + "AND (cm.createdAt < :createdAt OR cm.messageId < :messageId) "
+      + "ORDER BY cm.createdAt DESC, cm.messageId DESC")
+  List<ChatMessageView> findPageBefore(@Param("workspaceId") Long workspaceId,
+      @Param("createdAt") Instant createdAt, @Param("messageId") Long messageId,
+      Pageable pageable);
+
+  /** 워크스페이스의 가장 오래된 메시지부터 (과거 → 최신) */
+  @Query(VIEW_SELECT + "WHERE cm.workspaceId = :workspaceId "
+      + "ORDER BY cm.createdAt ASC, cm.messageId ASC")
+  List<ChatMessageView> findOldestPage(@Param("workspaceId") Long workspaceId, Pageable pageable);
+
+  /** 커서보다 새로운 메시지 (과거 → 최신) */
+  @Query(VIEW_SELECT + "WHERE cm.workspaceId = :workspaceId "
+      + "AND cm.createdAt >= :createdAt "
+      + "AND (cm.createdAt > :createdAt OR cm.messageId > :messageId) "
+      + "ORDER BY cm.createdAt ASC, cm.messageId ASC")
+  List<ChatMessageView> findPageAfter(@Param("workspaceId") Long workspaceId,
+      @Param("createdAt") Instant createdAt, @Param("messageId") Long messageId,
+      Pageable pageable);
+
+  /** 사용자의 가장 최근 메시지부터 (최신 → 과거) */
+  @Query(VIEW_SELECT + "WHERE cm.user.id = :userId "
+      + "ORDER BY cm.createdAt DESC, cm.messageId DESC")
+  List<ChatMessageView> findLatestPageByUser(@Param("userId") Long userId, Pageable pageable);
+
+  /** 커서보다 오래된 사용자 메시지 (최신 → 과거) */
+  @Query(VIEW_SELECT + "WHERE cm.user.id = :userId "
+      + "AND cm.createdAt <= :createdAt "
+      + "AND (cm.createdAt < :createdAt OR cm.messageId < :messageId) "
+      + "ORDER BY cm.createdAt DESC, cm.messageId DESC")
+  List<ChatMessageView> findPageBeforeByUser(@Param("userId") Long userId,
+      @Param("createdAt") Instant createdAt, @Param("messageId") Long messageId,
+      Pageable pageable);
 }
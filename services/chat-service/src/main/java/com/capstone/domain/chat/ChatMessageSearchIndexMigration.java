@@ -0,0 +1,44 @@
+package com.capstone.domain.chat;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 전문 검색 컬럼/인덱스. {@code search_vector} 는 content·file_name 에서 만드는 STORED generated 컬럼이라
+ * JPA 저장·write-behind 배치 INSERT 등 어떤 경로로 쓰든 같은 문장 안에서 색인이 갱신됩니다. 한국어 형태소 사전이
+ * 없으므로 {@code simple} 설정으로 공백·구두점 기준으로만 나누고, 검색 쪽에서 접두 일치로 조사를 흡수합니다.
+ *
+ * <p>기존 테이블에 처음 추가할 때는 테이블을 한 번 다시 쓰므로(ACCESS EXCLUSIVE) 행이 많으면 배포 시간대에 주의해야
+ * 합니다. 이후 기동에서는 IF NOT EXISTS 로 아무 일도 하지 않습니다.
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class ChatMessageSearchIndexMigration implements ApplicationRunner {
+
+  private final DataSource dataSource;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    try (Connection c = dataSource.getConnection();
+        Statement st = c.createStatement()) {
+      c.setAutoCommit(true);
+      st.execute("ALTER TABLE chat_messages ADD COLUMN IF NOT EXISTS search_vector tsvector "
+          + "GENERATED ALWAYS AS (to_tsvector('simple', "
+          + "coalesce(content, '') || ' ' || coalesce(file_name, ''))) STORED");
+      st.execute("CREATE INDEX IF NOT EXISTS idx_chat_messages_search "
+          + "ON chat_messages USING GIN (search_vector)");
+      log.info("chat_messages 전문 검색 인덱스를 확인했습니다.");
+    } catch (Exception e) {
+      log.warn("chat_messages 전문 검색 인덱스 생성을 건너뜁니다: {}", e.getMessage());
+    }
+  }
+}
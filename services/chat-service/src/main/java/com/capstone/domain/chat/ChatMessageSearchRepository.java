@@ -0,0 +1,59 @@
+package com.capstone.domain.chat;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@code chat_messages.search_vector} (GIN, {@link ChatMessageSearchIndexMigration}) 기반 전문 검색.
+ */
+@Repository
+public class ChatMessageSearchRepository {
+
+  private static final String SEARCH_SQL = """
+      SELECT id, workspace_id, user_id, content, message_type, file_url, file_name, mime_type,
+             file_size, created_at, ts_rank_cd(search_vector, query) AS score
+      FROM chat_messages, to_tsquery('simple', ?) AS query
+      WHERE workspace_id = ? AND search_vector @@ query
+      ORDER BY score DESC, created_at DESC, id DESC
+      LIMIT ? OFFSET ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ChatMessageSearchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @param tsQuery {@link com.capstone.global.service.FullTextQuery#toTsQuery} 로 만든 tsquery
+   * @return 점수 내림차순 (같은 점수는 최신순)
+   */
+  public List<ChatMessageDtos.SearchHit> search(Long workspaceId, String tsQuery, int limit,
+      int offset) {
+    return jdbcTemplate.query(SEARCH_SQL, ChatMessageSearchRepository::mapHit,
+        tsQuery, workspaceId, limit, offset);
+  }
+
+  private static ChatMessageDtos.SearchHit mapHit(ResultSet rs, int rowNum) throws SQLException {
+    ChatMessageDtos.Response message = new ChatMessageDtos.Response();
+    message.setMessageId(rs.getLong("id"));
+    message.setWorkspaceId(rs.getLong("workspace_id"));
+    message.setUserId(rs.getLong("user_id"));
+    message.setContent(rs.getString("content"));
+    message.setMessageType(rs.getString("message_type"));
+    message.setFileUrl(rs.getString("file_url"));
+    message.setFileName(rs.getString("file_name"));
+    message.setMimeType(rs.getString("mime_type"));
+    long fileSize = rs.getLong("file_size");
+    message.setFileSize(rs.wasNull() ? null : fileSize);
+    message.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+
+    ChatMessageDtos.SearchHit hit = new ChatMessageDtos.SearchHit();
+    hit.setMessage(message);
+    hit.setScore(rs.getDouble("score"));
+    return hit;
+  }
+}
@@ -4,22 +4,41 @@ import com.capstone.domain.user.User;
 import com.capstone.domain.user.UserRepository;
 import com.capstone.global.exception.CustomException;
 import com.capstone.global.exception.ErrorCode;
+import com.capstone.global.service.FullTextQuery;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ChatMessageService {
 
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 200;
+  public static final int DEFAULT_SEARCH_SIZE = 20;
+  public static final int MAX_SEARCH_SIZE = 50;
+  /** 관련도순 정렬은 OFFSET 으로 넘기므로 깊은 페이지는 막음 */
+  public static final int MAX_SEARCH_OFFSET = 1_000;
+
   private final ChatMessageRepository chatMessageRepository;
   private final UserRepository userRepository;
+  private final ChatMessageTailCache tailCache;
+  private final ChatMessageSearchRepository chatMessageSearchRepository;
 
-  public ChatMessageService(ChatMessageRepository chatMessageRepository, UserRepository userRepository) {
+  public ChatMessageService(ChatMessageRepository chatMessageRepository,
+      UserRepository userRepository, ChatMessageTailCache tailCache,
+      ChatMessageSearchRepository chatMessageSearchRepository) {
     this.chatMessageRepository = chatMessageRepository;
     this.userRepository = userRepository;
+    this.tailCache = tailCache;
+    this.chatMessageSearchRepository = chatMessageSearchRepository;
   }
 
   /**
@@ -36,7 +55,9 @@ public class ChatMessageService {
     message.setContent(content);
     message.setMessageType("text");
 
-    return chatMessageRepository.save(message);
+    ChatMessage saved = chatMessageRepository.save(message);
+    appendToTailAfterCommit(saved);
+    return saved;
   }
 
   /**
@@ -52,6 +73,26 @@ public class ChatMessageService {
       String fileName,
       String mimeType,
       Long fileSize
+  ) {
+    return saveFileMessage(workspaceId, userId, content, messageType, fileUrl, fileName, mimeType,
+        fileSize, null);
+  }
+
+  /**
+   * 파일/이미지 메시지 저장. idempotencyKey 가 있으면 함께 저장하며, 같은 사용자·키가 이미 있으면 유니크 제약
+   * 위반으로 실패합니다 ({@link #findByIdempotencyKey} 로 먼저 확인).
+   */
+  @Transactional
+  public ChatMessage saveFileMessage(
+      Long workspaceId,
+      Long userId,
+      String content,
+      String messageType,
+      String fileUrl,
+      String fileName,
+      String mimeType,
+      Long fileSize,
+      String idempotencyKey
   ) {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new CustomException(ErrorCode.NOT_FOUND_USER));
@@ -65,41 +106,188 @@ public class ChatMessageService {
     message.setFileName(fileName);
     message.setMimeType(mimeType);
     message.setFileSize(fileSize);
-    return chatMessageRepository.save(message);
+    message.setIdempotencyKey(idempotencyKey);
+    ChatMessage saved = chatMessageRepository.save(message);
+    appendToTailAfterCommit(saved);
+    return saved;
   }
 
   /**
-   * 특정 워크스페이스의 모든 메시지 조회 (시간순)
+   * 같은 사용자가 같은 멱등 키로 이미 만든 메시지
    */
   @Transactional(readOnly = true)
-  public List<ChatMessage> getMessagesByWorkspace(Long workspaceId) {
-    return chatMessageRepository.findByWorkspaceIdOrderByCreatedAtAsc(workspaceId);
+  public Optional<ChatMessage> findByIdempotencyKey(Long userId, String idempotencyKey) {
+    return chatMessageRepository.findByUser_IdAndIdempotencyKey(userId, idempotencyKey);
+  }
+
+  /**
+   * 특정 워크스페이스의 최근 N개 메시지 (최신순). {@link ChatMessageTailCache} 에 있으면 DB 없이 응답합니다.
+   * 캐시 적중 시 커넥션을 잡지 않도록 트랜잭션 없이 조회합니다.
+   */
+  public List<ChatMessageDtos.Response> getRecentResponses(Long workspaceId, int limit) {
+    return tailCache.getRecent(workspaceId, pageSize(limit),
+        n -> chatMessageRepository.findLatestPage(workspaceId, PageRequest.of(0, n)).stream()
+            .map(ChatMessageView::toResponse)
+            .toList());
   }
 
   /**
-   * 특정 워크스페이스의 최근 N개 메시지 조회
+   * 특정 워크스페이스의 메시지 개수 조회
    */
   @Transactional(readOnly = true)
-  public List<ChatMessage> getRecentMessages(Long workspaceId, int limit) {
-    Pageable pageable = PageRequest.of(0, limit);
-    return chatMessageRepository.findRecentMessagesByWorkspaceId(workspaceId, pageable);
+  public long getMessageCountByWorkspace(Long workspaceId) {
+    return chatMessageRepository.countByWorkspaceId(workspaceId);
   }
 
   /**
-   * 특정 사용자의 메시지 조회
+   * 워크스페이스 채팅 히스토리 키셋 페이지 조회. 방향과 관계없이 items 는 시간순(오래된 → 최신)입니다.
+   *
+   * <ul>
+   *   <li>cursor 없음 + BEFORE: 가장 최근 페이지 (채팅방 첫 진입)</li>
+   *   <li>cursor 없음 + AFTER: 가장 오래된 페이지 (처음부터 전체 순회)</li>
+   *   <li>cursor + BEFORE: 응답의 beforeCursor 로 위로 스크롤</li>
+   *   <li>cursor + AFTER: 응답의 afterCursor 로 이후 메시지 조회</li>
+   * </ul>
+   *
+   * @param limit null 이면 {@value #DEFAULT_PAGE_SIZE}, 최대 {@value #MAX_PAGE_SIZE}
    */
   @Transactional(readOnly = true)
-  public List<ChatMessage> getMessagesByUser(Long userId) {
-    User user = userRepository.findById(userId)
-        .orElseThrow(() -> new CustomException(ErrorCode.NOT_FOUND_USER));
-    return chatMessageRepository.findByUserOrderByCreatedAtDesc(user);
+  public ChatMessageDtos.PageResponse getMessagePage(Long workspaceId, String cursorToken,
+      ChatMessageCursor.Direction direction, Integer limit) {
+    ChatMessageCursor cursor = ChatMessageCursor.decode(cursorToken);
+    int size = pageSize(limit);
+    // 한 건 더 읽어 다음 페이지 존재 여부 판단
+    Pageable pageable = PageRequest.of(0, size + 1);
+    boolean before = direction != ChatMessageCursor.Direction.AFTER;
+
+    List<ChatMessageView> rows;
+    if (before) {
+      rows = cursor == null
+          ? chatMessageRepository.findLatestPage(workspaceId, pageable)
+          : chatMessageRepository.findPageBefore(workspaceId, cursor.createdAt(),
+              cursor.messageId(), pageable);
+    } else {
+      rows = cursor == null
+          ? chatMessageRepository.findOldestPage(workspaceId, pageable)
+          : chatMessageRepository.findPageAfter(workspaceId, cursor.createdAt(),
+              cursor.messageId(), pageable);
+    }
+
+    boolean hasMore = rows.size() > size;
+    List<ChatMessageView> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+    if (before) {
+      Collections.reverse(page);
+    }
+
+    ChatMessageDtos.PageResponse.PageResponseBuilder response = ChatMessageDtos.PageResponse.builder()
+        .items(page.stream().map(ChatMessageView::toResponse).toList())
+        .hasMore(hasMore);
+    if (page.isEmpty()) {
+      // 빈 페이지: 같은 위치에서 다시 이어 읽을 수 있도록 받은 커서를 돌려줌
+      return response
+          .beforeCursor(before ? null : cursorToken)
+          .afterCursor(cursorToken)
+          .build();
+    }
+    ChatMessageView oldest = page.get(0);
+    ChatMessageView newest = page.get(page.size() - 1);
+    // 과거 방향으로 더 없음이 확실하면 beforeCursor 를 비움
+    boolean olderExists = before ? hasMore : cursor != null;
+    return response
+        .beforeCursor(olderExists ? ChatMessageCursor.of(oldest).encode() : null)
+        .afterCursor(ChatMessageCursor.of(newest).encode())
+        .build();
   }
 
   /**
-   * 특정 워크스페이스의 메시지 개수 조회
+   * 사용자 채팅 히스토리 키셋 페이지 조회 (최신순). 다음 페이지는 응답의 beforeCursor 로 요청합니다.
    */
   @Transactional(readOnly = true)
-  public long getMessageCountByWorkspace(Long workspaceId) {
-    return chatMessageRepository.countByWorkspaceId(workspaceId);
+  public ChatMessageDtos.PageResponse getUserMessagePage(Long userId, String cursorToken,
+      Integer limit) {
+    ChatMessageCursor cursor = ChatMessageCursor.decode(cursorToken);
+    if (cursor == null && !userRepository.existsById(userId)) {
+      throw new CustomException(ErrorCode.NOT_FOUND_USER);
+    }
+    int size = pageSize(limit);
+    Pageable pageable = PageRequest.of(0, size + 1);
+    List<ChatMessageView> rows = cursor == null
+        ? chatMessageRepository.findLatestPageByUser(userId, pageable)
+        : chatMessageRepository.findPageBeforeByUser(userId, cursor.createdAt(),
+            cursor.messageId(), pageable);
+
+    boolean hasMore = rows.size() > size;
+    List<ChatMessageView> page = hasMore ? rows.subList(0, size) : rows;
+    return ChatMessageDtos.PageResponse.builder()
+        .items(page.stream().map(ChatMessageView::toResponse).toList())
+        .beforeCursor(hasMore ? ChatMessageCursor.of(page.get(page.size() - 1)).encode() : null)
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /**
+   * 워크스페이스 채팅 전문 검색 (관련도순). 검색어의 모든 단어를 접두 일치로 포함하는 메시지를 찾습니다.
+   *
+   * @param page 0 부터
+   */
+  @Transactional(readOnly = true)
+  public ChatMessageDtos.SearchResponse search(Long workspaceId, String query, Integer page,
+      Integer size) {
+    int pageSize = size == null || size <= 0 ? DEFAULT_SEARCH_SIZE : Math.min(size, MAX_SEARCH_SIZE);
+    int pageIndex = page == null || page < 0 ? 0 : page;
+    long offset = (long) pageIndex * pageSize;
+    if (offset > MAX_SEARCH_OFFSET) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+    String tsQuery = FullTextQuery.toTsQuery(query);
+    if (tsQuery == null) {
+      return ChatMessageDtos.SearchResponse.builder()
+          .items(List.of())
+          .page(pageIndex)
+          .size(pageSize)
+          .build();
+    }
+
+    List<ChatMessageDtos.SearchHit> rows = chatMessageSearchRepository.search(workspaceId,
+        tsQuery, pageSize + 1, (int) offset);
+    boolean hasNext = rows.size() > pageSize;
+    return ChatMessageDtos.SearchResponse.builder()
+        .items(hasNext ? rows.subList(0, pageSize) : rows)
+        .page(pageIndex)
+        .size(pageSize)
+        .hasNext(hasNext)
+        .build();
+  }
+
+  /** 커밋된 뒤에만 캐시에 반영 (롤백된 메시지가 캐시에 남지 않도록) */
+  private void appendToTailAfterCommit(ChatMessage saved) {
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(saved.getMessageId());
+    response.setWorkspaceId(saved.getWorkspaceId());
+    response.setUserId(saved.getUser().getId());
+    response.setContent(saved.getContent());
+    response.setMessageType(saved.getMessageType());
+    response.setFileUrl(saved.getFileUrl());
+    response.setFileName(saved.getFileName());
+    response.setMimeType(saved.getMimeType());
+    response.setFileSize(saved.getFileSize());
+    response.setCreatedAt(saved.getCreatedAt());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      tailCache.append(response);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        tailCache.append(response);
+      }
+    });
+  }
+
+  private static int pageSize(Integer limit) {
+    if (limit == null || limit <= 0) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.min(limit, MAX_PAGE_SIZE);
   }
 }
@@ -0,0 +1,280 @@
+package com.capstone.domain.chat;
+
+import com.capstone.global.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * 워크스페이스별 최근 채팅 메시지(hot tail) 캐시.
+ *
+ * <p>워크스페이스마다 최근 {@code messagesPerWorkspace} 건을 링 버퍼에 {@code (createdAt, id)} 순으로 보관하고
+ * {@code /recent} 조회를 DB 없이 응답합니다. 처음 조회될 때 DB 에서 채우고, 이후에는 저장이 커밋될 때마다
+ * {@link #append} 로 이어 붙입니다. 캐시에 없는 워크스페이스의 저장은 무시합니다 (다음 조회 때 DB 에서 채움).
+ *
+ * <p>DB 와의 일관성: 채우는 도중에 같은 워크스페이스에 저장이 커밋되면 읽어 온 스냅샷에 그 메시지가 빠졌을 수
+ * 있으므로 설치하지 않고 버립니다. 같은 id 는 한 번만 들어갑니다. 이 인스턴스를 거치지 않은 변경(workspace-service 의
+ * 영구 삭제 등)은 알 수 없으므로, 채운 지 {@code maxAgeMs} 가 지난 tail 은 버리고 다시 채웁니다 — 삭제는 최대
+ * {@code maxAgeMs} 늦게 반영됩니다(eventually consistent).
+ *
+ * <p>{@code app.broker.mode=relay} (여러 인스턴스)에서는 다른 인스턴스의 저장이 이 캐시에 들어오지 않아 방금 보낸
+ * 메시지가 {@code /recent} 에서 빠질 수 있으므로 캐시를 쓰지 않고 항상 DB 에서 조회합니다.
+ *
+ * <p>전체 크기는 메시지 추정 바이트 합계로 {@code maxBytes} 를 넘지 않게 하며, 넘으면 가장 오래 조회·저장되지
+ * 않은 워크스페이스부터 통째로 제거합니다(LRU). 링 버퍼 조작은 짧으므로 단일 락으로 보호합니다.
+ */
+@Component
+public class ChatMessageTailCache {
+
+  private static final Comparator<ChatMessageDtos.Response> ORDER = Comparator
+      .comparing(ChatMessageDtos.Response::getCreatedAt,
+          Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+      .thenComparing(ChatMessageDtos.Response::getMessageId,
+          Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+
+  private final AppProperties.TailCache properties;
+  /** 다른 인스턴스의 저장을 받지 못하는 구성(relay)이면 false */
+  private final boolean singleInstance;
+  /** access-order: 가장 오래 쓰이지 않은 워크스페이스가 맨 앞 */
+  private final LinkedHashMap<Long, Tail> tails = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter bypassCounter;
+  private final Counter evictionCounter;
+
+  public ChatMessageTailCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+    this.properties = appProperties.getChat().getTailCache();
+    this.singleInstance = !appProperties.getBroker().isRelay();
+    this.hitCounter = meterRegistry.counter("chat.tailcache.requests", "result", "hit");
+    this.missCounter = meterRegistry.counter("chat.tailcache.requests", "result", "miss");
+    this.bypassCounter = meterRegistry.counter("chat.tailcache.requests", "result", "bypass");
+    this.evictionCounter = meterRegistry.counter("chat.tailcache.evictions");
+    Gauge.builder("chat.tailcache.workspaces", this, ChatMessageTailCache::workspaceCount)
+        .register(meterRegistry);
+    Gauge.builder("chat.tailcache.bytes", this, ChatMessageTailCache::estimatedBytes)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("chat.tailcache.hit.ratio", this, ChatMessageTailCache::hitRatio)
+        .register(meterRegistry);
+  }
+
+  /**
+   * 최근 메시지 최대 limit 건 (최신순).
+   *
+   * @param loader 캐시에 없을 때 DB 에서 최신순 n 건을 읽는 함수
+   */
+  public List<ChatMessageDtos.Response> getRecent(Long workspaceId, int limit,
+      IntFunction<List<ChatMessageDtos.Response>> loader) {
+    int capacity = capacity();
+    if (!isEnabled() || limit > capacity) {
+      bypassCounter.increment();
+      return loader.apply(limit);
+    }
+    Tail loading;
+    synchronized (this) {
+      Tail tail = tails.get(workspaceId);
+      if (tail != null && tail.loaded && tail.isExpired(properties.getMaxAgeMs())) {
+        // 이 인스턴스 밖의 변경(삭제 등)을 반영하도록 버리고 다시 채움
+        tails.remove(workspaceId);
+        totalBytes -= tail.bytes;
+        tail = null;
+      }
+      if (tail != null && tail.loaded) {
+        hitCounter.increment();
+        return tail.newest(limit);
+      }
+      if (tail == null) {
+        loading = new Tail(capacity);
+        tails.put(workspaceId, loading);
+      } else {
+        // 다른 요청이 채우는 중: 이번 요청은 DB 결과만 사용
+        loading = null;
+      }
+    }
+    missCounter.increment();
+    List<ChatMessageDtos.Response> rows;
+    try {
+      rows = loader.apply(capacity);
+    } catch (RuntimeException e) {
+      if (loading != null) {
+        // 채우기 실패: 빈 자리를 남기면 이후 요청이 계속 DB 로만 가고 다시 채우지 않음
+        synchronized (this) {
+          tails.remove(workspaceId, loading);
+        }
+      }
+      throw e;
+    }
+    if (loading != null) {
+      install(workspaceId, loading, rows);
+    }
+    return rows.size() > limit ? rows.subList(0, limit) : rows;
+  }
+
+  /** 커밋된 메시지를 해당 워크스페이스 tail 에 추가 (캐시에 없으면 무시) */
+  public void append(ChatMessageDtos.Response message) {
+    if (!isEnabled() || message.getWorkspaceId() == null) {
+      return;
+    }
+    synchronized (this) {
+      Tail tail = tails.get(message.getWorkspaceId());
+      if (tail == null) {
+        return;
+      }
+      if (!tail.loaded) {
+        // 채우는 중인 스냅샷에 빠졌을 수 있음
+        tail.dirty = true;
+        return;
+      }
+      totalBytes += tail.insert(message);
+      evictIfNeeded();
+    }
+  }
+
+  private boolean isEnabled() {
+    return properties.isEnabled() && singleInstance;
+  }
+
+  public synchronized int workspaceCount() {
+    return tails.size();
+  }
+
+  public synchronized long estimatedBytes() {
+    return totalBytes;
+  }
+
+  private double hitRatio() {
+    double hits = hitCounter.count();
+    double total = hits + missCounter.count();
+    return total == 0 ? 0 : hits / total;
+  }
+
+  private synchronized void install(Long workspaceId, Tail tail,
+      List<ChatMessageDtos.Response> newestFirst) {
+    if (tails.get(workspaceId) != tail) {
+      // 채우는 사이 제거됨 (LRU 축출)
+      return;
+    }
+    if (tail.dirty) {
+      tails.remove(workspaceId);
+      return;
+    }
+    for (int i = newestFirst.size() - 1; i >= 0; i--) {
+      tail.insert(newestFirst.get(i));
+    }
+    tail.loaded = true;
+    tail.loadedAtNanos = System.nanoTime();
+    totalBytes += tail.bytes;
+    evictIfNeeded();
+  }
+
+  private void evictIfNeeded() {
+    Iterator<Map.Entry<Long, Tail>> eldest = tails.entrySet().iterator();
+    // 방금 사용한 워크스페이스(맨 뒤)는 남김
+    while (totalBytes > properties.getMaxBytes() && tails.size() > 1 && eldest.hasNext()) {
+      Tail tail = eldest.next().getValue();
+      eldest.remove();
+      totalBytes -= tail.bytes;
+      evictionCounter.increment();
+    }
+  }
+
+  private int capacity() {
+    return Math.max(1, properties.getMessagesPerWorkspace());
+  }
+
+  /** 응답 DTO 한 건의 대략적인 힙 사용량 (객체 헤더·필드 + 문자열은 UTF-16 기준 상한) */
+  static long estimateBytes(ChatMessageDtos.Response message) {
+    return 160
+        + 2L * (length(message.getContent()) + length(message.getFileUrl())
+        + length(message.getFileName()) + length(message.getMimeType())
+        + length(message.getMessageType()));
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+  /** 한 워크스페이스의 링 버퍼 (오래된 → 최신) */
+  private static final class Tail {
+
+    private final ChatMessageDtos.Response[] slots;
+    private int head;
+    private int size;
+    private long bytes;
+    private boolean loaded;
+    private boolean dirty;
+    private long loadedAtNanos;
+
+    Tail(int capacity) {
+      this.slots = new ChatMessageDtos.Response[capacity];
+    }
+
+    boolean isExpired(long maxAgeMs) {
+      return System.nanoTime() - loadedAtNanos > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    /** (createdAt, id) 순서 위치에 삽입하고 증가한 바이트 수를 반환. 대부분 맨 뒤라 O(1) */
+    long insert(ChatMessageDtos.Response message) {
+      int position = size;
+      while (position > 0) {
+        ChatMessageDtos.Response previous = get(position - 1);
+        if (previous.getMessageId() != null
+            && previous.getMessageId().equals(message.getMessageId())) {
+          return 0;
+        }
+        if (ORDER.compare(previous, message) <= 0) {
+          break;
+        }
+        position--;
+      }
+      long before = bytes;
+      if (size == slots.length) {
+        if (position == 0) {
+          // 가득 찬 tail 의 가장 오래된 것보다 더 오래된 메시지: 보관 범위 밖
+          return 0;
+        }
+        bytes -= estimateBytes(get(0));
+        slots[head] = null;
+        head = (head + 1) % slots.length;
+        size--;
+        position--;
+      }
+      for (int i = size; i > position; i--) {
+        set(i, get(i - 1));
+      }
+      set(position, message);
+      size++;
+      bytes += estimateBytes(message);
+      return bytes - before;
+    }
+
+    List<ChatMessageDtos.Response> newest(int limit) {
+      int count = Math.min(limit, size);
+      List<ChatMessageDtos.Response> result = new ArrayList<>(count);
+      for (int i = size - 1; i >= size - count; i--) {
+        result.add(get(i));
+      }
+      return result;
+    }
+
+    private ChatMessageDtos.Response get(int index) {
+      return slots[(head + index) % slots.length];
+    }
+
+    private void set(int index, ChatMessageDtos.Response message) {
+      slots[(head + index) % slots.length] = message;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.capstone.domain.chat;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 히스토리 조회용 읽기 전용 프로젝션. 엔티티와 {@code user} 연관을 로딩하지 않고 {@code user_id} 컬럼만 읽어
+ * 페이지 단위로 바로 응답 DTO 로 변환합니다.
+ */
+@Getter
+@AllArgsConstructor
+public class ChatMessageView {
+
+  private Long messageId;
+  private Long workspaceId;
+  private Long userId;
+  private String content;
+  private String messageType;
+  private String fileUrl;
+  private String fileName;
+  private String mimeType;
+  private Long fileSize;
+  private Instant createdAt;
+
+  public ChatMessageDtos.Response toResponse() {
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(messageId);
+    response.setWorkspaceId(workspaceId);
+    response.setUserId(userId);
+    response.setContent(content);
+    response.setMessageType(messageType);
+    response.setFileUrl(fileUrl);
+    response.setFileName(fileName);
+    response.setMimeType(mimeType);
+    response.setFileSize(fileSize);
+    response.setCreatedAt(createdAt);
+    return response;
+  }
+}
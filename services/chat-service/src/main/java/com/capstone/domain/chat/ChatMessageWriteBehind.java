@@ -0,0 +1,287 @@
+package com.capstone.domain.chat;
+
+import com.capstone.global.config.AppProperties;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 메시지 write-behind 저장 ({@code app.chat.write-behind.enabled=true} 일 때).
+ *
+ * <p>인바운드 스레드에서는 id 할당 → 저널 추가 → 큐 적재만 하고 바로 브로드캐스트합니다. 별도 writer 스레드가 큐를
+ * 모아 {@link ChatMessageBatchRepository#insertAll} 배치 INSERT 로 저장합니다.
+ *
+ * <p>전달 보장:
+ * <ul>
+ *   <li>브로드캐스트된 메시지는 모두 저널에 먼저 기록됩니다. 저널 기록이 실패하면 브로드캐스트하지 않고 동기 저장으로
+ *   되돌아갑니다.</li>
+ *   <li>프로세스 크래시: 다음 기동 때 저널을 재생해 저장합니다 (at-least-once, id 충돌은 무시하므로 중복 행은 생기지
+ *   않음). {@code fsync=false} 면 OS 크래시·정전 시 마지막 수 ms 분량이 유실될 수 있습니다.</li>
+ *   <li>큐가 가득 차면 {@code offerTimeoutMs} 만큼 기다린 뒤 호출 스레드에서 직접 저장합니다 (backpressure).
+ *   DB 장애로 그마저 실패하면 큐에 자리가 날 때까지 인바운드 스레드가 대기합니다.</li>
+ *   <li>workspaceId·userId 가 없는 메시지는 저널에 쓰기 전에 거부합니다 ({@link ErrorCode#BAD_REQUEST}).</li>
+ *   <li>존재하지 않는 사용자 등 무결성 위반 행과 값이 잘못된 행(이전 버전 저널에 남은 것 등)은 브로드캐스트 후에
+ *   버려집니다 ({@code chat.writebehind.messages{result=rejected}}).</li>
+ *   <li>DB 장애 중에는 배치를 버리지 않고 재시도합니다. 종료 중 저장하지 못한 분량은 저널에 남아 다음 기동 때
+ *   재생됩니다.</li>
+ *   <li>저장 직후 조회 API 에는 최대 {@code flushIntervalMs} + 배치 처리 시간만큼 늦게 보일 수 있습니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ChatMessageWriteBehind {
+
+  private static final long RETRY_BACKOFF_MS = 1_000;
+
+  private final ChatMessageRepository chatMessageRepository;
+  private final ChatMessageIdAllocator idAllocator;
+  private final ChatMessageTailCache tailCache;
+  private final AppProperties.WriteBehind properties;
+  private final BlockingQueue<Queued> queue;
+
+  private final Counter acceptedCounter;
+  private final Counter persistedCounter;
+  private final Counter rejectedCounter;
+  private final Counter callerRunsCounter;
+
+  private ChatMessageJournal journal;
+  private Thread writer;
+  private volatile boolean running;
+
+  public ChatMessageWriteBehind(ChatMessageRepository chatMessageRepository,
+      ChatMessageIdAllocator idAllocator, ChatMessageTailCache tailCache,
+      AppProperties appProperties, MeterRegistry meterRegistry) {
+    this.chatMessageRepository = chatMessageRepository;
+    this.idAllocator = idAllocator;
+    this.tailCache = tailCache;
+    this.properties = appProperties.getChat().getWriteBehind();
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    this.acceptedCounter = meterRegistry.counter("chat.writebehind.messages", "result", "accepted");
+    this.persistedCounter = meterRegistry.counter("chat.writebehind.messages", "result", "persisted");
+    this.rejectedCounter = meterRegistry.counter("chat.writebehind.messages", "result", "rejected");
+    this.callerRunsCounter =
+        meterRegistry.counter("chat.writebehind.messages", "result", "caller_runs");
+    Gauge.builder("chat.writebehind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /** 저널에서 크래시 전에 저장되지 못한 메시지를 읽고 writer 스레드를 시작 */
+  @PostConstruct
+  public void start() throws IOException {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    journal = new ChatMessageJournal(Path.of(properties.getJournalDir()), properties.isFsync(),
+        properties.getSegmentMaxEntries());
+    List<Queued> recovered = journal.recover().stream()
+        .map(r -> new Queued(r.segment(), r.message()))
+        .toList();
+    if (!recovered.isEmpty()) {
+      log.warn("채팅 저널 재생 - 미저장 메시지 {}건", recovered.size());
+    }
+    running = true;
+    // 재생분은 writer 스레드가 큐보다 먼저 저장 (DB 가 아직 안 떠 있어도 기동을 막지 않음)
+    writer = new Thread(() -> runWriter(recovered), "chat-write-behind");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /** 종료 시 큐에 남은 메시지를 모두 저장하고 저널을 닫음 */
+  @PreDestroy
+  public void stop() throws IOException, InterruptedException {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(30));
+    journal.close();
+  }
+
+  public ChatMessageDtos.Response enqueueText(Long workspaceId, Long userId, String content) {
+    return enqueue(PendingChatMessage.builder()
+        .workspaceId(workspaceId)
+        .userId(userId)
+        .content(content)
+        .messageType("text"));
+  }
+
+  public ChatMessageDtos.Response enqueueFile(Long workspaceId, Long userId, String content,
+      String messageType, String fileUrl, String fileName, String mimeType, Long fileSize) {
+    return enqueue(PendingChatMessage.builder()
+        .workspaceId(workspaceId)
+        .userId(userId)
+        .content(content)
+        .messageType(messageType)
+        .fileUrl(fileUrl)
+        .fileName(fileName)
+        .mimeType(mimeType)
+        .fileSize(fileSize));
+  }
+
+  private ChatMessageDtos.Response enqueue(PendingChatMessage.PendingChatMessageBuilder builder) {
+    if (journal == null) {
+      throw new IllegalStateException("chat write-behind is not started");
+    }
+    PendingChatMessage message = builder
+        .id(idAllocator.nextId())
+        .createdAt(Instant.now())
+        .build();
+    // 저장할 수 없는 메시지가 저널에 들어가면 writer 가 재시도만 반복하므로 먼저 거부
+    if (message.getWorkspaceId() == null || message.getUserId() == null) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+    long segment;
+    try {
+      segment = journal.append(message);
+    } catch (IOException e) {
+      // 저널에 못 쓰면 크래시 시 복구할 수 없으므로 동기 저장 후 브로드캐스트
+      log.error("채팅 저널 기록 실패, 동기 저장으로 전환 - id={}: {}", message.getId(), e.getMessage());
+      chatMessageRepository.insertAll(List.of(message));
+      tailCache.append(message.toResponse());
+      return message.toResponse();
+    }
+    acceptedCounter.increment();
+    Queued queued = new Queued(segment, message);
+    boolean offered;
+    try {
+      offered = queue.offer(queued, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      offered = false;
+    }
+    if (!offered) {
+      // backpressure: writer 가 밀려 있으면 호출 스레드에서 직접 저장
+      // (DB 장애로 그마저 실패하면 큐에 자리가 날 때까지 대기)
+      callerRunsCounter.increment();
+      try {
+        persist(List.of(queued));
+      } catch (RuntimeException e) {
+        log.warn("채팅 메시지 직접 저장 실패, 큐 대기 - id={}: {}", message.getId(), e.getMessage());
+        putBlocking(queued);
+      }
+    }
+    return message.toResponse();
+  }
+
+  private void putBlocking(Queued queued) {
+    try {
+      queue.put(queued);
+    } catch (InterruptedException e) {
+      // 저널에는 남아 있으므로 다음 기동 때 재생됨
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runWriter(List<Queued> recovered) {
+    // 재생분은 곧바로 종료가 요청돼도 한 번은 저장을 시도 (실패분은 저널에 남음)
+    for (int from = 0; from < recovered.size(); from += batchSize()) {
+      persistWithRetry(recovered.subList(from, Math.min(recovered.size(), from + batchSize())));
+    }
+    List<Queued> batch = new ArrayList<>(batchSize());
+    while (running || !queue.isEmpty()) {
+      try {
+        Queued first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize() - 1);
+        persistWithRetry(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.error("채팅 write-behind 처리 중 오류 발생: {}", e.getMessage(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /** 일시적 DB 오류는 저장될 때까지 재시도 (종료 중이면 저널에 남겨 두고 포기) */
+  private void persistWithRetry(List<Queued> batch) {
+    while (true) {
+      try {
+        persist(batch);
+        return;
+      } catch (RuntimeException e) {
+        if (!running) {
+          log.error("종료 중 채팅 메시지 {}건 저장 실패, 저널에 남겨 다음 기동 때 재생: {}",
+              batch.size(), e.getMessage());
+          return;
+        }
+        log.warn("채팅 메시지 배치 저장 실패, {}ms 후 재시도: {}", RETRY_BACKOFF_MS, e.getMessage());
+        try {
+          Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * 배치 INSERT. 무결성 위반이나 값이 잘못된 행(null 필수 값 등 재시도해도 실패하는 오류)이 섞여 있으면 한 건씩 나눠
+   * 저장하고 그 행만 버립니다. 그 외 오류(DB 장애 등)는 호출자에게 던집니다.
+   */
+  private void persist(List<Queued> batch) {
+    try {
+      chatMessageRepository.insertAll(batch.stream().map(Queued::message).toList());
+      commit(batch);
+    } catch (DataIntegrityViolationException | NullPointerException | IllegalArgumentException e) {
+      List<Queued> saved = new ArrayList<>(batch.size());
+      for (Queued queued : batch) {
+        try {
+          chatMessageRepository.insertAll(List.of(queued.message()));
+          saved.add(queued);
+        } catch (DataIntegrityViolationException | NullPointerException
+            | IllegalArgumentException rowError) {
+          rejectedCounter.increment();
+          log.warn("채팅 메시지 저장 거부 - id={}, workspaceId={}, userId={}: {}",
+              queued.message().getId(), queued.message().getWorkspaceId(),
+              queued.message().getUserId(), NestedExceptionUtils.getMostSpecificCause(rowError));
+          journal.committed(queued.segment(), 1);
+        }
+      }
+      commit(saved);
+    }
+  }
+
+  private void commit(List<Queued> batch) {
+    Map<Long, Integer> perSegment = new LinkedHashMap<>();
+    batch.forEach(q -> perSegment.merge(q.segment(), 1, Integer::sum));
+    perSegment.forEach(journal::committed);
+    persistedCounter.increment(batch.size());
+    // 최근 메시지 캐시에는 DB 에 저장된 뒤에 반영 (조회 결과가 DB 와 어긋나지 않도록)
+    batch.forEach(q -> tailCache.append(q.message().toResponse()));
+  }
+
+  private int batchSize() {
+    return Math.max(1, properties.getBatchSize());
+  }
+
+  private record Queued(long segment, PendingChatMessage message) {
+  }
+}
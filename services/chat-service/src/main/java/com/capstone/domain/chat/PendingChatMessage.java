@@ -0,0 +1,44 @@
+package com.capstone.domain.chat;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * write-behind 모드에서 브로드캐스트는 끝났지만 아직 DB 에 저장되지 않은 채팅 메시지. 저널(WAL) 한 줄과 배치 INSERT
+ * 한 행에 그대로 대응합니다. id 는 서버가 {@link ChatMessageIdAllocator} 로 미리 할당합니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingChatMessage {
+
+  private Long id;
+  private Long workspaceId;
+  private Long userId;
+  private String content;
+  private String messageType;
+  private String fileUrl;
+  private String fileName;
+  private String mimeType;
+  private Long fileSize;
+  private Instant createdAt;
+
+  public ChatMessageDtos.Response toResponse() {
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(id);
+    response.setWorkspaceId(workspaceId);
+    response.setUserId(userId);
+    response.setContent(content);
+    response.setMessageType(messageType);
+    response.setFileUrl(fileUrl);
+    response.setFileName(fileName);
+    response.setMimeType(mimeType);
+    response.setFileSize(fileSize);
+    response.setCreatedAt(createdAt);
+    return response;
+  }
+}
@@ -341,10 +341,8 @@ public class WorkspaceService {
     log.info("VoiceSession 삭제 완료 - {}개", voiceSessions.size());
     
     // 3. ChatMessage 삭제
-    List<com.capstone.domain.chat.ChatMessage> chatMessages = 
-        chatMessageRepository.findByWorkspaceIdOrderByCreatedAtAsc(workspaceId);
-    chatMessageRepository.deleteAll(chatMessages);
-    log.info("ChatMessage 삭제 완료 - {}개", chatMessages.size());
+    int chatMessages = chatMessageRepository.deleteByWorkspaceId(workspaceId);
+    log.info("ChatMessage 삭제 완료 - {}개", chatMessages);
     
     // 4. Canvas 삭제
     List<com.capstone.domain.canvas.Canvas> canvases = canvasRepository.findAll().stream()
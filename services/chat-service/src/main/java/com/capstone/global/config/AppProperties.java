@@ -40,6 +40,101 @@ public class AppProperties {
    */
   private Prototype prototype = new Prototype();
 
+  /**
+   * 커서 이동 브로드캐스트 병합(coalescing) 설정.
+   */
+  private Cursor cursor = new Cursor();
+
+  /**
+   * STOMP 메시지 브로커 모드 (단일 인스턴스용 simple / 다중 인스턴스용 외부 브로커 relay).
+   */
+  private Broker broker = new Broker();
+
+  /**
+   * 채팅 메시지 저장 설정.
+   */
+  private Chat chat = new Chat();
+
+  @Getter
+  @Setter
+  public static class Chat {
+    private WriteBehind writeBehind = new WriteBehind();
+    private TailCache tailCache = new TailCache();
+  }
+
+  @Getter
+  @Setter
+  public static class TailCache {
+    /** 워크스페이스별 최근 메시지 캐시 (ChatMessageTailCache 참고) */
+    private boolean enabled = true;
+    /** 워크스페이스당 보관할 최근 메시지 수. /recent 의 limit 이 이보다 크면 DB 에서 직접 조회 */
+    private int messagesPerWorkspace = 100;
+    /** 전체 캐시 추정 크기 상한. 넘으면 가장 오래 쓰이지 않은 워크스페이스부터 제거 */
+    private long maxBytes = 32L * 1024 * 1024;
+    /**
+     * DB 에서 채운 tail 을 이 시간이 지나면 버리고 다시 채움. 이 인스턴스를 거치지 않은 변경(다른 서비스의 삭제 등)이
+     * /recent 에 늦게 반영되는 최대 시간
+     */
+    private long maxAgeMs = 5_000;
+  }
+
+  @Getter
+  @Setter
+  public static class WriteBehind {
+    /** true 면 브로드캐스트 먼저, DB 저장은 배치로 (ChatMessageWriteBehind 참고) */
+    private boolean enabled = false;
+    /** 저장 대기 큐 크기. 가득 차면 호출 스레드에서 직접 저장 */
+    private int queueCapacity = 10_000;
+    /** 큐에 자리가 나기를 기다리는 최대 시간 */
+    private long offerTimeoutMs = 20;
+    /** 한 번의 배치 INSERT 최대 행 수 */
+    private int batchSize = 200;
+    /** 큐가 비어 있을 때 writer 스레드 대기 간격 */
+    private long flushIntervalMs = 50;
+    /** chat_messages id 시퀀스에서 한 번에 예약하는 id 수 */
+    private int idBlockSize = 100;
+    /** 크래시 복구용 저널(WAL) 디렉토리 */
+    private String journalDir = "./data/chat-journal";
+    /** 저널 기록마다 fsync (OS 크래시·정전까지 대비, 대신 메시지당 디스크 동기화 비용) */
+    private boolean fsync = false;
+    /** 저널 세그먼트 하나에 담는 최대 메시지 수 */
+    private int segmentMaxEntries = 5_000;
+  }
+
+  @Getter
+  @Setter
+  public static class Broker {
+    /** simple: JVM 내장 브로커 (같은 인스턴스의 구독자에게만 전달), relay: 외부 STOMP 브로커로 중계 */
+    private String mode = "simple";
+    private String relayHost = "localhost";
+    private int relayPort = 61613;
+    /** 클라이언트 세션별로 브로커에 여는 연결의 계정 */
+    private String clientLogin = "guest";
+    private String clientPasscode = "guest";
+    /** 서버가 직접 보내는 메시지(SimpMessagingTemplate)용 공유 시스템 연결의 계정 */
+    private String systemLogin = "guest";
+    private String systemPasscode = "guest";
+    /** 브로커 virtual host (RabbitMQ 등). 비어 있으면 relayHost 사용 */
+    private String virtualHost = "";
+
+    public boolean isRelay() {
+      return "relay".equalsIgnoreCase(mode);
+    }
+  }
+
+  @Getter
+  @Setter
+  public static class Cursor {
+    /** false 면 기존처럼 이벤트마다 즉시 브로드캐스트 */
+    private boolean coalescingEnabled = true;
+    /** 워크스페이스별 초당 전송 프레임 수 */
+    private int tickHz = 20;
+    /** 한 프레임에 담을 최대 커서 수 (남은 커서는 다음 틱으로) */
+    private int batchSize = 50;
+    /** 이 시간 동안 움직임이 없는 사용자는 커서 목록에서 제거 */
+    private long idleTimeoutMs = 10_000;
+  }
+
   @Getter
   @Setter
   public static class Prototype {
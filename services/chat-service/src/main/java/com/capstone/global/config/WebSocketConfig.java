@@ -1,11 +1,13 @@
 package com.capstone.global.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
@@ -19,7 +21,26 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
     // 클라이언트가 구독할 수 있는 destination prefix
-    config.enableSimpleBroker("/topic", "/queue");
+    AppProperties.Broker broker = appProperties.getBroker();
+    if (broker.isRelay()) {
+      // 외부 STOMP 브로커로 중계: 다른 인스턴스에 연결된 구독자에게도 /topic/workspace/* 메시지가 전달됨
+      var relay = config.enableStompBrokerRelay("/topic", "/queue")
+          .setRelayHost(broker.getRelayHost())
+          .setRelayPort(broker.getRelayPort())
+          .setClientLogin(broker.getClientLogin())
+          .setClientPasscode(broker.getClientPasscode())
+          .setSystemLogin(broker.getSystemLogin())
+          .setSystemPasscode(broker.getSystemPasscode())
+          // 인스턴스 간 사용자 세션 정보 공유 (/user/** destination 해석용)
+          .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+          .setUserRegistryBroadcast("/topic/simp-user-registry");
+      if (broker.getVirtualHost() != null && !broker.getVirtualHost().isBlank()) {
+        relay.setVirtualHost(broker.getVirtualHost());
+      }
+      log.info("STOMP 브로커 relay 모드 - {}:{}", broker.getRelayHost(), broker.getRelayPort());
+    } else {
+      config.enableSimpleBroker("/topic", "/queue");
+    }
     // 클라이언트가 메시지를 보낼 때 사용할 destination prefix
     config.setApplicationDestinationPrefixes("/app");
   }
@@ -31,6 +31,7 @@ public enum ErrorCode {
   INVALID_INVITE_TOKEN("유효하지 않은 초대 토큰입니다.", HttpStatus.BAD_REQUEST),
   EXPIRED_INVITE_TOKEN("만료된 초대 토큰입니다.", HttpStatus.BAD_REQUEST),
   BAD_REQUEST("잘못된 요청입니다.", HttpStatus.BAD_REQUEST),
+  INVALID_CURSOR("유효하지 않은 페이지 커서입니다.", HttpStatus.BAD_REQUEST),
 
   NOT_FOUND_PROTOTYPE_JOB("해당 아이디어에 대한 프로토타입 작업이 없습니다.", HttpStatus.NOT_FOUND),
   NOT_FOUND_PROTOTYPE_JOB_BY_ID("해당 프로토타입 작업을 찾을 수 없습니다.", HttpStatus.NOT_FOUND),
@@ -0,0 +1,23 @@
+package com.capstone.global.service;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 한 틱 동안 모인 커서 위치 묶음. {@code /topic/workspace/{id}/cursor} 로 틱마다 한 번 전송됩니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorBatchDto {
+  @Builder.Default
+  private String type = "cursor_batch";
+  private Long workspaceId;
+  private List<CursorPositionDto> cursors; // 사용자별 최신 위치
+  private List<Long> idleUserIds; // 유휴 시간 초과로 제거된 사용자 (클라이언트에서 커서 숨김)
+  private Long timestamp;
+}
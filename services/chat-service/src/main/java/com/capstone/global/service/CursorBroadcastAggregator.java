@@ -0,0 +1,339 @@
+package com.capstone.global.service;
+
+import com.capstone.global.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 워크스페이스별 커서 위치 병합기. 마우스 이벤트마다 브로드캐스트하지 않고 사용자별 최신 위치만 보관했다가, 틱마다
+ * 워크스페이스당 한 프레임({@link CursorBatchDto})으로 묶어 보냅니다.
+ *
+ * <p>같은 틱 안에서 덮어쓰인 위치는 "dropped", 프레임에 실려 나간 위치는 "sent" 로 집계합니다.
+ *
+ * <p>JSON 프레임은 항상 {@code .../cursor} 로 보내고, 압축 채널 구독자가 있거나 Socket.IO 리스너가 요청할 때만
+ * {@link CursorFrameCodec} 바이너리 프레임을 만듭니다. 사용자 인덱스 테이블은 새 사용자가 생길 때 그 항목만 보냅니다.
+ *
+ * <p>병합이 꺼져 있으면({@code app.cursor.coalescing-enabled=false}) 틱도 사용자 인덱스도 없으므로 압축 프레임을 만들지
+ * 않습니다. 이때 커서는 {@link #publishImmediately} 로 바로 JSON 전송되고, 압축 채널 구독자도 같은 JSON 을 받으며
+ * Socket.IO 협상은 {@link #negotiateEncoding} 으로 JSON 이 됩니다.
+ */
+@Slf4j
+@Component
+public class CursorBroadcastAggregator {
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final CursorSubscriptionRegistry subscriptionRegistry;
+  private final AppProperties.Cursor properties;
+  /**
+   * relay 모드: 다른 인스턴스의 압축 채널 구독자를 알 수 없으므로 항상 압축 프레임도 발행하고, 인스턴스마다 따로 매기는
+   * 인덱스가 충돌하지 않도록 사용자 인덱스로 userId 를 그대로 사용 (인덱스는 long, 좁히지 않음)
+   */
+  private final boolean brokerRelay;
+
+  private final Map<Long, WorkspaceCursors> workspaces = new ConcurrentHashMap<>();
+  private final List<FrameListener> listeners = new CopyOnWriteArrayList<>();
+
+  private final Counter receivedCounter;
+  private final Counter sentCounter;
+  private final Counter droppedCounter;
+  private final Counter framesCounter;
+  private final Counter idleCounter;
+
+  private ScheduledExecutorService ticker;
+
+  public CursorBroadcastAggregator(SimpMessagingTemplate messagingTemplate,
+      CursorSubscriptionRegistry subscriptionRegistry,
+      AppProperties appProperties, MeterRegistry meterRegistry) {
+    this.messagingTemplate = messagingTemplate;
+    this.subscriptionRegistry = subscriptionRegistry;
+    this.properties = appProperties.getCursor();
+    this.brokerRelay = appProperties.getBroker().isRelay();
+    this.receivedCounter = meterRegistry.counter("cursor.updates", "result", "received");
+    this.sentCounter = meterRegistry.counter("cursor.updates", "result", "sent");
+    this.droppedCounter = meterRegistry.counter("cursor.updates", "result", "dropped");
+    this.idleCounter = meterRegistry.counter("cursor.users.idle.removed");
+    this.framesCounter = meterRegistry.counter("cursor.frames.sent");
+    Gauge.builder("cursor.workspaces.active", workspaces, Map::size).register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!properties.isCoalescingEnabled()) {
+      return;
+    }
+    long periodMicros = 1_000_000L / Math.max(1, properties.getTickHz());
+    ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "cursor-broadcast");
+      t.setDaemon(true);
+      return t;
+    });
+    ticker.scheduleAtFixedRate(() -> {
+      try {
+        flush(System.currentTimeMillis());
+      } catch (Exception e) {
+        log.error("커서 프레임 전송 중 오류 발생: {}", e.getMessage(), e);
+      }
+    }, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+  }
+
+  public boolean isCoalescingEnabled() {
+    return properties.isCoalescingEnabled();
+  }
+
+  /** 연결이 요청한 인코딩 중 실제로 보낼 수 있는 것. 압축 프레임은 병합 틱에서만 만들어지므로 병합이 꺼져 있으면 JSON */
+  public String negotiateEncoding(String requested) {
+    return properties.isCoalescingEnabled() && CursorFrameCodec.isCompact(requested)
+        ? CursorFrameCodec.ENCODING : CursorFrameCodec.JSON_ENCODING;
+  }
+
+  /**
+   * 병합이 꺼져 있을 때 커서 한 건을 바로 전송. JSON 채널에는 기존처럼 위치 그대로, 압축 채널 구독자(relay 모드는
+   * 다른 인스턴스 구독자를 알 수 없으므로 항상)에게도 같은 JSON 을 보내고, 리스너에는 한 건짜리 묶음으로 넘깁니다.
+   */
+  public void publishImmediately(CursorPositionDto cursor) {
+    receivedCounter.increment();
+    Long workspaceId = cursor.getWorkspaceId();
+    messagingTemplate.convertAndSend("/topic/workspace/" + workspaceId + "/cursor", cursor);
+    if (brokerRelay || subscriptionRegistry.hasCompactSubscribers(workspaceId)) {
+      messagingTemplate.convertAndSend(CursorSubscriptionRegistry.compactDestination(workspaceId),
+          cursor);
+    }
+    if (!listeners.isEmpty()) {
+      CursorBatchDto frame = CursorBatchDto.builder()
+          .workspaceId(workspaceId)
+          .cursors(List.of(cursor))
+          .idleUserIds(List.of())
+          .timestamp(cursor.getTimestamp() != null ? cursor.getTimestamp()
+              : System.currentTimeMillis())
+          .build();
+      CompactFrames compact = new CompactFrames(frame, List.of(), Map.of());
+      for (FrameListener listener : listeners) {
+        try {
+          listener.onFrame(workspaceId, frame, compact);
+        } catch (Exception e) {
+          log.warn("커서 프레임 리스너 처리 실패 workspaceId={}: {}", workspaceId, e.getMessage());
+        }
+      }
+    }
+    sentCounter.increment();
+  }
+
+  /** Socket.IO 등 STOMP 외 경로에서 프레임을 받아 연결별 인코딩으로 내보낼 때 등록 */
+  public void addListener(FrameListener listener) {
+    listeners.add(listener);
+  }
+
+  /** 압축 인코딩 협상 직후 클라이언트에 보낼 전체 사용자 테이블 (활성 상태가 없으면 null) */
+  public byte[] encodeFullUserTable(Long workspaceId) {
+    WorkspaceCursors state = workspaces.get(workspaceId);
+    if (state == null) {
+      return null;
+    }
+    return CursorFrameCodec.encodeUserTable(workspaceId, state.allUsers());
+  }
+
+  /** STOMP 압축 채널에 전체 사용자 테이블 재전송 (새 구독자 참여 시) */
+  public void publishFullUserTable(Long workspaceId) {
+    byte[] table = encodeFullUserTable(workspaceId);
+    if (table != null) {
+      messagingTemplate.convertAndSend(
+          CursorSubscriptionRegistry.compactDestination(workspaceId), CursorFrameCodec.toText(table));
+    }
+  }
+
+  /** 커서 위치 접수. 같은 사용자의 아직 전송되지 않은 위치는 덮어씁니다. */
+  public void submit(CursorPositionDto cursor) {
+    receivedCounter.increment();
+    long now = System.currentTimeMillis();
+    boolean[] overwritten = new boolean[1];
+    // compute 로 접수해야 flush 의 빈 워크스페이스 제거와 원자적으로 맞물림
+    workspaces.compute(cursor.getWorkspaceId(), (id, state) -> {
+      WorkspaceCursors target = state != null ? state : new WorkspaceCursors(brokerRelay);
+      overwritten[0] = target.offer(cursor, now);
+      return target;
+    });
+    if (overwritten[0]) {
+      droppedCounter.increment();
+    }
+  }
+
+  /** 한 틱 처리: 워크스페이스마다 대기 중인 커서를 최대 batchSize 개까지 한 프레임으로 전송 */
+  public void flush(long now) {
+    int batchSize = Math.max(1, properties.getBatchSize());
+    for (Map.Entry<Long, WorkspaceCursors> entry : workspaces.entrySet()) {
+      Long workspaceId = entry.getKey();
+      WorkspaceCursors state = entry.getValue();
+      List<Long> idle = state.removeIdle(now - properties.getIdleTimeoutMs());
+      List<CursorPositionDto> cursors = state.drain(batchSize);
+      List<CursorFrameCodec.UserEntry> newUsers = state.drainNewUsers();
+      Map<Long, Long> indexes = state.indexSnapshot();
+      workspaces.computeIfPresent(workspaceId, (id, s) -> s.isEmpty() ? null : s);
+
+      if (cursors.isEmpty() && idle.isEmpty()) {
+        continue;
+      }
+      CursorBatchDto frame = CursorBatchDto.builder()
+          .workspaceId(workspaceId)
+          .cursors(cursors)
+          .idleUserIds(idle)
+          .timestamp(now)
+          .build();
+      messagingTemplate.convertAndSend("/topic/workspace/" + workspaceId + "/cursor", frame);
+
+      CompactFrames compact = new CompactFrames(frame, newUsers, indexes);
+      if (brokerRelay || subscriptionRegistry.hasCompactSubscribers(workspaceId)) {
+        String destination = CursorSubscriptionRegistry.compactDestination(workspaceId);
+        if (compact.userTableDelta() != null) {
+          messagingTemplate.convertAndSend(destination, CursorFrameCodec.toText(compact.userTableDelta()));
+        }
+        messagingTemplate.convertAndSend(destination, CursorFrameCodec.toText(compact.batch()));
+      }
+      for (FrameListener listener : listeners) {
+        try {
+          listener.onFrame(workspaceId, frame, compact);
+        } catch (Exception e) {
+          log.warn("커서 프레임 리스너 처리 실패 workspaceId={}: {}", workspaceId, e.getMessage());
+        }
+      }
+      framesCounter.increment();
+      sentCounter.increment(cursors.size());
+      idleCounter.increment(idle.size());
+    }
+  }
+
+  /** 틱마다 만들어진 프레임을 STOMP 외 경로로 내보내는 리스너 */
+  public interface FrameListener {
+
+    void onFrame(Long workspaceId, CursorBatchDto frame, CompactFrames compact);
+  }
+
+  /** 한 프레임의 압축 인코딩. 실제로 필요한 경로가 있을 때 한 번만 인코딩합니다. */
+  public static final class CompactFrames {
+
+    private final CursorBatchDto frame;
+    private final List<CursorFrameCodec.UserEntry> newUsers;
+    private final Map<Long, Long> indexes;
+    private byte[] batch;
+    private byte[] userTableDelta;
+
+    CompactFrames(CursorBatchDto frame, List<CursorFrameCodec.UserEntry> newUsers,
+        Map<Long, Long> indexes) {
+      this.frame = frame;
+      this.newUsers = newUsers;
+      this.indexes = indexes;
+    }
+
+    /** 이번 틱에 새로 인덱스를 받은 사용자 테이블 항목 (없으면 null) */
+    public synchronized byte[] userTableDelta() {
+      if (userTableDelta == null && !newUsers.isEmpty()) {
+        userTableDelta = CursorFrameCodec.encodeUserTable(frame.getWorkspaceId(), newUsers);
+      }
+      return userTableDelta;
+    }
+
+    public synchronized byte[] batch() {
+      if (batch == null) {
+        batch = CursorFrameCodec.encodeBatch(frame, userId -> indexes.getOrDefault(userId, 0L));
+      }
+      return batch;
+    }
+  }
+
+  /** 한 워크스페이스의 사용자별 최신 커서, 마지막 활동 시각, 압축 프레임용 사용자 인덱스 */
+  private static final class WorkspaceCursors {
+
+    private final Map<Long, CursorPositionDto> pending = new LinkedHashMap<>();
+    private final Map<Long, Long> lastSeen = new LinkedHashMap<>();
+    private final Map<Long, CursorFrameCodec.UserEntry> users = new LinkedHashMap<>();
+    private final List<CursorFrameCodec.UserEntry> newUsers = new ArrayList<>();
+    private final boolean userIdAsIndex;
+
+    WorkspaceCursors(boolean userIdAsIndex) {
+      this.userIdAsIndex = userIdAsIndex;
+    }
+
+    /** @return 전송 전에 덮어쓴 위치가 있었으면 true */
+    synchronized boolean offer(CursorPositionDto cursor, long now) {
+      Long userId = cursor.getUserId();
+      CursorFrameCodec.UserEntry known = users.get(userId);
+      if (known == null || !Objects.equals(known.userName(), cursor.getUserName())) {
+        long index = known != null ? known.index() : userIdAsIndex ? userId : users.size();
+        CursorFrameCodec.UserEntry entry =
+            new CursorFrameCodec.UserEntry(index, userId, cursor.getUserName());
+        users.put(userId, entry);
+        newUsers.add(entry);
+      }
+      lastSeen.put(userId, now);
+      return pending.put(userId, cursor) != null;
+    }
+
+    synchronized List<CursorPositionDto> drain(int max) {
+      List<CursorPositionDto> out = new ArrayList<>(Math.min(max, pending.size()));
+      Iterator<CursorPositionDto> it = pending.values().iterator();
+      while (it.hasNext() && out.size() < max) {
+        out.add(it.next());
+        it.remove();
+      }
+      return out;
+    }
+
+    synchronized List<CursorFrameCodec.UserEntry> drainNewUsers() {
+      List<CursorFrameCodec.UserEntry> out = new ArrayList<>(newUsers);
+      newUsers.clear();
+      return out;
+    }
+
+    synchronized List<CursorFrameCodec.UserEntry> allUsers() {
+      return new ArrayList<>(users.values());
+    }
+
+    synchronized Map<Long, Long> indexSnapshot() {
+      Map<Long, Long> out = new HashMap<>(users.size() * 2);
+      users.forEach((userId, entry) -> out.put(userId, entry.index()));
+      return out;
+    }
+
+    synchronized List<Long> removeIdle(long threshold) {
+      List<Long> idle = new ArrayList<>();
+      Iterator<Map.Entry<Long, Long>> it = lastSeen.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Long, Long> e = it.next();
+        if (e.getValue() < threshold) {
+          idle.add(e.getKey());
+          pending.remove(e.getKey());
+          it.remove();
+        }
+      }
+      return idle;
+    }
+
+    synchronized boolean isEmpty() {
+      return lastSeen.isEmpty();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.capstone.global.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 커서/프레즌스용 압축 바이너리 프레임 ({@value #ENCODING}).
+ *
+ * <p>JSON {@link CursorBatchDto} 는 커서마다 박싱된 숫자 필드 이름과 userName 을 반복해서 보냅니다. 이 포맷은 사용자를
+ * 워크스페이스별 작은 정수 인덱스로 바꾸고(사용자 테이블은 참여 시 한 번만 전송), 좌표는 고정 폭 float32 로 보냅니다.
+ *
+ * <pre>
+ * CURSOR_BATCH : u8 type=1 | varint workspaceId | varint timestamp | varint n | n × (varint index | f32 x | f32 y)
+ *                | varint m | m × varint index(유휴로 제거된 사용자)
+ * USER_TABLE   : u8 type=2 | varint workspaceId | varint n | n × (varint index | varint userId | varint len | utf8 name)
+ * </pre>
+ * 정수는 모두 unsigned LEB128 varint, float32 는 big-endian 입니다. 사용자 인덱스도 varint 라 long 범위를 담을 수
+ * 있으며(relay 모드는 userId 를 그대로 씀), 작은 값일수록 짧게 인코딩됩니다. STOMP(SockJS) 경로는 텍스트 프레임만 지원하므로
+ * Base64 문자열로, Socket.IO 경로는 바이너리 첨부로 그대로 보냅니다.
+ */
+public final class CursorFrameCodec {
+
+  public static final String ENCODING = "cursor-bin-v1";
+  public static final String JSON_ENCODING = "json";
+
+  static final int TYPE_CURSOR_BATCH = 1;
+  static final int TYPE_USER_TABLE = 2;
+
+  private CursorFrameCodec() {
+  }
+
+  public static boolean isCompact(String encoding) {
+    return ENCODING.equalsIgnoreCase(encoding);
+  }
+
+  /** 커서 묶음 인코딩. {@code indexOf} 는 userId → 워크스페이스 사용자 인덱스 */
+  public static byte[] encodeBatch(CursorBatchDto batch, ToLongFunction<Long> indexOf) {
+    List<CursorPositionDto> cursors = batch.getCursors() != null ? batch.getCursors() : List.of();
+    List<Long> idle = batch.getIdleUserIds() != null ? batch.getIdleUserIds() : List.of();
+    Buffer out = new Buffer(16 + cursors.size() * 10 + idle.size() * 2);
+    out.write(TYPE_CURSOR_BATCH);
+    out.varint(batch.getWorkspaceId());
+    out.varint(batch.getTimestamp() != null ? batch.getTimestamp() : 0L);
+    out.varint(cursors.size());
+    for (CursorPositionDto c : cursors) {
+      out.varint(indexOf.applyAsLong(c.getUserId()));
+      out.float32(c.getX() != null ? c.getX().floatValue() : 0f);
+      out.float32(c.getY() != null ? c.getY().floatValue() : 0f);
+    }
+    out.varint(idle.size());
+    for (Long userId : idle) {
+      out.varint(indexOf.applyAsLong(userId));
+    }
+    return out.toByteArray();
+  }
+
+  /** 사용자 테이블 인코딩 (index → userId, userName) */
+  public static byte[] encodeUserTable(Long workspaceId, List<UserEntry> entries) {
+    Buffer out = new Buffer(8 + entries.size() * 16);
+    out.write(TYPE_USER_TABLE);
+    out.varint(workspaceId);
+    out.varint(entries.size());
+    for (UserEntry e : entries) {
+      byte[] name = e.userName() != null ? e.userName().getBytes(StandardCharsets.UTF_8) : new byte[0];
+      out.varint(e.index());
+      out.varint(e.userId());
+      out.varint(name.length);
+      out.write(name, 0, name.length);
+    }
+    return out.toByteArray();
+  }
+
+  public static String toText(byte[] frame) {
+    return Base64.getEncoder().encodeToString(frame);
+  }
+
+  /** 디코딩 (테스트·디버깅용). {@code users} 는 index → userId */
+  public static CursorBatchDto decodeBatch(byte[] frame, Map<Long, Long> users) {
+    Reader in = new Reader(frame);
+    if (in.u8() != TYPE_CURSOR_BATCH) {
+      throw new IllegalArgumentException("not a cursor batch frame");
+    }
+    long workspaceId = in.varint();
+    long timestamp = in.varint();
+    int n = (int) in.varint();
+    List<CursorPositionDto> cursors = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      Long userId = users.get(in.varint());
+      float x = in.float32();
+      float y = in.float32();
+      cursors.add(CursorPositionDto.builder()
+          .workspaceId(workspaceId).userId(userId).x((double) x).y((double) y)
+          .timestamp(timestamp).build());
+    }
+    int m = (int) in.varint();
+    List<Long> idle = new ArrayList<>(m);
+    for (int i = 0; i < m; i++) {
+      idle.add(users.get(in.varint()));
+    }
+    return CursorBatchDto.builder()
+        .workspaceId(workspaceId).timestamp(timestamp).cursors(cursors).idleUserIds(idle).build();
+  }
+
+  public static List<UserEntry> decodeUserTable(byte[] frame) {
+    Reader in = new Reader(frame);
+    if (in.u8() != TYPE_USER_TABLE) {
+      throw new IllegalArgumentException("not a user table frame");
+    }
+    in.varint(); // workspaceId
+    int n = (int) in.varint();
+    List<UserEntry> entries = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      long index = in.varint();
+      long userId = in.varint();
+      int len = (int) in.varint();
+      entries.add(new UserEntry(index, userId, in.utf8(len)));
+    }
+    return entries;
+  }
+
+  public record UserEntry(long index, Long userId, String userName) {
+  }
+
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    Buffer(int size) {
+      super(size);
+    }
+
+    void varint(long value) {
+      long v = value;
+      while ((v & ~0x7FL) != 0) {
+        write((int) ((v & 0x7F) | 0x80));
+        v >>>= 7;
+      }
+      write((int) v);
+    }
+
+    void float32(float value) {
+      int bits = Float.floatToIntBits(value);
+      write(bits >>> 24);
+      write(bits >>> 16);
+      write(bits >>> 8);
+      write(bits);
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] data;
+    private int pos;
+
+    Reader(byte[] data) {
+      this.data = data;
+    }
+
+    int u8() {
+      return data[pos++] & 0xFF;
+    }
+
+    long varint() {
+      long result = 0;
+      int shift = 0;
+      while (true) {
+        int b = u8();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+        shift += 7;
+      }
+    }
+
+    float float32() {
+      int bits = (u8() << 24) | (u8() << 16) | (u8() << 8) | u8();
+      return Float.intBitsToFloat(bits);
+    }
+
+    String utf8(int len) {
+      String s = new String(data, pos, len, StandardCharsets.UTF_8);
+      pos += len;
+      return s;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.capstone.global.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * STOMP 압축 커서 채널({@code /topic/workspace/{id}/cursor/compact}) 구독 현황. 구독자가 없는 워크스페이스는
+ * 바이너리 프레임을 만들지 않도록 {@link CursorBroadcastAggregator} 가 참고합니다.
+ *
+ * <p>연결별 인코딩 협상은 구독할 destination 으로 이뤄집니다: 기존 클라이언트는 JSON {@code .../cursor} 를, 새
+ * 클라이언트는 {@code .../cursor/compact} 를 구독합니다.
+ */
+@Component
+public class CursorSubscriptionRegistry {
+
+  private static final Pattern COMPACT_DESTINATION =
+      Pattern.compile("^/topic/workspace/(\\d+)/cursor/compact$");
+
+  /** sessionId → (subscriptionId → workspaceId) */
+  private final Map<String, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+  private final Map<Long, AtomicInteger> compactSubscribers = new ConcurrentHashMap<>();
+
+  public static String compactDestination(Long workspaceId) {
+    return "/topic/workspace/" + workspaceId + "/cursor/compact";
+  }
+
+  public boolean hasCompactSubscribers(Long workspaceId) {
+    AtomicInteger count = compactSubscribers.get(workspaceId);
+    return count != null && count.get() > 0;
+  }
+
+  @EventListener
+  public void onSubscribe(SessionSubscribeEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    subscribed(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+  }
+
+  @EventListener
+  public void onUnsubscribe(SessionUnsubscribeEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+  }
+
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    disconnected(event.getSessionId());
+  }
+
+  void subscribed(String sessionId, String subscriptionId, String destination) {
+    if (sessionId == null || subscriptionId == null || destination == null) {
+      return;
+    }
+    Matcher m = COMPACT_DESTINATION.matcher(destination);
+    if (!m.matches()) {
+      return;
+    }
+    Long workspaceId = Long.valueOf(m.group(1));
+    Long previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+        .put(subscriptionId, workspaceId);
+    if (previous == null) {
+      compactSubscribers.computeIfAbsent(workspaceId, id -> new AtomicInteger()).incrementAndGet();
+    }
+  }
+
+  void unsubscribed(String sessionId, String subscriptionId) {
+    if (sessionId == null || subscriptionId == null) {
+      return;
+    }
+    Map<String, Long> subscriptions = sessions.get(sessionId);
+    if (subscriptions != null) {
+      release(subscriptions.remove(subscriptionId));
+    }
+  }
+
+  void disconnected(String sessionId) {
+    if (sessionId == null) {
+      return;
+    }
+    Map<String, Long> subscriptions = sessions.remove(sessionId);
+    if (subscriptions != null) {
+      subscriptions.values().forEach(this::release);
+    }
+  }
+
+  private void release(Long workspaceId) {
+    if (workspaceId == null) {
+      return;
+    }
+    compactSubscribers.computeIfPresent(workspaceId,
+        (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+  }
+}
@@ -6,14 +6,13 @@ import com.corundumstudio.socketio.listener.DisconnectListener;
 import com.capstone.domain.chat.ChatMessage;
 import com.capstone.domain.chat.ChatMessageService;
 import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.domain.chat.ChatMessageWriteBehind;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -26,11 +25,20 @@ public class SocketIOService {
   @Autowired
   private ChatMessageService chatMessageService;
 
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  @Autowired
+  private ChatMessageWriteBehind chatWriteBehind;
+
+  @Autowired
+  private CursorBroadcastAggregator cursorBroadcastAggregator;
 
-  // 클라이언트 세션 관리
-  private final Map<UUID, String> clientSessionMap = new HashMap<>();
-  private final Map<String, UUID> sessionClientMap = new HashMap<>();
+  // 클라이언트 ↔ 워크스페이스 room 세션 관리 (여러 워크스페이스 동시 참여 지원)
+  @Autowired
+  private SocketIOSessionRegistry sessionRegistry;
+
+  // 클라이언트별 커서 인코딩 (json | cursor-bin-v1) 저장 키
+  private static final String CURSOR_ENCODING_KEY = "cursorEncoding";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
   @PostConstruct
   public void start() {
@@ -52,42 +60,45 @@ public class SocketIOService {
         public void onDisconnect(com.corundumstudio.socketio.SocketIOClient client) {
           System.out.println("클라이언트 연결 해제됨: " + client.getSessionId());
 
-          // 세션 정리
-          String sessionId = clientSessionMap.remove(client.getSessionId());
-          if (sessionId != null) {
-            sessionClientMap.remove(sessionId);
-          }
+          // 참여 중이던 모든 워크스페이스에서 세션 정리
+          sessionRegistry.disconnect(client.getSessionId());
         }
       });
 
       // 채팅 메시지 이벤트
       socketIOServer.addEventListener("chat_message", String.class, (client, data, ackSender) -> {
         try {
-          String workspaceId = clientSessionMap.get(client.getSessionId());
+          // JSON 데이터를 ChatMessageDtos.SendRequest로 파싱
+          ChatMessageDtos.SendRequest request = objectMapper.readValue(data,
+              ChatMessageDtos.SendRequest.class);
+          String workspaceId = resolveWorkspace(client.getSessionId(), request.getWorkspaceId());
           if (workspaceId != null) {
-            // JSON 데이터를 ChatMessageDtos.SendRequest로 파싱
-            ChatMessageDtos.SendRequest request = objectMapper.readValue(data,
-                ChatMessageDtos.SendRequest.class);
-
-            // 메시지를 데이터베이스에 저장
-            ChatMessage savedMessage = chatMessageService.saveMessage(
-                Long.parseLong(workspaceId),
-                request.getUserId(),
-                request.getContent()
-            );
-
-            // 저장된 메시지를 응답 DTO로 변환
-            ChatMessageDtos.Response response = new ChatMessageDtos.Response();
-            response.setMessageId(savedMessage.getMessageId());
-            response.setWorkspaceId(savedMessage.getWorkspaceId());
-            response.setUserId(savedMessage.getUser().getId());
-            response.setContent(savedMessage.getContent());
-            response.setMessageType(savedMessage.getMessageType());
-            response.setFileUrl(savedMessage.getFileUrl());
-            response.setFileName(savedMessage.getFileName());
-            response.setMimeType(savedMessage.getMimeType());
-            response.setFileSize(savedMessage.getFileSize());
-            response.setCreatedAt(savedMessage.getCreatedAt());
+            ChatMessageDtos.Response response;
+            if (chatWriteBehind.isEnabled()) {
+              // write-behind: 저널 기록 후 바로 브로드캐스트, DB 저장은 배치로
+              response = chatWriteBehind.enqueueText(
+                  Long.parseLong(workspaceId), request.getUserId(), request.getContent());
+            } else {
+              // 메시지를 데이터베이스에 저장
+              ChatMessage savedMessage = chatMessageService.saveMessage(
+                  Long.parseLong(workspaceId),
+                  request.getUserId(),
+                  request.getContent()
+              );
+
+              // 저장된 메시지를 응답 DTO로 변환
+              response = new ChatMessageDtos.Response();
+              response.setMessageId(savedMessage.getMessageId());
+              response.setWorkspaceId(savedMessage.getWorkspaceId());
+              response.setUserId(savedMessage.getUser().getId());
+              response.setContent(savedMessage.getContent());
+              response.setMessageType(savedMessage.getMessageType());
+              response.setFileUrl(savedMessage.getFileUrl());
+              response.setFileName(savedMessage.getFileName());
+              response.setMimeType(savedMessage.getMimeType());
+              response.setFileSize(savedMessage.getFileSize());
+              response.setCreatedAt(savedMessage.getCreatedAt());
+            }
 
             // 해당 워크스페이스의 모든 클라이언트에게 메시지 브로드캐스트
             String responseJson = objectMapper.writeValueAsString(response);
@@ -102,14 +113,15 @@ public class SocketIOService {
       // 파일/이미지 메타 전송 이벤트
       socketIOServer.addEventListener("file_message", String.class, (client, data, ackSender) -> {
         try {
-          String workspaceId = clientSessionMap.get(client.getSessionId());
+          // data: { workspaceId?, userId, content?, messageType, fileUrl, fileName, mimeType, fileSize }
+          java.util.Map<String, Object> payload = objectMapper.readValue(
+              data,
+              new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, Object>>() {
+              }
+          );
+          String workspaceId = resolveWorkspace(client.getSessionId(),
+              payload.get("workspaceId") == null ? null : payload.get("workspaceId").toString());
           if (workspaceId != null) {
-            // data: { userId, content?, messageType, fileUrl, fileName, mimeType, fileSize }
-            java.util.Map<String, Object> payload = objectMapper.readValue(
-                data,
-                new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, Object>>() {
-                }
-            );
             Long userId = payload.get("userId") == null ? null
                 : Long.valueOf(payload.get("userId").toString());
             String content =
@@ -121,28 +133,34 @@ public class SocketIOService {
             Long fileSize = payload.get("fileSize") == null ? null
                 : Long.valueOf(payload.get("fileSize").toString());
 
-            ChatMessage saved = chatMessageService.saveFileMessage(
-                Long.parseLong(workspaceId),
-                userId,
-                content,
-                messageType,
-                fileUrl,
-                fileName,
-                mimeType,
-                fileSize
-            );
-
-            ChatMessageDtos.Response response = new ChatMessageDtos.Response();
-            response.setMessageId(saved.getMessageId());
-            response.setWorkspaceId(saved.getWorkspaceId());
-            response.setUserId(saved.getUser().getId());
-            response.setContent(saved.getContent());
-            response.setMessageType(saved.getMessageType());
-            response.setFileUrl(saved.getFileUrl());
-            response.setFileName(saved.getFileName());
-            response.setMimeType(saved.getMimeType());
-            response.setFileSize(saved.getFileSize());
-            response.setCreatedAt(saved.getCreatedAt());
+            ChatMessageDtos.Response response;
+            if (chatWriteBehind.isEnabled()) {
+              response = chatWriteBehind.enqueueFile(Long.parseLong(workspaceId), userId, content,
+                  messageType, fileUrl, fileName, mimeType, fileSize);
+            } else {
+              ChatMessage saved = chatMessageService.saveFileMessage(
+                  Long.parseLong(workspaceId),
+                  userId,
+                  content,
+                  messageType,
+                  fileUrl,
+                  fileName,
+                  mimeType,
+                  fileSize
+              );
+
+              response = new ChatMessageDtos.Response();
+              response.setMessageId(saved.getMessageId());
+              response.setWorkspaceId(saved.getWorkspaceId());
+              response.setUserId(saved.getUser().getId());
+              response.setContent(saved.getContent());
+              response.setMessageType(saved.getMessageType());
+              response.setFileUrl(saved.getFileUrl());
+              response.setFileName(saved.getFileName());
+              response.setMimeType(saved.getMimeType());
+              response.setFileSize(saved.getFileSize());
+              response.setCreatedAt(saved.getCreatedAt());
+            }
 
             String responseJson = objectMapper.writeValueAsString(response);
             socketIOServer.getRoomOperations(workspaceId).sendEvent("new_message", responseJson);
@@ -157,8 +175,7 @@ public class SocketIOService {
       socketIOServer.addEventListener("join_workspace", String.class,
           (client, workspaceId, ackSender) -> {
             client.joinRoom(workspaceId);
-            clientSessionMap.put(client.getSessionId(), workspaceId);
-            sessionClientMap.put(workspaceId, client.getSessionId());
+            sessionRegistry.join(client.getSessionId(), workspaceId);
 
             // 워크스페이스 참여자들에게 새 참여자 알림
             socketIOServer.getRoomOperations(workspaceId).sendEvent("user_joined",
@@ -171,8 +188,7 @@ public class SocketIOService {
       socketIOServer.addEventListener("leave_workspace", String.class,
           (client, workspaceId, ackSender) -> {
             client.leaveRoom(workspaceId);
-            clientSessionMap.remove(client.getSessionId());
-            sessionClientMap.remove(workspaceId);
+            sessionRegistry.leave(client.getSessionId(), workspaceId);
 
             // 워크스페이스 참여자들에게 나가기 알림
             socketIOServer.getRoomOperations(workspaceId).sendEvent("user_left",
@@ -183,7 +199,7 @@ public class SocketIOService {
 
       // 아이디어 박스 업데이트 이벤트
       socketIOServer.addEventListener("idea_update", String.class, (client, data, ackSender) -> {
-        String workspaceId = clientSessionMap.get(client.getSessionId());
+        String workspaceId = sessionRegistry.activeRoom(client.getSessionId());
         if (workspaceId != null) {
           // 해당 워크스페이스의 모든 클라이언트에게 아이디어 업데이트 브로드캐스트
           socketIOServer.getRoomOperations(workspaceId).sendEvent("idea_updated", data);
@@ -204,6 +220,72 @@ public class SocketIOService {
                 "사용자가 음성 채팅에서 나갔습니다.");
           });
 
+      // 커서 인코딩 협상 이벤트 (data: "json" | "cursor-bin-v1")
+      socketIOServer.addEventListener("cursor_negotiate", String.class,
+          (client, encoding, ackSender) -> {
+            // 병합이 꺼져 있으면 압축 프레임이 없으므로 압축 요청에도 json 으로 응답
+            String negotiated = cursorBroadcastAggregator.negotiateEncoding(encoding);
+            boolean compact = CursorFrameCodec.isCompact(negotiated);
+            client.set(CURSOR_ENCODING_KEY, negotiated);
+            client.sendEvent("cursor_negotiated", negotiated);
+
+            if (compact) {
+              for (String workspaceId : sessionRegistry.roomsOf(client.getSessionId())) {
+                byte[] table =
+                    cursorBroadcastAggregator.encodeFullUserTable(Long.valueOf(workspaceId));
+                if (table != null) {
+                  client.sendEvent("cursor_table", table);
+                }
+              }
+            }
+          });
+
+      // 커서 이동 이벤트 (data: CursorPositionDto JSON). 틱마다 병합되어 cursor_batch 로 전송됨
+      socketIOServer.addEventListener("cursor_move", String.class, (client, data, ackSender) -> {
+        try {
+          CursorPositionDto cursor = objectMapper.readValue(data, CursorPositionDto.class);
+          String workspaceId = resolveWorkspace(client.getSessionId(),
+              cursor.getWorkspaceId() == null ? null : String.valueOf(cursor.getWorkspaceId()));
+          if (workspaceId != null) {
+            if (cursor.getUserId() != null && cursor.getX() != null && cursor.getY() != null) {
+              cursor.setWorkspaceId(Long.valueOf(workspaceId));
+              if (cursor.getTimestamp() == null) {
+                cursor.setTimestamp(System.currentTimeMillis());
+              }
+              if (cursorBroadcastAggregator.isCoalescingEnabled()) {
+                cursorBroadcastAggregator.submit(cursor);
+              } else {
+                cursorBroadcastAggregator.publishImmediately(cursor);
+              }
+            }
+          }
+        } catch (Exception e) {
+          System.err.println("커서 이동 처리 중 오류 발생: " + e.getMessage());
+        }
+      });
+
+      // 병합된 커서 프레임을 연결별로 협상된 인코딩에 맞춰 전송
+      cursorBroadcastAggregator.addListener((workspaceId, frame, compact) -> {
+        String json;
+        try {
+          json = objectMapper.writeValueAsString(frame);
+        } catch (Exception e) {
+          System.err.println("커서 프레임 직렬화 중 오류 발생: " + e.getMessage());
+          return;
+        }
+        for (com.corundumstudio.socketio.SocketIOClient client :
+            socketIOServer.getRoomOperations(String.valueOf(workspaceId)).getClients()) {
+          if (CursorFrameCodec.ENCODING.equals(client.get(CURSOR_ENCODING_KEY))) {
+            if (compact.userTableDelta() != null) {
+              client.sendEvent("cursor_table", compact.userTableDelta());
+            }
+            client.sendEvent("cursor_frame", compact.batch());
+          } else {
+            client.sendEvent("cursor_batch", json);
+          }
+        }
+      });
+
       socketIOServer.start();
       System.out.println(
           "Socket.IO 서버가 시작되었습니다. 포트: " + socketIOServer.getConfiguration().getPort());
@@ -222,6 +304,18 @@ public class SocketIOService {
     }
   }
 
+  /**
+   * 이벤트가 향할 워크스페이스. payload 에 workspaceId 가 있으면 클라이언트가 그 room 에 참여 중일 때만 사용하고,
+   * 없으면 가장 최근에 참여한 워크스페이스를 사용합니다.
+   */
+  private String resolveWorkspace(UUID clientId, Object requested) {
+    if (requested != null) {
+      String room = requested.toString();
+      return sessionRegistry.isMember(clientId, room) ? room : null;
+    }
+    return sessionRegistry.activeRoom(clientId);
+  }
+
   // 특정 워크스페이스에 메시지 브로드캐스트
   public void broadcastToWorkspace(String workspaceId, String event, Object data) {
     socketIOServer.getRoomOperations(workspaceId).sendEvent(event, data);
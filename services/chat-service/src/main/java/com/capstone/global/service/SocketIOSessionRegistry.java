@@ -0,0 +1,186 @@
+package com.capstone.global.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Socket.IO 클라이언트 ↔ 워크스페이스 room 양방향 레지스트리.
+ *
+ * <p>한 클라이언트가 여러 워크스페이스에 동시에 참여할 수 있고, 클라이언트 → room 목록 / room → 클라이언트 목록을
+ * 모두 O(1) 로 조회합니다. netty-socketio 이벤트 스레드가 동시에 변경하므로, 한 클라이언트에 대한 변경은
+ * {@code clients.compute} 안에서, 한 room 에 대한 변경은 {@code rooms.compute} 안에서 처리해 양쪽 맵이 어긋나지
+ * 않도록 합니다. 빈 room 은 즉시 제거합니다.
+ *
+ * <p>room 별 인원은 {@code socketio.room.members{workspaceId}} 게이지로 노출하며, room 이 비면 게이지도 제거해
+ * 태그 수가 활성 room 수를 넘지 않게 합니다.
+ */
+@Component
+public class SocketIOSessionRegistry {
+
+  static final String ROOM_MEMBERS_METRIC = "socketio.room.members";
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<UUID, ClientRooms> clients = new ConcurrentHashMap<>();
+  private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+  private final Counter joinCounter;
+  private final Counter leaveCounter;
+
+  public SocketIOSessionRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.joinCounter = meterRegistry.counter("socketio.room.events", "type", "join");
+    this.leaveCounter = meterRegistry.counter("socketio.room.events", "type", "leave");
+    Gauge.builder("socketio.clients.joined", clients, Map::size).register(meterRegistry);
+    Gauge.builder("socketio.rooms.active", rooms, Map::size).register(meterRegistry);
+  }
+
+  /** @return 새로 참여했으면 true (이미 참여 중이면 false, 이 경우에도 활성 room 으로 갱신) */
+  public boolean join(UUID clientId, String room) {
+    boolean[] added = new boolean[1];
+    clients.compute(clientId, (id, state) -> {
+      ClientRooms target = state != null ? state : new ClientRooms();
+      added[0] = target.add(room);
+      if (added[0]) {
+        rooms.compute(room, (r, members) -> {
+          Room created = members != null ? members : new Room(r);
+          created.members.add(clientId);
+          return created;
+        });
+      }
+      return target;
+    });
+    if (added[0]) {
+      joinCounter.increment();
+    }
+    return added[0];
+  }
+
+  /** @return 참여 중이던 room 에서 나갔으면 true */
+  public boolean leave(UUID clientId, String room) {
+    boolean[] removed = new boolean[1];
+    clients.computeIfPresent(clientId, (id, state) -> {
+      removed[0] = state.remove(room);
+      if (removed[0]) {
+        removeMember(room, clientId);
+      }
+      return state.isEmpty() ? null : state;
+    });
+    if (removed[0]) {
+      leaveCounter.increment();
+    }
+    return removed[0];
+  }
+
+  /** 연결 해제: 참여 중이던 모든 room 에서 제거하고 그 목록을 반환 */
+  public List<String> disconnect(UUID clientId) {
+    List<String> left = new ArrayList<>();
+    clients.computeIfPresent(clientId, (id, state) -> {
+      left.addAll(state.snapshot());
+      left.forEach(room -> removeMember(room, clientId));
+      return null;
+    });
+    leaveCounter.increment(left.size());
+    return left;
+  }
+
+  /**
+   * workspaceId 를 따로 싣지 않는 이벤트(chat_message 등)가 향할 room: 가장 최근에 참여한 room. 참여 중인 room 이
+   * 없으면 null.
+   */
+  public String activeRoom(UUID clientId) {
+    ClientRooms state = clients.get(clientId);
+    return state != null ? state.last() : null;
+  }
+
+  public boolean isMember(UUID clientId, String room) {
+    Room members = rooms.get(room);
+    return members != null && members.members.contains(clientId);
+  }
+
+  public Set<String> roomsOf(UUID clientId) {
+    ClientRooms state = clients.get(clientId);
+    return state != null ? Collections.unmodifiableSet(new LinkedHashSet<>(state.snapshot()))
+        : Set.of();
+  }
+
+  public Set<UUID> membersOf(String room) {
+    Room members = rooms.get(room);
+    return members != null ? Collections.unmodifiableSet(members.members) : Set.of();
+  }
+
+  public int memberCount(String room) {
+    Room members = rooms.get(room);
+    return members != null ? members.members.size() : 0;
+  }
+
+  public int roomCount() {
+    return rooms.size();
+  }
+
+  public int clientCount() {
+    return clients.size();
+  }
+
+  private void removeMember(String room, UUID clientId) {
+    rooms.computeIfPresent(room, (r, members) -> {
+      members.members.remove(clientId);
+      if (members.members.isEmpty()) {
+        meterRegistry.remove(members.gauge);
+        return null;
+      }
+      return members;
+    });
+  }
+
+  /** 한 room 의 참여자와 인원 게이지 */
+  private final class Room {
+
+    private final Set<UUID> members = ConcurrentHashMap.newKeySet();
+    private final Gauge gauge;
+
+    Room(String room) {
+      this.gauge = Gauge.builder(ROOM_MEMBERS_METRIC, members, Set::size)
+          .tag("workspaceId", room)
+          .register(meterRegistry);
+    }
+  }
+
+  /** 한 클라이언트가 참여 중인 room (참여 순서 유지, 마지막이 활성 room) */
+  private static final class ClientRooms {
+
+    private final LinkedHashSet<String> joined = new LinkedHashSet<>();
+
+    synchronized boolean add(String room) {
+      boolean added = !joined.remove(room);
+      joined.add(room);
+      return added;
+    }
+
+    synchronized boolean remove(String room) {
+      return joined.remove(room);
+    }
+
+    synchronized String last() {
+      return joined.isEmpty() ? null : joined.getLast();
+    }
+
+    synchronized List<String> snapshot() {
+      return new ArrayList<>(joined);
+    }
+
+    synchronized boolean isEmpty() {
+      return joined.isEmpty();
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.capstone.global.service;
 import com.capstone.domain.chat.ChatMessage;
 import com.capstone.domain.chat.ChatMessageService;
 import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.domain.chat.ChatMessageWriteBehind;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
@@ -19,7 +20,9 @@ import java.util.Map;
 public class WebSocketService {
 
   private final ObjectProvider<ChatMessageService> chatMessageServiceProvider;
+  private final ObjectProvider<ChatMessageWriteBehind> chatWriteBehindProvider;
   private final SimpMessagingTemplate messagingTemplate;
+  private final CursorBroadcastAggregator cursorBroadcastAggregator;
 
   // 채팅 메시지 수신 및 브로드캐스트
   @MessageMapping("/chat/message")
@@ -46,30 +49,39 @@ public class WebSocketService {
         return;
       }
       
-      log.info("메시지 저장 시작 - workspaceId: {}, userId: {}", 
-          request.getWorkspaceId(), request.getUserId());
-      
-      // 메시지를 데이터베이스에 저장
-      ChatMessage savedMessage = chatMessageService().saveMessage(
-          request.getWorkspaceId(),
-          request.getUserId(),
-          request.getContent()
-      );
-
-      log.info("메시지 저장 완료 - messageId: {}", savedMessage.getMessageId());
-
-      // 응답 DTO 생성
-      ChatMessageDtos.Response response = new ChatMessageDtos.Response();
-      response.setMessageId(savedMessage.getMessageId());
-      response.setWorkspaceId(savedMessage.getWorkspaceId());
-      response.setUserId(savedMessage.getUser().getId());
-      response.setContent(savedMessage.getContent());
-      response.setMessageType(savedMessage.getMessageType());
-      response.setFileUrl(savedMessage.getFileUrl());
-      response.setFileName(savedMessage.getFileName());
-      response.setMimeType(savedMessage.getMimeType());
-      response.setFileSize(savedMessage.getFileSize());
-      response.setCreatedAt(savedMessage.getCreatedAt());
+      ChatMessageDtos.Response response;
+      ChatMessageWriteBehind writeBehind = chatWriteBehind();
+      if (writeBehind != null) {
+        // write-behind: id 할당·저널 기록 후 바로 브로드캐스트, DB 저장은 배치로
+        response = writeBehind.enqueueText(
+            request.getWorkspaceId(), request.getUserId(), request.getContent());
+        log.info("메시지 접수 완료 (write-behind) - messageId: {}", response.getMessageId());
+      } else {
+        log.info("메시지 저장 시작 - workspaceId: {}, userId: {}",
+            request.getWorkspaceId(), request.getUserId());
+
+        // 메시지를 데이터베이스에 저장
+        ChatMessage savedMessage = chatMessageService().saveMessage(
+            request.getWorkspaceId(),
+            request.getUserId(),
+            request.getContent()
+        );
+
+        log.info("메시지 저장 완료 - messageId: {}", savedMessage.getMessageId());
+
+        // 응답 DTO 생성
+        response = new ChatMessageDtos.Response();
+        response.setMessageId(savedMessage.getMessageId());
+        response.setWorkspaceId(savedMessage.getWorkspaceId());
+        response.setUserId(savedMessage.getUser().getId());
+        response.setContent(savedMessage.getContent());
+        response.setMessageType(savedMessage.getMessageType());
+        response.setFileUrl(savedMessage.getFileUrl());
+        response.setFileName(savedMessage.getFileName());
+        response.setMimeType(savedMessage.getMimeType());
+        response.setFileSize(savedMessage.getFileSize());
+        response.setCreatedAt(savedMessage.getCreatedAt());
+      }
 
       String broadcastPath = "/topic/workspace/" + request.getWorkspaceId() + "/messages";
       log.info("브로드캐스트 시작 - 경로: {}", broadcastPath);
@@ -104,28 +116,35 @@ public class WebSocketService {
         Long fileSize = payload.get("fileSize") == null ? null
             : Long.valueOf(payload.get("fileSize").toString());
 
-        ChatMessage saved = chatMessageService().saveFileMessage(
-            workspaceId,
-            userId,
-            content,
-            messageType,
-            fileUrl,
-            fileName,
-            mimeType,
-            fileSize
-        );
-
-        ChatMessageDtos.Response response = new ChatMessageDtos.Response();
-        response.setMessageId(saved.getMessageId());
-        response.setWorkspaceId(saved.getWorkspaceId());
-        response.setUserId(saved.getUser().getId());
-        response.setContent(saved.getContent());
-        response.setMessageType(saved.getMessageType());
-        response.setFileUrl(saved.getFileUrl());
-        response.setFileName(saved.getFileName());
-        response.setMimeType(saved.getMimeType());
-        response.setFileSize(saved.getFileSize());
-        response.setCreatedAt(saved.getCreatedAt());
+        ChatMessageDtos.Response response;
+        ChatMessageWriteBehind writeBehind = chatWriteBehind();
+        if (writeBehind != null) {
+          response = writeBehind.enqueueFile(workspaceId, userId, content, messageType, fileUrl,
+              fileName, mimeType, fileSize);
+        } else {
+          ChatMessage saved = chatMessageService().saveFileMessage(
+              workspaceId,
+              userId,
+              content,
+              messageType,
+              fileUrl,
+              fileName,
+              mimeType,
+              fileSize
+          );
+
+          response = new ChatMessageDtos.Response();
+          response.setMessageId(saved.getMessageId());
+          response.setWorkspaceId(saved.getWorkspaceId());
+          response.setUserId(saved.getUser().getId());
+          response.setContent(saved.getContent());
+          response.setMessageType(saved.getMessageType());
+          response.setFileUrl(saved.getFileUrl());
+          response.setFileName(saved.getFileName());
+          response.setMimeType(saved.getMimeType());
+          response.setFileSize(saved.getFileSize());
+          response.setCreatedAt(saved.getCreatedAt());
+        }
 
         // 해당 워크스페이스의 모든 클라이언트에게 브로드캐스트
         messagingTemplate.convertAndSend(
@@ -146,6 +165,12 @@ public class WebSocketService {
     return chatMessageService;
   }
 
+  /** write-behind 모드가 켜져 있으면 그 저장기, 아니면 null (동기 저장) */
+  private ChatMessageWriteBehind chatWriteBehind() {
+    ChatMessageWriteBehind writeBehind = chatWriteBehindProvider.getIfAvailable();
+    return writeBehind != null && writeBehind.isEnabled() ? writeBehind : null;
+  }
+
   // 워크스페이스 참여 알림
   public void notifyUserJoined(Long workspaceId, String message) {
     messagingTemplate.convertAndSend(
@@ -336,47 +361,48 @@ public class WebSocketService {
   }
 
   // 커서 위치 업데이트 이벤트 (클라이언트에서 직접 전송)
+  // 병합 모드에서는 사용자별 최신 위치만 모아 틱마다 CursorBatchDto 한 프레임으로 전송
   @MessageMapping("/cursor/move")
-  public void handleCursorMove(@Payload Map<String, Object> payload) {
+  public void handleCursorMove(@Payload CursorPositionDto payload) {
+    try {
+      if (payload == null || payload.getWorkspaceId() == null || payload.getUserId() == null
+          || payload.getX() == null || payload.getY() == null) {
+        return;
+      }
+      if (payload.getTimestamp() == null) {
+        payload.setTimestamp(System.currentTimeMillis());
+      }
+      broadcastCursorPosition(payload.getWorkspaceId(), payload);
+    } catch (Exception e) {
+      log.error("커서 위치 업데이트 처리 중 오류 발생: {}", e.getMessage(), e);
+    }
+  }
+
+  // 커서 인코딩 협상: 압축(cursor-bin-v1) 클라이언트는 .../cursor/compact 를 구독한 뒤 이 메시지를 보내면
+  // 현재 사용자 인덱스 테이블을 받습니다. JSON 클라이언트는 아무것도 보내지 않아도 됩니다.
+  @MessageMapping("/cursor/negotiate")
+  public void handleCursorNegotiate(@Payload Map<String, Object> payload) {
     try {
       Long workspaceId = payload.get("workspaceId") == null ? null
           : Long.valueOf(payload.get("workspaceId").toString());
-      Long userId = payload.get("userId") == null ? null
-          : Long.valueOf(payload.get("userId").toString());
-      Double x = payload.get("x") == null ? null
-          : Double.valueOf(payload.get("x").toString());
-      Double y = payload.get("y") == null ? null
-          : Double.valueOf(payload.get("y").toString());
-      String userName = (String) payload.get("userName");
-      Long timestamp = payload.get("timestamp") == null ? null
-          : Long.valueOf(payload.get("timestamp").toString());
-
-      if (workspaceId != null && userId != null && x != null && y != null) {
-        CursorPositionDto cursorPosition = CursorPositionDto.builder()
-            .userId(userId)
-            .workspaceId(workspaceId)
-            .x(x)
-            .y(y)
-            .userName(userName)
-            .timestamp(timestamp != null ? timestamp : System.currentTimeMillis())
-            .build();
-
-        // 해당 워크스페이스의 모든 클라이언트에게 커서 위치 브로드캐스트
-        messagingTemplate.convertAndSend(
-            "/topic/workspace/" + workspaceId + "/cursor",
-            cursorPosition
-        );
+      Object encoding = payload.get("encoding");
+      if (workspaceId != null && encoding != null
+          && CursorFrameCodec.isCompact(encoding.toString())) {
+        cursorBroadcastAggregator.publishFullUserTable(workspaceId);
       }
     } catch (Exception e) {
-      log.error("커서 위치 업데이트 처리 중 오류 발생: {}", e.getMessage(), e);
+      log.error("커서 인코딩 협상 처리 중 오류 발생: {}", e.getMessage(), e);
     }
   }
 
   // 커서 위치 브로드캐스트 헬퍼 메서드
   public void broadcastCursorPosition(Long workspaceId, CursorPositionDto cursorPosition) {
-    messagingTemplate.convertAndSend(
-        "/topic/workspace/" + workspaceId + "/cursor",
-        cursorPosition
-    );
+    cursorPosition.setWorkspaceId(workspaceId);
+    if (cursorBroadcastAggregator.isCoalescingEnabled()) {
+      cursorBroadcastAggregator.submit(cursorPosition);
+      return;
+    }
+    // 병합이 꺼져 있으면 압축 프레임이 없으므로 압축 채널 구독자에게도 JSON 으로 전송
+    cursorBroadcastAggregator.publishImmediately(cursorPosition);
   }
 }
@@ -1,6 +1,8 @@
 package com.capstone.controller;
 
 import com.capstone.domain.chat.ChatMessage;
+import com.capstone.domain.chat.ChatMessageCursor;
+import com.capstone.domain.chat.ChatMessageDtos;
 import com.capstone.domain.chat.ChatMessageService;
 import com.capstone.domain.user.User;
 import org.junit.jupiter.api.Test;
@@ -11,9 +13,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.List;
-
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -37,6 +45,24 @@ class ChatMessageControllerTest {
         .build();
   }
 
+  private ChatMessageDtos.Response createResponse(Long messageId, Long userId, String content,
+      Instant createdAt) {
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(messageId);
+    response.setWorkspaceId(1L);
+    response.setUserId(userId);
+    response.setContent(content);
+    response.setCreatedAt(createdAt);
+    return response;
+  }
+
+  private ChatMessageDtos.PageResponse lastPage(ChatMessageDtos.Response... items) {
+    return ChatMessageDtos.PageResponse.builder()
+        .items(List.of(items))
+        .hasMore(false)
+        .build();
+  }
+
   @Test
   void sendMessage_shouldReturnCreatedMessage() throws Exception {
     // Given
@@ -107,6 +133,45 @@ class ChatMessageControllerTest {
         .andExpect(jsonPath("$.fileSize").value(123456));
   }
 
+  @Test
+  void createFileMessage_withSameIdempotencyKey_shouldNotCreateTwice() throws Exception {
+    // Given: 첫 요청은 저장됐지만 응답이 유실되어 같은 키로 다시 보냄
+    ChatMessage saved = new ChatMessage();
+    saved.setMessageId(11L);
+    saved.setWorkspaceId(1L);
+    saved.setUser(createMockUser(123L));
+    saved.setContent("");
+    saved.setMessageType("file");
+    saved.setFileUrl("http://localhost:8080/api/uploads/chat/1/abc.pdf");
+    saved.setFileName("report.pdf");
+    saved.setIdempotencyKey("abc");
+    saved.setCreatedAt(Instant.now());
+
+    when(chatMessageService.findByIdempotencyKey(123L, "abc"))
+        .thenReturn(Optional.empty(), Optional.of(saved));
+    when(chatMessageService.saveFileMessage(eq(1L), eq(123L), any(), eq("file"),
+        eq("http://localhost:8080/api/uploads/chat/1/abc.pdf"), eq("report.pdf"), any(), any(),
+        eq("abc"))).thenReturn(saved);
+
+    String body = "{\"workspaceId\": 1, \"userId\": 123, \"messageType\": \"file\", "
+        + "\"fileUrl\": \"http://localhost:8080/api/uploads/chat/1/abc.pdf\", "
+        + "\"fileName\": \"report.pdf\"}";
+
+    // When & Then
+    for (int attempt = 0; attempt < 2; attempt++) {
+      mockMvc.perform(post("/v1/chat/messages/file")
+              .contentType(MediaType.APPLICATION_JSON)
+              .header("Idempotency-Key", "abc")
+              .content(body)
+              .with(
+                  org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf()))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.messageId").value(11));
+    }
+    verify(chatMessageService, times(1)).saveFileMessage(any(), any(), any(), any(), any(), any(),
+        any(), any(), any());
+  }
+
   @Test
   void sendMessage_withEmptyContent_shouldReturnBadRequest() throws Exception {
     // Given
@@ -151,26 +216,17 @@ class ChatMessageControllerTest {
 
   @Test
   void getMessagesByWorkspace_shouldReturnMessageList() throws Exception {
-    // Given
-    User user1 = createMockUser(123L);
-    User user2 = createMockUser(456L);
-    
-    ChatMessage message1 = new ChatMessage();
-    message1.setMessageId(1L);
-    message1.setWorkspaceId(1L);
-    message1.setUser(user1);
-    message1.setContent("첫 번째 메시지");
-    message1.setCreatedAt(Instant.now().minusSeconds(10));
-
-    ChatMessage message2 = new ChatMessage();
-    message2.setMessageId(2L);
-    message2.setWorkspaceId(1L);
-    message2.setUser(user2);
-    message2.setContent("두 번째 메시지");
-    message2.setCreatedAt(Instant.now());
-
-    List<ChatMessage> mockMessages = Arrays.asList(message1, message2);
-    when(chatMessageService.getMessagesByWorkspace(1L)).thenReturn(mockMessages);
+    // Given: 두 페이지로 나뉜 히스토리를 afterCursor 로 이어 읽음
+    ChatMessageDtos.PageResponse first = ChatMessageDtos.PageResponse.builder()
+        .items(List.of(createResponse(1L, 123L, "첫 번째 메시지", Instant.now().minusSeconds(10))))
+        .afterCursor("c1")
+        .hasMore(true)
+        .build();
+    when(chatMessageService.getMessagePage(eq(1L), isNull(),
+        eq(ChatMessageCursor.Direction.AFTER), anyInt())).thenReturn(first);
+    when(chatMessageService.getMessagePage(eq(1L), eq("c1"),
+        eq(ChatMessageCursor.Direction.AFTER), anyInt()))
+        .thenReturn(lastPage(createResponse(2L, 456L, "두 번째 메시지", Instant.now())));
 
     // When & Then
     mockMvc.perform(get("/v1/chat/messages/workspace/1")
@@ -188,7 +244,8 @@ class ChatMessageControllerTest {
   @Test
   void getMessagesByWorkspace_withEmptyList_shouldReturnEmptyArray() throws Exception {
     // Given
-    when(chatMessageService.getMessagesByWorkspace(1L)).thenReturn(Arrays.asList());
+    when(chatMessageService.getMessagePage(eq(1L), isNull(),
+        eq(ChatMessageCursor.Direction.AFTER), anyInt())).thenReturn(lastPage());
 
     // When & Then
     mockMvc.perform(get("/v1/chat/messages/workspace/1")
@@ -200,19 +257,34 @@ class ChatMessageControllerTest {
   }
 
   @Test
-  void getRecentMessages_shouldReturnLimitedMessages() throws Exception {
+  void getMessagePage_shouldReturnItemsAndCursors() throws Exception {
     // Given
-    User user = createMockUser(456L);
-    
-    ChatMessage message1 = new ChatMessage();
-    message1.setMessageId(2L);
-    message1.setWorkspaceId(1L);
-    message1.setUser(user);
-    message1.setContent("최근 메시지");
-    message1.setCreatedAt(Instant.now());
+    ChatMessageDtos.PageResponse page = ChatMessageDtos.PageResponse.builder()
+        .items(List.of(createResponse(7L, 123L, "이전 메시지", Instant.now())))
+        .beforeCursor("older")
+        .afterCursor("newer")
+        .hasMore(true)
+        .build();
+    when(chatMessageService.getMessagePage(1L, "abc", ChatMessageCursor.Direction.BEFORE, 20))
+        .thenReturn(page);
+
+    // When & Then
+    mockMvc.perform(get("/v1/chat/messages/workspace/1/page?cursor=abc&direction=before&limit=20")
+            .with(
+                org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].messageId").value(7))
+        .andExpect(jsonPath("$.beforeCursor").value("older"))
+        .andExpect(jsonPath("$.afterCursor").value("newer"))
+        .andExpect(jsonPath("$.hasMore").value(true));
+  }
 
-    List<ChatMessage> mockMessages = Arrays.asList(message1);
-    when(chatMessageService.getRecentMessages(1L, 1)).thenReturn(mockMessages);
+  @Test
+  void getRecentMessages_shouldReturnLimitedMessages() throws Exception {
+    // Given
+    when(chatMessageService.getRecentResponses(1L, 1))
+        .thenReturn(List.of(createResponse(2L, 456L, "최근 메시지", Instant.now())));
 
     // When & Then
     mockMvc.perform(get("/v1/chat/messages/workspace/1/recent?limit=1")
@@ -229,17 +301,8 @@ class ChatMessageControllerTest {
   void getMessagesByUser_shouldReturnUserMessages() throws Exception {
     // Given
     Long userId = 123L;
-    User user = createMockUser(userId);
-    
-    ChatMessage message1 = new ChatMessage();
-    message1.setMessageId(1L);
-    message1.setWorkspaceId(1L);
-    message1.setUser(user);
-    message1.setContent("사용자 메시지");
-    message1.setCreatedAt(Instant.now());
-
-    List<ChatMessage> mockMessages = Arrays.asList(message1);
-    when(chatMessageService.getMessagesByUser(userId)).thenReturn(mockMessages);
+    when(chatMessageService.getUserMessagePage(eq(userId), isNull(), anyInt()))
+        .thenReturn(lastPage(createResponse(1L, userId, "사용자 메시지", Instant.now())));
 
     // When & Then
     mockMvc.perform(get("/v1/chat/messages/user/123")
@@ -1,8 +1,13 @@
 package com.capstone.integration;
 
 import com.capstone.domain.chat.ChatMessage;
+import com.capstone.domain.chat.ChatMessageDtos;
 import com.capstone.domain.chat.ChatMessageRepository;
+import com.capstone.domain.chat.ChatMessageTailCache;
+import com.capstone.domain.chat.ChatMessageView;
 import com.capstone.domain.user.User;
+import com.capstone.global.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -10,6 +15,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.springframework.data.domain.PageRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,7 +64,7 @@ class ChatMessageIntegrationTest {
   }
 
   @Test
-  void findByWorkspaceId_shouldReturnMessagesInOrder() {
+  void findOldestPage_shouldReturnMessagesInOrder() {
     // Given
     User user1 = createUser("1");
     User user2 = createUser("2");
@@ -79,11 +87,65 @@ class ChatMessageIntegrationTest {
     entityManager.persistAndFlush(message2);
 
     // When
-    var result = chatMessageRepository.findByWorkspaceIdOrderByCreatedAtAsc(1L);
+    var result = chatMessageRepository.findOldestPage(1L, PageRequest.of(0, 10));
 
     // Then
     assertThat(result).hasSize(2);
     assertThat(result.get(0).getContent()).isEqualTo("첫 번째 메시지");
     assertThat(result.get(1).getContent()).isEqualTo("두 번째 메시지");
   }
+
+  @Test
+  void tailCache_shouldMatchLatestPageQuery() {
+    // Given
+    User user = entityManager.persistFlushFind(createUser("tail"));
+    ChatMessageTailCache cache =
+        new ChatMessageTailCache(new AppProperties(), new SimpleMeterRegistry());
+    IntFunction<List<ChatMessageDtos.Response>> loader =
+        n -> chatMessageRepository.findLatestPage(1L, PageRequest.of(0, n)).stream()
+            .map(ChatMessageView::toResponse)
+            .toList();
+    Instant base = Instant.now().minusSeconds(60);
+    for (int i = 0; i < 3; i++) {
+      persistMessage(user, "이전 메시지 " + i, base.plusSeconds(i));
+    }
+    cache.getRecent(1L, 10, loader);
+
+    // When: 캐시가 채워진 뒤 저장된 메시지는 커밋 후 append (같은 시각 메시지 포함)
+    for (int i = 0; i < 3; i++) {
+      ChatMessage saved = persistMessage(user, "새 메시지 " + i, base.plusSeconds(30));
+      cache.append(toResponse(saved));
+    }
+    entityManager.clear();
+
+    // Then
+    List<ChatMessageDtos.Response> cached = cache.getRecent(1L, 10, n -> {
+      throw new AssertionError("캐시 적중이어야 함");
+    });
+    assertThat(cached).extracting(ChatMessageDtos.Response::getMessageId)
+        .containsExactlyElementsOf(loader.apply(10).stream()
+            .map(ChatMessageDtos.Response::getMessageId)
+            .toList());
+    assertThat(cached).hasSize(6);
+  }
+
+  private ChatMessage persistMessage(User user, String content, Instant createdAt) {
+    ChatMessage message = new ChatMessage();
+    message.setWorkspaceId(1L);
+    message.setUser(user);
+    message.setContent(content);
+    message.setCreatedAt(createdAt);
+    return entityManager.persistAndFlush(message);
+  }
+
+  private ChatMessageDtos.Response toResponse(ChatMessage message) {
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(message.getMessageId());
+    response.setWorkspaceId(message.getWorkspaceId());
+    response.setUserId(message.getUser().getId());
+    response.setContent(message.getContent());
+    response.setMessageType(message.getMessageType());
+    response.setCreatedAt(message.getCreatedAt());
+    return response;
+  }
 }
@@ -0,0 +1,205 @@
+package com.capstone.integration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테스트용 최소 STOMP 1.2 브로커 (외부 RabbitMQ/ActiveMQ 대역). CONNECT/SUBSCRIBE/UNSUBSCRIBE/SEND/DISCONNECT 만
+ * 처리하고, SEND 는 destination 이 정확히 같은 모든 구독에 MESSAGE 로 전달합니다. 하트비트는 0,0 으로 협상합니다.
+ */
+class LocalStompBroker implements AutoCloseable {
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+    Thread t = new Thread(r, "local-stomp-broker");
+    t.setDaemon(true);
+    return t;
+  });
+  private final List<Connection> connections = new CopyOnWriteArrayList<>();
+  private final AtomicLong messageIds = new AtomicLong();
+
+  LocalStompBroker() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    executor.submit(this::acceptLoop);
+  }
+
+  int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** CONNECT 를 마친 연결 수 */
+  int connectedCount() {
+    return (int) connections.stream().filter(c -> c.connected).count();
+  }
+
+  int subscriptionCount(String destination) {
+    return (int) connections.stream()
+        .flatMap(c -> c.subscriptions.values().stream())
+        .filter(destination::equals)
+        .count();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    connections.forEach(Connection::close);
+    executor.shutdownNow();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Connection connection = new Connection(serverSocket.accept());
+        connections.add(connection);
+        executor.submit(connection::readLoop);
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void publish(String destination, Map<String, String> headers, byte[] body) {
+    for (Connection connection : connections) {
+      connection.subscriptions.forEach((id, subscribed) -> {
+        if (subscribed.equals(destination)) {
+          Map<String, String> out = new LinkedHashMap<>();
+          out.put("subscription", id);
+          out.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+          out.put("destination", destination);
+          if (headers.containsKey("content-type")) {
+            out.put("content-type", headers.get("content-type"));
+          }
+          connection.send("MESSAGE", out, body);
+        }
+      });
+    }
+  }
+
+  private final class Connection {
+
+    private final Socket socket;
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+    private volatile boolean connected;
+
+    Connection(Socket socket) {
+      this.socket = socket;
+    }
+
+    void readLoop() {
+      try (InputStream in = socket.getInputStream()) {
+        while (true) {
+          String command = readLine(in);
+          if (command == null) {
+            return;
+          }
+          if (command.isEmpty()) {
+            continue; // 하트비트 EOL
+          }
+          Map<String, String> headers = new LinkedHashMap<>();
+          for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+            int colon = line.indexOf(':');
+            headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+          }
+          handle(command, headers, readBody(in, headers));
+        }
+      } catch (IOException e) {
+        // 연결 종료
+      } finally {
+        close();
+      }
+    }
+
+    private void handle(String command, Map<String, String> headers, byte[] body) {
+      switch (command) {
+        case "CONNECT", "STOMP" -> {
+          connected = true;
+          send("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+        }
+        case "SUBSCRIBE" -> subscriptions.put(headers.get("id"), headers.get("destination"));
+        case "UNSUBSCRIBE" -> subscriptions.remove(headers.get("id"));
+        case "SEND" -> publish(headers.get("destination"), headers, body);
+        case "DISCONNECT" -> {
+          if (headers.containsKey("receipt")) {
+            send("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+          }
+          close();
+        }
+        default -> {
+        }
+      }
+      if (!"DISCONNECT".equals(command) && headers.containsKey("receipt")) {
+        send("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+      }
+    }
+
+    synchronized void send(String command, Map<String, String> headers, byte[] body) {
+      try {
+        OutputStream out = socket.getOutputStream();
+        StringBuilder frame = new StringBuilder(command).append('\n');
+        headers.forEach((k, v) -> frame.append(k).append(':').append(v).append('\n'));
+        frame.append("content-length:").append(body.length).append("\n\n");
+        out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+        out.write(0);
+        out.flush();
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    void close() {
+      connected = false;
+      subscriptions.clear();
+      connections.remove(this);
+      try {
+        socket.close();
+      } catch (IOException ignored) {
+        // 무시
+      }
+    }
+
+    private String readLine(InputStream in) throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) != -1) {
+        if (b == '\n') {
+          String s = line.toString(StandardCharsets.UTF_8);
+          return s.endsWith("\r") ? s.substring(0, s.length() - 1) : s;
+        }
+        if (b != 0 || line.size() > 0) {
+          line.write(b);
+        }
+      }
+      return null;
+    }
+
+    private byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+      String length = headers.get("content-length");
+      if (length != null) {
+        byte[] body = in.readNBytes(Integer.parseInt(length));
+        in.read(); // NULL
+        return body;
+      }
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) > 0) {
+        body.write(b);
+      }
+      return body.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.capstone.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.capstone.global.config.AppProperties;
+import com.capstone.global.config.WebSocketConfig;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+/**
+ * relay 모드에서 chat-service 인스턴스 두 개가 같은 외부 브로커를 공유할 때, 한 노드에서 발행한
+ * {@code /topic/workspace/*} 메시지가 다른 노드에 연결된 구독자에게도 전달되는지 검증합니다.
+ * 외부 브로커는 {@link LocalStompBroker} 로 대신합니다.
+ */
+class StompBrokerRelayIntegrationTest {
+
+  private static final String CHAT_TOPIC = "/topic/workspace/7/chat";
+
+  private LocalStompBroker broker;
+  private ConfigurableApplicationContext nodeA;
+  private ConfigurableApplicationContext nodeB;
+  private WebSocketStompClient stompClient;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    broker = new LocalStompBroker();
+    nodeA = startNode(broker.port());
+    nodeB = startNode(broker.port());
+    // 각 노드의 relay 시스템 연결이 붙을 때까지 대기
+    awaitTrue(() -> broker.connectedCount() >= 2);
+
+    stompClient = new WebSocketStompClient(
+        new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+    stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (stompClient != null) {
+      stompClient.stop();
+    }
+    if (nodeA != null) {
+      nodeA.close();
+    }
+    if (nodeB != null) {
+      nodeB.close();
+    }
+    broker.close();
+  }
+
+  @Test
+  void relayModeFansOutAcrossNodes() throws Exception {
+    BlockingQueue<Map<String, Object>> receivedOnA = new LinkedBlockingQueue<>();
+    BlockingQueue<Map<String, Object>> receivedOnB = new LinkedBlockingQueue<>();
+    subscribe(nodeA, receivedOnA);
+    subscribe(nodeB, receivedOnB);
+    awaitTrue(() -> broker.subscriptionCount(CHAT_TOPIC) == 2);
+
+    // 노드 B 에서 발행 → 노드 A 에 붙은 구독자도 받아야 함
+    nodeB.getBean(SimpMessagingTemplate.class)
+        .convertAndSend(CHAT_TOPIC, Map.of("content", "from-b"));
+
+    assertThat(receivedOnA.poll(5, TimeUnit.SECONDS)).containsEntry("content", "from-b");
+    assertThat(receivedOnB.poll(5, TimeUnit.SECONDS)).containsEntry("content", "from-b");
+
+    // 반대 방향
+    nodeA.getBean(SimpMessagingTemplate.class)
+        .convertAndSend(CHAT_TOPIC, Map.of("content", "from-a"));
+
+    assertThat(receivedOnB.poll(5, TimeUnit.SECONDS)).containsEntry("content", "from-a");
+    assertThat(receivedOnA.poll(5, TimeUnit.SECONDS)).containsEntry("content", "from-a");
+  }
+
+  private void subscribe(ConfigurableApplicationContext node,
+      BlockingQueue<Map<String, Object>> received) throws Exception {
+    int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+    StompSession session = stompClient
+        .connectAsync("http://localhost:" + port + "/api/ws", new StompSessionHandlerAdapter() {
+        })
+        .get(5, TimeUnit.SECONDS);
+    session.subscribe(CHAT_TOPIC, new StompFrameHandler() {
+      @Override
+      public Type getPayloadType(StompHeaders headers) {
+        return Map.class;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void handleFrame(StompHeaders headers, Object payload) {
+        received.add((Map<String, Object>) payload);
+      }
+    });
+  }
+
+  private ConfigurableApplicationContext startNode(int brokerPort) {
+    return new SpringApplicationBuilder(RelayNodeConfig.class)
+        .run(
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--app.broker.mode=relay",
+            "--app.broker.relay-host=127.0.0.1",
+            "--app.broker.relay-port=" + brokerPort);
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("timed out waiting for condition");
+      }
+      Thread.sleep(50);
+    }
+  }
+
+  /** STOMP 엔드포인트/브로커 설정만 올리는 최소 노드 (DB·보안 제외) */
+  @SpringBootConfiguration
+  @ImportAutoConfiguration({
+      PropertyPlaceholderAutoConfiguration.class,
+      ConfigurationPropertiesAutoConfiguration.class,
+      ServletWebServerFactoryAutoConfiguration.class,
+      DispatcherServletAutoConfiguration.class,
+      WebMvcAutoConfiguration.class,
+      JacksonAutoConfiguration.class,
+      HttpMessageConvertersAutoConfiguration.class,
+      WebSocketServletAutoConfiguration.class,
+      WebSocketMessagingAutoConfiguration.class
+  })
+  @Import({AppProperties.class, WebSocketConfig.class})
+  static class RelayNodeConfig {
+  }
+}
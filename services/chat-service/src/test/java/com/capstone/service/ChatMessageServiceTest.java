@@ -1,10 +1,17 @@
 package com.capstone.service;
 
 import com.capstone.domain.chat.ChatMessage;
+import com.capstone.domain.chat.ChatMessageCursor;
+import com.capstone.domain.chat.ChatMessageDtos;
 import com.capstone.domain.chat.ChatMessageRepository;
+import com.capstone.domain.chat.ChatMessageSearchRepository;
 import com.capstone.domain.chat.ChatMessageService;
+import com.capstone.domain.chat.ChatMessageTailCache;
+import com.capstone.domain.chat.ChatMessageView;
 import com.capstone.domain.user.User;
 import com.capstone.domain.user.UserRepository;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -12,12 +19,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +38,12 @@ class ChatMessageServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private ChatMessageTailCache tailCache;
+
+  @Mock
+  private ChatMessageSearchRepository chatMessageSearchRepository;
+
   @InjectMocks
   private ChatMessageService chatMessageService;
 
@@ -71,43 +86,106 @@ class ChatMessageServiceTest {
   }
 
   @Test
-  void getMessagesByWorkspace_shouldReturnMessagesInOrder() {
+  void getMessageCountByWorkspace_shouldReturnCount() {
     // Given
     Long workspaceId = 1L;
+    when(chatMessageRepository.countByWorkspaceId(workspaceId)).thenReturn(5L);
 
-    ChatMessage message1 = new ChatMessage();
-    message1.setMessageId(1L);
-    message1.setContent("첫 번째 메시지");
-    message1.setCreatedAt(Instant.now().minusSeconds(10));
+    // When
+    long result = chatMessageService.getMessageCountByWorkspace(workspaceId);
 
-    ChatMessage message2 = new ChatMessage();
-    message2.setMessageId(2L);
-    message2.setContent("두 번째 메시지");
-    message2.setCreatedAt(Instant.now());
+    // Then
+    assertThat(result).isEqualTo(5L);
+  }
 
-    List<ChatMessage> mockMessages = Arrays.asList(message1, message2);
-    when(chatMessageRepository.findByWorkspaceIdOrderByCreatedAtAsc(workspaceId)).thenReturn(
-        mockMessages);
+  private ChatMessageView view(long id, Instant createdAt) {
+    return new ChatMessageView(id, 1L, 456L, "메시지 " + id, "text", null, null, null, null,
+        createdAt);
+  }
+
+  @Test
+  void getMessagePage_before_shouldReturnChronologicalItemsAndCursors() {
+    // Given: 최신순으로 limit + 1 건이 조회됨
+    Instant now = Instant.parse("2026-01-01T00:00:00.123456789Z");
+    ChatMessageCursor cursor = new ChatMessageCursor(now, 100L);
+    when(chatMessageRepository.findPageBefore(eq(1L), eq(now), eq(100L),
+        argThat(p -> p.getPageSize() == 3)))
+        .thenReturn(List.of(view(99L, now), view(98L, now.minusSeconds(1)),
+            view(97L, now.minusSeconds(2))));
 
     // When
-    List<ChatMessage> result = chatMessageService.getMessagesByWorkspace(workspaceId);
+    ChatMessageDtos.PageResponse page = chatMessageService.getMessagePage(1L, cursor.encode(),
+        ChatMessageCursor.Direction.BEFORE, 2);
 
     // Then
-    assertThat(result).hasSize(2);
-    assertThat(result.get(0).getContent()).isEqualTo("첫 번째 메시지");
-    assertThat(result.get(1).getContent()).isEqualTo("두 번째 메시지");
+    assertThat(page.getItems()).extracting(ChatMessageDtos.Response::getMessageId)
+        .containsExactly(98L, 99L);
+    assertThat(page.isHasMore()).isTrue();
+    assertThat(ChatMessageCursor.decode(page.getBeforeCursor()))
+        .isEqualTo(new ChatMessageCursor(now.minusSeconds(1), 98L));
+    assertThat(ChatMessageCursor.decode(page.getAfterCursor()))
+        .isEqualTo(new ChatMessageCursor(now, 99L));
   }
 
   @Test
-  void getMessageCountByWorkspace_shouldReturnCount() {
+  void getMessagePage_afterFromStart_shouldHaveNoBeforeCursor() {
     // Given
-    Long workspaceId = 1L;
-    when(chatMessageRepository.countByWorkspaceId(workspaceId)).thenReturn(5L);
+    Instant now = Instant.now();
+    when(chatMessageRepository.findOldestPage(eq(1L), any()))
+        .thenReturn(List.of(view(1L, now), view(2L, now)));
 
     // When
-    long result = chatMessageService.getMessageCountByWorkspace(workspaceId);
+    ChatMessageDtos.PageResponse page = chatMessageService.getMessagePage(1L, null,
+        ChatMessageCursor.Direction.AFTER, 10);
 
     // Then
-    assertThat(result).isEqualTo(5L);
+    assertThat(page.getItems()).extracting(ChatMessageDtos.Response::getMessageId)
+        .containsExactly(1L, 2L);
+    assertThat(page.isHasMore()).isFalse();
+    assertThat(page.getBeforeCursor()).isNull();
+    assertThat(ChatMessageCursor.decode(page.getAfterCursor()).messageId()).isEqualTo(2L);
+  }
+
+  @Test
+  void getMessagePage_withInvalidCursor_shouldThrow() {
+    assertThatThrownBy(() -> chatMessageService.getMessagePage(1L, "not-a-cursor!",
+        ChatMessageCursor.Direction.BEFORE, 10))
+        .isInstanceOf(CustomException.class)
+        .extracting(e -> ((CustomException) e).getErrorCode())
+        .isEqualTo(ErrorCode.INVALID_CURSOR);
+    assertThatThrownBy(() -> chatMessageService.getMessagePage(1L, "AQID",
+        ChatMessageCursor.Direction.BEFORE, 10))
+        .isInstanceOf(CustomException.class);
+  }
+
+  @Test
+  void search_shouldReturnRankedPageWithHasNext() {
+    // Given
+    List<ChatMessageDtos.SearchHit> hits = List.of(new ChatMessageDtos.SearchHit(),
+        new ChatMessageDtos.SearchHit(), new ChatMessageDtos.SearchHit());
+    when(chatMessageSearchRepository.search(1L, "배포:* & 일정:*", 3, 2)).thenReturn(hits);
+
+    // When
+    ChatMessageDtos.SearchResponse result = chatMessageService.search(1L, "배포 일정?", 1, 2);
+
+    // Then
+    assertThat(result.getItems()).hasSize(2);
+    assertThat(result.isHasNext()).isTrue();
+    assertThat(result.getPage()).isEqualTo(1);
+  }
+
+  @Test
+  void search_withTooDeepPage_shouldThrow() {
+    assertThatThrownBy(() -> chatMessageService.search(1L, "배포", 100, 50))
+        .isInstanceOf(CustomException.class);
+  }
+
+  @Test
+  void cursor_shouldRoundTripWithNanoPrecision() {
+    ChatMessageCursor cursor =
+        new ChatMessageCursor(Instant.parse("2026-03-04T05:06:07.000000001Z"), 42L);
+
+    assertThat(ChatMessageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
   }
 }
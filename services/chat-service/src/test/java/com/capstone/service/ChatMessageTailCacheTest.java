@@ -0,0 +1,230 @@
+package com.capstone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.domain.chat.ChatMessageTailCache;
+import com.capstone.global.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChatMessageTailCacheTest {
+
+  private final Instant base = Instant.parse("2026-01-01T00:00:00Z");
+  private AppProperties appProperties;
+  private SimpleMeterRegistry meterRegistry;
+  private ChatMessageTailCache cache;
+  /** 테스트용 chat_messages 테이블 */
+  private final List<ChatMessageDtos.Response> table = new ArrayList<>();
+  private final AtomicInteger dbReads = new AtomicInteger();
+  private long nextId = 1;
+
+  @BeforeEach
+  void setUp() {
+    appProperties = new AppProperties();
+    appProperties.getChat().getTailCache().setMessagesPerWorkspace(5);
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new ChatMessageTailCache(appProperties, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("처음 조회는 DB 에서 채우고 이후 조회와 커밋된 메시지는 캐시에서 응답")
+  void fillsOnMissAndServesAppendsFromMemory() {
+    for (int i = 0; i < 3; i++) {
+      commit(1L, base.plusSeconds(i));
+    }
+
+    assertThat(ids(recent(1L, 5))).containsExactly(3L, 2L, 1L);
+    commit(1L, base.plusSeconds(10));
+    commit(1L, base.plusSeconds(11));
+    commit(1L, base.plusSeconds(12));
+
+    assertThat(ids(recent(1L, 5))).containsExactly(6L, 5L, 4L, 3L, 2L);
+    assertThat(ids(recent(1L, 2))).containsExactly(6L, 5L);
+    assertThat(dbReads).hasValue(1);
+    assertThat(meterRegistry.counter("chat.tailcache.requests", "result", "hit").count())
+        .isEqualTo(2.0);
+    assertThat(meterRegistry.get("chat.tailcache.hit.ratio").gauge().value())
+        .isEqualTo(2.0 / 3.0);
+  }
+
+  @Test
+  @DisplayName("늦게 커밋된 메시지도 (createdAt, id) 순서 위치에 들어가고 중복 id 는 무시")
+  void outOfOrderAndDuplicateAppends() {
+    commit(1L, base.plusSeconds(10));
+    recent(1L, 5);
+
+    ChatMessageDtos.Response late = commit(1L, base.plusSeconds(5));
+    cache.append(late);
+    commit(1L, base.plusSeconds(20));
+
+    assertThat(ids(recent(1L, 5))).containsExactly(3L, 1L, 2L);
+    assertThat(ids(recent(1L, 5))).isEqualTo(ids(fromDb(1L, 5)));
+  }
+
+  @Test
+  @DisplayName("채우는 도중 커밋된 메시지가 있으면 스냅샷을 설치하지 않음")
+  void concurrentCommitDuringLoadDiscardsSnapshot() {
+    commit(1L, base);
+
+    List<ChatMessageDtos.Response> first = cache.getRecent(1L, 5, n -> {
+      List<ChatMessageDtos.Response> snapshot = fromDb(1L, n);
+      // DB 조회 직후, 설치 전에 다른 요청의 저장이 커밋됨
+      commit(1L, base.plusSeconds(1));
+      return snapshot;
+    });
+
+    assertThat(ids(first)).containsExactly(1L);
+    assertThat(cache.workspaceCount()).isZero();
+    assertThat(ids(recent(1L, 5))).containsExactly(2L, 1L);
+  }
+
+  @Test
+  @DisplayName("전체 크기 상한을 넘으면 가장 오래 쓰이지 않은 워크스페이스부터 제거")
+  void evictsLeastRecentlyUsedWorkspaceOverByteCap() {
+    for (long ws = 1; ws <= 3; ws++) {
+      commit(ws, base);
+    }
+    recent(1L, 5);
+    recent(2L, 5);
+    long perWorkspace = cache.estimatedBytes() / 2;
+    appProperties.getChat().getTailCache().setMaxBytes(perWorkspace * 2);
+
+    recent(1L, 5); // 1 을 최근 사용으로
+    recent(3L, 5); // 2 가 축출됨
+
+    assertThat(cache.workspaceCount()).isEqualTo(2);
+    assertThat(cache.estimatedBytes()).isLessThanOrEqualTo(perWorkspace * 2);
+    int readsBefore = dbReads.get();
+    recent(1L, 5);
+    assertThat(dbReads).hasValue(readsBefore);
+    recent(2L, 5);
+    assertThat(dbReads).hasValue(readsBefore + 1);
+    assertThat(meterRegistry.counter("chat.tailcache.evictions").count()).isGreaterThan(0);
+  }
+
+  @Test
+  @DisplayName("무작위 저장·조회를 섞어도 캐시 응답이 항상 DB 조회 결과와 같음")
+  void randomizedConsistencyWithDatabase() {
+    appProperties.getChat().getTailCache().setMaxBytes(3_000);
+    Random random = new Random(42);
+    for (int step = 0; step < 5_000; step++) {
+      long ws = 1 + random.nextInt(8);
+      if (random.nextInt(3) == 0) {
+        // 같은 시각·지연 커밋 포함
+        commit(ws, base.plusSeconds(step / 4 - random.nextInt(3)));
+      } else {
+        int limit = 1 + random.nextInt(5);
+        assertThat(ids(recent(ws, limit))).as("step %d ws %d", step, ws)
+            .isEqualTo(ids(fromDb(ws, limit)));
+      }
+    }
+    assertThat(meterRegistry.counter("chat.tailcache.requests", "result", "hit").count())
+        .isGreaterThan(0);
+  }
+
+  @Test
+  @DisplayName("limit 이 보관 개수보다 크면 캐시를 거치지 않음")
+  void largeLimitBypassesCache() {
+    commit(1L, base);
+
+    recent(1L, 50);
+
+    assertThat(cache.workspaceCount()).isZero();
+    assertThat(meterRegistry.counter("chat.tailcache.requests", "result", "bypass").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("이 인스턴스를 거치지 않은 삭제는 max-age 가 지나면 다시 채우며 반영")
+  void expiredTailIsReloaded() throws InterruptedException {
+    appProperties.getChat().getTailCache().setMaxAgeMs(50);
+    commit(1L, base);
+    commit(1L, base.plusSeconds(1));
+    recent(1L, 5);
+
+    // workspace-service 의 영구 삭제처럼 캐시 모르게 DB 에서 지워짐
+    table.removeIf(m -> m.getWorkspaceId() == 1L);
+    assertThat(ids(recent(1L, 5))).containsExactly(2L, 1L);
+    Thread.sleep(80);
+
+    assertThat(recent(1L, 5)).isEmpty();
+    assertThat(dbReads).hasValue(2);
+    assertThat(cache.estimatedBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("DB 조회가 실패하면 채우던 자리를 지워 다음 조회에서 다시 채움")
+  void failedLoadDoesNotLeavePlaceholder() {
+    commit(1L, base);
+
+    assertThatThrownBy(() -> cache.getRecent(1L, 5, n -> {
+      throw new IllegalStateException("db down");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(cache.workspaceCount()).isZero();
+
+    assertThat(ids(recent(1L, 5))).containsExactly(1L);
+    assertThat(ids(recent(1L, 5))).containsExactly(1L);
+    assertThat(dbReads).hasValue(1);
+    assertThat(meterRegistry.counter("chat.tailcache.requests", "result", "hit").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("relay 모드(여러 인스턴스)에서는 다른 인스턴스의 저장을 알 수 없으므로 캐시를 쓰지 않음")
+  void relayModeBypassesCache() {
+    appProperties.getBroker().setMode("relay");
+    cache = new ChatMessageTailCache(appProperties, new SimpleMeterRegistry());
+    commit(1L, base);
+
+    recent(1L, 5);
+    recent(1L, 5);
+
+    assertThat(dbReads).hasValue(2);
+    assertThat(cache.workspaceCount()).isZero();
+  }
+
+  /** 저장 커밋: 테이블에 넣고 afterCommit 처럼 캐시에 반영 */
+  private ChatMessageDtos.Response commit(long workspaceId, Instant createdAt) {
+    ChatMessageDtos.Response message = new ChatMessageDtos.Response();
+    message.setMessageId(nextId++);
+    message.setWorkspaceId(workspaceId);
+    message.setUserId(7L);
+    message.setContent("메시지 " + message.getMessageId());
+    message.setMessageType("text");
+    message.setCreatedAt(createdAt);
+    table.add(message);
+    cache.append(message);
+    return message;
+  }
+
+  private List<ChatMessageDtos.Response> recent(long workspaceId, int limit) {
+    return cache.getRecent(workspaceId, limit, n -> {
+      dbReads.incrementAndGet();
+      return fromDb(workspaceId, n);
+    });
+  }
+
+  /** findLatestPage 와 같은 정렬: created_at DESC, id DESC */
+  private List<ChatMessageDtos.Response> fromDb(long workspaceId, int limit) {
+    return table.stream()
+        .filter(m -> m.getWorkspaceId() == workspaceId)
+        .sorted(Comparator.comparing(ChatMessageDtos.Response::getCreatedAt)
+            .thenComparing(ChatMessageDtos.Response::getMessageId).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  private static List<Long> ids(List<ChatMessageDtos.Response> messages) {
+    return messages.stream().map(ChatMessageDtos.Response::getMessageId).toList();
+  }
+}
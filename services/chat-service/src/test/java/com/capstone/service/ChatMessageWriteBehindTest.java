@@ -0,0 +1,250 @@
+package com.capstone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.domain.chat.ChatMessageIdAllocator;
+import com.capstone.domain.chat.ChatMessageRepository;
+import com.capstone.domain.chat.ChatMessageTailCache;
+import com.capstone.domain.chat.ChatMessageWriteBehind;
+import com.capstone.domain.chat.PendingChatMessage;
+import com.capstone.global.config.AppProperties;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+class ChatMessageWriteBehindTest {
+
+  @TempDir
+  Path journalDir;
+
+  private final AtomicLong ids = new AtomicLong(1000);
+  private ChatMessageIdAllocator idAllocator;
+  private AppProperties appProperties;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    idAllocator = mock(ChatMessageIdAllocator.class);
+    when(idAllocator.nextId()).thenAnswer(inv -> ids.incrementAndGet());
+    appProperties = new AppProperties();
+    AppProperties.WriteBehind props = appProperties.getChat().getWriteBehind();
+    props.setEnabled(true);
+    props.setJournalDir(journalDir.toString());
+    props.setFlushIntervalMs(5);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void enqueueBroadcastsImmediatelyAndPersistsInBatches() throws Exception {
+    Store store = new Store();
+    ChatMessageWriteBehind writeBehind = newWriteBehind(store.repository);
+    writeBehind.start();
+
+    ChatMessageDtos.Response first = writeBehind.enqueueText(1L, 7L, "안녕");
+    ChatMessageDtos.Response second = writeBehind.enqueueFile(1L, 7L, null, "image",
+        "/uploads/a.png", "a.png", "image/png", 10L);
+
+    assertThat(first.getMessageId()).isEqualTo(1001L);
+    assertThat(second.getMessageId()).isEqualTo(1002L);
+    assertThat(first.getCreatedAt()).isNotNull();
+
+    writeBehind.stop();
+    assertThat(store.rows).containsOnlyKeys(1001L, 1002L);
+    assertThat(store.rows.get(1002L).getFileUrl()).isEqualTo("/uploads/a.png");
+    assertThat(journalFiles()).isEmpty();
+  }
+
+  @Test
+  void replaysJournalAfterCrashWithoutDuplicates() throws Exception {
+    // 1) DB 장애 중 메시지 3건이 브로드캐스트된 뒤 프로세스가 내려감
+    ChatMessageRepository downRepository = mock(ChatMessageRepository.class);
+    doAnswer(inv -> {
+      throw new DataAccessResourceFailureException("connection refused");
+    }).when(downRepository).insertAll(anyList());
+    ChatMessageWriteBehind crashed = newWriteBehind(downRepository);
+    crashed.start();
+    List<Long> broadcastIds = List.of(
+        crashed.enqueueText(1L, 7L, "a").getMessageId(),
+        crashed.enqueueText(1L, 7L, "b").getMessageId(),
+        crashed.enqueueText(2L, 8L, "c").getMessageId());
+    crashed.stop();
+    // 크래시 순간 쓰다 만 줄
+    Path segment = journalFiles().get(0);
+    Files.writeString(segment, "{\"id\":99,\"conte", StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+
+    // 2) 재기동: 첫 번째 메시지는 크래시 직전에 이미 저장됐다고 가정 (ON CONFLICT 로 무시되어야 함)
+    Store store = new Store();
+    store.rows.put(broadcastIds.get(0),
+        PendingChatMessage.builder().id(broadcastIds.get(0)).content("a").build());
+    ChatMessageWriteBehind restarted = newWriteBehind(store.repository);
+    restarted.start();
+    restarted.stop();
+
+    assertThat(store.rows).containsOnlyKeys(broadcastIds.toArray(Long[]::new));
+    assertThat(store.inserted).hasSize(3);
+    assertThat(journalFiles()).isEmpty();
+  }
+
+  @Test
+  void fullQueueFallsBackToCallerThread() throws Exception {
+    appProperties.getChat().getWriteBehind().setQueueCapacity(1);
+    appProperties.getChat().getWriteBehind().setOfferTimeoutMs(1);
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> insertThreads = new CopyOnWriteArrayList<>();
+    ChatMessageRepository repository = mock(ChatMessageRepository.class);
+    doAnswer(inv -> {
+      insertThreads.add(Thread.currentThread().getName());
+      if (Thread.currentThread().getName().equals("chat-write-behind")) {
+        writerBlocked.countDown();
+        release.await(5, TimeUnit.SECONDS);
+      }
+      return null;
+    }).when(repository).insertAll(anyList());
+    ChatMessageWriteBehind writeBehind = newWriteBehind(repository);
+    writeBehind.start();
+
+    writeBehind.enqueueText(1L, 7L, "writer 가 잡고 멈춤");
+    assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+    writeBehind.enqueueText(1L, 7L, "큐를 채움");
+    writeBehind.enqueueText(1L, 7L, "호출 스레드에서 저장");
+
+    assertThat(insertThreads).contains(Thread.currentThread().getName());
+    assertThat(meterRegistry.counter("chat.writebehind.messages", "result", "caller_runs").count())
+        .isEqualTo(1.0);
+
+    release.countDown();
+    writeBehind.stop();
+    assertThat(meterRegistry.counter("chat.writebehind.messages", "result", "persisted").count())
+        .isEqualTo(3.0);
+  }
+
+  @Test
+  void integrityViolationRejectsOnlyOffendingRow() throws Exception {
+    Store store = new Store();
+    store.unknownUserId = 404L;
+    ChatMessageWriteBehind writeBehind = newWriteBehind(store.repository);
+    writeBehind.start();
+
+    writeBehind.enqueueText(1L, 7L, "ok-1");
+    writeBehind.enqueueText(1L, 404L, "없는 사용자");
+    writeBehind.enqueueText(1L, 7L, "ok-2");
+    writeBehind.stop();
+
+    assertThat(store.rows.values()).extracting(PendingChatMessage::getContent)
+        .containsExactlyInAnyOrder("ok-1", "ok-2");
+    assertThat(meterRegistry.counter("chat.writebehind.messages", "result", "rejected").count())
+        .isEqualTo(1.0);
+    assertThat(journalFiles()).isEmpty();
+  }
+
+  @Test
+  void fileMessageWithoutUserIsRejectedBeforeJournal() throws Exception {
+    Store store = new Store();
+    ChatMessageWriteBehind writeBehind = newWriteBehind(store.repository);
+    writeBehind.start();
+
+    assertThatThrownBy(() -> writeBehind.enqueueFile(1L, null, null, "image", "/uploads/a.png",
+        "a.png", "image/png", 10L))
+        .isInstanceOf(CustomException.class)
+        .extracting("errorCode").isEqualTo(ErrorCode.BAD_REQUEST);
+    long accepted = writeBehind.enqueueText(1L, 7L, "다음 메시지").getMessageId();
+
+    awaitRow(store, accepted);
+    writeBehind.stop();
+    assertThat(store.rows).containsOnlyKeys(accepted);
+    assertThat(journalFiles()).isEmpty();
+  }
+
+  @Test
+  void journaledRowWithoutUserIsDroppedOnReplay() throws Exception {
+    // 검증이 없던 버전이 저널에 남긴 userId 없는 파일 메시지 + 정상 메시지
+    Files.writeString(journalDir.resolve("chat-1.wal"),
+        "{\"id\":1,\"workspaceId\":1,\"messageType\":\"file\",\"fileUrl\":\"/uploads/a.png\","
+            + "\"createdAt\":\"2026-01-01T00:00:00Z\"}\n"
+            + "{\"id\":2,\"workspaceId\":1,\"userId\":7,\"content\":\"ok\","
+            + "\"messageType\":\"text\",\"createdAt\":\"2026-01-01T00:00:01Z\"}\n",
+        StandardCharsets.UTF_8);
+    Store store = new Store();
+    ChatMessageWriteBehind writeBehind = newWriteBehind(store.repository);
+    writeBehind.start();
+
+    // 재생 뒤에도 writer 가 멈추지 않고 새 메시지를 저장
+    long next = writeBehind.enqueueText(1L, 7L, "after").getMessageId();
+    awaitRow(store, next);
+    writeBehind.stop();
+
+    assertThat(store.rows).containsOnlyKeys(2L, next);
+    assertThat(meterRegistry.counter("chat.writebehind.messages", "result", "rejected").count())
+        .isEqualTo(1.0);
+    assertThat(journalFiles()).isEmpty();
+  }
+
+  private static void awaitRow(Store store, long id) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!store.rows.containsKey(id) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(store.rows).containsKey(id);
+  }
+
+  private ChatMessageWriteBehind newWriteBehind(ChatMessageRepository repository) {
+    return new ChatMessageWriteBehind(repository, idAllocator,
+        new ChatMessageTailCache(appProperties, meterRegistry), appProperties, meterRegistry);
+  }
+
+  private List<Path> journalFiles() throws Exception {
+    try (Stream<Path> files = Files.list(journalDir)) {
+      return files.filter(f -> Files.isRegularFile(f)).sorted().toList();
+    }
+  }
+
+  /** ON CONFLICT DO NOTHING + FK 위반 + null 필수 값(setLong NPE)을 흉내 내는 인메모리 chat_messages */
+  private static final class Store {
+
+    private final Map<Long, PendingChatMessage> rows = new ConcurrentHashMap<>();
+    private final List<PendingChatMessage> inserted = new CopyOnWriteArrayList<>();
+    private volatile Long unknownUserId;
+    private final ChatMessageRepository repository = mock(ChatMessageRepository.class);
+
+    Store() {
+      doAnswer(inv -> {
+        List<PendingChatMessage> batch = inv.getArgument(0);
+        // ChatMessageBatchRepositoryImpl 의 ps.setLong(3, m.getUserId()) 처럼 null 이면 NPE
+        batch.forEach(m -> Objects.requireNonNull(m.getUserId(), "userId"));
+        if (batch.stream().anyMatch(m -> m.getUserId() != null
+            && m.getUserId().equals(unknownUserId))) {
+          throw new DataIntegrityViolationException("fk_chat_messages_user");
+        }
+        inserted.addAll(batch);
+        batch.forEach(m -> rows.putIfAbsent(m.getId(), m));
+        return null;
+      }).when(repository).insertAll(anyList());
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.capstone.global.config.AppProperties;
+import com.capstone.global.service.CursorBatchDto;
+import com.capstone.global.service.CursorBroadcastAggregator;
+import com.capstone.global.service.CursorFrameCodec;
+import com.capstone.global.service.CursorPositionDto;
+import com.capstone.global.service.CursorSubscriptionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+class CursorBroadcastAggregatorTest {
+
+  private SimpMessagingTemplate messagingTemplate;
+  private CursorSubscriptionRegistry subscriptionRegistry;
+  private SimpleMeterRegistry meterRegistry;
+  private AppProperties appProperties;
+  private CursorBroadcastAggregator aggregator;
+
+  @BeforeEach
+  void setUp() {
+    messagingTemplate = mock(SimpMessagingTemplate.class);
+    subscriptionRegistry = mock(CursorSubscriptionRegistry.class);
+    meterRegistry = new SimpleMeterRegistry();
+    appProperties = new AppProperties();
+    appProperties.getCursor().setBatchSize(2);
+    appProperties.getCursor().setIdleTimeoutMs(1_000);
+    aggregator = new CursorBroadcastAggregator(messagingTemplate, subscriptionRegistry,
+        appProperties, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("같은 틱의 이동은 사용자별 최신 위치 하나로 병합되어 한 프레임으로 전송")
+  void coalescesLatestPositionPerUser() {
+    aggregator.submit(cursor(1L, 1L, 0, 0));
+    aggregator.submit(cursor(1L, 1L, 5, 5));
+    aggregator.submit(cursor(1L, 2L, 9, 9));
+
+    aggregator.flush(System.currentTimeMillis());
+
+    CursorBatchDto frame = captureFrame(1L);
+    assertEquals(2, frame.getCursors().size());
+    assertEquals(5.0, frame.getCursors().get(0).getX());
+    assertEquals(1.0, meterRegistry.counter("cursor.updates", "result", "dropped").count());
+    assertEquals(2.0, meterRegistry.counter("cursor.updates", "result", "sent").count());
+    assertEquals(1.0, meterRegistry.counter("cursor.frames.sent").count());
+  }
+
+  @Test
+  @DisplayName("batchSize 를 넘는 커서는 다음 틱으로 넘어감")
+  void respectsBatchSize() {
+    aggregator.submit(cursor(1L, 1L, 0, 0));
+    aggregator.submit(cursor(1L, 2L, 0, 0));
+    aggregator.submit(cursor(1L, 3L, 0, 0));
+
+    long now = System.currentTimeMillis();
+    aggregator.flush(now);
+    aggregator.flush(now);
+
+    ArgumentCaptor<CursorBatchDto> captor = ArgumentCaptor.forClass(CursorBatchDto.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSend(eq("/topic/workspace/1/cursor"), captor.capture());
+    List<CursorBatchDto> frames = captor.getAllValues();
+    assertEquals(2, frames.get(0).getCursors().size());
+    assertEquals(1, frames.get(1).getCursors().size());
+    assertEquals(3L, frames.get(1).getCursors().get(0).getUserId());
+  }
+
+  @Test
+  @DisplayName("변경이 없으면 프레임을 보내지 않고, 유휴 사용자는 제거 알림 후 정리")
+  void skipsQuietTicksAndDropsIdleUsers() {
+    aggregator.submit(cursor(1L, 1L, 0, 0));
+    long now = System.currentTimeMillis();
+    aggregator.flush(now);
+    reset(messagingTemplate);
+
+    aggregator.flush(now + 10);
+    verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+
+    aggregator.flush(now + 5_000);
+    CursorBatchDto frame = captureFrame(1L);
+    assertTrue(frame.getCursors().isEmpty());
+    assertEquals(List.of(1L), frame.getIdleUserIds());
+
+    reset(messagingTemplate);
+    aggregator.flush(now + 10_000);
+    verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("워크스페이스별로 프레임을 분리해서 전송")
+  void framesArePerWorkspace() {
+    aggregator.submit(cursor(1L, 1L, 0, 0));
+    aggregator.submit(cursor(2L, 1L, 0, 0));
+
+    aggregator.flush(System.currentTimeMillis());
+
+    verify(messagingTemplate).convertAndSend(eq("/topic/workspace/1/cursor"), any(Object.class));
+    verify(messagingTemplate).convertAndSend(eq("/topic/workspace/2/cursor"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("압축 채널 구독자가 있으면 사용자 테이블(신규분)과 바이너리 프레임을 함께 전송")
+  void publishesCompactFramesOnlyWhenSubscribed() {
+    when(subscriptionRegistry.hasCompactSubscribers(1L)).thenReturn(true);
+    aggregator.submit(cursorNamed(1L, 7L, "민지", 3, 4));
+
+    aggregator.flush(System.currentTimeMillis());
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSend(eq("/topic/workspace/1/cursor/compact"), captor.capture());
+    byte[] table = java.util.Base64.getDecoder().decode((String) captor.getAllValues().get(0));
+    byte[] batch = java.util.Base64.getDecoder().decode((String) captor.getAllValues().get(1));
+    List<CursorFrameCodec.UserEntry> users = CursorFrameCodec.decodeUserTable(table);
+    assertEquals(1, users.size());
+    assertEquals("민지", users.get(0).userName());
+    CursorBatchDto decoded = CursorFrameCodec.decodeBatch(batch,
+        java.util.Map.of(users.get(0).index(), users.get(0).userId()));
+    assertEquals(7L, decoded.getCursors().get(0).getUserId());
+    assertEquals(3.0, decoded.getCursors().get(0).getX());
+
+    // 이미 알려진 사용자는 다음 틱에 테이블을 다시 보내지 않음
+    reset(messagingTemplate);
+    aggregator.submit(cursorNamed(1L, 7L, "민지", 5, 6));
+    aggregator.flush(System.currentTimeMillis());
+    verify(messagingTemplate, times(1))
+        .convertAndSend(eq("/topic/workspace/1/cursor/compact"), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("relay 모드는 int 범위를 넘는 userId 도 좁히지 않고 사용자 인덱스로 사용")
+  void relayModeUsesFullLongUserIdAsIndex() {
+    appProperties.getBroker().setMode("relay");
+    aggregator = new CursorBroadcastAggregator(messagingTemplate, subscriptionRegistry,
+        appProperties, meterRegistry);
+    long bigUserId = Integer.MAX_VALUE + 10L;
+    aggregator.submit(cursorNamed(1L, bigUserId, "큰 id", 1, 2));
+    aggregator.submit(cursorNamed(1L, 7L, "민지", 3, 4));
+
+    aggregator.flush(System.currentTimeMillis());
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate, times(2))
+        .convertAndSend(eq("/topic/workspace/1/cursor/compact"), captor.capture());
+    byte[] table = java.util.Base64.getDecoder().decode((String) captor.getAllValues().get(0));
+    byte[] batch = java.util.Base64.getDecoder().decode((String) captor.getAllValues().get(1));
+    java.util.Map<Long, Long> users = new java.util.HashMap<>();
+    for (CursorFrameCodec.UserEntry entry : CursorFrameCodec.decodeUserTable(table)) {
+      assertEquals(entry.userId(), entry.index());
+      users.put(entry.index(), entry.userId());
+    }
+    CursorBatchDto decoded = CursorFrameCodec.decodeBatch(batch, users);
+    assertEquals(bigUserId, decoded.getCursors().get(0).getUserId());
+    assertEquals(7L, decoded.getCursors().get(1).getUserId());
+  }
+
+  @Test
+  @DisplayName("병합이 꺼져 있으면 압축 협상은 json 이 되고 압축 채널 구독자도 JSON 커서를 바로 받음")
+  void coalescingOffSendsJsonToCompactSubscribers() {
+    appProperties.getCursor().setCoalescingEnabled(false);
+    aggregator = new CursorBroadcastAggregator(messagingTemplate, subscriptionRegistry,
+        appProperties, meterRegistry);
+    when(subscriptionRegistry.hasCompactSubscribers(1L)).thenReturn(true);
+    List<CursorBatchDto> listened = new java.util.ArrayList<>();
+    aggregator.addListener((workspaceId, frame, compact) -> listened.add(frame));
+    CursorPositionDto position = cursor(1L, 7L, 3, 4);
+
+    aggregator.publishImmediately(position);
+
+    assertEquals(CursorFrameCodec.JSON_ENCODING,
+        aggregator.negotiateEncoding(CursorFrameCodec.ENCODING));
+    verify(messagingTemplate).convertAndSend("/topic/workspace/1/cursor", (Object) position);
+    verify(messagingTemplate).convertAndSend("/topic/workspace/1/cursor/compact",
+        (Object) position);
+    assertEquals(1, listened.size());
+    assertEquals(List.of(position), listened.get(0).getCursors());
+    assertEquals(1.0, meterRegistry.counter("cursor.updates", "result", "sent").count());
+  }
+
+  @Test
+  @DisplayName("병합이 켜져 있으면 압축 협상을 그대로 수락")
+  void coalescingOnAcceptsCompactNegotiation() {
+    assertEquals(CursorFrameCodec.ENCODING, aggregator.negotiateEncoding("cursor-bin-v1"));
+    assertEquals(CursorFrameCodec.JSON_ENCODING, aggregator.negotiateEncoding("json"));
+  }
+
+  @Test
+  @DisplayName("압축 채널 구독자가 없으면 바이너리 프레임을 만들지 않음")
+  void skipsCompactFramesWithoutSubscribers() {
+    aggregator.submit(cursor(1L, 1L, 0, 0));
+
+    aggregator.flush(System.currentTimeMillis());
+
+    verify(messagingTemplate, never())
+        .convertAndSend(eq("/topic/workspace/1/cursor/compact"), any(Object.class));
+  }
+
+  private CursorPositionDto cursorNamed(Long workspaceId, Long userId, String name, double x,
+      double y) {
+    CursorPositionDto dto = cursor(workspaceId, userId, x, y);
+    dto.setUserName(name);
+    return dto;
+  }
+
+  private CursorBatchDto captureFrame(Long workspaceId) {
+    ArgumentCaptor<CursorBatchDto> captor = ArgumentCaptor.forClass(CursorBatchDto.class);
+    verify(messagingTemplate)
+        .convertAndSend(eq("/topic/workspace/" + workspaceId + "/cursor"), captor.capture());
+    return captor.getValue();
+  }
+
+  private CursorPositionDto cursor(Long workspaceId, Long userId, double x, double y) {
+    return CursorPositionDto.builder()
+        .workspaceId(workspaceId)
+        .userId(userId)
+        .x(x)
+        .y(y)
+        .timestamp(System.currentTimeMillis())
+        .build();
+  }
+}
@@ -0,0 +1,133 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.global.service.CursorBatchDto;
+import com.capstone.global.service.CursorFrameCodec;
+import com.capstone.global.service.CursorPositionDto;
+import com.capstone.global.service.CursorSubscriptionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+class CursorFrameCodecTest {
+
+  @Test
+  @DisplayName("커서 묶음 인코딩/디코딩 왕복")
+  void batchRoundTrip() {
+    CursorBatchDto batch = batch(1L, 30);
+    Map<Long, Long> users = new HashMap<>();
+    for (int i = 0; i < 30; i++) {
+      users.put((long) i, 100L + i);
+    }
+
+    byte[] encoded = CursorFrameCodec.encodeBatch(batch, userId -> userId - 100);
+    CursorBatchDto decoded = CursorFrameCodec.decodeBatch(encoded, users);
+
+    assertEquals(batch.getWorkspaceId(), decoded.getWorkspaceId());
+    assertEquals(batch.getTimestamp(), decoded.getTimestamp());
+    assertEquals(30, decoded.getCursors().size());
+    for (int i = 0; i < 30; i++) {
+      assertEquals(batch.getCursors().get(i).getUserId(), decoded.getCursors().get(i).getUserId());
+      assertEquals(batch.getCursors().get(i).getX(), decoded.getCursors().get(i).getX(), 0.01);
+      assertEquals(batch.getCursors().get(i).getY(), decoded.getCursors().get(i).getY(), 0.01);
+    }
+    assertEquals(List.of(129L), decoded.getIdleUserIds());
+  }
+
+  @Test
+  @DisplayName("바이너리 프레임은 JSON 보다 훨씬 작음")
+  void compactFrameIsSmallerThanJson() throws Exception {
+    CursorBatchDto batch = batch(12345L, 30);
+
+    int jsonBytes = new ObjectMapper().writeValueAsBytes(batch).length;
+    int compactBytes = CursorFrameCodec.encodeBatch(batch, userId -> userId - 100).length;
+
+    assertTrue(compactBytes * 5 < jsonBytes,
+        "compact=" + compactBytes + " json=" + jsonBytes);
+  }
+
+  @Test
+  @DisplayName("사용자 테이블 인코딩/디코딩 왕복 (UTF-8 이름)")
+  void userTableRoundTrip() {
+    List<CursorFrameCodec.UserEntry> entries = List.of(
+        new CursorFrameCodec.UserEntry(0, 7L, "캡스톤"),
+        new CursorFrameCodec.UserEntry(1, 300_000L, null));
+
+    List<CursorFrameCodec.UserEntry> decoded =
+        CursorFrameCodec.decodeUserTable(CursorFrameCodec.encodeUserTable(1L, entries));
+
+    assertEquals(2, decoded.size());
+    assertEquals("캡스톤", decoded.get(0).userName());
+    assertEquals(300_000L, decoded.get(1).userId());
+    assertEquals("", decoded.get(1).userName());
+  }
+
+  @Test
+  @DisplayName("압축 채널 구독/해제/연결 종료에 따라 구독자 여부 갱신")
+  void subscriptionRegistryTracksCompactSubscribers() {
+    CursorSubscriptionRegistry registry = new CursorSubscriptionRegistry();
+
+    registry.onSubscribe(new SessionSubscribeEvent(this,
+        stomp(StompCommand.SUBSCRIBE, "s1", "sub-1", "/topic/workspace/5/cursor/compact")));
+    registry.onSubscribe(new SessionSubscribeEvent(this,
+        stomp(StompCommand.SUBSCRIBE, "s2", "sub-1", "/topic/workspace/5/cursor/compact")));
+    registry.onSubscribe(new SessionSubscribeEvent(this,
+        stomp(StompCommand.SUBSCRIBE, "s3", "sub-1", "/topic/workspace/6/cursor")));
+    assertTrue(registry.hasCompactSubscribers(5L));
+    assertFalse(registry.hasCompactSubscribers(6L));
+
+    registry.onUnsubscribe(new SessionUnsubscribeEvent(this,
+        stomp(StompCommand.UNSUBSCRIBE, "s1", "sub-1", null)));
+    assertTrue(registry.hasCompactSubscribers(5L));
+
+    registry.onDisconnect(new SessionDisconnectEvent(this,
+        stomp(StompCommand.DISCONNECT, "s2", null, null), "s2", CloseStatus.NORMAL));
+    assertFalse(registry.hasCompactSubscribers(5L));
+  }
+
+  private Message<byte[]> stomp(StompCommand command, String sessionId, String subscriptionId,
+      String destination) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setSessionId(sessionId);
+    if (subscriptionId != null) {
+      accessor.setSubscriptionId(subscriptionId);
+    }
+    if (destination != null) {
+      accessor.setDestination(destination);
+    }
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private CursorBatchDto batch(Long workspaceId, int users) {
+    List<CursorPositionDto> cursors = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      cursors.add(CursorPositionDto.builder()
+          .workspaceId(workspaceId)
+          .userId(100L + i)
+          .x(1234.5 + i)
+          .y(678.25 + i)
+          .userName("사용자" + i)
+          .timestamp(1_700_000_000_000L)
+          .build());
+    }
+    return CursorBatchDto.builder()
+        .workspaceId(workspaceId)
+        .cursors(cursors)
+        .idleUserIds(List.of(129L))
+        .timestamp(1_700_000_000_000L)
+        .build();
+  }
+}
@@ -0,0 +1,32 @@
+package com.capstone.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.capstone.global.service.FullTextQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FullTextQueryTest {
+
+  @Test
+  @DisplayName("단어마다 접두 일치, 모든 단어는 AND")
+  void buildsPrefixConjunction() {
+    assertThat(FullTextQuery.toTsQuery("  회의  Agenda 2차 ")).isEqualTo("회의:* & agenda:* & 2차:*");
+  }
+
+  @Test
+  @DisplayName("tsquery 연산자와 따옴표는 구분자로 취급되어 주입되지 않음")
+  void stripsOperators() {
+    assertThat(FullTextQuery.toTsQuery("a&b|!(c):*'d'")).isEqualTo("a:* & b:* & c:* & d:*");
+    assertThat(FullTextQuery.toTsQuery("&|!():*")).isNull();
+    assertThat(FullTextQuery.toTsQuery(null)).isNull();
+  }
+
+  @Test
+  @DisplayName("중복 단어는 한 번만, 최대 단어 수 제한")
+  void dedupesAndLimitsTerms() {
+    assertThat(FullTextQuery.toTsQuery("a A a b")).isEqualTo("a:* & b:*");
+    assertThat(FullTextQuery.toTsQuery("1 2 3 4 5 6 7 8 9 10").split(" & "))
+        .hasSize(FullTextQuery.MAX_TERMS);
+  }
+}
@@ -0,0 +1,190 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.global.service.SocketIOSessionRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SocketIOSessionRegistryTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private SocketIOSessionRegistry registry;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    registry = new SocketIOSessionRegistry(meterRegistry);
+    executor = Executors.newFixedThreadPool(16);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("한 클라이언트가 여러 워크스페이스에 동시에 참여하고 양방향 조회 가능")
+  void clientCanJoinSeveralWorkspaces() {
+    UUID a = UUID.randomUUID();
+    UUID b = UUID.randomUUID();
+
+    registry.join(a, "1");
+    registry.join(a, "2");
+    registry.join(b, "1");
+
+    assertEquals(Set.of("1", "2"), registry.roomsOf(a));
+    assertEquals(Set.of(a, b), registry.membersOf("1"));
+    assertEquals(Set.of(a), registry.membersOf("2"));
+    assertEquals("2", registry.activeRoom(a));
+    assertEquals(2.0, roomGauge("1"));
+
+    // 같은 워크스페이스에 다시 참여해도 중복 집계되지 않음
+    assertFalse(registry.join(b, "1"));
+    assertEquals(2, registry.memberCount("1"));
+  }
+
+  @Test
+  @DisplayName("나가기 후 활성 워크스페이스는 남은 참여 워크스페이스로 전환")
+  void leaveFallsBackToRemainingRoom() {
+    UUID a = UUID.randomUUID();
+    registry.join(a, "1");
+    registry.join(a, "2");
+
+    assertTrue(registry.leave(a, "2"));
+
+    assertEquals("1", registry.activeRoom(a));
+    assertEquals(0, registry.memberCount("2"));
+    assertNull(meterRegistry.find("socketio.room.members").tag("workspaceId", "2").gauge());
+  }
+
+  @Test
+  @DisplayName("연결 해제 시 모든 워크스페이스에서 정리되고 빈 room 게이지는 제거")
+  void disconnectCleansUpEveryRoom() {
+    UUID a = UUID.randomUUID();
+    UUID b = UUID.randomUUID();
+    registry.join(a, "1");
+    registry.join(a, "2");
+    registry.join(b, "2");
+
+    List<String> left = registry.disconnect(a);
+
+    assertEquals(List.of("1", "2"), left);
+    assertTrue(registry.roomsOf(a).isEmpty());
+    assertNull(registry.activeRoom(a));
+    assertEquals(1, registry.roomCount());
+    assertEquals(Set.of(b), registry.membersOf("2"));
+    assertNull(meterRegistry.find("socketio.room.members").tag("workspaceId", "1").gauge());
+    assertEquals(1.0, roomGauge("2"));
+  }
+
+  @Test
+  @DisplayName("수천 건의 동시 참여/나가기/연결 해제 후에도 양방향 맵과 인원 수가 일치")
+  void concurrentJoinLeaveStress() throws Exception {
+    int clientCount = 2_000;
+    int roomCount = 50;
+    int opsPerClient = 20;
+    List<UUID> clients = new ArrayList<>();
+    for (int i = 0; i < clientCount; i++) {
+      clients.add(UUID.randomUUID());
+    }
+
+    // 1) 모든 클라이언트가 무작위로 참여/나가기를 반복 (클라이언트마다 여러 스레드에서 동시에)
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 16; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < clientCount * opsPerClient / 16; i++) {
+          UUID client = clients.get(random.nextInt(clientCount));
+          String room = String.valueOf(random.nextInt(roomCount));
+          if (random.nextBoolean()) {
+            registry.join(client, room);
+          } else {
+            registry.leave(client, room);
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> f : futures) {
+      f.get(30, TimeUnit.SECONDS);
+    }
+
+    assertConsistent(clients, roomCount);
+
+    // 2) 절반은 연결 해제, 나머지는 같은 시점에 계속 참여
+    futures.clear();
+    for (int i = 0; i < clientCount; i++) {
+      UUID client = clients.get(i);
+      boolean drop = i % 2 == 0;
+      futures.add(executor.submit(() -> {
+        if (drop) {
+          registry.disconnect(client);
+        } else {
+          registry.join(client, "0");
+        }
+        return null;
+      }));
+    }
+    for (Future<?> f : futures) {
+      f.get(30, TimeUnit.SECONDS);
+    }
+
+    assertConsistent(clients, roomCount);
+    assertEquals(clientCount / 2, registry.memberCount("0"));
+    assertEquals(clientCount / 2, registry.clientCount());
+
+    // 3) 전부 연결 해제하면 아무것도 남지 않음
+    clients.forEach(registry::disconnect);
+    assertEquals(0, registry.clientCount());
+    assertEquals(0, registry.roomCount());
+    assertTrue(meterRegistry.find("socketio.room.members").gauges().isEmpty());
+  }
+
+  private void assertConsistent(List<UUID> clients, int roomCount) {
+    int membershipsByClient = 0;
+    for (UUID client : clients) {
+      for (String room : registry.roomsOf(client)) {
+        assertTrue(registry.membersOf(room).contains(client), "room " + room + " lost " + client);
+      }
+      membershipsByClient += registry.roomsOf(client).size();
+    }
+    int membershipsByRoom = 0;
+    for (int r = 0; r < roomCount; r++) {
+      String room = String.valueOf(r);
+      int members = registry.memberCount(room);
+      membershipsByRoom += members;
+      if (members > 0) {
+        assertEquals(members, roomGauge(room));
+        for (UUID client : registry.membersOf(room)) {
+          assertTrue(registry.roomsOf(client).contains(room));
+        }
+      }
+    }
+    assertEquals(membershipsByClient, membershipsByRoom);
+  }
+
+  private double roomGauge(String room) {
+    Gauge gauge = meterRegistry.find("socketio.room.members").tag("workspaceId", room).gauge();
+    assertNotNull(gauge);
+    return gauge.value();
+  }
+}
@@ -53,7 +53,10 @@ public class IdeaPrototypeController {
         .body(ideaPrototypeService.startPipelineAsync(userId, ideaId));
   }
 
-  @Operation(summary = "프로토타입 파이프라인 재시도", description = "새 작업을 큐에 넣고 비동기로 실행합니다.")
+  @Operation(
+      summary = "프로토타입 파이프라인 재시도",
+      description =
+          "최근 작업이 실패했고 PRD가 저장돼 있으면 같은 작업을 실패한 단계부터 이어서 실행합니다. 그 밖에는 새 작업을 시작합니다.")
   @PostMapping("/{ideaId}/prototype/retry")
   public ResponseEntity<PrototypeJobAcceptedResponse> retry(
       @RequestHeader("Authorization") String token, @PathVariable Long ideaId) {
@@ -62,6 +65,22 @@ public class IdeaPrototypeController {
         .body(ideaPrototypeService.retryPipelineAsync(userId, ideaId));
   }
 
+  @Operation(
+      summary = "프로토타입 작업의 특정 단계부터 다시 생성",
+      description =
+          "끝난(DEPLOYED·FAILED) 작업만 가능합니다. stage=PRD|UI|CODE — 앞 단계의 저장된 결과는 재사용하고 "
+              + "해당 단계와 뒤 단계를 다시 실행합니다. 실행 중이면 409.")
+  @PostMapping("/{ideaId}/prototype/jobs/{jobId}/regenerate")
+  public ResponseEntity<PrototypeJobAcceptedResponse> regenerateStage(
+      @RequestHeader("Authorization") String token,
+      @PathVariable Long ideaId,
+      @PathVariable Long jobId,
+      @RequestParam PrototypePipelineStage stage) {
+    Long userId = extractUserId(token);
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .body(ideaPrototypeService.regenerateStage(userId, ideaId, jobId, stage));
+  }
+
   @Operation(summary = "최근 프로토타입 작업 조회")
   @GetMapping("/{ideaId}/prototype")
   public ResponseEntity<PrototypePipelineResponse> getLatest(
@@ -17,6 +17,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -80,6 +81,25 @@ public class IdeaPrototypeJob {
   @Setter
   private String errorMessage;
 
+  /**
+   * 작업 큐({@link PrototypeJobQueue}) 상태: 워커가 가져간 횟수. 큐 SQL 만 씁니다. INSERT 에서 빠지므로 DB 기본값 0 으로
+   * 들어갑니다 (NULL 은 큐 도입 전 작업).
+   */
+  @ColumnDefault("0")
+  @Column(insertable = false, updatable = false)
+  private Integer attempts;
+
+  /** 재시도 대기 중이면 이 시각 이후에 다시 실행 */
+  @Column(insertable = false, updatable = false)
+  private Timestamp nextRunAt;
+
+  /** 실행 중인 인스턴스(워커) 식별자와 임대 만료 시각. 만료되면 다른 워커가 이어받습니다. */
+  @Column(length = 128, insertable = false, updatable = false)
+  private String leaseOwner;
+
+  @Column(insertable = false, updatable = false)
+  private Timestamp leaseExpiresAt;
+
   @CreationTimestamp
   private Timestamp createdAt;
 
@@ -5,6 +5,7 @@ import static com.capstone.global.exception.ErrorCode.NOT_FOUND_IDEA;
 import static com.capstone.global.exception.ErrorCode.NOT_FOUND_PROTOTYPE_JOB;
 import static com.capstone.global.exception.ErrorCode.NOT_FOUND_PROTOTYPE_JOB_BY_ID;
 import static com.capstone.global.exception.ErrorCode.NOT_FOUND_USER;
+import static com.capstone.global.exception.ErrorCode.PROTOTYPE_JOB_IN_PROGRESS;
 import static com.capstone.global.exception.ErrorCode.PROTOTYPE_PIPELINE_FAILED;
 
 import com.capstone.domain.idea.Idea;
@@ -28,6 +29,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
@@ -44,8 +46,11 @@ public class IdeaPrototypeService {
   private final WorkspaceUserRepository workspaceUserRepository;
   private final IdeaPrototypeJobRepository jobRepository;
   private final PrototypePipelineExecutionService prototypePipelineExecutionService;
-  private final PrototypePipelineRunner prototypePipelineRunner;
+  private final PrototypeJobWorker prototypeJobWorker;
+  private final PrototypeJobQueue prototypeJobQueue;
   private final PrototypeArtifactService prototypeArtifactService;
+  private final PrototypePipelineLock prototypePipelineLock;
+  private final TransactionTemplate transactionTemplate;
 
   @Transactional
   public PrototypeJobAcceptedResponse startPipelineAsync(Long userId, Long ideaId) {
@@ -65,19 +70,7 @@ public class IdeaPrototypeService {
                 .status(PrototypeJobStatus.PENDING)
                 .simulated(false)
                 .build());
-    Long jobIdToRun = job.getId();
-    // 트랜잭션 커밋 후 비동기 실행 — 커밋 전에 워커가 조회하면 job 행이 없어 파이프라인이 실패·PENDING 고착 가능
-    if (TransactionSynchronizationManager.isSynchronizationActive()) {
-      TransactionSynchronizationManager.registerSynchronization(
-          new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-              prototypePipelineRunner.runPipelineAsync(jobIdToRun);
-            }
-          });
-    } else {
-      prototypePipelineRunner.runPipelineAsync(jobIdToRun);
-    }
+    wakeUpWorkersAfterCommit();
     return PrototypeJobAcceptedResponse.builder()
         .prdId(job.getId())
         .jobId(job.getId())
@@ -87,8 +80,26 @@ public class IdeaPrototypeService {
         .build();
   }
 
-  @Transactional
+  /**
+   * 요청 스레드에서 파이프라인을 끝까지 실행합니다. 작업 생성과 아이디어 잠금은 짧은 트랜잭션 하나로 커밋하고, 실행은
+   * 트랜잭션 밖에서 해 요청 하나가 커넥션을 하나만 씁니다 (실행 내내 트랜잭션을 열어 두면 커넥션을 오래 붙잡음). 커밋 뒤
+   * 큐 워커가 이 작업을 가져가더라도 잠금을 못 잡아 미루므로 두 번 실행되지 않습니다.
+   */
   public PrototypePipelineResponse runPipelineSync(Long userId, Long ideaId) {
+    SyncRun run = transactionTemplate.execute(status -> startSyncRun(userId, ideaId));
+    prototypePipelineExecutionService.executeLockedPipeline(
+        run.jobId(), run.ideaId(), run.lockToken());
+    return transactionTemplate.execute(status -> {
+      IdeaPrototypeJob updated = jobRepository.findById(run.jobId())
+          .orElseThrow(() -> new CustomException(NOT_FOUND_PROTOTYPE_JOB));
+      if (updated.getStatus() == PrototypeJobStatus.FAILED) {
+        throw new CustomException(PROTOTYPE_PIPELINE_FAILED);
+      }
+      return toResponse(updated, updated.getIdea(), ideaId, false);
+    });
+  }
+
+  private SyncRun startSyncRun(Long userId, Long ideaId) {
     Idea idea = loadIdeaAndCheckAccess(userId, ideaId);
     for (IdeaPrototypeJob j : jobRepository.findByIdea_IdOrderByIdDesc(idea.getId())) {
       if (j.getStatus() == PrototypeJobStatus.PENDING) {
@@ -104,18 +115,47 @@ public class IdeaPrototypeService {
                 .status(PrototypeJobStatus.PENDING)
                 .simulated(false)
                 .build());
-    prototypePipelineExecutionService.executePipeline(job.getId());
-    IdeaPrototypeJob updated =
-        jobRepository.findById(job.getId()).orElseThrow(() -> new CustomException(NOT_FOUND_PROTOTYPE_JOB));
-    if (updated.getStatus() == PrototypeJobStatus.FAILED) {
-      throw new CustomException(PROTOTYPE_PIPELINE_FAILED);
-    }
-    return toResponse(updated, idea, ideaId, false);
+    // 같은 아이디어의 다른 작업이 실행 중 — 이 트랜잭션(새 작업 생성)은 롤백
+    String lockToken = prototypePipelineLock.tryAcquire(idea.getId(), job.getId())
+        .orElseThrow(() -> new CustomException(PROTOTYPE_JOB_IN_PROGRESS));
+    return new SyncRun(job.getId(), idea.getId(), lockToken);
+  }
+
+  private record SyncRun(Long jobId, long ideaId, String lockToken) {
   }
 
+  /**
+   * 최근 작업이 실패했고 저장된 PRD 가 있으면 같은 작업을 이어서 실행합니다 (저장된 PRD·UI 구조는 다시 생성하지 않음).
+   * 그 밖에는 새 작업을 시작합니다.
+   */
   @Transactional
   public PrototypeJobAcceptedResponse retryPipelineAsync(Long userId, Long ideaId) {
-    return startPipelineAsync(userId, ideaId);
+    Idea idea = loadIdeaAndCheckAccess(userId, ideaId);
+    IdeaPrototypeJob latest = jobRepository.findTopByIdea_IdOrderByIdDesc(idea.getId()).orElse(null);
+    if (latest == null
+        || latest.getStatus() != PrototypeJobStatus.FAILED
+        || latest.getPrdMarkdown() == null
+        || latest.getPrdMarkdown().isBlank()) {
+      return startPipelineAsync(userId, ideaId);
+    }
+    return requeue(latest, ideaId, "실패한 단계부터 이어서 실행합니다. 저장된 PRD·UI 구조는 다시 생성하지 않습니다.");
+  }
+
+  /**
+   * 끝난 작업의 {@code stage} 단계부터 다시 생성합니다. 앞 단계의 저장된 결과는 재사용하고 뒤 단계는 새 결과로 다시
+   * 실행합니다.
+   */
+  @Transactional
+  public PrototypeJobAcceptedResponse regenerateStage(
+      Long userId, Long ideaId, Long jobId, PrototypePipelineStage stage) {
+    Idea idea = loadIdeaAndCheckAccess(userId, ideaId);
+    IdeaPrototypeJob job =
+        jobRepository
+            .findByIdea_IdAndId(idea.getId(), jobId)
+            .orElseThrow(() -> new CustomException(NOT_FOUND_PROTOTYPE_JOB_BY_ID));
+    ensureFinished(job);
+    stage.clearOutputs(job);
+    return requeue(job, ideaId, stage + " 단계부터 다시 생성합니다.");
   }
 
   @Transactional(readOnly = true)
@@ -206,6 +246,47 @@ public class IdeaPrototypeService {
         .toList();
   }
 
+  /** 끝난 작업을 PENDING 으로 되돌려 큐에 다시 넣습니다. 실행 중(임대 보유)이면 409 */
+  private PrototypeJobAcceptedResponse requeue(IdeaPrototypeJob job, Long ideaId, String message) {
+    ensureFinished(job);
+    if (!prototypeJobQueue.requeue(job.getId())) {
+      throw new CustomException(PROTOTYPE_JOB_IN_PROGRESS);
+    }
+    job.setStatus(PrototypeJobStatus.PENDING);
+    job.setErrorMessage(null);
+    jobRepository.save(job);
+    wakeUpWorkersAfterCommit();
+    return PrototypeJobAcceptedResponse.builder()
+        .prdId(job.getId())
+        .jobId(job.getId())
+        .ideaId(ideaId)
+        .status(PrototypeJobStatus.PENDING)
+        .message(message)
+        .build();
+  }
+
+  private static void ensureFinished(IdeaPrototypeJob job) {
+    if (job.getStatus() != PrototypeJobStatus.DEPLOYED
+        && job.getStatus() != PrototypeJobStatus.FAILED) {
+      throw new CustomException(PROTOTYPE_JOB_IN_PROGRESS);
+    }
+  }
+
+  /** PENDING 행이 곧 큐 항목 (PrototypeJobQueue). 커밋 후 워커를 깨움 — 커밋 전에는 워커에게 행이 보이지 않음 */
+  private void wakeUpWorkersAfterCommit() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              prototypeJobWorker.wakeUp();
+            }
+          });
+    } else {
+      prototypeJobWorker.wakeUp();
+    }
+  }
+
   private Idea loadIdeaAndCheckAccess(Long userId, Long ideaId) {
     Idea idea =
         ideaRepository.findById(ideaId).orElseThrow(() -> new CustomException(NOT_FOUND_IDEA));
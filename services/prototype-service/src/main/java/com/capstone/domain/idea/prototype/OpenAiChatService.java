@@ -1,15 +1,19 @@
 package com.capstone.domain.idea.prototype;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -22,13 +26,21 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 @Service
 public class OpenAiChatService {
 
-  private static final String BASE = "https://api.openai.com/v1";
+  private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+      new ParameterizedTypeReference<>() {};
+
+  /** 스트리밍 응답의 마지막 이벤트 */
+  private static final String STREAM_DONE = "[DONE]";
+
+  private static final ObjectMapper JSON = new ObjectMapper();
 
   private final WebClient webClient;
 
   @Getter private final boolean enabled;
 
-  public OpenAiChatService(@Value("${openai.api-key:}") String apiKey) {
+  public OpenAiChatService(
+      @Value("${openai.api-key:}") String apiKey,
+      @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl) {
     String trimmed = apiKey == null ? "" : apiKey.trim();
     if (!OpenAiKeyValidator.looksLikeOpenAiSecretKey(trimmed)) {
       this.webClient = null;
@@ -45,11 +57,11 @@ public class OpenAiChatService {
       this.enabled = true;
       this.webClient =
           WebClient.builder()
-              .baseUrl(BASE)
+              .baseUrl(baseUrl)
               .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + trimmed)
               .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
               .build();
-      log.info("OpenAI REST 클라이언트 활성화 (POST {}/chat/completions)", BASE);
+      log.info("OpenAI REST 클라이언트 활성화 (POST {}/chat/completions)", baseUrl);
     }
   }
 
@@ -104,16 +116,90 @@ public class OpenAiChatService {
       }
       return content.asText();
     } catch (WebClientResponseException e) {
-      String bodyStr = e.getResponseBodyAsString();
-      log.error(
-          "OpenAI HTTP {}: {}",
-          e.getStatusCode().value(),
-          bodyStr != null && bodyStr.length() > 500 ? bodyStr.substring(0, 500) + "…" : bodyStr);
-      throw new IllegalStateException(
-          "OpenAI HTTP " + e.getStatusCode().value() + ": " + truncate(bodyStr, 300), e);
+      throw httpError(e);
     }
   }
 
+  /**
+   * {@code stream: true} 로 호출해 응답 조각(delta.content)이 도착하는 대로 {@code onDelta} 에 넘기고, 다 받으면
+   * 전체 응답을 돌려줍니다. {@code onDelta} 는 응답을 읽는 스레드에서 도착 순서대로 불립니다.
+   */
+  public String createChatCompletionStream(
+      String model,
+      List<Map<String, String>> messages,
+      double temperature,
+      int maxTokens,
+      Consumer<String> onDelta) {
+    if (!enabled || webClient == null) {
+      throw new IllegalStateException("OpenAI is not configured");
+    }
+    Map<String, Object> body = new HashMap<>();
+    body.put("model", model);
+    body.put("messages", messages);
+    body.put("temperature", temperature);
+    body.put("max_tokens", maxTokens);
+    body.put("stream", true);
+
+    StringBuilder content = new StringBuilder();
+    try {
+      webClient
+          .post()
+          .uri("/chat/completions")
+          .accept(MediaType.TEXT_EVENT_STREAM)
+          .bodyValue(body)
+          .retrieve()
+          .bodyToFlux(SSE_TYPE)
+          .<String>handle(
+              (event, sink) -> {
+                if (event.data() != null && !event.data().isBlank()) {
+                  sink.next(event.data().trim());
+                }
+              })
+          .takeWhile(data -> !STREAM_DONE.equals(data))
+          .doOnNext(
+              data -> {
+                String delta = parseStreamDelta(data);
+                if (delta != null && !delta.isEmpty()) {
+                  content.append(delta);
+                  onDelta.accept(delta);
+                }
+              })
+          .blockLast(Duration.ofSeconds(180));
+    } catch (WebClientResponseException e) {
+      throw httpError(e);
+    }
+    return content.isEmpty() ? null : content.toString();
+  }
+
+  /** 스트림 이벤트 하나({@code chat.completion.chunk})에서 새로 생성된 텍스트만 꺼냄 */
+  private static String parseStreamDelta(String data) {
+    JsonNode root;
+    try {
+      root = JSON.readTree(data);
+    } catch (Exception e) {
+      log.warn("OpenAI stream: JSON 이 아닌 이벤트 무시 ({})", truncate(data, 120));
+      return null;
+    }
+    JsonNode err = root.get("error");
+    if (err != null && !err.isNull()) {
+      String msg = err.path("message").asText("unknown error");
+      log.error("OpenAI API error (stream): {}", msg);
+      throw new IllegalStateException("OpenAI API: " + msg);
+    }
+    JsonNode content = root.path("choices").path(0).path("delta").path("content");
+    return content.isTextual() ? content.asText() : null;
+  }
+
+  private static IllegalStateException httpError(WebClientResponseException e) {
+    String bodyStr = e.getResponseBodyAsString();
+    log.error(
+        "OpenAI HTTP {}: {}",
+        e.getStatusCode().value(),
+        bodyStr != null && bodyStr.length() > 500 ? bodyStr.substring(0, 500) + "…" : bodyStr);
+    return new IllegalStateException(
+        "OpenAI HTTP " + e.getStatusCode().value() + ": " + truncate(bodyStr, 300), e);
+  }
+
   private static String truncate(String s, int max) {
     if (s == null) {
       return "";
@@ -0,0 +1,136 @@
+package com.capstone.domain.idea.prototype;
+
+import com.capstone.global.service.WebSocketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 생성 중인 PRD 초안을 워크스페이스 토픽({@code /topic/workspace/{id}/prototype})으로 바로 흘려보냅니다.
+ *
+ * <p>토큰마다 보내지 않고 작업별 버퍼에 모았다가 {@code flush-interval} 마다, 또는 {@code max-chunk-chars} 를 넘으면
+ * 한 메시지({@code prototype_prd_chunk})로 보냅니다. 첫 조각은 바로 보내므로 사용자는 초안이 시작되자마자 내용을 봅니다.
+ * 조각은 DB 에 저장하지 않고, PRD 단계가 끝나 완성본을 저장한 뒤 {@code prototype_prd_done} 으로 최종 PRD 를 한 번
+ * 보냅니다 (확장·편집 pass 를 거친 최종본은 흘려보낸 초안과 다를 수 있음).
+ *
+ * <p>조각의 {@code offset} 은 초안에서의 시작 위치입니다. 재시도로 초안을 다시 생성하면 {@code offset} 0 부터 다시
+ * 보내므로, 클라이언트는 {@code offset} 위치에 이어 쓰면 됩니다.
+ *
+ * <p>지표: {@code prototype.prd.stream.first-chunk} (스트림을 연 뒤 첫 조각을 보내기까지).
+ */
+@Slf4j
+@Component
+public class PrdStreamPublisher {
+
+  static final String DESTINATION = "prototype";
+
+  private final WebSocketService webSocketService;
+  private final Timer firstChunkTimer;
+  private final Duration flushInterval;
+  private final int maxChunkChars;
+
+  public PrdStreamPublisher(WebSocketService webSocketService, MeterRegistry meterRegistry,
+      @Value("${app.prototype.prd-stream.flush-interval:250ms}") Duration flushInterval,
+      @Value("${app.prototype.prd-stream.max-chunk-chars:2048}") int maxChunkChars) {
+    this.webSocketService = webSocketService;
+    this.firstChunkTimer = meterRegistry.timer("prototype.prd.stream.first-chunk");
+    this.flushInterval = flushInterval;
+    this.maxChunkChars = Math.max(1, maxChunkChars);
+  }
+
+  /** 작업 하나의 PRD 스트림. workspaceId 가 없으면 아무것도 보내지 않음 */
+  public Stream open(Long workspaceId, Long ideaId, Long jobId) {
+    return new Stream(workspaceId, ideaId, jobId);
+  }
+
+  /** 작업별 버퍼. 조각은 응답을 읽는 스레드에서 순서대로 들어옴 */
+  public final class Stream implements PrototypeAiContentService.PrdDraftListener {
+
+    private final Long workspaceId;
+    private final Long ideaId;
+    private final Long jobId;
+    private final long openedNanos = System.nanoTime();
+    private final StringBuilder pending = new StringBuilder();
+    private int offset;
+    private int seq;
+    private long lastFlushNanos;
+
+    private Stream(Long workspaceId, Long ideaId, Long jobId) {
+      this.workspaceId = workspaceId;
+      this.ideaId = ideaId;
+      this.jobId = jobId;
+    }
+
+    @Override
+    public synchronized void onDelta(String delta) {
+      if (delta == null || delta.isEmpty()) {
+        return;
+      }
+      pending.append(delta);
+      if (seq == 0 || pending.length() >= maxChunkChars
+          || System.nanoTime() - lastFlushNanos >= flushInterval.toNanos()) {
+        flush();
+      }
+    }
+
+    /** 초안이 끝나면 버퍼에 남은 조각을 바로 보냄 (확장·편집 pass 동안 기다리지 않도록) */
+    @Override
+    public synchronized void onDraftFinished() {
+      flush();
+    }
+
+    /** 남은 조각을 보내고 저장된 최종 PRD 를 알림 */
+    public synchronized void complete(String prdMarkdown) {
+      flush();
+      Map<String, Object> payload = payload("prototype_prd_done");
+      payload.put("length", prdMarkdown != null ? prdMarkdown.length() : 0);
+      payload.put("prdMarkdown", prdMarkdown);
+      send(payload);
+    }
+
+    private void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      Map<String, Object> payload = payload("prototype_prd_chunk");
+      payload.put("seq", seq);
+      payload.put("offset", offset);
+      payload.put("delta", pending.toString());
+      if (seq == 0) {
+        firstChunkTimer.record(Duration.ofNanos(System.nanoTime() - openedNanos));
+      }
+      send(payload);
+      offset += pending.length();
+      seq++;
+      pending.setLength(0);
+      lastFlushNanos = System.nanoTime();
+    }
+
+    private Map<String, Object> payload(String type) {
+      Map<String, Object> payload = new HashMap<>();
+      payload.put("type", type);
+      payload.put("workspaceId", workspaceId);
+      payload.put("ideaId", ideaId);
+      payload.put("jobId", jobId);
+      return payload;
+    }
+
+    private void send(Map<String, Object> payload) {
+      if (workspaceId == null) {
+        return;
+      }
+      try {
+        webSocketService.broadcastToWorkspace(workspaceId, DESTINATION, payload);
+      } catch (Exception e) {
+        // 실시간 전달 실패는 생성에 영향 없음 — 완성본은 저장 후 조회 가능
+        log.warn("PRD 스트림 전송 실패 jobId={} type={}: {}", jobId, payload.get("type"),
+            e.getMessage());
+      }
+    }
+  }
+}
@@ -3,9 +3,14 @@ package com.capstone.domain.idea.prototype;
 import com.capstone.domain.idea.Idea;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +29,9 @@ public class PrototypeAiContentService {
   private final UiStructureGenerator templateUi;
   private final ObjectMapper objectMapper;
 
+  /** PRD·UI 생성의 LLM 호출은 대부분 응답 대기이므로 가상 스레드에서 실행 */
+  private final ExecutorService llmExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
   @Value("${openai.prototype-model:gpt-4o-mini}")
   private String prototypeModel;
 
@@ -43,16 +51,84 @@ public class PrototypeAiContentService {
   @Value("${openai.prototype-prd-editor-pass-enabled:true}")
   private boolean prdEditorPassEnabled;
 
+  /** PRD 초안 pass 를 stream 으로 받아 조각을 바로 넘길지 (받는 쪽이 있을 때만) */
+  @Value("${openai.prototype-prd-stream-enabled:true}")
+  private boolean prdStreamEnabled;
+
+  /** PRD 초안이 생성되는 대로 받는 쪽. 초안만 흘려보내며 확장·편집 pass 결과는 반환값으로만 전달됩니다 */
+  public interface PrdDraftListener {
+
+    /** 새로 생성된 조각 (응답을 읽는 스레드에서 순서대로) */
+    void onDelta(String delta);
+
+    /** 초안 pass 가 끝남 (성공·실패 무관) */
+    default void onDraftFinished() {}
+  }
+
   public String generatePrd(Idea idea) {
+    return generatePrd(idea, null);
+  }
+
+  /** @param draftListener null 이면 초안을 흘려보내지 않음 */
+  public String generatePrd(Idea idea, PrdDraftListener draftListener) {
     if (!openAiHolder.isEnabled()) {
-      log.warn(
-          "PRD: OpenAI 비활성(api-key 없음/형식 불일치) — 템플릿만 사용합니다. "
-              + "src/main/resources/application-local.yml 또는 Capstone 루트 local-application.yml, "
-              + "환경변수 OPENAI_API_KEY 를 확인하세요.");
+      warnOpenAiDisabled();
       return templatePrd.generate(idea);
     }
+    String draft = draftPrd(idea, tryExtractStructuredBrief(idea), draftListener);
+    return draft != null ? polishPrd(draft) : templatePrd.generate(idea);
+  }
+
+  /**
+   * PRD 와 UI 구조를 함께 생성합니다. 호출 순서를 의존 관계대로 묶어 서로 기다릴 필요가 없는 호출을 겹쳐 실행합니다.
+   *
+   * <pre>
+   *   템플릿 PRD(폴백) ──────────────┐
+   *   구조화 요약 → 본 PRD 초안 ──┬─→ 확장 → 편집 → PRD
+   *                               └─→ UI 구조
+   * </pre>
+   *
+   * UI 구조는 제품명·가치·기능만 필요해 초안으로 충분하므로, 가장 긴 확장·편집 pass 와 동시에 만듭니다.
+   *
+   * <p>PRD 는 {@link #generatePrd} 와 같지만 UI 구조는 다를 수 있습니다: {@link #generatePrd} 후
+   * {@link #generateUiJson} 은 최종 PRD 로 UI 를 만들고, 여기서는 확장·편집 전 초안으로 만듭니다 (UI 뼈대 초안).
+   * 편집 pass 가 기능 이름을 바꾸거나 뺀 경우 UI 구조에는 초안의 이름·기능이 남을 수 있습니다. 최종 PRD 에 맞춘 UI 가
+   * 필요하면 UI 단계만 다시 생성합니다 ({@code POST .../regenerate?stage=UI}, 저장된 최종 PRD 사용).
+   */
+  public PrdAndUi generatePrdAndUi(Idea idea) {
+    return generatePrdAndUi(idea, null);
+  }
+
+  /** @param draftListener null 이면 초안을 흘려보내지 않음 */
+  public PrdAndUi generatePrdAndUi(Idea idea, PrdDraftListener draftListener) {
+    if (!openAiHolder.isEnabled()) {
+      String prd = generatePrd(idea);
+      return new PrdAndUi(prd, generateUiJson(idea, prd));
+    }
+    CompletableFuture<String> template =
+        CompletableFuture.supplyAsync(() -> templatePrd.generate(idea), llmExecutor);
+    CompletableFuture<String> draft =
+        CompletableFuture.supplyAsync(
+            () -> draftPrd(idea, tryExtractStructuredBrief(idea), draftListener), llmExecutor);
+    CompletableFuture<String> prd =
+        draft.thenCombineAsync(template, (d, t) -> d != null ? polishPrd(d) : t, llmExecutor);
+    CompletableFuture<String> ui =
+        draft.thenCombineAsync(
+            template, (d, t) -> generateUiJson(idea, d != null ? d : t), llmExecutor);
+    return new PrdAndUi(join(prd), join(ui));
+  }
+
+  /** {@link #generatePrdAndUi} 결과 */
+  public record PrdAndUi(String prdMarkdown, String uiStructureJson) {}
+
+  @PreDestroy
+  public void shutdown() {
+    llmExecutor.shutdownNow();
+  }
+
+  /** 본 PRD 초안 (구조화 요약이 있으면 함께 전달). 실패·빈 응답이면 null — 호출한 쪽이 템플릿 사용 */
+  private String draftPrd(Idea idea, String briefJson, PrdDraftListener listener) {
     try {
-      String briefJson = tryExtractStructuredBrief(idea);
       String raw =
           chatPrd(
               List.of(
@@ -60,16 +136,13 @@ public class PrototypeAiContentService {
                   Map.of(
                       "role",
                       "user",
-                      "content", buildPrdUserPrompt(idea, briefJson))));
+                      "content", buildPrdUserPrompt(idea, briefJson))),
+              listener);
       if (raw != null && !raw.isBlank()) {
-        String out = normalizePrdMarkdown(raw.trim());
-        out = expandPrdIfThin(out);
-        out = prdEditorPassIfEnabled(out);
-        log.info("PRD: OpenAI 응답 사용 (모델={}, {}자)", prototypeModel, out.length());
-        return out;
+        return normalizePrdMarkdown(raw.trim());
       }
       log.warn("PRD: OpenAI 응답이 비어 있어 템플릿 사용");
-      return templatePrd.generate(idea);
+      return null;
     } catch (Exception e) {
       log.warn(
           "LLM PRD 생성 실패, 템플릿 사용: {} ({})",
@@ -81,7 +154,36 @@ public class PrototypeAiContentService {
               || e.getMessage().toLowerCase().contains("incorrect api key"))) {
         log.warn("OpenAI 인증 실패 가능성: OPENAI_API_KEY 또는 local-application.yml 의 openai.api-key 를 확인하세요.");
       }
-      return templatePrd.generate(idea);
+      return null;
+    } finally {
+      if (listener != null) {
+        listener.onDraftFinished();
+      }
+    }
+  }
+
+  /** 초안 보강: 짧으면 확장(2차) 후 편집(3차). 각 pass 는 실패하면 이전 결과 유지 */
+  private String polishPrd(String draft) {
+    String out = prdEditorPassIfEnabled(expandPrdIfThin(draft));
+    log.info("PRD: OpenAI 응답 사용 (모델={}, {}자)", prototypeModel, out.length());
+    return out;
+  }
+
+  private void warnOpenAiDisabled() {
+    log.warn(
+        "PRD: OpenAI 비활성(api-key 없음/형식 불일치) — 템플릿만 사용합니다. "
+            + "src/main/resources/application-local.yml 또는 Capstone 루트 local-application.yml, "
+            + "환경변수 OPENAI_API_KEY 를 확인하세요.");
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
     }
   }
 
@@ -140,7 +242,13 @@ public class PrototypeAiContentService {
     return templateUi.generate(idea);
   }
 
-  private String chatPrd(List<Map<String, String>> messages) {
+  private String chatPrd(List<Map<String, String>> messages, PrdDraftListener listener) {
+    if (listener != null && prdStreamEnabled) {
+      return openAiHolder
+          .getOpenAiChatService()
+          .createChatCompletionStream(
+              prototypeModel, messages, 0.32, prdMaxTokens, listener::onDelta);
+    }
     return openAiHolder
         .getOpenAiChatService()
         .createChatCompletion(prototypeModel, messages, 0.32, prdMaxTokens);
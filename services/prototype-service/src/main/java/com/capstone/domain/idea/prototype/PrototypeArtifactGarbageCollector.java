@@ -0,0 +1,93 @@
+package com.capstone.domain.idea.prototype;
+
+import com.capstone.global.storage.BlobGarbageCollector;
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 프로토타입 산출물 저장소에서 작업 행이 없어진 {@code {jobId}/...} 파일을 백그라운드로 정리합니다
+ * ({@link BlobGarbageCollector}). 작업은 워크스페이스·아이디어 삭제 때 함께 지워지지만 파일은 남기 때문입니다. 남은
+ * 작업의 파일은 재실행 때 {@link PrototypeArtifactService#writeForJob} 이 교체합니다.
+ *
+ * <p>내용 객체 정리는 객체 디렉토리를 공유하는 workspace-service 가 하므로 여기서는 키만 정리합니다.
+ */
+@Slf4j
+@Component
+public class PrototypeArtifactGarbageCollector {
+
+  private static final Pattern ARTIFACT_KEY = Pattern.compile("(\\d{1,18})/.+");
+
+  private final IdeaPrototypeJobRepository jobRepository;
+  private final BlobGarbageCollector collector;
+  private final boolean enabled;
+
+  public PrototypeArtifactGarbageCollector(IdeaPrototypeJobRepository jobRepository,
+      BlobStore prototypeArtifactBlobStore, MeterRegistry meterRegistry,
+      @Value("${app.storage.gc.enabled:true}") boolean enabled,
+      @Value("${app.storage.gc.dry-run:false}") boolean dryRun,
+      @Value("${app.storage.gc.interval:30s}") Duration interval,
+      @Value("${app.storage.gc.batch-size:200}") int batchSize,
+      @Value("${app.storage.gc.grace:1h}") Duration grace) {
+    this.jobRepository = jobRepository;
+    this.enabled = enabled;
+    this.collector = new BlobGarbageCollector("prototype-artifacts", prototypeArtifactBlobStore,
+        this::findOrphans, meterRegistry,
+        new BlobGarbageCollector.Options(dryRun, interval, batchSize, grace, false));
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      collector.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    collector.stop();
+  }
+
+  public BlobGarbageCollector.Batch sweepOnce() throws IOException {
+    return collector.sweepOnce();
+  }
+
+  List<BlobInfo> findOrphans(List<BlobInfo> candidates) {
+    Set<Long> jobIds = new HashSet<>();
+    for (BlobInfo blob : candidates) {
+      Matcher matcher = ARTIFACT_KEY.matcher(blob.key());
+      if (matcher.matches()) {
+        jobIds.add(Long.parseLong(matcher.group(1)));
+      }
+    }
+    if (jobIds.isEmpty()) {
+      return List.of();
+    }
+    Set<Long> existing = new HashSet<>();
+    for (IdeaPrototypeJob job : jobRepository.findAllById(jobIds)) {
+      existing.add(job.getId());
+    }
+
+    List<BlobInfo> orphans = new ArrayList<>();
+    for (BlobInfo blob : candidates) {
+      Matcher matcher = ARTIFACT_KEY.matcher(blob.key());
+      if (matcher.matches() && !existing.contains(Long.parseLong(matcher.group(1)))) {
+        orphans.add(blob);
+      }
+    }
+    return orphans;
+  }
+}
@@ -3,65 +3,56 @@ package com.capstone.domain.idea.prototype;
 import com.capstone.domain.idea.prototype.dto.PrototypeSourceFileResponse;
 import com.capstone.global.exception.CustomException;
 import com.capstone.global.exception.ErrorCode;
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * PRD/프로토타입 AI 생성 물을 서버 로컬 디스크에 저장하고, API로만 조회하도록 합니다. {@code
- * /uploads}에 두지 않아 정적 공개 URL로 유출되지 않습니다.
+ * PRD/프로토타입 AI 생성 물을 저장소({@code app.prototype.artifact-base-dir})에 저장하고, API로만 조회하도록 합니다.
+ * {@code /uploads}에 두지 않아 정적 공개 URL로 유출되지 않습니다. 재실행마다 거의 같은 파일이 다시 생성되므로 내용이
+ * 같은 파일은 저장소에서 한 벌만 보관됩니다.
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class PrototypeArtifactService {
 
-  @Value("${app.prototype.artifact-base-dir:./data/prototype-artifacts}")
-  private String artifactBaseDir;
+  /** 키는 {@code {jobId}/{상대 경로}} */
+  private final BlobStore prototypeArtifactBlobStore;
 
+  /** 새 파일을 모두 쓴 뒤 이전 실행에서만 있던 파일을 지웁니다 (교체 중에도 조회가 빈 결과를 보지 않음). */
   public void writeForJob(long jobId, Map<String, String> files) {
     if (files == null || files.isEmpty()) {
       return;
     }
-    Path base = jobRoot(jobId);
+    String prefix = jobPrefix(jobId);
     try {
-      if (Files.exists(base)) {
-        try (Stream<Path> walk = Files.walk(base)) {
-          List<Path> paths =
-              walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
-          for (Path p : paths) {
-            if (!p.equals(base)) {
-              Files.deleteIfExists(p);
-            }
-          }
-        }
-      }
-      Files.createDirectories(base);
+      Set<String> written = new HashSet<>();
       for (Map.Entry<String, String> e : files.entrySet()) {
-        String rel = normalizeRelativePath(e.getKey());
-        Path target = base.resolve(rel).normalize();
-        if (!target.startsWith(base)) {
-          log.warn("prototype artifact path traversal blocked: {}", e.getKey());
-          continue;
+        String key = prefix + normalizeRelativePath(e.getKey());
+        byte[] content = (e.getValue() != null ? e.getValue() : "").getBytes(StandardCharsets.UTF_8);
+        prototypeArtifactBlobStore.put(key, out -> out.write(content));
+        written.add(key);
+      }
+      for (BlobInfo blob : prototypeArtifactBlobStore.list(prefix)) {
+        if (!written.contains(blob.key())) {
+          prototypeArtifactBlobStore.delete(blob.key());
         }
-        Files.createDirectories(target.getParent());
-        Files.writeString(target, e.getValue() != null ? e.getValue() : "", StandardCharsets.UTF_8);
       }
-      log.info("prototype artifacts written jobId={} fileCount={} base={}", jobId, files.size(), base);
+      log.info("prototype artifacts written jobId={} fileCount={}", jobId, written.size());
     } catch (IOException ex) {
       log.error("prototype artifact write failed jobId={}", jobId, ex);
       throw new CustomException(ErrorCode.PROTOTYPE_ARTIFACT_IO_FAILED);
@@ -69,24 +60,21 @@ public class PrototypeArtifactService {
   }
 
   public List<PrototypeSourceFileResponse> listForJob(long jobId) {
-    Path base = jobRoot(jobId);
-    if (!Files.isDirectory(base)) {
-      throw new CustomException(ErrorCode.NOT_FOUND_PROTOTYPE_ARTIFACT);
-    }
+    String prefix = jobPrefix(jobId);
     try {
-      List<PrototypeSourceFileResponse> out = new ArrayList<>();
-      Files.walkFileTree(
-          base,
-          new SimpleFileVisitor<>() {
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-              String rel = base.relativize(file).toString().replace('\\', '/');
-              String content = Files.readString(file, StandardCharsets.UTF_8);
-              out.add(PrototypeSourceFileResponse.builder().path(rel).content(content).build());
-              return FileVisitResult.CONTINUE;
-            }
-          });
-      out.sort(Comparator.comparing(PrototypeSourceFileResponse::getPath));
+      List<BlobInfo> blobs = prototypeArtifactBlobStore.list(prefix);
+      if (blobs.isEmpty()) {
+        throw new CustomException(ErrorCode.NOT_FOUND_PROTOTYPE_ARTIFACT);
+      }
+      List<PrototypeSourceFileResponse> out = new ArrayList<>(blobs.size());
+      for (BlobInfo blob : blobs) {
+        // 목록과 읽기 사이에 재실행으로 지워진 파일은 건너뜀
+        Optional<String> content = read(blob.key());
+        if (content.isPresent()) {
+          String rel = blob.key().substring(prefix.length());
+          out.add(PrototypeSourceFileResponse.builder().path(rel).content(content.get()).build());
+        }
+      }
       return out;
     } catch (IOException e) {
       log.error("prototype artifact list failed jobId={}", jobId, e);
@@ -95,26 +83,37 @@ public class PrototypeArtifactService {
   }
 
   public boolean hasArtifacts(long jobId) {
-    return Files.isDirectory(jobRoot(jobId));
+    try {
+      return !prototypeArtifactBlobStore.list(jobPrefix(jobId)).isEmpty();
+    } catch (IOException e) {
+      log.warn("prototype artifact lookup failed jobId={}", jobId, e);
+      return false;
+    }
   }
 
   public String readFile(long jobId, String relativePath) {
     String rel = normalizeRelativePath(relativePath);
-    Path base = jobRoot(jobId);
-    Path target = base.resolve(rel).normalize();
-    if (!target.startsWith(base) || !Files.exists(target) || !Files.isRegularFile(target)) {
-      throw new CustomException(ErrorCode.NOT_FOUND_PROTOTYPE_ARTIFACT);
-    }
     try {
-      return Files.readString(target, StandardCharsets.UTF_8);
+      return read(jobPrefix(jobId) + rel)
+          .orElseThrow(() -> new CustomException(ErrorCode.NOT_FOUND_PROTOTYPE_ARTIFACT));
     } catch (IOException e) {
       log.error("prototype artifact read failed jobId={} path={}", jobId, rel, e);
       throw new CustomException(ErrorCode.PROTOTYPE_ARTIFACT_IO_FAILED);
     }
   }
 
-  private Path jobRoot(long jobId) {
-    return Path.of(artifactBaseDir).toAbsolutePath().normalize().resolve(String.valueOf(jobId));
+  private Optional<String> read(String key) throws IOException {
+    Optional<InputStream> stream = prototypeArtifactBlobStore.open(key);
+    if (stream.isEmpty()) {
+      return Optional.empty();
+    }
+    try (InputStream in = stream.get()) {
+      return Optional.of(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String jobPrefix(long jobId) {
+    return jobId + "/";
   }
 
   private static String normalizeRelativePath(String raw) {
@@ -0,0 +1,186 @@
+package com.capstone.domain.idea.prototype;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@code idea_prototype_jobs} 를 그대로 쓰는 DB 작업 큐 (PostgreSQL).
+ *
+ * <p>워커는 {@code FOR UPDATE SKIP LOCKED} 로 실행할 작업 하나를 골라 임대(lease)를 걸고 가져갑니다. 여러 인스턴스가
+ * 동시에 가져가도 한 작업은 한 워커에게만 가며, 실행 중에는 {@link #heartbeat} 로 임대를 연장합니다. 인스턴스가
+ * 죽으면 임대가 만료되어 다른 워커가 다시 가져갑니다. 시각은 모두 DB 시각({@code LOCALTIMESTAMP})이라 인스턴스 간
+ * 시계 차이에 영향받지 않습니다.
+ *
+ * <p>가져갈 수 있는 작업: 끝나지 않았고(DEPLOYED·FAILED 아님), 임대가 없거나 만료됐고, 재시도 대기 시각이 지났고,
+ * 시도 횟수가 남은 것. 오래 기다린 것부터 가져갑니다.
+ */
+@Repository
+public class PrototypeJobQueue {
+
+  /** 아직 끝나지 않은 상태 (실행 중 단계 포함: 임대가 만료되면 다시 실행) */
+  static final String ACTIVE_STATUSES =
+      "'PENDING', 'RUNNING', 'PRD_GENERATED', 'UI_GENERATED', 'CODE_GENERATED', 'GITHUB_PUSHED'";
+
+  private static final String CLAIMABLE = """
+      status IN (%s)
+        AND (lease_expires_at IS NULL OR lease_expires_at < LOCALTIMESTAMP)
+      """.formatted(ACTIVE_STATUSES);
+
+  private static final String CLAIM_SQL = """
+      UPDATE idea_prototype_jobs
+      SET lease_owner = ?,
+          lease_expires_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond',
+          attempts = COALESCE(attempts, 0) + 1,
+          next_run_at = NULL
+      WHERE id = (
+        SELECT id FROM idea_prototype_jobs
+        WHERE %s
+          AND (next_run_at IS NULL OR next_run_at <= LOCALTIMESTAMP)
+          AND COALESCE(attempts, 0) < ?
+        ORDER BY COALESCE(next_run_at, created_at), id
+        LIMIT 1
+        FOR UPDATE SKIP LOCKED)
+      RETURNING id, attempts
+      """.formatted(CLAIMABLE);
+
+  private static final String HEARTBEAT_SQL = """
+      UPDATE idea_prototype_jobs
+      SET lease_expires_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond'
+      WHERE lease_owner = ?
+      """;
+
+  private static final String RELEASE_SQL = """
+      UPDATE idea_prototype_jobs SET lease_owner = NULL, lease_expires_at = NULL
+      WHERE id = ? AND lease_owner = ?
+      """;
+
+  private static final String RETRY_SQL = """
+      UPDATE idea_prototype_jobs
+      SET status = 'PENDING',
+          next_run_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond',
+          error_message = ?,
+          lease_owner = NULL,
+          lease_expires_at = NULL
+      WHERE id = ? AND lease_owner = ?
+      """;
+
+  /** 아이디어 잠금을 못 잡아 실행하지 못한 작업: 시도 횟수를 되돌리고 잠시 뒤 다시 가져가게 함 */
+  private static final String DEFER_SQL = """
+      UPDATE idea_prototype_jobs
+      SET next_run_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond',
+          attempts = GREATEST(COALESCE(attempts, 1) - 1, 0),
+          lease_owner = NULL,
+          lease_expires_at = NULL
+      WHERE id = ? AND lease_owner = ?
+      """;
+
+  /** 끝난 작업을 다시 실행할 때 시도 횟수부터 새로 셈 (실행 중인 작업은 건드리지 않음) */
+  private static final String REQUEUE_SQL = """
+      UPDATE idea_prototype_jobs
+      SET attempts = 0, next_run_at = NULL, lease_owner = NULL, lease_expires_at = NULL
+      WHERE id = ? AND (lease_expires_at IS NULL OR lease_expires_at < LOCALTIMESTAMP)
+      """;
+
+  /** 마지막 시도 중에 인스턴스가 죽어 더 가져갈 수 없게 된 작업 */
+  private static final String FAIL_EXHAUSTED_SQL = """
+      UPDATE idea_prototype_jobs
+      SET status = 'FAILED', error_message = ?, lease_owner = NULL, lease_expires_at = NULL
+      WHERE %s AND COALESCE(attempts, 0) >= ?
+      """.formatted(CLAIMABLE);
+
+  /** 새 작업은 attempts 0 으로 들어가므로 NULL 은 이 마이그레이션 전에 만들어진 작업만 뜻함 */
+  private static final String ATTEMPTS_DEFAULT_SQL =
+      "ALTER TABLE idea_prototype_jobs ALTER COLUMN attempts SET DEFAULT 0";
+
+  /**
+   * 큐 도입 전(@Async)에 실행 도중 멈춰 남은 작업 중 오래된 것 (그대로 다시 실행하지 않음). 대기(PENDING) 작업은
+   * 오래 기다렸어도 큐가 이어서 실행합니다.
+   */
+  private static final String FAIL_STALE_LEGACY_SQL = """
+      UPDATE idea_prototype_jobs
+      SET status = 'FAILED', error_message = ?
+      WHERE %s AND attempts IS NULL AND status <> 'PENDING'
+        AND COALESCE(updated_at, created_at) < LOCALTIMESTAMP - ? * INTERVAL '1 millisecond'
+      """.formatted(CLAIMABLE);
+
+  private static final String BACKFILL_ATTEMPTS_SQL =
+      "UPDATE idea_prototype_jobs SET attempts = 0 WHERE attempts IS NULL";
+
+  private static final String CREATE_INDEX_SQL = """
+      CREATE INDEX IF NOT EXISTS idx_idea_prototype_jobs_queue
+      ON idea_prototype_jobs (COALESCE(next_run_at, created_at), id)
+      WHERE status IN (%s)
+      """.formatted(ACTIVE_STATUSES);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PrototypeJobQueue(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** 실행할 작업 하나에 임대를 걸고 가져옵니다 (없으면 empty). 가져갈 때마다 시도 횟수가 1 늘어납니다. */
+  public Optional<Claim> claimNext(String owner, Duration lease, int maxAttempts) {
+    List<Claim> claimed = jdbcTemplate.query(CLAIM_SQL,
+        (rs, rowNum) -> new Claim(rs.getLong("id"), rs.getInt("attempts")),
+        owner, lease.toMillis(), maxAttempts);
+    return claimed.stream().findFirst();
+  }
+
+  /** 이 워커가 가진 모든 임대를 연장하고, 연장된 개수를 반환합니다. */
+  public int heartbeat(String owner, Duration lease) {
+    return jdbcTemplate.update(HEARTBEAT_SQL, lease.toMillis(), owner);
+  }
+
+  /** 실행이 끝난 작업의 임대를 풉니다 (상태는 파이프라인이 기록). */
+  public boolean release(long jobId, String owner) {
+    return jdbcTemplate.update(RELEASE_SQL, jobId, owner) == 1;
+  }
+
+  /** 대기 상태로 되돌려 {@code delay} 뒤에 다시 가져가게 합니다. */
+  public boolean retryLater(long jobId, String owner, Duration delay, String errorMessage) {
+    return jdbcTemplate.update(RETRY_SQL, delay.toMillis(), errorMessage, jobId, owner) == 1;
+  }
+
+  /** 실행하지 못한 작업을 시도로 세지 않고 {@code delay} 뒤로 미룹니다. */
+  public boolean defer(long jobId, String owner, Duration delay) {
+    return jdbcTemplate.update(DEFER_SQL, delay.toMillis(), jobId, owner) == 1;
+  }
+
+  /**
+   * 끝난(DEPLOYED·FAILED) 작업을 다시 실행하도록 큐 상태를 초기화합니다. 상태는 호출한 쪽이 같은 트랜잭션에서
+   * PENDING 으로 바꿉니다. 실행 중인 임대가 있으면 false
+   */
+  public boolean requeue(long jobId) {
+    return jdbcTemplate.update(REQUEUE_SQL, jobId) == 1;
+  }
+
+  public int failExhausted(int maxAttempts, String errorMessage) {
+    return jdbcTemplate.update(FAIL_EXHAUSTED_SQL, errorMessage, maxAttempts);
+  }
+
+  /**
+   * 큐 도입 전 작업을 정리합니다 (기동 시, 멱등). {@code attempts} 기본값을 0 으로 두어 새 작업과 구분한 뒤, 실행 도중
+   * 멈춘 채 {@code staleAfter} 이상 지난 도입 전 작업은 FAILED 로 바꾸고 나머지는 0 으로 채웁니다. 채운 뒤에는 NULL 이
+   * 남지 않으므로 다음 기동부터는 아무 작업도 건드리지 않습니다 (밀린 작업·장애가 길어도 FAILED 처리되지 않음).
+   *
+   * @return FAILED 로 바꾼 작업 수
+   */
+  public int migrateLegacyJobs(Duration staleAfter, String errorMessage) {
+    jdbcTemplate.execute(ATTEMPTS_DEFAULT_SQL);
+    int stale = jdbcTemplate.update(FAIL_STALE_LEGACY_SQL, errorMessage, staleAfter.toMillis());
+    jdbcTemplate.update(BACKFILL_ATTEMPTS_SQL);
+    return stale;
+  }
+
+  /** 가져갈 작업을 고르는 부분 인덱스 (멱등) */
+  public void createIndex() {
+    jdbcTemplate.execute(CREATE_INDEX_SQL);
+  }
+
+  /** 가져온 작업과 이번이 몇 번째 시도인지 */
+  public record Claim(long jobId, int attempt) {
+  }
+}
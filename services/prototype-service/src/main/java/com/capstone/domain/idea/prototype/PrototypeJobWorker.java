@@ -0,0 +1,286 @@
+package com.capstone.domain.idea.prototype;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PrototypeJobQueue} 에서 프로토타입 작업을 가져와 실행하는 워커 (기존 {@code @Async} 실행 대체).
+ *
+ * <p>작업은 DB 행 자체가 큐이므로 재시작·배포 중에 메모리 큐와 함께 사라지지 않습니다. 기동 시 워커 스레드
+ * {@code workers} 개를 띄우고, 각 스레드는 작업을 하나씩 가져와 실행하며 없으면 {@code poll-interval} 만큼 기다립니다
+ * (같은 인스턴스에서 새 작업이 생기면 {@link #wakeUp()} 으로 바로 깨움). 실행 중에는 {@code lease} 의 1/3 마다
+ * 임대를 연장하고, 인스턴스가 죽어 연장이 끊기면 임대 만료 후 다른 인스턴스가 처음 단계부터 다시 실행합니다.
+ *
+ * <p>단계 실패는 {@code retry-backoff × 2^(시도-1)} (최대 {@code max-backoff}, 지터 포함) 뒤에 재시도하고,
+ * {@code max-attempts} 번째 시도에서 실패하면 FAILED 로 남깁니다. 큐 도입 전에 실행 도중 멈춘 채
+ * {@code stale-after} 이상 지난 작업은 첫 기동 때 한 번 FAILED 로 정리합니다 ({@link PrototypeJobQueue#migrateLegacyJobs}).
+ *
+ * <p>같은 아이디어의 다른 작업이 실행 중이면({@link PrototypePipelineLock}) 시도로 세지 않고 {@code lock-retry}
+ * 뒤로 미룹니다.
+ *
+ * <p>지표: {@code prototype.queue.jobs} ({@code result=finished|retried|failed|deferred}),
+ * {@code prototype.queue.running} (이 인스턴스에서 실행 중인 작업 수).
+ */
+@Slf4j
+@Component
+@Order(4)
+public class PrototypeJobWorker implements ApplicationRunner {
+
+  static final String EXHAUSTED_MESSAGE = "재시도 횟수를 모두 사용했습니다. 다시 생성해 주세요.";
+  static final String STALE_MESSAGE = "서버 재시작으로 중단된 작업입니다. 다시 생성해 주세요.";
+
+  private final PrototypeJobQueue queue;
+  private final PrototypePipelineExecutionService executionService;
+  private final boolean enabled;
+  private final int workers;
+  private final Duration pollInterval;
+  private final Duration lease;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration maxBackoff;
+  private final Duration staleAfter;
+  private final Duration lockRetry;
+
+  /** 임대 소유자 식별자 (인스턴스마다 다름) */
+  private final String owner;
+  /** 이 인스턴스에서 실행 중인 작업 ID */
+  private final Set<Long> running = ConcurrentHashMap.newKeySet();
+  private final Object signal = new Object();
+
+  private final Counter finishedCounter;
+  private final Counter retriedCounter;
+  private final Counter failedCounter;
+  private final Counter deferredCounter;
+
+  private final List<Thread> threads = new ArrayList<>();
+  private ScheduledExecutorService heartbeat;
+  private volatile boolean stopping;
+
+  public PrototypeJobWorker(PrototypeJobQueue queue,
+      PrototypePipelineExecutionService executionService, MeterRegistry meterRegistry,
+      @Value("${app.prototype.queue.enabled:true}") boolean enabled,
+      @Value("${app.prototype.queue.workers:2}") int workers,
+      @Value("${app.prototype.queue.poll-interval:2s}") Duration pollInterval,
+      @Value("${app.prototype.queue.lease:2m}") Duration lease,
+      @Value("${app.prototype.queue.max-attempts:3}") int maxAttempts,
+      @Value("${app.prototype.queue.retry-backoff:30s}") Duration retryBackoff,
+      @Value("${app.prototype.queue.max-backoff:10m}") Duration maxBackoff,
+      @Value("${app.prototype.queue.stale-after:1h}") Duration staleAfter,
+      @Value("${app.prototype.queue.lock-retry:15s}") Duration lockRetry) {
+    this.queue = queue;
+    this.executionService = executionService;
+    this.enabled = enabled;
+    this.workers = Math.max(1, workers);
+    this.pollInterval = pollInterval;
+    this.lease = lease;
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryBackoff = retryBackoff;
+    this.maxBackoff = maxBackoff;
+    this.staleAfter = staleAfter;
+    this.lockRetry = lockRetry;
+    this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    this.finishedCounter = meterRegistry.counter("prototype.queue.jobs", "result", "finished");
+    this.retriedCounter = meterRegistry.counter("prototype.queue.jobs", "result", "retried");
+    this.failedCounter = meterRegistry.counter("prototype.queue.jobs", "result", "failed");
+    this.deferredCounter = meterRegistry.counter("prototype.queue.jobs", "result", "deferred");
+    meterRegistry.gauge("prototype.queue.running", running, Set::size);
+  }
+
+  @Override
+  public synchronized void run(ApplicationArguments args) {
+    if (!threads.isEmpty()) {
+      return;
+    }
+    try {
+      queue.createIndex();
+    } catch (Exception e) {
+      log.warn("프로토타입 작업 큐 인덱스 생성을 건너뜁니다(비 Postgres 또는 테이블 없음): {}", e.getMessage());
+    }
+    int stale = 0;
+    try {
+      // 워커를 끈 인스턴스도 attempts 기본값은 맞춰 둠 (새 작업이 도입 전 작업처럼 보이지 않도록)
+      stale = queue.migrateLegacyJobs(staleAfter, STALE_MESSAGE);
+    } catch (Exception e) {
+      log.warn("큐 도입 전 프로토타입 작업 정리를 건너뜁니다(비 Postgres 또는 테이블 없음): {}", e.getMessage());
+    }
+    if (!enabled) {
+      return;
+    }
+    try {
+      int exhausted = queue.failExhausted(maxAttempts, EXHAUSTED_MESSAGE);
+      if (stale + exhausted > 0) {
+        log.info("중단된 프로토타입 작업 정리 - 오래된 작업 {}건, 재시도 소진 {}건 FAILED 처리", stale, exhausted);
+      }
+    } catch (Exception e) {
+      log.warn("중단된 프로토타입 작업 정리 실패: {}", e.getMessage());
+    }
+
+    long heartbeatMs = Math.max(1000, lease.toMillis() / 3);
+    heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "prototype-queue-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    heartbeat.scheduleWithFixedDelay(this::heartbeatTick, heartbeatMs, heartbeatMs,
+        TimeUnit.MILLISECONDS);
+    for (int i = 0; i < workers; i++) {
+      Thread thread = new Thread(this::workLoop, "prototype-worker-" + i);
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+    log.info("프로토타입 작업 워커 시작 - owner={}, 워커 {}개, 임대 {}, 최대 {}회 시도", owner, workers, lease,
+        maxAttempts);
+  }
+
+  /** 새 작업이 커밋됐을 때 기다리는 워커를 깨웁니다 (다른 인스턴스는 poll-interval 안에 가져감). */
+  public void wakeUp() {
+    synchronized (signal) {
+      signal.notifyAll();
+    }
+  }
+
+  /**
+   * 실행 중인 작업은 끊지 않고 새 작업만 가져가지 않습니다. 종료 후 남은 작업은 임대가 만료되면 다른 인스턴스가
+   * 이어받습니다.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    stopping = true;
+    wakeUp();
+    if (heartbeat != null) {
+      heartbeat.shutdownNow();
+      heartbeat = null;
+    }
+    threads.clear();
+  }
+
+  /** 작업 하나를 가져와 실행합니다. 가져갈 작업이 없으면 false */
+  public boolean processNext() {
+    Optional<PrototypeJobQueue.Claim> claim = queue.claimNext(owner, lease, maxAttempts);
+    if (claim.isEmpty()) {
+      return false;
+    }
+    execute(claim.get());
+    return true;
+  }
+
+  private void execute(PrototypeJobQueue.Claim claim) {
+    long jobId = claim.jobId();
+    // 마지막 시도면 파이프라인이 직접 FAILED 로 기록, 아니면 예외를 받아 재시도 예약
+    boolean lastAttempt = claim.attempt() >= maxAttempts;
+    running.add(jobId);
+    try {
+      if (!executionService.executePipeline(jobId, lastAttempt)) {
+        // 같은 아이디어를 다른 워커·인스턴스가 실행 중: 기다리지 않고 큐로 돌려보냄
+        Duration delay = jitter(lockRetry.toMillis());
+        log.info("prototype job deferred, idea is busy, retry in {}s jobId={}", delay.toSeconds(),
+            jobId);
+        queue.defer(jobId, owner, delay);
+        deferredCounter.increment();
+        return;
+      }
+      queue.release(jobId, owner);
+      finishedCounter.increment();
+    } catch (Exception e) {
+      if (lastAttempt) {
+        log.error("prototype job failed jobId={} attempt={}", jobId, claim.attempt(), e);
+        queue.release(jobId, owner);
+        failedCounter.increment();
+        return;
+      }
+      Duration delay = backoff(claim.attempt());
+      log.warn("prototype job attempt {}/{} failed, retry in {}s jobId={}: {}", claim.attempt(),
+          maxAttempts, delay.toSeconds(), jobId, e.getMessage());
+      queue.retryLater(jobId, owner, delay, "시도 " + claim.attempt() + "/" + maxAttempts
+          + " 실패, 재시도 예정: " + e.getMessage());
+      retriedCounter.increment();
+    } finally {
+      running.remove(jobId);
+    }
+  }
+
+  /** {@code attempt} 번째 시도가 실패한 뒤 기다릴 시간: 지수 백오프의 절반~전체 (여러 작업이 동시에 몰리지 않게) */
+  Duration backoff(int attempt) {
+    long base = Math.max(1, retryBackoff.toMillis());
+    long max = Math.max(base, maxBackoff.toMillis());
+    long delay = base << Math.min(Math.max(0, attempt - 1), 20);
+    return jitter(Math.min(delay, max));
+  }
+
+  private static Duration jitter(long delayMs) {
+    long delay = Math.max(1, delayMs);
+    return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+  }
+
+  private void workLoop() {
+    while (!stopping) {
+      try {
+        if (!processNext()) {
+          waitForWork();
+        }
+      } catch (Exception e) {
+        log.warn("프로토타입 작업 가져오기 실패: {}", e.getMessage());
+        waitForWork();
+      }
+    }
+  }
+
+  private void waitForWork() {
+    synchronized (signal) {
+      if (stopping) {
+        return;
+      }
+      try {
+        signal.wait(Math.max(100, pollInterval.toMillis()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        stopping = true;
+      }
+    }
+  }
+
+  private void heartbeatTick() {
+    try {
+      int held = running.size();
+      if (held > 0) {
+        int renewed = queue.heartbeat(owner, lease);
+        if (renewed < held) {
+          // 임대가 만료돼 다른 인스턴스가 가져갔거나 작업이 삭제됨
+          log.warn("프로토타입 작업 임대 연장 {}/{}건만 성공 owner={} jobs={}", renewed, held, owner,
+              running);
+        }
+      }
+      queue.failExhausted(maxAttempts, EXHAUSTED_MESSAGE);
+    } catch (Exception e) {
+      log.warn("프로토타입 작업 임대 연장 실패: {}", e.getMessage());
+    }
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (Exception e) {
+      return "prototype";
+    }
+  }
+}
@@ -5,15 +5,16 @@ import com.capstone.domain.idea.IdeaRepository;
 import com.capstone.global.service.WebSocketService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -23,10 +24,6 @@ public class PrototypePipelineExecutionService {
   @Value("${app.prd-public-base-url:http://localhost:3000}")
   private String prdPublicBaseUrl;
 
-  /** 동일 아이디어에 대한 파이프라인은 순차 실행 (재생성·동시 실행 충돌 방지) */
-  private static final ConcurrentHashMap<Long, Object> PIPELINE_LOCK_BY_IDEA_ID =
-      new ConcurrentHashMap<>();
-
   private final IdeaRepository ideaRepository;
   private final IdeaPrototypeJobRepository jobRepository;
   private final PrototypeAiContentService prototypeAiContentService;
@@ -35,90 +32,182 @@ public class PrototypePipelineExecutionService {
   private final PrototypeArtifactService prototypeArtifactService;
   private final WebSocketService webSocketService;
   private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final PrototypePipelineLock pipelineLock;
+  private final PrdStreamPublisher prdStreamPublisher;
+
+  /** @return 같은 아이디어를 다른 실행이 잡고 있어 실행하지 않았으면 false */
+  public boolean executePipeline(Long jobId) {
+    return executePipeline(jobId, true);
+  }
 
-  @Transactional
-  public void executePipeline(Long jobId) {
+  /**
+   * 단계마다 저장하며 파이프라인을 실행합니다. 호출한 쪽에 트랜잭션이 없으면 단계별 저장이 각각 커밋되어 진행 상태가
+   * 바로 보이고, 실행 중에 작업 행을 잠그지 않아 {@link PrototypeJobQueue} 의 임대 연장이 막히지 않습니다.
+   *
+   * <p>같은 아이디어의 파이프라인은 인스턴스와 관계없이 하나만 실행됩니다 ({@link PrototypePipelineLock}). 잠금을
+   * 기다리지 않으므로 다른 실행이 잡고 있으면 바로 false 를 돌려주고, 호출한 쪽이 다시 예약합니다. 잠금은 호출한 쪽
+   * 트랜잭션에 참여하므로 트랜잭션 밖에서 부르세요.
+   *
+   * @param failOnError false 면 단계 실패 시 FAILED 로 기록하지 않고 예외를 던집니다 (큐가 재시도 예약)
+   * @return 같은 아이디어를 다른 실행이 잡고 있어 실행하지 않았으면 false
+   */
+  public boolean executePipeline(Long jobId, boolean failOnError) {
     IdeaPrototypeJob jobSnapshot =
         jobRepository.findById(jobId).orElseThrow(() -> new IllegalStateException("job not found"));
     if (jobSnapshot.getIdea() == null) {
       fail(jobSnapshot, "idea reference missing");
-      return;
+      return true;
     }
     Long ideaId = jobSnapshot.getIdea().getId();
-    Object lock = PIPELINE_LOCK_BY_IDEA_ID.computeIfAbsent(ideaId, k -> new Object());
-    synchronized (lock) {
-      IdeaPrototypeJob job =
-          jobRepository.findById(jobId).orElseThrow(() -> new IllegalStateException("job not found"));
-      if (job.getIdea() == null) {
-        fail(job, "idea reference missing");
-        return;
-      }
-      if (job.getStatus() == PrototypeJobStatus.FAILED) {
-        log.info("prototype skip already failed jobId={}", jobId);
-        return;
-      }
-      Idea idea = ideaRepository.findById(job.getIdea().getId()).orElse(null);
-      if (idea == null) {
-        fail(job, "idea not found for job");
-        return;
-      }
+    Optional<String> lockToken = pipelineLock.tryAcquire(ideaId, jobId);
+    if (lockToken.isEmpty()) {
+      log.info("prototype idea is locked by another run ideaId={} jobId={}", ideaId, jobId);
+      return false;
+    }
+    runLocked(jobId, ideaId, lockToken.get(), failOnError);
+    return true;
+  }
 
-      try {
-        job.setStatus(PrototypeJobStatus.RUNNING);
-        jobRepository.saveAndFlush(job);
+  /**
+   * 호출한 쪽이 이미 잡은 아이디어 잠금으로 실행하고, 끝나면 잠금을 풉니다 (동기 실행 API). 단계 실패는 FAILED 로
+   * 기록합니다.
+   */
+  public void executeLockedPipeline(Long jobId, long ideaId, String lockToken) {
+    runLocked(jobId, ideaId, lockToken, true);
+  }
+
+  private void runLocked(Long jobId, long ideaId, String lockToken, boolean failOnError) {
+    try {
+      runStages(jobId, failOnError);
+    } finally {
+      pipelineLock.release(ideaId, lockToken);
+    }
+  }
 
-        String prd = prototypeAiContentService.generatePrd(idea);
+  private void runStages(Long jobId, boolean failOnError) {
+    IdeaPrototypeJob job =
+        jobRepository.findById(jobId).orElseThrow(() -> new IllegalStateException("job not found"));
+    if (job.getIdea() == null) {
+      fail(job, "idea reference missing");
+      return;
+    }
+    if (job.getStatus() == PrototypeJobStatus.FAILED) {
+      log.info("prototype skip already failed jobId={}", jobId);
+      return;
+    }
+    Idea idea = ideaRepository.findById(job.getIdea().getId()).orElse(null);
+    if (idea == null) {
+      fail(job, "idea not found for job");
+      return;
+    }
+
+    try {
+      job.setStatus(PrototypeJobStatus.RUNNING);
+      jobRepository.saveAndFlush(job);
+
+      // 이전 시도·재시도에서 저장된 단계 결과가 있으면 LLM 을 다시 부르지 않고 이어서 실행
+      String prd = job.getPrdMarkdown();
+      String ui = job.getUiStructureJson();
+      String draftedUi = null;
+      PrdStreamPublisher.Stream prdStream = null;
+      if (isBlank(prd)) {
+        // 초안은 생성되는 대로 워크스페이스로 흘려보내고, DB 에는 단계가 끝난 뒤 완성본만 저장
+        prdStream = prdStreamPublisher.open(
+            idea.getWorkspace() != null ? idea.getWorkspace().getWorkspaceId() : null,
+            idea.getId(), job.getId());
+        if (isBlank(ui)) {
+          // 둘 다 없으면 함께 생성: UI 구조를 PRD 초안으로 만들어 PRD 보강 pass 와 겹쳐 실행
+          // (UI 만 다시 만드는 경로는 저장된 최종 PRD 를 쓰므로 결과가 다를 수 있음)
+          PrototypeAiContentService.PrdAndUi generated =
+              prototypeAiContentService.generatePrdAndUi(idea, prdStream);
+          prd = generated.prdMarkdown();
+          draftedUi = generated.uiStructureJson();
+        } else {
+          prd = prototypeAiContentService.generatePrd(idea, prdStream);
+        }
         job.setPrdMarkdown(prd);
-        job.setStatus(PrototypeJobStatus.PRD_GENERATED);
-        jobRepository.saveAndFlush(job);
+        stageCounter(PrototypePipelineStage.PRD, "generated").increment();
+      } else {
+        log.info("prototype resume: reuse stored PRD jobId={}", jobId);
+        stageCounter(PrototypePipelineStage.PRD, "reused").increment();
+      }
+      job.setStatus(PrototypeJobStatus.PRD_GENERATED);
+      jobRepository.saveAndFlush(job);
+      if (prdStream != null) {
+        prdStream.complete(prd);
+      }
 
-        String ui = prototypeAiContentService.generateUiJson(idea, prd);
+      if (isBlank(ui)) {
+        ui = draftedUi != null ? draftedUi : prototypeAiContentService.generateUiJson(idea, prd);
         job.setUiStructureJson(ui);
-        job.setStatus(PrototypeJobStatus.UI_GENERATED);
-        jobRepository.saveAndFlush(job);
-
-        Map<String, String> files = reactPrototypeGenerator.generateFiles(idea, ui);
-        job.setGeneratedFilesSummaryJson(buildFilesSummary(files));
-        job.setStatus(PrototypeJobStatus.CODE_GENERATED);
-        jobRepository.saveAndFlush(job);
-
-        try {
-          prototypeArtifactService.writeForJob(job.getId(), files);
-        } catch (Exception e) {
-          log.warn("prototype disk artifact write failed (pipeline continues) jobId={}", job.getId(), e);
-        }
+        stageCounter(PrototypePipelineStage.UI, "generated").increment();
+      } else {
+        log.info("prototype resume: reuse stored UI structure jobId={}", jobId);
+        stageCounter(PrototypePipelineStage.UI, "reused").increment();
+      }
+      job.setStatus(PrototypeJobStatus.UI_GENERATED);
+      jobRepository.saveAndFlush(job);
+
+      // 코드는 UI 구조에서 결정적으로 만들어지므로 (LLM 없음) 항상 다시 생성
+      Map<String, String> files = reactPrototypeGenerator.generateFiles(idea, ui);
+      job.setGeneratedFilesSummaryJson(buildFilesSummary(files));
+      stageCounter(PrototypePipelineStage.CODE, "generated").increment();
+      job.setStatus(PrototypeJobStatus.CODE_GENERATED);
+      jobRepository.saveAndFlush(job);
 
-        Long iid = idea.getId();
-        String repoName = "idea-prototype-" + iid + "-" + job.getId();
-        String projectSlug = sanitizeProjectSlug(repoName);
-        VercelPrototypeDeployService.VercelResolution urls =
-            vercelPrototypeDeployService.resolveUrls(files, job.getId(), projectSlug);
-
-        job.setVercelPreviewUrl(urls.previewUrl());
-        job.setVercelProductionUrl(urls.productionUrl());
-        job.setSimulated(urls.simulated());
-        job.setVercelDeploymentApiUsed(urls.deploymentApiUsed());
-        job.setStatus(PrototypeJobStatus.DEPLOYED);
-        jobRepository.saveAndFlush(job);
-
-        long workspaceId = idea.getWorkspace().getWorkspaceId();
-        String prdViewPath = "/prd/workspaces/" + workspaceId + "/prds/" + job.getId();
-        Map<String, Object> wsPayload = new HashMap<>();
-        wsPayload.put("type", "prototype_ready");
-        wsPayload.put("ideaId", iid);
-        wsPayload.put("prdId", job.getId());
-        wsPayload.put("jobId", job.getId());
-        wsPayload.put("workspaceId", workspaceId);
-        wsPayload.put("prdViewPath", prdViewPath);
-        wsPayload.put("prdViewUrl", buildPrdPublicUrl(prdViewPath));
-        webSocketService.broadcastToWorkspace(workspaceId, "prototype", wsPayload);
+      try {
+        prototypeArtifactService.writeForJob(job.getId(), files);
       } catch (Exception e) {
-        log.error("executePipeline failed jobId={}", jobId, e);
-        fail(job, e.getMessage());
+        log.warn("prototype disk artifact write failed (pipeline continues) jobId={}", job.getId(), e);
+      }
+
+      Long iid = idea.getId();
+      String repoName = "idea-prototype-" + iid + "-" + job.getId();
+      String projectSlug = sanitizeProjectSlug(repoName);
+      VercelPrototypeDeployService.VercelResolution urls =
+          vercelPrototypeDeployService.resolveUrls(files, job.getId(), projectSlug);
+
+      job.setVercelPreviewUrl(urls.previewUrl());
+      job.setVercelProductionUrl(urls.productionUrl());
+      job.setSimulated(urls.simulated());
+      job.setVercelDeploymentApiUsed(urls.deploymentApiUsed());
+      job.setStatus(PrototypeJobStatus.DEPLOYED);
+      job.setErrorMessage(null);
+      jobRepository.saveAndFlush(job);
+
+      long workspaceId = idea.getWorkspace().getWorkspaceId();
+      String prdViewPath = "/prd/workspaces/" + workspaceId + "/prds/" + job.getId();
+      Map<String, Object> wsPayload = new HashMap<>();
+      wsPayload.put("type", "prototype_ready");
+      wsPayload.put("ideaId", iid);
+      wsPayload.put("prdId", job.getId());
+      wsPayload.put("jobId", job.getId());
+      wsPayload.put("workspaceId", workspaceId);
+      wsPayload.put("prdViewPath", prdViewPath);
+      wsPayload.put("prdViewUrl", buildPrdPublicUrl(prdViewPath));
+      webSocketService.broadcastToWorkspace(workspaceId, "prototype", wsPayload);
+    } catch (Exception e) {
+      if (!failOnError) {
+        if (e instanceof RuntimeException re) {
+          throw re;
+        }
+        throw new IllegalStateException(e.getMessage(), e);
       }
+      log.error("executePipeline failed jobId={}", jobId, e);
+      fail(job, e.getMessage());
     }
   }
 
+  private Counter stageCounter(PrototypePipelineStage stage, String result) {
+    return meterRegistry.counter("prototype.pipeline.stages",
+        "stage", stage.name().toLowerCase(), "result", result);
+  }
+
+  private static boolean isBlank(String s) {
+    return s == null || s.isBlank();
+  }
+
   private void fail(IdeaPrototypeJob job, String message) {
     job.setStatus(PrototypeJobStatus.FAILED);
     job.setErrorMessage(message != null ? message : "unknown error");
@@ -0,0 +1,193 @@
+package com.capstone.domain.idea.prototype;
+
+import jakarta.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 아이디어 단위 파이프라인 잠금 ({@code idea_pipeline_locks} 테이블, 인스턴스 간 공유).
+ *
+ * <p>같은 아이디어의 파이프라인이 여러 인스턴스·스레드에서 동시에 돌지 않게 합니다. 잠금은 기다리지 않고 바로 성공·실패를
+ * 돌려주므로({@link #tryAcquire}) 못 잡은 작업은 큐로 돌아가 나중에 다시 실행됩니다. 잠금에는 만료 시각(임대)이 있어
+ * 잡은 동안 {@code lease} 의 1/3 마다 연장하고, 인스턴스가 죽으면 만료 후 다른 인스턴스가 가져갑니다. 풀린 잠금은 행을
+ * 지우고, 죽은 인스턴스가 남긴 만료된 행은 연장 주기마다 정리합니다.
+ *
+ * <p>잡을 때마다 새 토큰을 {@code owner} 에 적고, 연장·해제는 그 토큰으로만 합니다. 같은 인스턴스의 같은 작업이라도
+ * (임대가 만료돼 다른 워커 스레드가 다시 가져간 경우 등) 두 번째 실행은 잠금을 못 잡고, 먼저 끝난 실행의 해제가 다른
+ * 실행의 잠금을 지우지 않습니다.
+ *
+ * <p>호출한 쪽에 트랜잭션이 있으면 그 트랜잭션에 참여합니다 (연결을 하나 더 쓰지 않음). 이때 잠금은 커밋돼야 다른
+ * 실행에 보이고 롤백되면 함께 사라지므로, 파이프라인 전체를 감싸는 긴 트랜잭션 안에서 잡지 말고 짧은 트랜잭션에서 잡은
+ * 뒤 트랜잭션 밖에서 실행하세요 ({@link IdeaPrototypeService#runPipelineSync}). 트랜잭션 밖에서 부르면 바로 커밋합니다.
+ */
+@Slf4j
+@Component
+@Order(3)
+public class PrototypePipelineLock implements ApplicationRunner {
+
+  private static final String CREATE_TABLE_SQL = """
+      CREATE TABLE IF NOT EXISTS idea_pipeline_locks (
+        idea_id BIGINT PRIMARY KEY,
+        job_id BIGINT NOT NULL,
+        owner VARCHAR(128) NOT NULL,
+        expires_at TIMESTAMP NOT NULL)
+      """;
+
+  /** 비어 있거나 만료됐으면 잡음 (한 문장이라 동시에 잡아도 하나만 성공) */
+  private static final String ACQUIRE_SQL = """
+      INSERT INTO idea_pipeline_locks (idea_id, job_id, owner, expires_at)
+      VALUES (?, ?, ?, LOCALTIMESTAMP + ? * INTERVAL '1 millisecond')
+      ON CONFLICT (idea_id) DO UPDATE
+      SET job_id = EXCLUDED.job_id, owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+      WHERE idea_pipeline_locks.expires_at < LOCALTIMESTAMP
+      """;
+
+  private static final String RENEW_SQL = """
+      UPDATE idea_pipeline_locks
+      SET expires_at = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond'
+      WHERE idea_id = ? AND owner = ?
+      """;
+
+  private static final String RELEASE_SQL =
+      "DELETE FROM idea_pipeline_locks WHERE idea_id = ? AND owner = ?";
+
+  private static final String PURGE_EXPIRED_SQL =
+      "DELETE FROM idea_pipeline_locks WHERE expires_at < LOCALTIMESTAMP";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transaction;
+  private final Duration lease;
+  private final String owner;
+  /** 이 인스턴스가 잡고 있는 잠금: 아이디어 ID → 토큰 */
+  private final Map<Long, String> held = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService renewer;
+
+  public PrototypePipelineLock(JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.prototype.queue.lease:2m}") Duration lease) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.lease = lease;
+    // 토큰(owner/UUID)이 owner 컬럼(128자)에 들어가도록 호스트 이름을 자름
+    String host = hostName();
+    this.owner = host.substring(0, Math.min(host.length(), 64)) + "-"
+        + UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  @Override
+  public synchronized void run(ApplicationArguments args) {
+    try {
+      jdbcTemplate.execute(CREATE_TABLE_SQL);
+    } catch (Exception e) {
+      log.warn("idea_pipeline_locks 테이블 생성을 건너뜁니다(비 Postgres 또는 DB 없음): {}", e.getMessage());
+    }
+    if (renewer != null) {
+      return;
+    }
+    long renewMs = Math.max(1000, lease.toMillis() / 3);
+    renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "prototype-pipeline-lock");
+      thread.setDaemon(true);
+      return thread;
+    });
+    renewer.scheduleWithFixedDelay(this::renewTick, renewMs, renewMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (renewer != null) {
+      renewer.shutdownNow();
+      renewer = null;
+    }
+  }
+
+  /**
+   * 기다리지 않고 잠금을 시도합니다.
+   *
+   * @return 해제할 때 넘길 이번 잠금의 토큰. 다른 실행이 잡고 있으면 empty
+   */
+  public Optional<String> tryAcquire(long ideaId, long jobId) {
+    String token = owner + "/" + UUID.randomUUID();
+    Integer updated = transaction.execute(status ->
+        jdbcTemplate.update(ACQUIRE_SQL, ideaId, jobId, token, lease.toMillis()));
+    if (updated == null || updated == 0) {
+      return Optional.empty();
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // 호출한 쪽 트랜잭션이 커밋돼야 잠금 행이 남음
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              held.put(ideaId, token);
+            }
+          });
+    } else {
+      held.put(ideaId, token);
+    }
+    return Optional.of(token);
+  }
+
+  public void release(long ideaId, String token) {
+    held.remove(ideaId, token);
+    try {
+      transaction.executeWithoutResult(status ->
+          jdbcTemplate.update(RELEASE_SQL, ideaId, token));
+    } catch (Exception e) {
+      // 못 지운 행은 만료 후 정리됨
+      log.warn("파이프라인 잠금 해제 실패 ideaId={} token={}: {}", ideaId, token, e.getMessage());
+    }
+  }
+
+  private void renewTick() {
+    try {
+      Map<Long, String> locks = Map.copyOf(held);
+      if (!locks.isEmpty()) {
+        Integer renewed = transaction.execute(status -> {
+          int count = 0;
+          for (Map.Entry<Long, String> lock : locks.entrySet()) {
+            count += jdbcTemplate.update(RENEW_SQL, lease.toMillis(), lock.getKey(), lock.getValue());
+          }
+          return count;
+        });
+        if (renewed == null || renewed < locks.size()) {
+          log.warn("파이프라인 잠금 연장 {}/{}건만 성공 owner={} locks={}", renewed, locks.size(), owner,
+              locks);
+        }
+      }
+      Integer purged = transaction.execute(status -> jdbcTemplate.update(PURGE_EXPIRED_SQL));
+      if (purged != null && purged > 0) {
+        log.info("만료된 파이프라인 잠금 {}건 정리", purged);
+      }
+    } catch (Exception e) {
+      log.warn("파이프라인 잠금 연장 실패: {}", e.getMessage());
+    }
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (Exception e) {
+      return "prototype";
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.capstone.domain.idea.prototype;
+
+/**
+ * 다시 생성할 수 있는 파이프라인 단계. 한 단계를 다시 만들면 그 결과에 기대는 뒤 단계도 함께 다시 실행되고, 앞 단계의
+ * 저장된 결과({@code prdMarkdown}, {@code uiStructureJson})는 그대로 재사용합니다.
+ */
+public enum PrototypePipelineStage {
+  /** PRD 부터 모두 (LLM 호출 전부) */
+  PRD,
+  /** 저장된 PRD 로 UI 구조부터 */
+  UI,
+  /** 저장된 PRD·UI 로 코드 생성·배포만 (LLM 호출 없음) */
+  CODE;
+
+  /** 이 단계부터 다시 만들도록 작업에 저장된 결과를 비웁니다. */
+  void clearOutputs(IdeaPrototypeJob job) {
+    if (this == PRD) {
+      job.setPrdMarkdown(null);
+    }
+    if (this != CODE) {
+      job.setUiStructureJson(null);
+    }
+    job.setGeneratedFilesSummaryJson(null);
+    job.setGithubRepoUrl(null);
+    job.setVercelPreviewUrl(null);
+    job.setVercelProductionUrl(null);
+    job.setVercelDeploymentApiUsed(null);
+  }
+}
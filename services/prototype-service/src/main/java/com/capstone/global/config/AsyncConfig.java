@@ -1,23 +0,0 @@
-package com.capstone.global.config;
-
-import java.util.concurrent.Executor;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-@Configuration
-@EnableAsync
-public class AsyncConfig {
-
-  @Bean(name = "prototypeTaskExecutor")
-  public Executor prototypeTaskExecutor() {
-    ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
-    ex.setCorePoolSize(2);
-    ex.setMaxPoolSize(8);
-    ex.setQueueCapacity(200);
-    ex.setThreadNamePrefix("prototype-");
-    ex.initialize();
-    return ex;
-  }
-}
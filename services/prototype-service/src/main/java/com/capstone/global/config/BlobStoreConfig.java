@@ -0,0 +1,25 @@
+package com.capstone.global.config;
+
+import com.capstone.global.storage.BlobStore;
+import com.capstone.global.storage.LocalBlobStore;
+import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 프로토타입 산출물 저장소. {@code app.storage.backend} 로 구현을 고르며, 지금은 로컬 디스크(local)만 있습니다. 키는
+ * {@code app.prototype.artifact-base-dir} 기준 상대 경로({@code {jobId}/{파일 경로}})이고 정적 공개되지 않습니다.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+  public BlobStore prototypeArtifactBlobStore(
+      @Value("${app.prototype.artifact-base-dir:./data/prototype-artifacts}") String artifactBaseDir,
+      @Value("${app.storage.local.object-dir:./data/blobs}") String objectDir) {
+    return new LocalBlobStore(Paths.get(artifactBaseDir), Paths.get(objectDir));
+  }
+}
@@ -36,6 +36,7 @@ public enum ErrorCode {
   NOT_FOUND_PROTOTYPE_JOB_BY_ID("해당 프로토타입 작업을 찾을 수 없습니다.", HttpStatus.NOT_FOUND),
   NOT_FOUND_PROTOTYPE_ARTIFACT("저장된 프로토타입 소스를 찾을 수 없습니다. 파이프라인이 끝난 뒤 다시 시도하세요.", HttpStatus.NOT_FOUND),
   PROTOTYPE_ARTIFACT_IO_FAILED("프로토타입 파일을 읽거나 쓰는 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
+  PROTOTYPE_JOB_IN_PROGRESS("프로토타입 작업이 아직 실행 중입니다. 끝난 뒤 다시 시도하세요.", HttpStatus.CONFLICT),
   PROTOTYPE_PIPELINE_FAILED("프로토타입 파이프라인 처리 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
 
   private final String message;
@@ -0,0 +1,232 @@
+package com.capstone.global.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 저장소 키를 조금씩 훑어 DB 에서 더 이상 가리키지 않는 항목(고아)을 지우는 백그라운드 정리 작업.
+ *
+ * <p>한 번에 전체를 훑지 않고 {@code interval} 마다 키 순으로 {@code batchSize} 개씩만 살펴보고, 어디까지 봤는지
+ * 기억했다가 다음 주기에 이어갑니다. 한 주기의 디스크 작업과 DB 조회(배치당 한 번)가 일정하므로 이것이 곧 속도
+ * 제한입니다. 마지막으로 쓰인 지 {@code grace} 가 지나지 않은 항목은 건너뛰어, 다른 인스턴스가 막 만들고 아직 DB 에
+ * 커밋하지 않은 파일을 지우지 않습니다. 키를 한 바퀴 돈 뒤 저장소가 {@link LocalBlobStore} 이면 어떤 키도 가리키지
+ * 않는 내용 객체를 같은 방식으로 정리합니다 ({@code sweepObjects}). 키를 지워도 같은 내용의 다른 키가 있으면 디스크는
+ * 그대로이므로 실제로 반납되는 양은 객체 정리 쪽 지표가 정확합니다.
+ *
+ * <p>dry-run 이면 지우지 않고 지울 대상만 셉니다. 한 바퀴가 끝날 때마다 검사·대상 개수와 바이트, 대상 일부를 로그로
+ * 남깁니다.
+ *
+ * <p>지표 ({@code store} 태그): {@code storage.gc.scanned}, {@code storage.gc.orphans} 와
+ * {@code storage.gc.reclaimed.bytes} ({@code kind=key|object}, {@code mode=delete|dry-run}),
+ * {@code storage.gc.batch} (한 주기 시간).
+ */
+@Slf4j
+public class BlobGarbageCollector {
+
+  private static final int REPORT_SAMPLE_SIZE = 20;
+
+  /** 유예 시간이 지난 항목 중 DB 에서 가리키지 않는 것을 고릅니다. 배치마다 한 번 호출됩니다. */
+  @FunctionalInterface
+  public interface OrphanFinder {
+
+    List<BlobInfo> findOrphans(List<BlobInfo> candidates);
+  }
+
+  public record Options(boolean dryRun, Duration interval, int batchSize, Duration grace,
+      boolean sweepObjects) {
+  }
+
+  /** 한 주기 결과. {@code passComplete} 는 키(와 객체)를 한 바퀴 다 돌았는지 */
+  public record Batch(int scanned, int orphans, long bytes, boolean passComplete) {
+  }
+
+  private final String store;
+  private final BlobStore blobStore;
+  private final OrphanFinder finder;
+  private final Options options;
+
+  private final Counter scannedCounter;
+  private final Counter keyOrphanCounter;
+  private final Counter keyBytesCounter;
+  private final Counter objectOrphanCounter;
+  private final Counter objectBytesCounter;
+  private final Timer batchTimer;
+
+  /** 아래 진행 상태는 sweepOnce 안에서만 바뀜 (this 로 동기화) */
+  private String keyCursor;
+  private String objectCursor;
+  private boolean objectPhase;
+  private Report report = new Report();
+
+  private ScheduledExecutorService timer;
+
+  public BlobGarbageCollector(String store, BlobStore blobStore, OrphanFinder finder,
+      MeterRegistry meterRegistry, Options options) {
+    this.store = store;
+    this.blobStore = blobStore;
+    this.finder = finder;
+    this.options = options;
+    String mode = options.dryRun() ? "dry-run" : "delete";
+    this.scannedCounter = meterRegistry.counter("storage.gc.scanned", "store", store);
+    this.keyOrphanCounter = meterRegistry.counter("storage.gc.orphans",
+        "store", store, "kind", "key", "mode", mode);
+    this.keyBytesCounter = meterRegistry.counter("storage.gc.reclaimed.bytes",
+        "store", store, "kind", "key", "mode", mode);
+    this.objectOrphanCounter = meterRegistry.counter("storage.gc.orphans",
+        "store", store, "kind", "object", "mode", mode);
+    this.objectBytesCounter = meterRegistry.counter("storage.gc.reclaimed.bytes",
+        "store", store, "kind", "object", "mode", mode);
+    this.batchTimer = meterRegistry.timer("storage.gc.batch", "store", store);
+  }
+
+  public synchronized void start() {
+    if (timer != null) {
+      return;
+    }
+    long intervalMs = Math.max(1000, options.interval().toMillis());
+    timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "blob-gc-" + store);
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer.scheduleWithFixedDelay(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    log.info("{} 저장소 정리 시작 - {}ms 마다 {}개씩, 유예 {}{}", store, intervalMs,
+        options.batchSize(), options.grace(), options.dryRun() ? " (dry-run)" : "");
+  }
+
+  public synchronized void stop() {
+    if (timer != null) {
+      timer.shutdownNow();
+      timer = null;
+    }
+  }
+
+  /** 한 배치를 처리합니다. 실패하면 커서를 그대로 두어 다음 주기에 같은 위치부터 다시 봅니다. */
+  public synchronized Batch sweepOnce() throws IOException {
+    long started = System.nanoTime();
+    try {
+      return objectPhase ? sweepObjects() : sweepKeys();
+    } finally {
+      batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void tick() {
+    try {
+      sweepOnce();
+    } catch (Exception e) {
+      log.warn("{} 저장소 정리 실패: {}", store, e.getMessage());
+    }
+  }
+
+  private Batch sweepKeys() throws IOException {
+    int batchSize = Math.max(1, options.batchSize());
+    List<BlobInfo> page = blobStore.list("", keyCursor, batchSize);
+    Instant cutoff = Instant.now().minus(options.grace());
+    List<BlobInfo> candidates = page.stream()
+        .filter(blob -> blob.lastModified().isBefore(cutoff))
+        .toList();
+    List<BlobInfo> orphans = candidates.isEmpty() ? List.of() : finder.findOrphans(candidates);
+
+    int removed = 0;
+    long bytes = 0;
+    for (BlobInfo orphan : orphans) {
+      // 목록 이후 다시 쓰였으면 (같은 버전 재사용 등) 남김
+      Optional<BlobInfo> current = blobStore.stat(orphan.key());
+      if (current.isEmpty() || !current.get().lastModified().isBefore(cutoff)) {
+        continue;
+      }
+      if (options.dryRun() || blobStore.delete(orphan.key())) {
+        removed++;
+        bytes += current.get().size();
+        report.add(orphan.key());
+      }
+    }
+    scannedCounter.increment(page.size());
+    keyOrphanCounter.increment(removed);
+    keyBytesCounter.increment(bytes);
+    report.scanned += page.size();
+    report.orphans += removed;
+    report.bytes += bytes;
+
+    boolean done = page.size() < batchSize;
+    keyCursor = done ? null : page.get(page.size() - 1).key();
+    if (done) {
+      finishPass("키");
+      objectPhase = options.sweepObjects() && blobStore instanceof LocalBlobStore;
+    }
+    return new Batch(page.size(), removed, bytes, done && !objectPhase);
+  }
+
+  private Batch sweepObjects() throws IOException {
+    LocalBlobStore local = (LocalBlobStore) blobStore;
+    Instant cutoff = Instant.now().minus(options.grace());
+    if (objectCursor == null && !options.dryRun()) {
+      int temps = local.deleteStaleTempFiles(cutoff);
+      if (temps > 0) {
+        log.info("{} 저장소 남은 임시 파일 {}개 삭제", store, temps);
+      }
+    }
+    LocalBlobStore.ObjectPage page =
+        local.listUnreferencedObjects(objectCursor, Math.max(1, options.batchSize()), cutoff);
+
+    int removed = 0;
+    long bytes = 0;
+    for (BlobInfo object : page.unreferenced()) {
+      if (options.dryRun() || local.deleteUnreferencedObject(object.key(), cutoff)) {
+        removed++;
+        bytes += object.size();
+        report.add(object.key());
+      }
+    }
+    scannedCounter.increment(page.scanned());
+    objectOrphanCounter.increment(removed);
+    objectBytesCounter.increment(bytes);
+    report.scanned += page.scanned();
+    report.orphans += removed;
+    report.bytes += bytes;
+
+    objectCursor = page.next();
+    if (objectCursor == null) {
+      finishPass("객체");
+      objectPhase = false;
+    }
+    return new Batch(page.scanned(), removed, bytes, objectCursor == null);
+  }
+
+  private void finishPass(String kind) {
+    if (report.orphans > 0 || options.dryRun()) {
+      log.info("{}{} 저장소 {} 정리 한 바퀴: 검사 {}개, {} {}개 ({} bytes){}",
+          options.dryRun() ? "[dry-run] " : "", store, kind, report.scanned,
+          options.dryRun() ? "삭제 대상" : "삭제", report.orphans, report.bytes,
+          report.sample.isEmpty() ? "" : ", 예: " + String.join(", ", report.sample));
+    }
+    report = new Report();
+  }
+
+  /** 한 바퀴 동안의 합계 */
+  private static final class Report {
+
+    private long scanned;
+    private long orphans;
+    private long bytes;
+    private final List<String> sample = new ArrayList<>();
+
+    void add(String key) {
+      if (sample.size() < REPORT_SAMPLE_SIZE) {
+        sample.add(key);
+      }
+    }
+  }
+}
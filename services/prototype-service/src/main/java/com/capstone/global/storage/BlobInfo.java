@@ -0,0 +1,7 @@
+package com.capstone.global.storage;
+
+import java.time.Instant;
+
+/** 저장된 항목의 키·크기·수정 시각 */
+public record BlobInfo(String key, long size, Instant lastModified) {
+}
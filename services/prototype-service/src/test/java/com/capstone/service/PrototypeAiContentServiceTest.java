@@ -0,0 +1,212 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.Idea;
+import com.capstone.domain.idea.prototype.OpenAiChatService;
+import com.capstone.domain.idea.prototype.OpenAiHolder;
+import com.capstone.domain.idea.prototype.PrdPrototypeGenerator;
+import com.capstone.domain.idea.prototype.PrototypeAiContentService;
+import com.capstone.domain.idea.prototype.UiStructureGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 응답마다 지연을 넣은 OpenAI 스텁 서버로 PRD·UI 생성의 호출 순서와 전체 지연을 확인합니다.
+ */
+class PrototypeAiContentServiceTest {
+
+  private static final long LATENCY_MS = 300;
+  /** stream 응답: 첫 조각까지의 지연과 이후 조각 간격 */
+  private static final long STREAM_FIRST_MS = 50;
+  private static final long STREAM_GAP_MS = 30;
+  private static final int STREAM_PIECES = 20;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private HttpServer server;
+  private PrototypeAiContentService service;
+  private Idea idea;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/v1/chat/completions", exchange -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        calls.incrementAndGet();
+        if (body.contains("\"stream\":true")) {
+          streamReply(exchange, reply(body));
+          return;
+        }
+        Thread.sleep(LATENCY_MS);
+        byte[] response = objectMapper.writeValueAsBytes(Map.of("choices",
+            List.of(Map.of("message", Map.of("content", reply(body))))));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(response);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    });
+    server.start();
+
+    OpenAiChatService chat = new OpenAiChatService("sk-test0123456789abcdefghij",
+        "http://127.0.0.1:" + server.getAddress().getPort() + "/v1");
+    service = new PrototypeAiContentService(new OpenAiHolder(chat), new PrdPrototypeGenerator(),
+        new UiStructureGenerator(objectMapper), objectMapper);
+    ReflectionTestUtils.setField(service, "prototypeModel", "gpt-test");
+    ReflectionTestUtils.setField(service, "prdMaxTokens", 2048);
+    // 구조화 요약·확장·편집 pass 를 모두 거치도록
+    ReflectionTestUtils.setField(service, "prdBriefEnabled", true);
+    ReflectionTestUtils.setField(service, "prdBriefMinContentChars", 10);
+    ReflectionTestUtils.setField(service, "prdMinCharsForExpand", 100_000);
+    ReflectionTestUtils.setField(service, "prdEditorPassEnabled", true);
+    ReflectionTestUtils.setField(service, "prdStreamEnabled", true);
+
+    idea = Idea.builder().id(1L).content("반려동물 산책 메이트 매칭, 위치 기반, 일정 공유, 리뷰").build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    service.shutdown();
+  }
+
+  @Test
+  @DisplayName("UI 구조를 PRD 확장·편집 pass 와 겹쳐 실행해 같은 호출 수로 전체 지연을 줄임")
+  void overlapsUiWithPrdPolishing() {
+    long started = System.nanoTime();
+    String sequentialPrd = service.generatePrd(idea);
+    String sequentialUi = service.generateUiJson(idea, sequentialPrd);
+    long sequentialMs = (System.nanoTime() - started) / 1_000_000;
+    int sequentialCalls = calls.getAndSet(0);
+    maxInFlight.set(0);
+
+    started = System.nanoTime();
+    PrototypeAiContentService.PrdAndUi parallel = service.generatePrdAndUi(idea);
+    long parallelMs = (System.nanoTime() - started) / 1_000_000;
+
+    System.out.printf("PRD+UI 생성 지연 (호출당 %dms): 순차 %dms / 병렬 %dms, 호출 %d회, 최대 동시 %d%n",
+        LATENCY_MS, sequentialMs, parallelMs, calls.get(), maxInFlight.get());
+    // 요약 → 초안 → 확장 → 편집 → UI
+    assertEquals(5, sequentialCalls);
+    assertEquals(5, calls.get());
+    assertEquals(2, maxInFlight.get());
+    assertEquals(sequentialPrd, parallel.prdMarkdown());
+    // 스텁의 UI 응답은 받은 PRD 와 무관해 같음. 실제로는 병렬 경로가 초안으로 UI 를 만들어 다를 수 있음
+    assertEquals(sequentialUi, parallel.uiStructureJson());
+    // 순차 5회 지연 → 병렬은 요약·초안·확장·편집 4회 지연
+    assertTrue(parallelMs <= sequentialMs - LATENCY_MS / 2,
+        "순차 " + sequentialMs + "ms / 병렬 " + parallelMs + "ms");
+  }
+
+  @Test
+  @DisplayName("PRD 초안을 stream 으로 받아 응답이 끝나기 전부터 조각을 넘김")
+  void streamsDraftAsItArrives() {
+    ReflectionTestUtils.setField(service, "prdBriefEnabled", false);
+    List<String> deltas = new CopyOnWriteArrayList<>();
+    AtomicLong firstDeltaAt = new AtomicLong();
+    AtomicLong draftFinishedAt = new AtomicLong();
+
+    long started = System.nanoTime();
+    String prd = service.generatePrd(idea, new PrototypeAiContentService.PrdDraftListener() {
+      @Override
+      public void onDelta(String delta) {
+        firstDeltaAt.compareAndSet(0, System.nanoTime());
+        deltas.add(delta);
+      }
+
+      @Override
+      public void onDraftFinished() {
+        draftFinishedAt.set(System.nanoTime());
+      }
+    });
+    long totalMs = (System.nanoTime() - started) / 1_000_000;
+    long firstMs = (firstDeltaAt.get() - started) / 1_000_000;
+    long draftMs = (draftFinishedAt.get() - started) / 1_000_000;
+
+    System.out.printf("PRD 초안 stream: 첫 조각 %dms / 초안 완료 %dms / PRD 완료 %dms, 조각 %d개%n",
+        firstMs, draftMs, totalMs, deltas.size());
+    assertTrue(deltas.size() > STREAM_PIECES / 2);
+    assertEquals(reply(""), String.join("", deltas));
+    assertEquals(reply("").trim(), prd);
+    // 첫 조각은 초안 전체를 기다리지 않음 (초안 → 확장 → 편집 순)
+    assertTrue(firstMs < draftMs - STREAM_GAP_MS * (STREAM_PIECES / 2), firstMs + "ms");
+    assertTrue(draftMs < totalMs);
+    // 초안만 stream, 확장·편집은 일반 호출
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  @DisplayName("PRD 초안 생성이 실패하면 템플릿 PRD 로 UI 를 만든다")
+  void fallsBackToTemplatePrd() {
+    server.removeContext("/v1/chat/completions");
+    server.createContext("/v1/chat/completions", exchange -> {
+      exchange.sendResponseHeaders(503, -1);
+      exchange.close();
+    });
+
+    PrototypeAiContentService.PrdAndUi result = service.generatePrdAndUi(idea);
+
+    assertEquals(new PrdPrototypeGenerator().generate(idea), result.prdMarkdown());
+    assertEquals(new UiStructureGenerator(objectMapper).generate(idea), result.uiStructureJson());
+  }
+
+  /** Chat Completions stream 형식(SSE, delta 조각 후 [DONE])으로 나눠 보냄 */
+  private void streamReply(HttpExchange exchange, String content)
+      throws IOException, InterruptedException {
+    exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+    exchange.sendResponseHeaders(200, 0);
+    int size = (content.length() + STREAM_PIECES - 1) / STREAM_PIECES;
+    try (OutputStream out = exchange.getResponseBody()) {
+      Thread.sleep(STREAM_FIRST_MS);
+      for (int i = 0; i < content.length(); i += size) {
+        if (i > 0) {
+          Thread.sleep(STREAM_GAP_MS);
+        }
+        String piece = content.substring(i, Math.min(content.length(), i + size));
+        String event = objectMapper.writeValueAsString(Map.of("choices",
+            List.of(Map.of("index", 0, "delta", Map.of("content", piece)))));
+        out.write(("data: " + event + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+      }
+      out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String reply(String requestBody) {
+    if (requestBody.contains("Output **ONLY** valid JSON")) {
+      return "{\"productName\":\"산책 메이트\",\"mvpFeatures\":[\"매칭\"]}";
+    }
+    if (requestBody.contains("UX·랜딩 IA")) {
+      return "{\"version\":1,\"appName\":\"산책 메이트\",\"routes\":[]}";
+    }
+    return "# 산책 메이트\n\n## 한 줄 요약(Executive summary)\n\n" + "위치 기반 산책 매칭. ".repeat(60);
+  }
+}
@@ -0,0 +1,107 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.capstone.domain.idea.prototype.IdeaPrototypeJob;
+import com.capstone.domain.idea.prototype.IdeaPrototypeJobRepository;
+import com.capstone.domain.idea.prototype.PrototypeArtifactGarbageCollector;
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrototypeArtifactGarbageCollectorTest {
+
+  @TempDir
+  Path artifactDir;
+
+  @TempDir
+  Path objectDir;
+
+  private LocalBlobStore store;
+  private SimpleMeterRegistry meterRegistry;
+  private IdeaPrototypeJobRepository jobRepository;
+
+  @BeforeEach
+  void setUp() {
+    store = new LocalBlobStore(artifactDir, objectDir);
+    meterRegistry = new SimpleMeterRegistry();
+    jobRepository = mock(IdeaPrototypeJobRepository.class);
+    // 7번 작업만 남아 있음
+    when(jobRepository.findAllById(any())).thenAnswer(invocation -> {
+      Collection<?> ids = invocation.getArgument(0);
+      if (!ids.contains(7L)) {
+        return List.of();
+      }
+      IdeaPrototypeJob job = mock(IdeaPrototypeJob.class);
+      when(job.getId()).thenReturn(7L);
+      return List.of(job);
+    });
+  }
+
+  @Test
+  @DisplayName("작업 행이 없는 산출물만 지우고 키는 작업 단위로 판단")
+  void removesArtifactsOfDeletedJobs() throws Exception {
+    for (String key : List.of("7/index.html", "7/src/App.tsx", "8/index.html", "8/src/App.tsx",
+        "stray.txt")) {
+      putOld(key);
+    }
+
+    PrototypeArtifactGarbageCollector collector = collector(false);
+    for (int i = 0; i < 10 && !collector.sweepOnce().passComplete(); i++) {
+      // 배치 크기 2 로 여러 번에 나눠 처리
+    }
+
+    assertEquals(List.of("7/index.html", "7/src/App.tsx", "stray.txt"),
+        store.list("").stream().map(BlobInfo::key).toList());
+    assertFalse(Files.exists(artifactDir.resolve("8")));
+    assertEquals(2.0, meterRegistry.get("storage.gc.orphans")
+        .tags("store", "prototype-artifacts", "kind", "key", "mode", "delete").counter().count());
+    // 내용 객체 정리는 workspace-service 몫
+    assertEquals(5, objects().size());
+  }
+
+  @Test
+  @DisplayName("dry-run 은 지우지 않음")
+  void dryRunKeepsFiles() throws Exception {
+    putOld("8/index.html");
+
+    collector(true).sweepOnce();
+
+    assertTrue(store.stat("8/index.html").isPresent());
+    assertEquals(1.0, meterRegistry.get("storage.gc.orphans")
+        .tags("kind", "key", "mode", "dry-run").counter().count());
+  }
+
+  private PrototypeArtifactGarbageCollector collector(boolean dryRun) {
+    return new PrototypeArtifactGarbageCollector(jobRepository, store, meterRegistry, false,
+        dryRun, Duration.ofSeconds(30), 2, Duration.ofHours(1));
+  }
+
+  private void putOld(String key) throws Exception {
+    store.put(key, new ByteArrayInputStream(key.getBytes(StandardCharsets.UTF_8)));
+    Files.setLastModifiedTime(artifactDir.resolve(key),
+        FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+  }
+
+  private List<Path> objects() throws Exception {
+    try (Stream<Path> files = Files.walk(objectDir)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.prototype.PrototypeArtifactService;
+import com.capstone.domain.idea.prototype.dto.PrototypeSourceFileResponse;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import com.capstone.global.storage.LocalBlobStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrototypeArtifactServiceTest {
+
+  @TempDir
+  Path artifactDir;
+
+  @TempDir
+  Path objectDir;
+
+  private PrototypeArtifactService artifactService;
+
+  @BeforeEach
+  void setUp() {
+    artifactService = new PrototypeArtifactService(new LocalBlobStore(artifactDir, objectDir));
+  }
+
+  @Test
+  @DisplayName("재실행하면 새 파일로 교체되고 이전 실행에만 있던 파일은 삭제")
+  void rerunReplacesFiles() {
+    artifactService.writeForJob(7L, files("index.html", "<h1>v1</h1>", "src/old.ts", "old"));
+    artifactService.writeForJob(7L, files("index.html", "<h1>v2</h1>", "src/App.tsx", "app"));
+
+    assertEquals(List.of("index.html", "src/App.tsx"),
+        artifactService.listForJob(7L).stream().map(PrototypeSourceFileResponse::getPath).toList());
+    assertEquals("<h1>v2</h1>", artifactService.readFile(7L, "/index.html"));
+    assertTrue(artifactService.hasArtifacts(7L));
+    assertFalse(artifactService.hasArtifacts(8L));
+  }
+
+  @Test
+  @DisplayName("잡마다 같은 파일은 한 벌만 저장")
+  void identicalFilesAreDeduplicated() throws Exception {
+    artifactService.writeForJob(1L, files("package.json", "{\"name\":\"app\"}", "a.ts", "a"));
+    artifactService.writeForJob(2L, files("package.json", "{\"name\":\"app\"}", "b.ts", "b"));
+
+    assertTrue(Files.isSameFile(artifactDir.resolve("1/package.json"),
+        artifactDir.resolve("2/package.json")));
+    try (Stream<Path> objects = Files.walk(objectDir)) {
+      assertEquals(3, objects.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  @DisplayName("상위 경로로 벗어나는 파일명은 잡 디렉토리 안으로 정규화, 없는 파일은 NOT_FOUND")
+  void pathsStayInsideJob() {
+    artifactService.writeForJob(3L, files("../../etc/passwd", "x", "", "blank"));
+
+    assertEquals("x", artifactService.readFile(3L, "etc/passwd"));
+    assertEquals("blank", artifactService.readFile(3L, "unnamed.txt"));
+    assertFalse(Files.exists(artifactDir.resolve("etc")));
+    CustomException missing =
+        assertThrows(CustomException.class, () -> artifactService.readFile(3L, "missing.txt"));
+    assertEquals(ErrorCode.NOT_FOUND_PROTOTYPE_ARTIFACT, missing.getErrorCode());
+    assertThrows(CustomException.class, () -> artifactService.listForJob(4L));
+  }
+
+  private static Map<String, String> files(String... pathAndContent) {
+    Map<String, String> files = new LinkedHashMap<>();
+    for (int i = 0; i < pathAndContent.length; i += 2) {
+      files.put(pathAndContent[i], pathAndContent[i + 1]);
+    }
+    return files;
+  }
+}
@@ -0,0 +1,126 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.capstone.domain.idea.prototype.PrototypeJobQueue;
+import com.capstone.domain.idea.prototype.PrototypeJobWorker;
+import com.capstone.domain.idea.prototype.PrototypePipelineExecutionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class PrototypeJobWorkerTest {
+
+  private PrototypeJobQueue queue;
+  private PrototypePipelineExecutionService executionService;
+  private SimpleMeterRegistry meterRegistry;
+  private PrototypeJobWorker worker;
+
+  @BeforeEach
+  void setUp() {
+    queue = mock(PrototypeJobQueue.class);
+    executionService = mock(PrototypePipelineExecutionService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    worker = new PrototypeJobWorker(queue, executionService, meterRegistry, false, 1,
+        Duration.ofSeconds(2), Duration.ofMinutes(2), 3, Duration.ofSeconds(30),
+        Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofSeconds(15));
+  }
+
+  @Test
+  @DisplayName("워커를 꺼도 기동 시 큐 도입 전 작업 정리(attempts 기본값)는 실행하고 워커는 띄우지 않음")
+  void migratesLegacyJobsEvenWhenDisabled() {
+    worker.run(null);
+
+    verify(queue).migrateLegacyJobs(eq(Duration.ofHours(1)), anyString());
+    verify(queue, never()).failExhausted(anyInt(), anyString());
+    verify(queue, never()).claimNext(anyString(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("가져갈 작업이 없으면 아무것도 실행하지 않음")
+  void noWork() {
+    when(queue.claimNext(anyString(), any(), anyInt())).thenReturn(Optional.empty());
+
+    assertFalse(worker.processNext());
+    verifyNoInteractions(executionService);
+  }
+
+  @Test
+  @DisplayName("성공하면 임대를 풀고 완료로 집계")
+  void finishedJobReleasesLease() {
+    when(queue.claimNext(anyString(), any(), eq(3)))
+        .thenReturn(Optional.of(new PrototypeJobQueue.Claim(11L, 1)));
+    when(executionService.executePipeline(11L, false)).thenReturn(true);
+
+    assertTrue(worker.processNext());
+
+    verify(executionService).executePipeline(11L, false);
+    verify(queue).release(eq(11L), anyString());
+    verify(queue, never()).retryLater(anyLong(), anyString(), any(), anyString());
+    assertEquals(1.0, meterRegistry.get("prototype.queue.jobs").tag("result", "finished")
+        .counter().count());
+  }
+
+  @Test
+  @DisplayName("마지막 시도가 아니면 실패 시 백오프 후 재시도 예약")
+  void failedAttemptIsRetriedWithBackoff() {
+    when(queue.claimNext(anyString(), any(), anyInt()))
+        .thenReturn(Optional.of(new PrototypeJobQueue.Claim(11L, 2)));
+    doThrow(new IllegalStateException("openai 503")).when(executionService)
+        .executePipeline(11L, false);
+
+    assertTrue(worker.processNext());
+
+    ArgumentCaptor<Duration> delay = ArgumentCaptor.forClass(Duration.class);
+    verify(queue).retryLater(eq(11L), anyString(), delay.capture(), contains("openai 503"));
+    // 두 번째 시도 실패 → 30s × 2 의 절반~전체
+    assertTrue(delay.getValue().compareTo(Duration.ofSeconds(30)) >= 0);
+    assertTrue(delay.getValue().compareTo(Duration.ofSeconds(60)) <= 0);
+    verify(queue, never()).release(anyLong(), anyString());
+    assertEquals(1.0, meterRegistry.get("prototype.queue.jobs").tag("result", "retried")
+        .counter().count());
+  }
+
+  @Test
+  @DisplayName("마지막 시도는 파이프라인이 직접 FAILED 를 기록하고 재시도하지 않음")
+  void lastAttemptFailsInPipeline() {
+    when(queue.claimNext(anyString(), any(), anyInt()))
+        .thenReturn(Optional.of(new PrototypeJobQueue.Claim(11L, 3)));
+    when(executionService.executePipeline(11L, true)).thenReturn(true);
+
+    assertTrue(worker.processNext());
+
+    verify(executionService).executePipeline(11L, true);
+    verify(queue).release(eq(11L), anyString());
+    verify(queue, never()).retryLater(anyLong(), anyString(), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("같은 아이디어가 실행 중이면 기다리지 않고 시도로 세지 않은 채 뒤로 미룸")
+  void busyIdeaIsDeferred() {
+    when(queue.claimNext(anyString(), any(), anyInt()))
+        .thenReturn(Optional.of(new PrototypeJobQueue.Claim(11L, 1)));
+    when(executionService.executePipeline(11L, false)).thenReturn(false);
+
+    assertTrue(worker.processNext());
+
+    ArgumentCaptor<Duration> delay = ArgumentCaptor.forClass(Duration.class);
+    verify(queue).defer(eq(11L), anyString(), delay.capture());
+    assertTrue(delay.getValue().compareTo(Duration.ofSeconds(15)) <= 0);
+    verify(queue, never()).release(anyLong(), anyString());
+    verify(queue, never()).retryLater(anyLong(), anyString(), any(), anyString());
+    assertEquals(1.0, meterRegistry.get("prototype.queue.jobs").tag("result", "deferred")
+        .counter().count());
+  }
+}
@@ -0,0 +1,221 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.capstone.domain.idea.Idea;
+import com.capstone.domain.idea.IdeaRepository;
+import com.capstone.domain.idea.prototype.IdeaPrototypeJob;
+import com.capstone.domain.idea.prototype.IdeaPrototypeJobRepository;
+import com.capstone.domain.idea.prototype.PrdStreamPublisher;
+import com.capstone.domain.idea.prototype.PrototypeAiContentService;
+import com.capstone.domain.idea.prototype.PrototypeArtifactService;
+import com.capstone.domain.idea.prototype.PrototypeJobStatus;
+import com.capstone.domain.idea.prototype.PrototypePipelineExecutionService;
+import com.capstone.domain.idea.prototype.PrototypePipelineLock;
+import com.capstone.domain.idea.prototype.ReactPrototypeGenerator;
+import com.capstone.domain.idea.prototype.VercelPrototypeDeployService;
+import com.capstone.domain.workspace.Workspace;
+import com.capstone.global.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class PrototypePipelineExecutionServiceTest {
+
+  private IdeaRepository ideaRepository;
+  private IdeaPrototypeJobRepository jobRepository;
+  private PrototypeAiContentService aiContentService;
+  private ReactPrototypeGenerator reactPrototypeGenerator;
+  private VercelPrototypeDeployService vercelService;
+  private SimpleMeterRegistry meterRegistry;
+  private PrototypePipelineLock pipelineLock;
+  private WebSocketService webSocketService;
+  private PrototypePipelineExecutionService executionService;
+
+  private Idea idea;
+
+  @BeforeEach
+  void setUp() {
+    ideaRepository = mock(IdeaRepository.class);
+    jobRepository = mock(IdeaPrototypeJobRepository.class);
+    aiContentService = mock(PrototypeAiContentService.class);
+    reactPrototypeGenerator = mock(ReactPrototypeGenerator.class);
+    vercelService = mock(VercelPrototypeDeployService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    pipelineLock = mock(PrototypePipelineLock.class);
+    when(pipelineLock.tryAcquire(anyLong(), anyLong())).thenReturn(Optional.of("token"));
+    webSocketService = mock(WebSocketService.class);
+    executionService = new PrototypePipelineExecutionService(ideaRepository, jobRepository,
+        aiContentService, reactPrototypeGenerator, vercelService,
+        mock(PrototypeArtifactService.class), webSocketService, new ObjectMapper(),
+        meterRegistry, pipelineLock,
+        new PrdStreamPublisher(webSocketService, meterRegistry, Duration.ofSeconds(10), 2048));
+
+    Workspace workspace = new Workspace();
+    workspace.setWorkspaceId(1L);
+    idea = Idea.builder().id(10L).workspace(workspace).content("아이디어").build();
+    when(ideaRepository.findById(10L)).thenReturn(Optional.of(idea));
+    when(reactPrototypeGenerator.generateFiles(any(), any()))
+        .thenReturn(Map.of("src/App.tsx", "export default 1"));
+    when(vercelService.resolveUrls(any(), anyLong(), anyString()))
+        .thenReturn(new VercelPrototypeDeployService.VercelResolution(
+            "https://preview", "https://prod", true, false));
+  }
+
+  @Test
+  @DisplayName("저장된 PRD·UI 구조가 있으면 LLM 을 다시 부르지 않고 코드 생성부터 이어서 실행")
+  void resumesFromStoredStages() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, "# 저장된 PRD", "{\"pages\":[]}");
+
+    executionService.executePipeline(5L, false);
+
+    verify(aiContentService, never()).generatePrd(any(), any());
+    verify(aiContentService, never()).generateUiJson(any(), any());
+    verify(reactPrototypeGenerator).generateFiles(idea, "{\"pages\":[]}");
+    assertEquals(PrototypeJobStatus.DEPLOYED, job.getStatus());
+    assertNull(job.getErrorMessage());
+    assertEquals(1.0, meterRegistry.get("prototype.pipeline.stages")
+        .tags("stage", "prd", "result", "reused").counter().count());
+  }
+
+  @Test
+  @DisplayName("PRD 만 저장돼 있으면 그 PRD 로 UI 구조부터 생성")
+  void generatesMissingStagesFromStoredPrd() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, "# 저장된 PRD", null);
+    when(aiContentService.generateUiJson(idea, "# 저장된 PRD")).thenReturn("{}");
+
+    executionService.executePipeline(5L, false);
+
+    verify(aiContentService, never()).generatePrd(any(), any());
+    verify(aiContentService, never()).generatePrdAndUi(any(), any());
+    assertEquals("{}", job.getUiStructureJson());
+    assertEquals(PrototypeJobStatus.DEPLOYED, job.getStatus());
+  }
+
+  @Test
+  @DisplayName("PRD·UI 가 모두 없으면 한 번에 생성 (UI 구조가 PRD 보강과 겹쳐 실행)")
+  void generatesPrdAndUiTogether() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, null, null);
+    when(aiContentService.generatePrdAndUi(eq(idea), any()))
+        .thenReturn(new PrototypeAiContentService.PrdAndUi("# PRD", "{}"));
+
+    executionService.executePipeline(5L, false);
+
+    verify(aiContentService, never()).generatePrd(any(), any());
+    verify(aiContentService, never()).generateUiJson(any(), any());
+    assertEquals("# PRD", job.getPrdMarkdown());
+    assertEquals("{}", job.getUiStructureJson());
+    assertEquals(PrototypeJobStatus.DEPLOYED, job.getStatus());
+  }
+
+  @Test
+  @DisplayName("PRD 초안 조각을 모아 워크스페이스로 보내고, 저장 후 최종 PRD 를 한 번 보냄")
+  @SuppressWarnings("unchecked")
+  void streamsPrdDraftToWorkspace() {
+    job(PrototypeJobStatus.PENDING, null, null);
+    when(aiContentService.generatePrdAndUi(eq(idea), any())).thenAnswer(invocation -> {
+      PrototypeAiContentService.PrdDraftListener listener = invocation.getArgument(1);
+      // 첫 조각은 바로, 나머지는 flush 주기(10s) 전이라 초안이 끝날 때 한 번에
+      listener.onDelta("# 초안");
+      listener.onDelta("\n\n## 개요");
+      listener.onDelta("\n내용");
+      listener.onDraftFinished();
+      return new PrototypeAiContentService.PrdAndUi("# 최종 PRD", "{}");
+    });
+
+    executionService.executePipeline(5L, false);
+
+    ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+    verify(webSocketService, atLeastOnce()).broadcastToWorkspace(eq(1L), eq("prototype"),
+        sent.capture());
+    List<Map<String, Object>> messages = sent.getAllValues().stream()
+        .map(m -> (Map<String, Object>) m).toList();
+    assertEquals("prototype_prd_chunk", messages.get(0).get("type"));
+    assertEquals("# 초안", messages.get(0).get("delta"));
+    assertEquals(0, messages.get(0).get("offset"));
+    assertEquals("\n\n## 개요\n내용", messages.get(1).get("delta"));
+    assertEquals(4, messages.get(1).get("offset"));
+    assertEquals(1, messages.get(1).get("seq"));
+    assertEquals("prototype_prd_done", messages.get(2).get("type"));
+    assertEquals("# 최종 PRD", messages.get(2).get("prdMarkdown"));
+    assertEquals("prototype_ready", messages.get(3).get("type"));
+  }
+
+  @Test
+  @DisplayName("failOnError=false 면 실패를 기록하지 않고 예외를 던져 큐가 재시도하게 함")
+  void rethrowsWhenRetryable() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, "# PRD", null);
+    when(aiContentService.generateUiJson(eq(idea), any()))
+        .thenThrow(new IllegalStateException("openai 503"));
+
+    assertThrows(IllegalStateException.class, () -> executionService.executePipeline(5L, false));
+
+    assertNotEquals(PrototypeJobStatus.FAILED, job.getStatus());
+    // 다음 시도는 저장된 PRD 부터 이어서 실행
+    assertEquals("# PRD", job.getPrdMarkdown());
+  }
+
+  @Test
+  @DisplayName("failOnError=true 면 FAILED 로 기록")
+  void failsOnLastAttempt() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, null, null);
+    when(aiContentService.generatePrdAndUi(eq(idea), any()))
+        .thenThrow(new IllegalStateException("openai 503"));
+
+    executionService.executePipeline(5L, true);
+
+    assertEquals(PrototypeJobStatus.FAILED, job.getStatus());
+    assertEquals("openai 503", job.getErrorMessage());
+  }
+
+  @Test
+  @DisplayName("아이디어 잠금을 못 잡으면 단계를 실행하지 않고 false")
+  void skipsWhenIdeaLocked() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, null, null);
+    when(pipelineLock.tryAcquire(10L, 5L)).thenReturn(Optional.empty());
+
+    assertFalse(executionService.executePipeline(5L, false));
+
+    verifyNoInteractions(aiContentService);
+    verify(pipelineLock, never()).release(anyLong(), anyString());
+    assertEquals(PrototypeJobStatus.PENDING, job.getStatus());
+  }
+
+  @Test
+  @DisplayName("이미 잡은 잠금으로 실행하면 다시 잡지 않고, 실패해도 그 토큰으로 해제")
+  void executesWithHeldLock() {
+    IdeaPrototypeJob job = job(PrototypeJobStatus.PENDING, null, null);
+    when(aiContentService.generatePrdAndUi(eq(idea), any()))
+        .thenThrow(new IllegalStateException("openai 503"));
+
+    executionService.executeLockedPipeline(5L, 10L, "sync-token");
+
+    verify(pipelineLock, never()).tryAcquire(anyLong(), anyLong());
+    verify(pipelineLock).release(10L, "sync-token");
+    assertEquals(PrototypeJobStatus.FAILED, job.getStatus());
+  }
+
+  private IdeaPrototypeJob job(PrototypeJobStatus status, String prd, String ui) {
+    IdeaPrototypeJob job = IdeaPrototypeJob.builder()
+        .id(5L)
+        .idea(idea)
+        .status(status)
+        .prdMarkdown(prd)
+        .uiStructureJson(ui)
+        .build();
+    when(jobRepository.findById(5L)).thenReturn(Optional.of(job));
+    return job;
+  }
+}
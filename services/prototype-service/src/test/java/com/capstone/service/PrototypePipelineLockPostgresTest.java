@@ -0,0 +1,145 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.domain.idea.prototype.PrototypePipelineLock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link PrototypePipelineLock} 의 SQL 을 실제 PostgreSQL 에서 실행합니다. {@code PROTOTYPE_TEST_POSTGRES_URL}
+ * (JDBC URL, 계정은 {@code PROTOTYPE_TEST_POSTGRES_USER}·{@code PROTOTYPE_TEST_POSTGRES_PASSWORD}) 를 지정했을 때만
+ * 돌고, 없으면 건너뜁니다. 테스트용 아이디어 ID 의 잠금 행만 만들고 지웁니다.
+ */
+@EnabledIfEnvironmentVariable(named = "PROTOTYPE_TEST_POSTGRES_URL", matches = ".+")
+class PrototypePipelineLockPostgresTest {
+
+  private static final long IDEA_A = 9_000_000_001L;
+  private static final long IDEA_B = 9_000_000_002L;
+
+  private JdbcTemplate jdbcTemplate;
+  private DataSourceTransactionManager transactionManager;
+  private final List<PrototypePipelineLock> locks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        System.getenv("PROTOTYPE_TEST_POSTGRES_URL"),
+        envOrDefault("PROTOTYPE_TEST_POSTGRES_USER", "postgres"),
+        envOrDefault("PROTOTYPE_TEST_POSTGRES_PASSWORD", "postgres"));
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionManager = new DataSourceTransactionManager(dataSource);
+    // 테이블 생성은 run() 이 함
+    lock(Duration.ofMinutes(2));
+    deleteTestRows();
+  }
+
+  @AfterEach
+  void tearDown() {
+    locks.forEach(PrototypePipelineLock::stop);
+    deleteTestRows();
+  }
+
+  @Test
+  @DisplayName("잡혀 있으면 다른 인스턴스는 못 잡고, 해제 후에는 잡음")
+  void acquireAndRelease() {
+    PrototypePipelineLock a = lock(Duration.ofMinutes(2));
+    PrototypePipelineLock b = lock(Duration.ofMinutes(2));
+
+    String token = a.tryAcquire(IDEA_A, 5L).orElseThrow();
+    assertTrue(b.tryAcquire(IDEA_A, 6L).isEmpty());
+    assertTrue(b.tryAcquire(IDEA_B, 6L).isPresent());
+    assertEquals(token, owner(IDEA_A));
+
+    a.release(IDEA_A, token);
+    assertNull(owner(IDEA_A));
+    assertTrue(b.tryAcquire(IDEA_A, 6L).isPresent());
+  }
+
+  @Test
+  @DisplayName("같은 인스턴스의 같은 작업도 두 번 잡지 못하고, 다른 토큰의 해제는 행을 지우지 않음")
+  void tokenIsPerAcquisition() {
+    PrototypePipelineLock lock = lock(Duration.ofMinutes(2));
+
+    String token = lock.tryAcquire(IDEA_A, 5L).orElseThrow();
+    assertTrue(lock.tryAcquire(IDEA_A, 5L).isEmpty());
+
+    lock.release(IDEA_A, token + "-stale");
+    assertEquals(token, owner(IDEA_A));
+  }
+
+  @Test
+  @DisplayName("만료된 잠금은 다른 인스턴스가 가져가고, 늦게 온 해제는 새 잠금을 지우지 않음")
+  void expiredLockIsTakenOver() throws Exception {
+    PrototypePipelineLock dead = lock(Duration.ofMillis(50));
+    PrototypePipelineLock alive = lock(Duration.ofMinutes(2));
+
+    String deadToken = dead.tryAcquire(IDEA_A, 5L).orElseThrow();
+    Thread.sleep(200);
+    String aliveToken = alive.tryAcquire(IDEA_A, 6L).orElseThrow();
+
+    dead.release(IDEA_A, deadToken);
+    assertEquals(aliveToken, owner(IDEA_A));
+  }
+
+  @Test
+  @DisplayName("잡은 동안 연장되어 임대 시간이 지나도 다른 인스턴스가 가져가지 못함")
+  void heldLockIsRenewed() throws Exception {
+    // 연장 주기 1s, 임대 1.5s
+    PrototypePipelineLock holder = lock(Duration.ofMillis(1500));
+    PrototypePipelineLock other = lock(Duration.ofMinutes(2));
+
+    holder.tryAcquire(IDEA_A, 5L).orElseThrow();
+    Thread.sleep(2500);
+
+    assertTrue(other.tryAcquire(IDEA_A, 6L).isEmpty());
+  }
+
+  @Test
+  @DisplayName("호출한 쪽 트랜잭션 안에서 잡으면 롤백 시 함께 사라지고 커밋 시 남음")
+  void joinsCallerTransaction() {
+    PrototypePipelineLock lock = lock(Duration.ofMinutes(2));
+    TransactionTemplate caller = new TransactionTemplate(transactionManager);
+
+    caller.executeWithoutResult(status -> {
+      assertTrue(lock.tryAcquire(IDEA_A, 5L).isPresent());
+      status.setRollbackOnly();
+    });
+    assertNull(owner(IDEA_A));
+
+    String token = caller.execute(status -> lock.tryAcquire(IDEA_A, 5L).orElseThrow());
+    assertEquals(token, owner(IDEA_A));
+  }
+
+  private PrototypePipelineLock lock(Duration lease) {
+    PrototypePipelineLock lock = new PrototypePipelineLock(jdbcTemplate, transactionManager, lease);
+    lock.run(null);
+    locks.add(lock);
+    return lock;
+  }
+
+  private String owner(long ideaId) {
+    return jdbcTemplate.queryForList(
+            "SELECT owner FROM idea_pipeline_locks WHERE idea_id = ?", String.class, ideaId)
+        .stream().findFirst().orElse(null);
+  }
+
+  private void deleteTestRows() {
+    jdbcTemplate.update("DELETE FROM idea_pipeline_locks WHERE idea_id IN (?, ?)", IDEA_A, IDEA_B);
+  }
+
+  private static String envOrDefault(String name, String defaultValue) {
+    return Optional.ofNullable(System.getenv(name)).orElse(defaultValue);
+  }
+}
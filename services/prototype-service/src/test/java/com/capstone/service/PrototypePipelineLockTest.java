@@ -0,0 +1,216 @@
+package com.capstone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.capstone.domain.idea.Idea;
+import com.capstone.domain.idea.IdeaRepository;
+import com.capstone.domain.idea.prototype.IdeaPrototypeJob;
+import com.capstone.domain.idea.prototype.IdeaPrototypeJobRepository;
+import com.capstone.domain.idea.prototype.PrdStreamPublisher;
+import com.capstone.domain.idea.prototype.PrototypeAiContentService;
+import com.capstone.domain.idea.prototype.PrototypeArtifactService;
+import com.capstone.domain.idea.prototype.PrototypeJobStatus;
+import com.capstone.domain.idea.prototype.PrototypePipelineExecutionService;
+import com.capstone.domain.idea.prototype.PrototypePipelineLock;
+import com.capstone.domain.idea.prototype.ReactPrototypeGenerator;
+import com.capstone.domain.idea.prototype.VercelPrototypeDeployService;
+import com.capstone.domain.workspace.Workspace;
+import com.capstone.global.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 두 prototype-service 인스턴스가 같은 {@code idea_pipeline_locks} 테이블을 공유하는 상황을 흉내 냅니다. 테이블은 잠금
+ * SQL 의 의미(PK 충돌 시 만료됐을 때만 덮어씀, 연장·해제는 토큰이 같을 때만)를 자바로 옮긴 가짜라, 여기서는 잠금을 쓰는
+ * 쪽의 동작만 확인하고 SQL 자체는 실행하지 않습니다. SQL 은 {@link PrototypePipelineLockPostgresTest} 가 실제
+ * PostgreSQL 에서 확인합니다 (DB 를 지정했을 때만 실행).
+ */
+class PrototypePipelineLockTest {
+
+  private final FakeLockTable table = new FakeLockTable();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private IdeaPrototypeJobRepository jobRepository;
+  private PrototypeAiContentService aiContentService;
+  private Idea idea;
+
+  @BeforeEach
+  void setUp() {
+    Workspace workspace = new Workspace();
+    workspace.setWorkspaceId(1L);
+    idea = Idea.builder().id(10L).workspace(workspace).content("아이디어").build();
+    jobRepository = mock(IdeaPrototypeJobRepository.class);
+    aiContentService = mock(PrototypeAiContentService.class);
+    for (long jobId : new long[] {5L, 6L}) {
+      IdeaPrototypeJob job = IdeaPrototypeJob.builder().id(jobId).idea(idea)
+          .status(PrototypeJobStatus.PENDING).build();
+      when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("두 인스턴스가 같은 아이디어를 동시에 실행하지 않고, 못 잡은 쪽은 기다리지 않고 바로 돌아옴")
+  void twoInstancesNeverRunSameIdeaConcurrently() throws Exception {
+    PrototypePipelineExecutionService instanceA = executionService(lock(Duration.ofMinutes(2)));
+    PrototypePipelineExecutionService instanceB = executionService(lock(Duration.ofMinutes(2)));
+
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    when(aiContentService.generatePrdAndUi(any(), any())).thenAnswer(invocation -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      entered.countDown();
+      proceed.await(5, TimeUnit.SECONDS);
+      running.decrementAndGet();
+      throw new IllegalStateException("stop after PRD");
+    });
+
+    Future<Boolean> first = executor.submit(() -> execute(instanceA, 5L));
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+    // A 가 실행 중: B 는 같은 아이디어의 다른 작업을 실행하지 않고 즉시 false
+    Future<Boolean> second = executor.submit(() -> execute(instanceB, 6L));
+    assertFalse(second.get(2, TimeUnit.SECONDS));
+
+    proceed.countDown();
+    assertTrue(first.get(5, TimeUnit.SECONDS));
+    // A 가 끝나면 잠금 행이 지워지고 B 가 실행
+    assertTrue(table.rows.isEmpty());
+    assertTrue(execute(instanceB, 6L));
+    assertEquals(1, maxRunning.get());
+    assertTrue(table.rows.isEmpty());
+  }
+
+  @Test
+  @DisplayName("죽은 인스턴스의 잠금은 만료 후 다른 인스턴스가 가져가고, 늦게 온 해제는 새 잠금을 지우지 않음")
+  void expiredLockIsTakenOver() throws Exception {
+    PrototypePipelineLock dead = lock(Duration.ofMillis(50));
+    PrototypePipelineLock alive = lock(Duration.ofMinutes(2));
+
+    String deadToken = dead.tryAcquire(10L, 5L).orElseThrow();
+    assertTrue(alive.tryAcquire(10L, 6L).isEmpty());
+    Thread.sleep(100);
+
+    String aliveToken = alive.tryAcquire(10L, 6L).orElseThrow();
+    dead.release(10L, deadToken);
+    assertEquals(6L, table.rows.get(10L).jobId());
+
+    alive.release(10L, aliveToken);
+    assertTrue(table.rows.isEmpty());
+  }
+
+  @Test
+  @DisplayName("같은 인스턴스의 같은 작업이라도 잡을 때마다 토큰이 달라, 두 번째 실행은 못 잡고 먼저 끝난 쪽이 풀지 않음")
+  void sameInstanceSameJobIsNotReentrant() {
+    PrototypePipelineLock lock = lock(Duration.ofMinutes(2));
+
+    String first = lock.tryAcquire(10L, 5L).orElseThrow();
+    // 임대가 만료돼 같은 인스턴스의 다른 워커 스레드가 같은 작업을 다시 가져간 경우
+    assertTrue(lock.tryAcquire(10L, 5L).isEmpty());
+    assertTrue(lock.tryAcquire(10L, 6L).isEmpty());
+    String other = lock.tryAcquire(11L, 6L).orElseThrow();
+    assertNotEquals(first, other);
+
+    lock.release(10L, other);
+    assertEquals(first, table.rows.get(10L).owner());
+    lock.release(10L, first);
+    assertFalse(table.rows.containsKey(10L));
+  }
+
+  private PrototypePipelineLock lock(Duration lease) {
+    return new PrototypePipelineLock(table, mock(PlatformTransactionManager.class), lease);
+  }
+
+  private PrototypePipelineExecutionService executionService(PrototypePipelineLock lock) {
+    IdeaRepository ideaRepository = mock(IdeaRepository.class);
+    when(ideaRepository.findById(10L)).thenReturn(Optional.of(idea));
+    VercelPrototypeDeployService vercel = mock(VercelPrototypeDeployService.class);
+    when(vercel.resolveUrls(any(), anyLong(), anyString()))
+        .thenReturn(new VercelPrototypeDeployService.VercelResolution("p", "p", true, false));
+    WebSocketService webSocketService = mock(WebSocketService.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    return new PrototypePipelineExecutionService(ideaRepository, jobRepository, aiContentService,
+        mock(ReactPrototypeGenerator.class), vercel, mock(PrototypeArtifactService.class),
+        webSocketService, new ObjectMapper(), meterRegistry, lock,
+        new PrdStreamPublisher(webSocketService, meterRegistry, Duration.ofMillis(250), 2048));
+  }
+
+  /** 단계 실패는 FAILED 기록으로 끝나므로 잠금을 잡고 실행했는지만 반환 */
+  private static boolean execute(PrototypePipelineExecutionService service, long jobId) {
+    return service.executePipeline(jobId, true);
+  }
+
+  /** idea_pipeline_locks 를 흉내 내는 JdbcTemplate. SQL 은 종류만 구분하고 조건은 자바로 다시 구현 (문장 단위로 동기화) */
+  private static class FakeLockTable extends JdbcTemplate {
+
+    record Row(long jobId, String owner, long expiresAt) {
+    }
+
+    final Map<Long, Row> rows = new HashMap<>();
+
+    @Override
+    public void execute(String sql) {
+    }
+
+    @Override
+    public synchronized int update(String sql, Object... args) {
+      long now = System.currentTimeMillis();
+      if (sql.startsWith("INSERT INTO idea_pipeline_locks")) {
+        long ideaId = (Long) args[0];
+        long jobId = (Long) args[1];
+        String token = (String) args[2];
+        Row current = rows.get(ideaId);
+        if (current != null && current.expiresAt() >= now) {
+          return 0;
+        }
+        rows.put(ideaId, new Row(jobId, token, now + (Long) args[3]));
+        return 1;
+      }
+      if (sql.startsWith("UPDATE idea_pipeline_locks")) {
+        Row row = rows.get((Long) args[1]);
+        if (row == null || !row.owner().equals(args[2])) {
+          return 0;
+        }
+        rows.put((Long) args[1], new Row(row.jobId(), row.owner(), now + (Long) args[0]));
+        return 1;
+      }
+      if (sql.contains("idea_id = ?")) {
+        Row row = rows.get((Long) args[0]);
+        if (row != null && row.owner().equals(args[1])) {
+          rows.remove((Long) args[0]);
+          return 1;
+        }
+        return 0;
+      }
+      int before = rows.size();
+      rows.values().removeIf(row -> row.expiresAt() < now);
+      return before - rows.size();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.capstone.domain.chat.upload;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * chat-service 의 파일 메시지 생성 API 호출. 메시지 저장·캐시·Socket.IO 브로드캐스트는 chat-service 가 맡습니다.
+ *
+ * <p>{@code Idempotency-Key} 를 함께 보내므로, 저장은 됐는데 응답을 받지 못해 다시 호출해도 chat-service 는 먼저
+ * 만든 메시지를 돌려줍니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageClient {
+
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+  private final RestTemplate restTemplate;
+  private final String chatServiceUrl;
+
+  public ChatMessageClient(RestTemplate restTemplate,
+      @Value("${app.chat-service-url:http://localhost:8084/api}") String chatServiceUrl) {
+    this.restTemplate = restTemplate;
+    this.chatServiceUrl = chatServiceUrl;
+  }
+
+  public ChatMessageDtos.Response createFileMessage(ChatMessageDtos.FileMessageRequest request,
+      String idempotencyKey) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    try {
+      ChatMessageDtos.Response response = restTemplate.postForObject(
+          chatServiceUrl + "/v1/chat/messages/file", new HttpEntity<>(request, headers),
+          ChatMessageDtos.Response.class);
+      if (response == null) {
+        throw new RestClientException("빈 응답");
+      }
+      return response;
+    } catch (RestClientException e) {
+      log.warn("파일 메시지 생성 실패 - workspaceId: {}, fileUrl: {}, error: {}",
+          request.getWorkspaceId(), request.getFileUrl(), e.getMessage());
+      throw new CustomException(ErrorCode.CHAT_MESSAGE_CREATE_FAILED);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.capstone.domain.chat.upload;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 채팅 첨부 분할 업로드 API. 게이트웨이에서 {@code /api/v1/chat/uploads/**} 만 storage-service 로 옵니다.
+ *
+ * <ol>
+ *   <li>{@code POST /v1/chat/uploads} 로 세션을 만들고 chunkSize 대로 파일을 나눕니다.</li>
+ *   <li>조각마다 {@code PUT /v1/chat/uploads/{uploadId}/chunks/{index}} (본문: 조각 바이트,
+ *   {@code X-Chunk-SHA256}: 조각의 SHA-256 hex). 순서와 관계없이, 동시에 보내도 됩니다.</li>
+ *   <li>끊겼다면 {@code GET /v1/chat/uploads/{uploadId}} 의 receivedChunks 에 없는 조각만 다시 보냅니다.</li>
+ *   <li>{@code POST /v1/chat/uploads/{uploadId}/complete} 가 파일 메시지를 만들어 돌려줍니다.</li>
+ * </ol>
+ */
+@RestController
+@RequestMapping("/v1/chat/uploads")
+@RequiredArgsConstructor
+public class ChatUploadController {
+
+  public static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-SHA256";
+
+  private final ChatUploadService chatUploadService;
+
+  /**
+   * 분할 업로드 시작 POST /v1/chat/uploads
+   */
+  @PostMapping
+  public ResponseEntity<ChatUploadDtos.StatusResponse> createUpload(
+      @RequestBody ChatUploadDtos.CreateRequest request) {
+    return ResponseEntity.status(HttpStatus.CREATED).body(chatUploadService.create(request));
+  }
+
+  /**
+   * 업로드 상태(받은 조각) 조회 GET /v1/chat/uploads/{uploadId}
+   */
+  @GetMapping("/{uploadId}")
+  public ResponseEntity<ChatUploadDtos.StatusResponse> getUpload(@PathVariable String uploadId) {
+    return ResponseEntity.ok(chatUploadService.getStatus(uploadId));
+  }
+
+  /**
+   * 조각 전송 PUT /v1/chat/uploads/{uploadId}/chunks/{index} (본문을 그대로 스트리밍해 저장)
+   */
+  @PutMapping("/{uploadId}/chunks/{index}")
+  public ResponseEntity<Void> putChunk(
+      @PathVariable String uploadId,
+      @PathVariable int index,
+      @RequestHeader(value = CHUNK_CHECKSUM_HEADER, required = false) String checksum,
+      HttpServletRequest request) throws IOException {
+    try (InputStream body = request.getInputStream()) {
+      chatUploadService.writeChunk(uploadId, index, checksum, body);
+    }
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * 조립 후 파일 메시지 생성 POST /v1/chat/uploads/{uploadId}/complete
+   */
+  @PostMapping("/{uploadId}/complete")
+  public ResponseEntity<ChatMessageDtos.Response> completeUpload(@PathVariable String uploadId) {
+    return ResponseEntity.ok(chatUploadService.complete(uploadId));
+  }
+
+  /**
+   * 업로드 취소 DELETE /v1/chat/uploads/{uploadId}
+   */
+  @DeleteMapping("/{uploadId}")
+  public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+    chatUploadService.abort(uploadId);
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -0,0 +1,42 @@
+package com.capstone.domain.chat.upload;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+public class ChatUploadDtos {
+
+  /**
+   * 분할 업로드 시작 요청 DTO. 완료 시 이 값으로 파일 메시지를 만듭니다.
+   */
+  @Setter
+  @Getter
+  public static class CreateRequest {
+
+    private Long workspaceId;
+    private Long userId;
+    private String fileName;
+    private String mimeType; // optional (없으면 파일명으로 추정)
+    private Long fileSize;
+    private String content; // optional
+    private String messageType; // optional: image | file
+
+  }
+
+  /**
+   * 업로드 상태 응답 DTO. 끊긴 뒤 이어 보낼 때 receivedChunks 에 없는 조각만 보내면 됩니다.
+   */
+  @Getter
+  @Builder
+  public static class StatusResponse {
+
+    private String uploadId;
+    private String fileName;
+    private long fileSize;
+    private long chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+
+  }
+}
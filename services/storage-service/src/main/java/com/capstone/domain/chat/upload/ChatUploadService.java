@@ -0,0 +1,459 @@
+package com.capstone.domain.chat.upload;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * 채팅 첨부 분할(재개 가능) 업로드.
+ *
+ * <p>세션마다 공개 디렉토리 밖({@code app.file.chat-upload.session-dir})에 디렉토리를 두고, 조각은 요청 본문을 작은 버퍼로
+ * 읽으며 {@code data.part} 의 자기 위치에 바로 씁니다(파일 전체를 메모리에 두지 않음). SHA-256 이 맞은 조각만
+ * {@code chunks/{번호}} 표시 파일을 남기므로, 연결이 끊기거나 서버가 재시작돼도 상태 조회로 받은 조각을 확인하고 나머지만
+ * 다시 보내면 됩니다. 모든 조각이 모이면 파일을 {@code uploads/chat/{워크스페이스}/} 로 옮기고(같은 볼륨이면 rename)
+ * chat-service 에 파일 메시지를 만듭니다. 오래 손대지 않은 세션은 {@code session-ttl} 뒤 정리됩니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatUploadService {
+
+  private static final String SESSION_FILE = "session.json";
+  private static final String DATA_FILE = "data.part";
+  private static final String CHUNK_DIR = "chunks";
+  private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+  private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+  private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}$");
+  private static final int COPY_BUFFER_BYTES = 64 * 1024;
+  private static final int MAX_FILE_NAME_CHARS = 255;
+  private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+  private final ObjectMapper objectMapper;
+  private final ChatMessageClient chatMessageClient;
+  /** 같은 세션의 완료 요청이 겹치지 않도록 세션별 잠금 */
+  private final ConcurrentHashMap<String, Object> completing = new ConcurrentHashMap<>();
+  private final AtomicLong lastSweepMillis = new AtomicLong();
+
+  @Value("${app.file.upload-dir:./uploads}")
+  private String uploadDir;
+
+  @Value("${app.file.base-url:http://localhost:8080/api}")
+  private String baseUrl;
+
+  @Value("${app.file.chat-upload.session-dir:./data/upload-sessions}")
+  private String sessionDir;
+
+  @Value("${app.file.chat-upload.max-bytes:104857600}")
+  private long maxBytes;
+
+  @Value("${app.file.chat-upload.chunk-bytes:4194304}")
+  private long chunkBytes;
+
+  @Value("${app.file.chat-upload.session-ttl:24h}")
+  private Duration sessionTtl;
+
+  /**
+   * 업로드 세션을 만듭니다. 조각 크기는 서버가 정하며 응답의 chunkSize·chunkCount 대로 나눠 보내면 됩니다.
+   */
+  public ChatUploadDtos.StatusResponse create(ChatUploadDtos.CreateRequest request) {
+    if (request.getWorkspaceId() == null || request.getUserId() == null
+        || request.getFileSize() == null || request.getFileSize() <= 0
+        || request.getFileName() == null || request.getFileName().isBlank()) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+    if (request.getFileSize() > maxBytes) {
+      throw new CustomException(ErrorCode.UPLOAD_TOO_LARGE);
+    }
+    sweepExpiredSessions();
+
+    ChatUploadSession session = new ChatUploadSession();
+    session.setUploadId(UUID.randomUUID().toString().replace("-", ""));
+    session.setWorkspaceId(request.getWorkspaceId());
+    session.setUserId(request.getUserId());
+    session.setFileName(sanitizeFileName(request.getFileName()));
+    session.setMimeType(resolveMimeType(request.getMimeType(), session.getFileName()));
+    session.setMessageType(resolveMessageType(request.getMessageType(), session.getMimeType()));
+    session.setContent(request.getContent());
+    session.setFileSize(request.getFileSize());
+    session.setChunkSize(chunkBytes);
+    session.setCreatedAt(Instant.now());
+    try {
+      Files.createDirectories(sessionPath(session.getUploadId()).resolve(CHUNK_DIR));
+      saveSession(session);
+    } catch (IOException e) {
+      log.error("업로드 세션 생성 실패 - workspaceId: {}", request.getWorkspaceId(), e);
+      throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+    }
+    log.info("분할 업로드 시작 - uploadId: {}, workspaceId: {}, {} bytes, 조각 {}개",
+        session.getUploadId(), session.getWorkspaceId(), session.getFileSize(),
+        session.chunkCount());
+    return status(session);
+  }
+
+  public ChatUploadDtos.StatusResponse getStatus(String uploadId) {
+    return status(loadSession(uploadId));
+  }
+
+  /**
+   * 조각 하나를 받습니다. 같은 조각을 다시 보내면 덮어씁니다.
+   *
+   * @param checksum 조각의 SHA-256 (hex)
+   * @throws CustomException 번호·길이가 맞지 않거나(UPLOAD_CHUNK_INVALID) 체크섬이 다른 경우
+   *     (UPLOAD_CHUNK_CHECKSUM_MISMATCH). 이때 조각은 받지 않은 것으로 남습니다.
+   */
+  public void writeChunk(String uploadId, int index, String checksum, InputStream body) {
+    ChatUploadSession session = loadSession(uploadId);
+    if (session.getFileUrl() != null) {
+      // 이미 조립됨 (완료 응답을 못 받고 다시 보내는 경우)
+      return;
+    }
+    if (index < 0 || index >= session.chunkCount()) {
+      throw new CustomException(ErrorCode.UPLOAD_CHUNK_INVALID);
+    }
+    if (checksum == null || !SHA256_HEX.matcher(checksum.trim()).matches()) {
+      throw new CustomException(ErrorCode.BAD_REQUEST);
+    }
+
+    Path dir = sessionPath(uploadId);
+    long expected = session.chunkLength(index);
+    MessageDigest digest = sha256();
+    try {
+      // 다시 보내는 조각이 도중에 실패하면 이전 표시가 남아 있으면 안 됨
+      Files.deleteIfExists(dir.resolve(CHUNK_DIR).resolve(Integer.toString(index)));
+    } catch (IOException e) {
+      log.warn("조각 표시 삭제 실패 - uploadId: {}, index: {}", uploadId, index);
+      throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+    }
+    try (FileChannel channel = FileChannel.open(dir.resolve(DATA_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_BYTES);
+      byte[] array = buffer.array();
+      long position = index * session.getChunkSize();
+      long received = 0;
+      int read;
+      // 조각 길이보다 1 바이트 더 읽어 보고 넘치면 거부
+      while ((read = body.read(array, 0,
+          (int) Math.min(array.length, expected - received + 1))) > 0) {
+        received += read;
+        if (received > expected) {
+          throw new CustomException(ErrorCode.UPLOAD_CHUNK_INVALID);
+        }
+        digest.update(array, 0, read);
+        buffer.clear().limit(read);
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
+      }
+      if (received != expected) {
+        throw new CustomException(ErrorCode.UPLOAD_CHUNK_INVALID);
+      }
+      String actual = HexFormat.of().formatHex(digest.digest());
+      if (!actual.equalsIgnoreCase(checksum.trim())) {
+        log.info("조각 체크섬 불일치 - uploadId: {}, index: {}", uploadId, index);
+        throw new CustomException(ErrorCode.UPLOAD_CHUNK_CHECKSUM_MISMATCH);
+      }
+      channel.force(false);
+      markReceived(dir, index, actual);
+    } catch (IOException e) {
+      // 전송이 끊긴 경우 등: 표시 파일이 없으므로 같은 조각을 다시 보내면 됨
+      log.warn("조각 저장 실패 - uploadId: {}, index: {}, error: {}", uploadId, index,
+          e.getMessage());
+      throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+    }
+  }
+
+  /**
+   * 모든 조각이 모였으면 파일을 공개 위치로 옮기고 파일 메시지를 만듭니다. 메시지 생성이 실패하면 파일과 세션은 남아
+   * 있으므로 완료 요청만 다시 보내면 됩니다. uploadId 를 멱등 키로 보내므로 다시 보내도 메시지는 하나입니다.
+   */
+  public ChatMessageDtos.Response complete(String uploadId) {
+    Object lock = completing.computeIfAbsent(uploadId, id -> new Object());
+    synchronized (lock) {
+      try {
+        ChatUploadSession session = loadSession(uploadId);
+        if (session.getFileUrl() == null) {
+          assemble(session);
+        }
+
+        ChatMessageDtos.FileMessageRequest request = new ChatMessageDtos.FileMessageRequest();
+        request.setWorkspaceId(session.getWorkspaceId());
+        request.setUserId(session.getUserId());
+        request.setContent(session.getContent());
+        request.setMessageType(session.getMessageType());
+        request.setFileUrl(session.getFileUrl());
+        request.setFileName(session.getFileName());
+        request.setMimeType(session.getMimeType());
+        request.setFileSize(session.getFileSize());
+        // 저장 후 응답만 유실돼 완료를 다시 요청해도 같은 uploadId 로 중복 메시지를 막음
+        ChatMessageDtos.Response response = chatMessageClient.createFileMessage(request, uploadId);
+
+        deleteSession(uploadId);
+        log.info("분할 업로드 완료 - uploadId: {}, messageId: {}, url: {}", uploadId,
+            response.getMessageId(), session.getFileUrl());
+        return response;
+      } finally {
+        completing.remove(uploadId, lock);
+      }
+    }
+  }
+
+  public void abort(String uploadId) {
+    loadSession(uploadId);
+    deleteSession(uploadId);
+    log.info("분할 업로드 취소 - uploadId: {}", uploadId);
+  }
+
+  private void assemble(ChatUploadSession session) {
+    String uploadId = session.getUploadId();
+    ChatUploadDtos.StatusResponse status = status(session);
+    if (status.getReceivedChunks().size() != session.chunkCount()) {
+      throw new CustomException(ErrorCode.UPLOAD_INCOMPLETE);
+    }
+    // 대상 이름은 세션으로 정해지므로, 옮긴 뒤 세션 저장 전에 실패했어도 다시 완료하면 이어짐
+    String relative = "chat/" + session.getWorkspaceId() + "/" + uploadId
+        + extension(session.getFileName());
+    Path uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+    Path target = uploadRoot.resolve(relative);
+    Path data = sessionPath(uploadId).resolve(DATA_FILE);
+    try {
+      if (!Files.exists(target)) {
+        if (Files.size(data) != session.getFileSize()) {
+          throw new CustomException(ErrorCode.UPLOAD_INCOMPLETE);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+          Files.move(data, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          // 세션 디렉토리가 다른 볼륨에 있는 경우 (복사)
+          Files.move(data, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+      session.setFileUrl(baseUrl + "/uploads/" + relative);
+      saveSession(session);
+    } catch (NoSuchFileException e) {
+      throw new CustomException(ErrorCode.UPLOAD_INCOMPLETE);
+    } catch (IOException e) {
+      log.error("업로드 파일 조립 실패 - uploadId: {}", uploadId, e);
+      throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+    }
+  }
+
+  private ChatUploadDtos.StatusResponse status(ChatUploadSession session) {
+    List<Integer> received = new ArrayList<>();
+    if (session.getFileUrl() != null) {
+      for (int i = 0; i < session.chunkCount(); i++) {
+        received.add(i);
+      }
+    } else {
+      try (DirectoryStream<Path> markers =
+          Files.newDirectoryStream(sessionPath(session.getUploadId()).resolve(CHUNK_DIR))) {
+        for (Path marker : markers) {
+          String name = marker.getFileName().toString();
+          if (name.chars().allMatch(Character::isDigit) && name.length() < 10) {
+            int index = Integer.parseInt(name);
+            if (index < session.chunkCount()) {
+              received.add(index);
+            }
+          }
+        }
+      } catch (NoSuchFileException e) {
+        throw new CustomException(ErrorCode.NOT_FOUND_UPLOAD);
+      } catch (IOException e) {
+        log.error("업로드 상태 조회 실패 - uploadId: {}", session.getUploadId(), e);
+        throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+      }
+      received.sort(Comparator.naturalOrder());
+    }
+    return ChatUploadDtos.StatusResponse.builder()
+        .uploadId(session.getUploadId())
+        .fileName(session.getFileName())
+        .fileSize(session.getFileSize())
+        .chunkSize(session.getChunkSize())
+        .chunkCount(session.chunkCount())
+        .receivedChunks(received)
+        .build();
+  }
+
+  /** 데이터를 디스크에 반영한 뒤에 표시 파일을 만들어야 재시작 후에도 받은 조각이 정확함 */
+  private static void markReceived(Path dir, int index, String checksum) throws IOException {
+    Path marker = dir.resolve(CHUNK_DIR).resolve(Integer.toString(index));
+    Path temp = Files.createTempFile(marker.getParent(), ".chunk-", ".tmp");
+    try {
+      Files.writeString(temp, checksum);
+      Files.move(temp, marker, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private ChatUploadSession loadSession(String uploadId) {
+    if (uploadId == null || !UPLOAD_ID.matcher(uploadId).matches()) {
+      throw new CustomException(ErrorCode.NOT_FOUND_UPLOAD);
+    }
+    try {
+      return objectMapper.readValue(sessionPath(uploadId).resolve(SESSION_FILE).toFile(),
+          ChatUploadSession.class);
+    } catch (NoSuchFileException | FileNotFoundException e) {
+      throw new CustomException(ErrorCode.NOT_FOUND_UPLOAD);
+    } catch (IOException e) {
+      log.error("업로드 세션 읽기 실패 - uploadId: {}", uploadId, e);
+      throw new CustomException(ErrorCode.UPLOAD_IO_FAILED);
+    }
+  }
+
+  private void saveSession(ChatUploadSession session) throws IOException {
+    Path file = sessionPath(session.getUploadId()).resolve(SESSION_FILE);
+    Path temp = Files.createTempFile(file.getParent(), ".session-", ".tmp");
+    try {
+      objectMapper.writeValue(temp.toFile(), session);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private void deleteSession(String uploadId) {
+    try {
+      deleteRecursively(sessionPath(uploadId));
+    } catch (IOException e) {
+      // 남은 파일은 만료 정리에서 지움
+      log.warn("업로드 세션 삭제 실패 - uploadId: {}, error: {}", uploadId, e.getMessage());
+    }
+  }
+
+  /** 마지막 활동(조각 수신·세션 저장)이 session-ttl 보다 오래된 세션 삭제. 분당 한 번만 실행 */
+  void sweepExpiredSessions() {
+    long now = System.currentTimeMillis();
+    long last = lastSweepMillis.get();
+    if (now - last < SWEEP_INTERVAL.toMillis() || !lastSweepMillis.compareAndSet(last, now)) {
+      return;
+    }
+    Path root = Paths.get(sessionDir).toAbsolutePath().normalize();
+    if (!Files.isDirectory(root)) {
+      return;
+    }
+    Instant cutoff = Instant.now().minus(sessionTtl);
+    int removed = 0;
+    try (DirectoryStream<Path> sessions = Files.newDirectoryStream(root)) {
+      for (Path dir : sessions) {
+        if (!UPLOAD_ID.matcher(dir.getFileName().toString()).matches()
+            || lastActivity(dir).isAfter(cutoff)) {
+          continue;
+        }
+        deleteRecursively(dir);
+        removed++;
+      }
+    } catch (IOException e) {
+      log.warn("만료된 업로드 세션 정리 실패: {}", e.getMessage());
+    }
+    if (removed > 0) {
+      log.info("만료된 업로드 세션 {}개 삭제", removed);
+    }
+  }
+
+  private static Instant lastActivity(Path dir) throws IOException {
+    Instant latest = Files.getLastModifiedTime(dir).toInstant();
+    for (String name : List.of(SESSION_FILE, DATA_FILE, CHUNK_DIR)) {
+      Path path = dir.resolve(name);
+      if (Files.exists(path)) {
+        Instant modified = Files.getLastModifiedTime(path).toInstant();
+        latest = modified.isAfter(latest) ? modified : latest;
+      }
+    }
+    return latest;
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> walk = Files.walk(dir)) {
+      for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private Path sessionPath(String uploadId) {
+    return Paths.get(sessionDir).toAbsolutePath().normalize().resolve(uploadId);
+  }
+
+  /** 경로 구분자·제어 문자를 뺀 표시용 파일명 */
+  private static String sanitizeFileName(String raw) {
+    String name = raw.substring(Math.max(raw.lastIndexOf('/'), raw.lastIndexOf('\\')) + 1)
+        .replaceAll("\\p{Cntrl}", "").trim();
+    if (name.isEmpty() || name.equals(".") || name.equals("..")) {
+      return "file";
+    }
+    return name.length() > MAX_FILE_NAME_CHARS ? name.substring(0, MAX_FILE_NAME_CHARS) : name;
+  }
+
+  private static String resolveMimeType(String requested, String fileName) {
+    if (requested != null && !requested.isBlank()) {
+      try {
+        return MediaType.parseMediaType(requested.trim()).toString();
+      } catch (InvalidMediaTypeException e) {
+        // 파일명으로 추정
+      }
+    }
+    return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM)
+        .toString();
+  }
+
+  private static String resolveMessageType(String requested, String mimeType) {
+    if ("image".equals(requested) || "file".equals(requested)) {
+      return requested;
+    }
+    return mimeType.startsWith("image/") ? "image" : "file";
+  }
+
+  private static String extension(String fileName) {
+    Matcher matcher = EXTENSION.matcher(fileName);
+    return matcher.find() ? matcher.group().toLowerCase(Locale.ROOT) : "";
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
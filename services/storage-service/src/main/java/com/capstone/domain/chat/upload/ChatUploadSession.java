@@ -0,0 +1,37 @@
+package com.capstone.domain.chat.upload;
+
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 분할 업로드 세션 메타데이터. 세션 디렉토리의 {@code session.json} 으로 저장되어 재시작 뒤에도 이어 받을 수 있습니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChatUploadSession {
+
+  private String uploadId;
+  private Long workspaceId;
+  private Long userId;
+  private String fileName;
+  private String mimeType;
+  private String messageType;
+  private String content;
+  private long fileSize;
+  private long chunkSize;
+  private Instant createdAt;
+  /** 조립이 끝나 공개 위치로 옮긴 뒤의 URL (메시지 생성만 남은 상태) */
+  private String fileUrl;
+
+  public int chunkCount() {
+    return (int) ((fileSize + chunkSize - 1) / chunkSize);
+  }
+
+  /** index 번째 조각의 바이트 수 (마지막 조각은 나머지) */
+  public long chunkLength(int index) {
+    return Math.min(chunkSize, fileSize - index * chunkSize);
+  }
+}
@@ -0,0 +1,234 @@
+package com.capstone.global.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 업로드 파일({@code /uploads/**}) 서빙.
+ *
+ * <ul>
+ *   <li>본문 전송: 큰 파일은 Tomcat sendfile 로 넘겨 커널이 파일에서 소켓으로 바로 보내고(사용자 공간 복사 없음),
+ *   작은 파일이나 sendfile 을 못 쓰는 환경은 {@link FileChannel#transferTo} 로 보냅니다.</li>
+ *   <li>조건부 요청: 크기·수정 시각으로 만든 ETag 와 Last-Modified 로 304 를 돌려줍니다.</li>
+ *   <li>Range: 단일 구간({@code bytes=a-b}, {@code a-}, {@code -n})은 206, 범위 밖이면 416 입니다. 여러 구간 요청과
+ *   {@code If-Range} 가 맞지 않는 요청은 전체(200)로 응답합니다.</li>
+ *   <li>캐시: 파일명에 내용 지문이 들어간 {@code /uploads/thumbnails/versions/**} 는 1년 immutable, 나머지는 매번
+ *   재검증({@code no-cache}, 바뀌지 않았으면 304)입니다.</li>
+ *   <li>채팅 첨부({@code /uploads/chat/**})는 사용자가 올린 임의 파일이므로 래스터 이미지가 아니면
+ *   {@code Content-Disposition: attachment} 로 내려 API 출처에서 HTML·SVG 가 렌더링되지 않게 합니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Controller
+public class UploadFileController {
+
+  private static final String THUMBNAIL_PREFIX = "/uploads/thumbnails/";
+  private static final String VERSIONED_PREFIX = THUMBNAIL_PREFIX + "versions/";
+  private static final String UPLOAD_PREFIX = "/uploads/";
+  private static final String CHAT_PREFIX = "/uploads/chat/";
+  /** 채팅 첨부 중 브라우저에서 바로 보여 줘도 스크립트가 실행되지 않는 형식 */
+  private static final Set<MediaType> INLINE_CHAT_TYPES = Set.of(MediaType.IMAGE_PNG,
+      MediaType.IMAGE_JPEG, MediaType.IMAGE_GIF, MediaType.parseMediaType("image/webp"));
+
+  /** Tomcat 이 sendfile 가능 여부를 알려 주고, 아래 속성을 보고 응답 본문을 sendfile 로 보냄 */
+  static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+  private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+  private static final long[] UNSATISFIABLE = new long[0];
+  private static final CacheControl IMMUTABLE =
+      CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+  private final Path uploadRoot;
+  private final Path thumbnailRoot;
+  private final long sendfileMinBytes;
+
+  public UploadFileController(
+      @Value("${app.file.upload-dir:./uploads}") String uploadDir,
+      @Value("${app.file.thumbnail-dir:./uploads/thumbnails}") String thumbnailDir,
+      @Value("${app.file.serving.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+    this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+    this.thumbnailRoot = Paths.get(thumbnailDir).toAbsolutePath().normalize();
+    this.sendfileMinBytes = sendfileMinBytes;
+    log.info("업로드 파일 서빙: /uploads/** -> {}, /uploads/thumbnails/** -> {} (sendfile >= {} bytes)",
+        uploadRoot, thumbnailRoot, sendfileMinBytes);
+  }
+
+  @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+  public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+    Path file = resolve(path);
+    BasicFileAttributes attributes = file != null ? readAttributes(file) : null;
+    if (attributes == null || !attributes.isRegularFile()) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+
+    long length = attributes.size();
+    // HTTP 날짜는 초 단위이므로 ETag 도 같은 정밀도로
+    long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+    String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+    response.setHeader(HttpHeaders.CACHE_CONTROL,
+        (path.startsWith(VERSIONED_PREFIX) ? IMMUTABLE : REVALIDATE).getHeaderValue());
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader("X-Content-Type-Options", "nosniff");
+    MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+        .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    response.setContentType(contentType.toString());
+    if (path.startsWith(CHAT_PREFIX) && !INLINE_CHAT_TYPES.contains(contentType)) {
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+          .filename(file.getFileName().toString(), StandardCharsets.UTF_8).build().toString());
+    }
+
+    long start = 0;
+    long end = length - 1;
+    String range = request.getHeader(HttpHeaders.RANGE);
+    if (range != null && rangeApplies(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+      long[] bounds = parseRange(range, length);
+      if (bounds == UNSATISFIABLE) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      if (bounds != null) {
+        start = bounds[0];
+        end = bounds[1];
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE,
+            "bytes " + start + "-" + end + "/" + length);
+      }
+    }
+    long count = end - start + 1;
+    response.setContentLengthLong(count);
+    if (count == 0 || RequestMethod.HEAD.name().equals(request.getMethod())) {
+      return;
+    }
+
+    if (count >= sendfileMinBytes
+        && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+      request.setAttribute(SENDFILE_FILENAME_ATTR, file.toString());
+      request.setAttribute(SENDFILE_START_ATTR, start);
+      request.setAttribute(SENDFILE_END_ATTR, end + 1);
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = start;
+      while (position <= end) {
+        long sent = channel.transferTo(position, end - position + 1, out);
+        if (sent <= 0) {
+          // 그사이 파일이 줄어든 경우
+          break;
+        }
+        position += sent;
+      }
+    }
+  }
+
+  /** 요청 경로 → 파일 (루트 밖을 가리키면 null). 썸네일 디렉토리는 업로드 디렉토리 밖에 있을 수도 있음 */
+  private Path resolve(String path) {
+    if (path == null || !path.startsWith(UPLOAD_PREFIX)) {
+      return null;
+    }
+    Path root = path.startsWith(THUMBNAIL_PREFIX) ? thumbnailRoot : uploadRoot;
+    String relative = path.substring(
+        path.startsWith(THUMBNAIL_PREFIX) ? THUMBNAIL_PREFIX.length() : UPLOAD_PREFIX.length());
+    if (relative.isEmpty()) {
+      return null;
+    }
+    Path file = root.resolve(relative).normalize();
+    return file.startsWith(root) ? file : null;
+  }
+
+  private static BasicFileAttributes readAttributes(Path file) {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /** If-Range 가 없거나 현재 ETag·수정 시각과 같을 때만 Range 적용 */
+  private static boolean rangeApplies(String ifRange, String etag, long lastModified) {
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag);
+    }
+    try {
+      return ZonedDateTime.parse(ifRange.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+          .toInstant().toEpochMilli() == lastModified;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  /**
+   * 단일 구간 Range → [시작, 끝] (끝 포함). 형식이 다르거나 여러 구간이면 null (전체 응답), 만족할 수 없으면
+   * {@link #UNSATISFIABLE}.
+   */
+  static long[] parseRange(String header, long length) {
+    Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+    if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+      return null;
+    }
+    try {
+      if (matcher.group(1).isEmpty()) {
+        // 끝에서 n 바이트
+        long suffix = Long.parseLong(matcher.group(2));
+        if (suffix == 0 || length == 0) {
+          return UNSATISFIABLE;
+        }
+        return new long[] {Math.max(0, length - suffix), length - 1};
+      }
+      long start = Long.parseLong(matcher.group(1));
+      long end = matcher.group(2).isEmpty() ? length - 1
+          : Math.min(Long.parseLong(matcher.group(2)), length - 1);
+      if (start >= length) {
+        return UNSATISFIABLE;
+      }
+      return start <= end ? new long[] {start, end} : null;
+    } catch (NumberFormatException e) {
+      // long 범위를 넘는 숫자
+      return null;
+    }
+  }
+}
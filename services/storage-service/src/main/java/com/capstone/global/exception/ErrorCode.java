@@ -36,7 +36,15 @@ public enum ErrorCode {
   NOT_FOUND_PROTOTYPE_JOB_BY_ID("해당 프로토타입 작업을 찾을 수 없습니다.", HttpStatus.NOT_FOUND),
   NOT_FOUND_PROTOTYPE_ARTIFACT("저장된 프로토타입 소스를 찾을 수 없습니다. 파이프라인이 끝난 뒤 다시 시도하세요.", HttpStatus.NOT_FOUND),
   PROTOTYPE_ARTIFACT_IO_FAILED("프로토타입 파일을 읽거나 쓰는 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
-  PROTOTYPE_PIPELINE_FAILED("프로토타입 파이프라인 처리 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR);
+  PROTOTYPE_PIPELINE_FAILED("프로토타입 파이프라인 처리 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
+
+  NOT_FOUND_UPLOAD("업로드 세션을 찾을 수 없거나 만료되었습니다.", HttpStatus.NOT_FOUND),
+  UPLOAD_TOO_LARGE("파일이 업로드 허용 크기를 넘습니다.", HttpStatus.PAYLOAD_TOO_LARGE),
+  UPLOAD_CHUNK_INVALID("조각 번호나 크기가 업로드 세션과 맞지 않습니다.", HttpStatus.BAD_REQUEST),
+  UPLOAD_CHUNK_CHECKSUM_MISMATCH("조각 체크섬이 일치하지 않습니다. 해당 조각을 다시 보내세요.", HttpStatus.BAD_REQUEST),
+  UPLOAD_INCOMPLETE("아직 받지 못한 조각이 있습니다. 업로드 상태를 조회해 빠진 조각을 보내세요.", HttpStatus.CONFLICT),
+  UPLOAD_IO_FAILED("업로드 파일을 저장하는 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
+  CHAT_MESSAGE_CREATE_FAILED("파일은 저장됐지만 채팅 메시지를 만들지 못했습니다. 완료 요청을 다시 보내세요.", HttpStatus.BAD_GATEWAY);
 
   private final String message;
   private final HttpStatus httpStatus;
@@ -0,0 +1,192 @@
+package com.capstone.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.capstone.global.controller.UploadFileController;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class UploadFileControllerTest {
+
+  private static final Instant MODIFIED = Instant.parse("2026-01-02T03:04:05Z");
+
+  @TempDir
+  Path uploadDir;
+
+  private UploadFileController controller;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Path versions = Files.createDirectories(uploadDir.resolve("thumbnails/versions"));
+    write(uploadDir.resolve("chat/report.txt"), "0123456789");
+    write(uploadDir.resolve("chat/1/page.html"), "<script>alert(1)</script>");
+    write(uploadDir.resolve("chat/1/logo.svg"), "<svg onload=\"alert(1)\"/>");
+    write(uploadDir.resolve("chat/1/photo.png"), "png-bytes");
+    write(versions.resolve("workspace-1-content-0123456789abcdef.png"), "png-bytes");
+    Files.writeString(uploadDir.resolve("secret.txt"), "secret");
+    controller = new UploadFileController(uploadDir.resolve("chat").getParent().toString(),
+        uploadDir.resolve("thumbnails").toString(), 8);
+  }
+
+  @Test
+  @DisplayName("전체 응답에 ETag·Last-Modified·재검증 캐시 헤더")
+  void fullResponse() throws Exception {
+    MockHttpServletResponse response = get("/uploads/chat/report.txt");
+
+    assertEquals(200, response.getStatus());
+    assertEquals("0123456789", response.getContentAsString());
+    assertEquals(10, response.getContentLengthLong());
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    assertEquals(MODIFIED.toEpochMilli(), response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    assertNotNull(response.getHeader(HttpHeaders.ETAG));
+    assertTrue(response.getContentType().startsWith("text/plain"));
+  }
+
+  @Test
+  @DisplayName("내용 지문 썸네일은 immutable")
+  void versionedThumbnailIsImmutable() throws Exception {
+    MockHttpServletResponse response =
+        get("/uploads/thumbnails/versions/workspace-1-content-0123456789abcdef.png");
+
+    assertEquals(200, response.getStatus());
+    assertEquals("max-age=31536000, public, immutable",
+        response.getHeader(HttpHeaders.CACHE_CONTROL));
+    assertEquals("image/png", response.getContentType());
+  }
+
+  @Test
+  @DisplayName("채팅 첨부는 래스터 이미지만 inline, HTML·SVG 등은 attachment")
+  void chatAttachmentsOtherThanRasterImagesAreDownloaded() throws Exception {
+    for (String path : new String[] {"/uploads/chat/1/page.html", "/uploads/chat/1/logo.svg",
+        "/uploads/chat/report.txt"}) {
+      String disposition = get(path).getHeader(HttpHeaders.CONTENT_DISPOSITION);
+      assertNotNull(disposition, path);
+      assertTrue(disposition.startsWith("attachment"), path);
+    }
+
+    MockHttpServletResponse image = get("/uploads/chat/1/photo.png");
+    assertEquals("image/png", image.getContentType());
+    assertNull(image.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    assertNull(get("/uploads/thumbnails/versions/workspace-1-content-0123456789abcdef.png")
+        .getHeader(HttpHeaders.CONTENT_DISPOSITION));
+  }
+
+  @Test
+  @DisplayName("ETag·수정 시각이 같으면 304")
+  void conditionalGet() throws Exception {
+    String etag = get("/uploads/chat/report.txt").getHeader(HttpHeaders.ETAG);
+
+    MockHttpServletRequest byEtag = request("/uploads/chat/report.txt");
+    byEtag.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    MockHttpServletRequest byDate = request("/uploads/chat/report.txt");
+    byDate.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED.toEpochMilli());
+
+    for (MockHttpServletRequest request : new MockHttpServletRequest[] {byEtag, byDate}) {
+      MockHttpServletResponse response = serve(request);
+      assertEquals(304, response.getStatus());
+      assertEquals(0, response.getContentAsByteArray().length);
+      assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+  }
+
+  @Test
+  @DisplayName("단일 Range 는 206, 범위 밖은 416, If-Range 불일치·여러 구간은 전체")
+  void ranges() throws Exception {
+    assertRange("bytes=2-5", 206, "2345", "bytes 2-5/10");
+    assertRange("bytes=7-", 206, "789", "bytes 7-9/10");
+    assertRange("bytes=-3", 206, "789", "bytes 7-9/10");
+    assertRange("bytes=8-100", 206, "89", "bytes 8-9/10");
+    assertRange("bytes=0-1,4-5", 200, "0123456789", null);
+    assertRange("bytes=5-2", 200, "0123456789", null);
+
+    MockHttpServletRequest outside = request("/uploads/chat/report.txt");
+    outside.addHeader(HttpHeaders.RANGE, "bytes=10-");
+    MockHttpServletResponse unsatisfiable = serve(outside);
+    assertEquals(416, unsatisfiable.getStatus());
+    assertEquals("bytes */10", unsatisfiable.getHeader(HttpHeaders.CONTENT_RANGE));
+
+    MockHttpServletRequest stale = request("/uploads/chat/report.txt");
+    stale.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+    stale.addHeader(HttpHeaders.IF_RANGE, "\"old\"");
+    assertEquals("0123456789", serve(stale).getContentAsString());
+  }
+
+  @Test
+  @DisplayName("sendfile 을 지원하면 본문 대신 파일 구간을 Tomcat 에 넘김")
+  void largeBodiesUseSendfile() throws Exception {
+    MockHttpServletRequest request = request("/uploads/chat/report.txt");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    request.addHeader(HttpHeaders.RANGE, "bytes=1-");
+
+    MockHttpServletResponse response = serve(request);
+
+    assertEquals(206, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+    assertEquals(9, response.getContentLengthLong());
+    assertEquals(uploadDir.resolve("chat/report.txt").toAbsolutePath().normalize().toString(),
+        request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    assertEquals(1L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+    assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+  }
+
+  @Test
+  @DisplayName("HEAD 는 본문 없이 길이만, 없는 파일·디렉토리·루트 밖은 404")
+  void headAndMissing() throws Exception {
+    MockHttpServletRequest head = request("/uploads/chat/report.txt");
+    head.setMethod("HEAD");
+    MockHttpServletResponse headResponse = serve(head);
+    assertEquals(200, headResponse.getStatus());
+    assertEquals(10, headResponse.getContentLengthLong());
+    assertEquals(0, headResponse.getContentAsByteArray().length);
+
+    assertEquals(404, get("/uploads/chat/missing.txt").getStatus());
+    assertEquals(404, get("/uploads/chat").getStatus());
+    assertEquals(404, get("/uploads/thumbnails/../secret.txt").getStatus());
+    assertEquals(404, get("/uploads/chat/../../etc/passwd").getStatus());
+  }
+
+  private void assertRange(String range, int status, String body, String contentRange)
+      throws Exception {
+    MockHttpServletRequest request = request("/uploads/chat/report.txt");
+    request.addHeader(HttpHeaders.RANGE, range);
+    MockHttpServletResponse response = serve(request);
+    assertEquals(status, response.getStatus(), range);
+    assertEquals(body, response.getContentAsString(), range);
+    assertEquals(contentRange, response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+  }
+
+  private MockHttpServletResponse get(String path) throws Exception {
+    return serve(request(path));
+  }
+
+  private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller.serve(request, response);
+    return response;
+  }
+
+  private static MockHttpServletRequest request(String path) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+    request.setContextPath("/api");
+    request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+    return request;
+  }
+
+  private static void write(Path path, String content) throws Exception {
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, content, StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(path, FileTime.from(MODIFIED));
+  }
+}
@@ -0,0 +1,303 @@
+package com.capstone.service;
+
+import com.capstone.domain.chat.ChatMessageDtos;
+import com.capstone.domain.chat.upload.ChatMessageClient;
+import com.capstone.domain.chat.upload.ChatUploadDtos;
+import com.capstone.domain.chat.upload.ChatUploadService;
+import com.capstone.global.exception.CustomException;
+import com.capstone.global.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChatUploadServiceTest {
+
+  private static final int CHUNK = 1000;
+
+  @TempDir
+  Path uploadDir;
+
+  @TempDir
+  Path sessionDir;
+
+  private ChatMessageClient chatMessageClient;
+  private ChatUploadService service;
+  private byte[] content;
+
+  @BeforeEach
+  void setUp() {
+    chatMessageClient = mock(ChatMessageClient.class);
+    service = new ChatUploadService(new ObjectMapper().registerModule(new JavaTimeModule()),
+        chatMessageClient);
+    ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(service, "baseUrl", "http://localhost:8080/api");
+    ReflectionTestUtils.setField(service, "sessionDir", sessionDir.toString());
+    ReflectionTestUtils.setField(service, "maxBytes", 10_000L);
+    ReflectionTestUtils.setField(service, "chunkBytes", (long) CHUNK);
+    ReflectionTestUtils.setField(service, "sessionTtl", Duration.ofHours(24));
+
+    content = new byte[2500];
+    new Random(7).nextBytes(content);
+
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(42L);
+    when(chatMessageClient.createFileMessage(any(), any())).thenReturn(response);
+  }
+
+  @Test
+  @DisplayName("순서와 상관없이 받은 조각을 조립해 파일 메시지를 만든다")
+  void uploadOutOfOrderAndComplete() throws IOException {
+    ChatUploadDtos.StatusResponse created = service.create(request("report.PDF", null));
+    assertThat(created.getChunkCount()).isEqualTo(3);
+    assertThat(created.getChunkSize()).isEqualTo(CHUNK);
+    assertThat(created.getReceivedChunks()).isEmpty();
+
+    String id = created.getUploadId();
+    for (int index : new int[] {2, 0, 1}) {
+      send(id, index);
+    }
+    assertThat(service.getStatus(id).getReceivedChunks()).containsExactly(0, 1, 2);
+
+    ChatMessageDtos.Response response = service.complete(id);
+
+    assertThat(response.getMessageId()).isEqualTo(42L);
+    Path stored = uploadDir.resolve("chat/1/" + id + ".pdf");
+    assertThat(Files.readAllBytes(stored)).isEqualTo(content);
+    ArgumentCaptor<ChatMessageDtos.FileMessageRequest> captor =
+        ArgumentCaptor.forClass(ChatMessageDtos.FileMessageRequest.class);
+    verify(chatMessageClient).createFileMessage(captor.capture(), eq(id));
+    ChatMessageDtos.FileMessageRequest sent = captor.getValue();
+    assertThat(sent.getFileUrl())
+        .isEqualTo("http://localhost:8080/api/uploads/chat/1/" + id + ".pdf");
+    assertThat(sent.getFileName()).isEqualTo("report.PDF");
+    assertThat(sent.getFileSize()).isEqualTo(2500L);
+    assertThat(sent.getMimeType()).isEqualTo("application/pdf");
+    assertThat(sent.getMessageType()).isEqualTo("file");
+    assertThat(sessionDir.resolve(id)).doesNotExist();
+  }
+
+  @Test
+  @DisplayName("체크섬이 다른 조각은 받지 않은 것으로 남고 다시 보내면 된다")
+  void checksumMismatchIsNotMarked() {
+    String id = service.create(request("a.png", "image/png")).getUploadId();
+    send(id, 0);
+
+    byte[] chunk = chunk(1);
+    byte[] corrupted = chunk.clone();
+    corrupted[10] ^= 1;
+    assertThatThrownBy(() -> service.writeChunk(id, 1, sha256(chunk), stream(corrupted)))
+        .isInstanceOf(CustomException.class)
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_CHUNK_CHECKSUM_MISMATCH);
+    assertThat(service.getStatus(id).getReceivedChunks()).containsExactly(0);
+
+    send(id, 1);
+    assertThat(service.getStatus(id).getReceivedChunks()).containsExactly(0, 1);
+  }
+
+  @Test
+  @DisplayName("이미 받은 조각을 다시 보내다 실패하면 그 조각은 받지 않은 것이 된다")
+  void failedResendClearsMarker() {
+    String id = service.create(request("a.bin", null)).getUploadId();
+    send(id, 0);
+
+    byte[] chunk = chunk(0);
+    byte[] cut = Arrays.copyOf(chunk, 400);
+    assertThatThrownBy(() -> service.writeChunk(id, 0, sha256(chunk), stream(cut)))
+        .isInstanceOf(CustomException.class)
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_CHUNK_INVALID);
+
+    assertThat(service.getStatus(id).getReceivedChunks()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("조각 길이가 맞지 않거나 번호가 범위 밖이면 거부한다")
+  void rejectsWrongLengthAndIndex() {
+    String id = service.create(request("a.bin", null)).getUploadId();
+
+    byte[] tooLong = Arrays.copyOf(chunk(0), CHUNK + 1);
+    assertThatThrownBy(() -> service.writeChunk(id, 0, sha256(tooLong), stream(tooLong)))
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_CHUNK_INVALID);
+    // 마지막 조각은 500 바이트
+    byte[] lastTooLong = Arrays.copyOf(chunk(2), CHUNK);
+    assertThatThrownBy(() -> service.writeChunk(id, 2, sha256(lastTooLong), stream(lastTooLong)))
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_CHUNK_INVALID);
+    assertThatThrownBy(() -> service.writeChunk(id, 3, sha256(chunk(2)), stream(chunk(2))))
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_CHUNK_INVALID);
+    assertThatThrownBy(() -> service.writeChunk(id, 0, "not-a-checksum", stream(chunk(0))))
+        .extracting("errorCode").isEqualTo(ErrorCode.BAD_REQUEST);
+
+    assertThat(service.getStatus(id).getReceivedChunks()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("조각이 모자라면 완료할 수 없다")
+  void completeRequiresAllChunks() {
+    String id = service.create(request("a.bin", null)).getUploadId();
+    send(id, 0);
+    send(id, 2);
+
+    assertThatThrownBy(() -> service.complete(id))
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_INCOMPLETE);
+    verifyNoInteractions(chatMessageClient);
+    assertThat(service.getStatus(id).getReceivedChunks()).containsExactly(0, 2);
+  }
+
+  @Test
+  @DisplayName("메시지 생성이 실패하면 파일과 세션이 남아 완료만 다시 하면 된다")
+  void completeRetriesMessageCreation() throws IOException {
+    String id = service.create(request("photo.jpg", null)).getUploadId();
+    for (int i = 0; i < 3; i++) {
+      send(id, i);
+    }
+    ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+    response.setMessageId(7L);
+    when(chatMessageClient.createFileMessage(any(), any()))
+        .thenThrow(new CustomException(ErrorCode.CHAT_MESSAGE_CREATE_FAILED))
+        .thenReturn(response);
+
+    assertThatThrownBy(() -> service.complete(id))
+        .extracting("errorCode").isEqualTo(ErrorCode.CHAT_MESSAGE_CREATE_FAILED);
+    Path stored = uploadDir.resolve("chat/1/" + id + ".jpg");
+    assertThat(stored).exists();
+    assertThat(service.getStatus(id).getReceivedChunks()).containsExactly(0, 1, 2);
+
+    assertThat(service.complete(id).getMessageId()).isEqualTo(7L);
+    assertThat(Files.readAllBytes(stored)).isEqualTo(content);
+    ArgumentCaptor<ChatMessageDtos.FileMessageRequest> captor =
+        ArgumentCaptor.forClass(ChatMessageDtos.FileMessageRequest.class);
+    verify(chatMessageClient, times(2)).createFileMessage(captor.capture(), eq(id));
+    assertThat(captor.getValue().getMessageType()).isEqualTo("image");
+    assertThat(captor.getValue().getMimeType()).isEqualTo("image/jpeg");
+    assertThat(sessionDir.resolve(id)).doesNotExist();
+  }
+
+  @Test
+  @DisplayName("메시지는 저장됐는데 응답을 못 받아 다시 완료해도 같은 멱등 키라 메시지는 하나다")
+  void completeRetryAfterLostResponseCreatesOneMessage() {
+    String id = service.create(request("report.pdf", null)).getUploadId();
+    for (int i = 0; i < 3; i++) {
+      send(id, i);
+    }
+    // chat-service: 같은 Idempotency-Key 면 먼저 만든 메시지를 돌려줌
+    Map<String, ChatMessageDtos.Response> created = new HashMap<>();
+    AtomicInteger calls = new AtomicInteger();
+    when(chatMessageClient.createFileMessage(any(), any())).thenAnswer(invocation -> {
+      ChatMessageDtos.Response message = created.computeIfAbsent(invocation.getArgument(1),
+          key -> {
+            ChatMessageDtos.Response response = new ChatMessageDtos.Response();
+            response.setMessageId(100L + created.size());
+            return response;
+          });
+      if (calls.getAndIncrement() == 0) {
+        // 저장 후 응답 유실 (타임아웃)
+        throw new CustomException(ErrorCode.CHAT_MESSAGE_CREATE_FAILED);
+      }
+      return message;
+    });
+
+    assertThatThrownBy(() -> service.complete(id))
+        .extracting("errorCode").isEqualTo(ErrorCode.CHAT_MESSAGE_CREATE_FAILED);
+    assertThat(service.complete(id).getMessageId()).isEqualTo(100L);
+
+    assertThat(created).containsOnlyKeys(id);
+    ArgumentCaptor<ChatMessageDtos.FileMessageRequest> captor =
+        ArgumentCaptor.forClass(ChatMessageDtos.FileMessageRequest.class);
+    verify(chatMessageClient, times(2)).createFileMessage(captor.capture(), eq(id));
+    assertThat(captor.getAllValues()).extracting(ChatMessageDtos.FileMessageRequest::getFileUrl)
+        .containsOnly("http://localhost:8080/api/uploads/chat/1/" + id + ".pdf");
+    assertThat(sessionDir.resolve(id)).doesNotExist();
+  }
+
+  @Test
+  @DisplayName("최대 크기를 넘거나 잘못된 세션이면 거부한다")
+  void rejectsTooLargeAndUnknownUploads() {
+    ChatUploadDtos.CreateRequest tooLarge = request("big.bin", null);
+    tooLarge.setFileSize(10_001L);
+    assertThatThrownBy(() -> service.create(tooLarge))
+        .extracting("errorCode").isEqualTo(ErrorCode.UPLOAD_TOO_LARGE);
+
+    assertThatThrownBy(() -> service.getStatus("../../etc"))
+        .extracting("errorCode").isEqualTo(ErrorCode.NOT_FOUND_UPLOAD);
+    assertThatThrownBy(() -> service.getStatus("0123456789abcdef0123456789abcdef"))
+        .extracting("errorCode").isEqualTo(ErrorCode.NOT_FOUND_UPLOAD);
+  }
+
+  @Test
+  @DisplayName("파일명의 경로 부분은 버린다")
+  void sanitizesFileName() {
+    ChatUploadDtos.StatusResponse created = service.create(request("../../evil/name.txt", null));
+
+    assertThat(created.getFileName()).isEqualTo("name.txt");
+  }
+
+  @Test
+  @DisplayName("취소하면 세션이 지워진다")
+  void abortDeletesSession() {
+    String id = service.create(request("a.bin", null)).getUploadId();
+    send(id, 0);
+
+    service.abort(id);
+
+    assertThat(sessionDir.resolve(id)).doesNotExist();
+    assertThatThrownBy(() -> service.getStatus(id))
+        .extracting("errorCode").isEqualTo(ErrorCode.NOT_FOUND_UPLOAD);
+  }
+
+  private ChatUploadDtos.CreateRequest request(String fileName, String mimeType) {
+    ChatUploadDtos.CreateRequest request = new ChatUploadDtos.CreateRequest();
+    request.setWorkspaceId(1L);
+    request.setUserId(2L);
+    request.setFileName(fileName);
+    request.setMimeType(mimeType);
+    request.setFileSize((long) content.length);
+    return request;
+  }
+
+  private void send(String uploadId, int index) {
+    byte[] chunk = chunk(index);
+    service.writeChunk(uploadId, index, sha256(chunk), stream(chunk));
+  }
+
+  private byte[] chunk(int index) {
+    int from = index * CHUNK;
+    return Arrays.copyOfRange(content, from, Math.min(from + CHUNK, content.length));
+  }
+
+  private static InputStream stream(byte[] bytes) {
+    return new ByteArrayInputStream(bytes);
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.capstone.domain.workspace;
+
+import com.capstone.global.service.FileStorageService;
+import com.capstone.global.storage.BlobGarbageCollector;
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 썸네일 저장소에서 워크스페이스가 더 이상 쓰지 않는 파일을 백그라운드로 정리합니다 ({@link BlobGarbageCollector}).
+ *
+ * <p>이름이 {@code workspace-{id}-...} 또는 {@code versions/workspace-{id}-...} 인 파일만 대상입니다. 워크스페이스가
+ * 영구 삭제됐으면 모두, 남아 있으면(휴지통 포함) 현재 {@code thumbnail_url} 과 그 크기별 변형을 뺀 나머지(교체된 업로드
+ * 이미지, 예전 고정 이름, 이전 버전)를 지웁니다. 썸네일 디렉토리는 canvas-service 와 함께 쓰지만 정리는 워크스페이스를
+ * 소유한 이 서비스에서만 하며, 내용 객체 정리도 여기서 합니다 (객체 디렉토리는 모든 서비스가 공유).
+ */
+@Slf4j
+@Component
+public class ThumbnailGarbageCollector {
+
+  private static final Pattern THUMBNAIL_KEY =
+      Pattern.compile("(?:" + FileStorageService.VERSIONED_THUMBNAIL_DIR + "/)?workspace-(\\d{1,18})-[^/]+");
+
+  private final WorkspaceRepository workspaceRepository;
+  private final BlobGarbageCollector collector;
+  private final boolean enabled;
+
+  public ThumbnailGarbageCollector(WorkspaceRepository workspaceRepository,
+      BlobStore thumbnailBlobStore, MeterRegistry meterRegistry,
+      @Value("${app.storage.gc.enabled:true}") boolean enabled,
+      @Value("${app.storage.gc.dry-run:false}") boolean dryRun,
+      @Value("${app.storage.gc.interval:30s}") Duration interval,
+      @Value("${app.storage.gc.batch-size:200}") int batchSize,
+      @Value("${app.storage.gc.grace:1h}") Duration grace,
+      @Value("${app.storage.gc.objects:true}") boolean sweepObjects) {
+    this.workspaceRepository = workspaceRepository;
+    this.enabled = enabled;
+    this.collector = new BlobGarbageCollector("thumbnails", thumbnailBlobStore, this::findOrphans,
+        meterRegistry, new BlobGarbageCollector.Options(dryRun, interval, batchSize, grace,
+            sweepObjects));
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      collector.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    collector.stop();
+  }
+
+  public BlobGarbageCollector.Batch sweepOnce() throws IOException {
+    return collector.sweepOnce();
+  }
+
+  List<BlobInfo> findOrphans(List<BlobInfo> candidates) {
+    Map<Long, List<BlobInfo>> byWorkspace = new LinkedHashMap<>();
+    for (BlobInfo blob : candidates) {
+      Matcher matcher = THUMBNAIL_KEY.matcher(blob.key());
+      if (matcher.matches()) {
+        byWorkspace.computeIfAbsent(Long.parseLong(matcher.group(1)), id -> new ArrayList<>())
+            .add(blob);
+      }
+    }
+    if (byWorkspace.isEmpty()) {
+      return List.of();
+    }
+
+    // 워크스페이스 ID → 현재 썸네일 키의 확장자 뺀 부분 (썸네일이 없으면 "")
+    Map<Long, String> currentStems = new HashMap<>();
+    for (Workspace workspace : workspaceRepository.findAllById(byWorkspace.keySet())) {
+      String key = FileStorageService.thumbnailKey(workspace.getThumbnailUrl());
+      currentStems.put(workspace.getWorkspaceId(), key != null ? FileStorageService.stem(key) : "");
+    }
+
+    List<BlobInfo> orphans = new ArrayList<>();
+    byWorkspace.forEach((workspaceId, blobs) -> {
+      String currentStem = currentStems.get(workspaceId);
+      for (BlobInfo blob : blobs) {
+        boolean current = currentStem != null && !currentStem.isEmpty()
+            && FileStorageService.stem(blob.key()).startsWith(currentStem);
+        if (!current) {
+          orphans.add(blob);
+        }
+      }
+    });
+    return orphans;
+  }
+}
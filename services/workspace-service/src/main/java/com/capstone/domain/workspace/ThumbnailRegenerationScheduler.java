@@ -0,0 +1,232 @@
+package com.capstone.domain.workspace;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 아이디어 변경에 따른 워크스페이스 썸네일 재생성을 워크스페이스별로 모아(debounce) 백그라운드에서 처리합니다.
+ *
+ * <p>요청은 트랜잭션 커밋 뒤에 접수되고, 같은 워크스페이스의 요청이 {@code debounceMs} 동안 더 오지 않으면 한 번만
+ * 렌더링합니다. 편집이 끊이지 않아도 첫 요청 후 {@code maxDelayMs} 가 지나면 렌더링합니다. 렌더링 중에 들어온
+ * 요청은 렌더링이 끝난 뒤 한 번 더 예약되므로 마지막 변경이 썸네일에 빠지지 않습니다.
+ *
+ * <p>렌더링은 크기가 제한된 워커 풀에서 {@link WorkspaceService#updateWorkspaceThumbnailIfNeeded} 로 수행하며,
+ * {@code thumbnail_updated} 브로드캐스트는 그 안에서 렌더링·저장이 끝난 뒤에 나갑니다. 워커 큐가 가득 차면 버리지
+ * 않고 {@code debounceMs} 뒤로 다시 미룹니다. 종료 시 대기 중인 요청은 버려집니다 (다음 편집 때 다시 생성).
+ *
+ * <p>이 서비스에서는 워크스페이스 목록 조회가 썸네일이 없거나 기본 썸네일인 워크스페이스를 여기에 예약합니다.
+ * {@link WorkspaceService} 가 이 스케줄러를 쓰므로 순환 참조를 피하려고 {@link ObjectProvider} 로 받습니다.
+ *
+ * <p>지표: {@code thumbnail.regen.requests{result=scheduled|coalesced|deferred}},
+ * {@code thumbnail.regen.pending} (대기·렌더링 중인 워크스페이스 수), {@code thumbnail.regen.queue.depth}
+ * (워커 큐 길이), {@code thumbnail.regen.render} (렌더링 시간).
+ */
+@Slf4j
+@Component
+public class ThumbnailRegenerationScheduler {
+
+  private final ObjectProvider<WorkspaceService> workspaceServiceProvider;
+  private final boolean enabled;
+  private final long debounceMs;
+  private final long maxDelayMs;
+
+  /** 워크스페이스별 대기 상태 (모든 접근은 this 로 동기화) */
+  private final Map<Long, Pending> pending = new HashMap<>();
+  private final ScheduledExecutorService timer;
+  private final ThreadPoolExecutor workers;
+
+  private final Counter scheduledCounter;
+  private final Counter coalescedCounter;
+  private final Counter deferredCounter;
+  private final Timer renderTimer;
+
+  public ThumbnailRegenerationScheduler(
+      ObjectProvider<WorkspaceService> workspaceServiceProvider, MeterRegistry meterRegistry,
+      @Value("${app.thumbnail.regeneration.enabled:true}") boolean enabled,
+      @Value("${app.thumbnail.regeneration.debounce-ms:1500}") long debounceMs,
+      @Value("${app.thumbnail.regeneration.max-delay-ms:10000}") long maxDelayMs,
+      @Value("${app.thumbnail.regeneration.worker-threads:2}") int workerThreads,
+      @Value("${app.thumbnail.regeneration.queue-capacity:256}") int queueCapacity) {
+    this.workspaceServiceProvider = workspaceServiceProvider;
+    this.enabled = enabled;
+    this.debounceMs = Math.max(0, debounceMs);
+    this.maxDelayMs = Math.max(this.debounceMs, maxDelayMs);
+    this.timer = Executors.newSingleThreadScheduledExecutor(daemon("thumbnail-debounce"));
+    int threads = Math.max(1, workerThreads);
+    this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemon("thumbnail-render"));
+    this.scheduledCounter = meterRegistry.counter("thumbnail.regen.requests", "result", "scheduled");
+    this.coalescedCounter = meterRegistry.counter("thumbnail.regen.requests", "result", "coalesced");
+    this.deferredCounter = meterRegistry.counter("thumbnail.regen.requests", "result", "deferred");
+    this.renderTimer = meterRegistry.timer("thumbnail.regen.render");
+    Gauge.builder("thumbnail.regen.pending", this, ThumbnailRegenerationScheduler::pendingCount)
+        .register(meterRegistry);
+    Gauge.builder("thumbnail.regen.queue.depth", workers, w -> w.getQueue().size())
+        .register(meterRegistry);
+  }
+
+  /**
+   * 썸네일 재생성 요청. 트랜잭션 안이면 커밋 뒤에 접수하고 (롤백되면 버림), 밖이면 바로 접수합니다.
+   * 비활성화돼 있으면 예전처럼 호출 스레드에서 바로 렌더링합니다.
+   */
+  public void request(Long workspaceId) {
+    if (workspaceId == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      accept(workspaceId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        accept(workspaceId);
+      }
+    });
+  }
+
+  public synchronized int pendingCount() {
+    return pending.size();
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    timer.shutdownNow();
+    workers.shutdown();
+    if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+      workers.shutdownNow();
+    }
+    synchronized (this) {
+      if (!pending.isEmpty()) {
+        log.info("종료 중 썸네일 재생성 대기 {}건 취소", pending.size());
+      }
+      pending.clear();
+    }
+  }
+
+  private void accept(Long workspaceId) {
+    if (!enabled) {
+      render(workspaceId);
+      return;
+    }
+    long now = System.currentTimeMillis();
+    synchronized (this) {
+      Pending state = pending.get(workspaceId);
+      if (state == null) {
+        state = new Pending(now);
+        pending.put(workspaceId, state);
+        scheduledCounter.increment();
+      } else {
+        coalescedCounter.increment();
+        if (state.rendering) {
+          // 렌더링이 끝나면 한 번 더 예약
+          state.dirty = true;
+          return;
+        }
+        state.timer.cancel(false);
+      }
+      long fireAt = Math.min(now + debounceMs, state.firstRequestedAt + maxDelayMs);
+      schedule(workspaceId, state, Math.max(0, fireAt - now));
+    }
+  }
+
+  private void schedule(Long workspaceId, Pending state, long delayMs) {
+    try {
+      state.timer = timer.schedule(() -> fire(workspaceId), delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // 종료 중
+      pending.remove(workspaceId);
+    }
+  }
+
+  private synchronized void fire(Long workspaceId) {
+    Pending state = pending.get(workspaceId);
+    if (state == null || state.rendering) {
+      return;
+    }
+    state.rendering = true;
+    try {
+      workers.execute(() -> renderAndReschedule(workspaceId));
+    } catch (RejectedExecutionException e) {
+      state.rendering = false;
+      if (workers.isShutdown()) {
+        pending.remove(workspaceId);
+        return;
+      }
+      // 워커가 밀려 있으면 버리지 않고 다음 debounce 주기로 미룸
+      deferredCounter.increment();
+      schedule(workspaceId, state, debounceMs);
+    }
+  }
+
+  private void renderAndReschedule(Long workspaceId) {
+    try {
+      render(workspaceId);
+    } finally {
+      synchronized (this) {
+        Pending state = pending.get(workspaceId);
+        if (state != null && state.dirty) {
+          Pending next = new Pending(System.currentTimeMillis());
+          pending.put(workspaceId, next);
+          schedule(workspaceId, next, debounceMs);
+        } else {
+          pending.remove(workspaceId);
+        }
+      }
+    }
+  }
+
+  private void render(Long workspaceId) {
+    renderTimer.record(() -> {
+      try {
+        workspaceServiceProvider.getObject().updateWorkspaceThumbnailIfNeeded(workspaceId);
+      } catch (Exception e) {
+        log.warn("워크스페이스 썸네일 재생성 실패 - workspaceId: {}, error: {}", workspaceId,
+            e.getMessage());
+      }
+    });
+  }
+
+  private static ThreadFactory daemon(String prefix) {
+    AtomicInteger sequence = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /** 한 워크스페이스의 대기 상태 */
+  private static final class Pending {
+
+    private final long firstRequestedAt;
+    private ScheduledFuture<?> timer;
+    private boolean rendering;
+    /** 렌더링 중에 새 요청이 들어왔는지 */
+    private boolean dirty;
+
+    Pending(long firstRequestedAt) {
+      this.firstRequestedAt = firstRequestedAt;
+    }
+  }
+}
@@ -3,6 +3,8 @@ package com.capstone.domain.workspace;
 import com.capstone.domain.workspaceInvite.WorkspaceInviteService;
 import com.capstone.global.exception.CustomException;
 import com.capstone.global.oauth.JwtProvider;
+import com.capstone.global.service.FileStorageService;
+import com.capstone.global.service.ThumbnailRenderer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -64,6 +66,7 @@ public class WorkspaceController {
           item.setName(workspace.getName());
           item.setCreatedAt(workspace.getCreatedAt());
           item.setThumbnailUrl(workspace.getThumbnailUrl());
+          item.setThumbnail(toThumbnail(workspace.getThumbnailUrl()));
           return item;
         })
         .collect(Collectors.toList());
@@ -348,6 +351,7 @@ public class WorkspaceController {
           item.setName(workspace.getName());
           item.setCreatedAt(workspace.getCreatedAt());
           item.setThumbnailUrl(workspace.getThumbnailUrl());
+          item.setThumbnail(toThumbnail(workspace.getThumbnailUrl()));
           return item;
         })
         .collect(Collectors.toList());
@@ -438,4 +442,26 @@ public class WorkspaceController {
       return ResponseEntity.status(500).body("서버 오류가 발생했습니다.");
     }
   }
-}
\ No newline at end of file
+
+  private static WorkspaceDtos.Thumbnail toThumbnail(String thumbnailUrl) {
+    if (thumbnailUrl == null || thumbnailUrl.isBlank()) {
+      return null;
+    }
+    WorkspaceDtos.Thumbnail thumbnail = new WorkspaceDtos.Thumbnail();
+    thumbnail.setSrc(thumbnailUrl);
+    String smallUrl = FileStorageService.generatedVariantUrl(thumbnailUrl,
+        FileStorageService.SMALL_SUFFIX);
+    if (smallUrl != null) {
+      int width = ThumbnailRenderer.WIDTH;
+      String hiDpiUrl = FileStorageService.generatedVariantUrl(thumbnailUrl,
+          FileStorageService.HI_DPI_SUFFIX);
+      thumbnail.setSrcset(smallUrl + " " + width / 2 + "w, " + thumbnailUrl + " " + width + "w, "
+          + hiDpiUrl + " " + width * FileStorageService.HI_DPI_PIXEL_RATIO + "w");
+      thumbnail.setPlaceholder(FileStorageService.generatedVariantUrl(thumbnailUrl,
+          FileStorageService.PLACEHOLDER_SUFFIX));
+      thumbnail.setWidth(width);
+      thumbnail.setHeight(ThumbnailRenderer.HEIGHT);
+    }
+    return thumbnail;
+  }
+}
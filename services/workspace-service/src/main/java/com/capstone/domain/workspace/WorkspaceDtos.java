@@ -33,6 +33,25 @@ public class WorkspaceDtos {
     private String name;
     private Instant createdAt;
     private String thumbnailUrl;
+    /** 크기별 썸네일 (thumbnailUrl 이 없으면 null) */
+    private Thumbnail thumbnail;
+
+  }
+
+  /**
+   * 목록 카드용 썸네일. {@code srcset} 은 폭 기준({@code 140w, 280w, 560w})으로 {@code <img srcset sizes>} 에 그대로
+   * 넣을 수 있으며, 자동 생성 썸네일에만 있습니다 (업로드한 썸네일은 src 만). width/height 는 1x 크기(비율용)입니다.
+   */
+  @Setter
+  @Getter
+  public static class Thumbnail {
+
+    private String src;
+    private String srcset;
+    /** 먼저 늘려 보여 줄 작은 흐린 이미지 */
+    private String placeholder;
+    private Integer width;
+    private Integer height;
 
   }
 
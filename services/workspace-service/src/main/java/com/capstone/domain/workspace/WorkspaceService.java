@@ -25,6 +25,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -47,6 +49,7 @@ public class WorkspaceService {
   private final VoiceSessionUserRepository voiceSessionUserRepository;
   private final WebSocketService webSocketService;
   private final FileStorageService fileStorageService;
+  private final ThumbnailRegenerationScheduler thumbnailRegenerationScheduler;
 
   @Transactional
   public Workspace createWorkspace(String name, Long userId) {
@@ -92,7 +95,12 @@ public class WorkspaceService {
     return workspaceRepository.findAll();
   }
 
-  @Transactional
+  /**
+   * 사용자의 워크스페이스 목록. 썸네일이 없거나 기본 썸네일인 워크스페이스는 현재 URL(없으면 null)을 그대로
+   * 돌려주고, 내용 기반 썸네일 생성은 백그라운드로 예약합니다. 생성이 끝나면
+   * {@code /topic/workspace/{id}/workspace} 로 {@code thumbnail_updated} 가 전달됩니다.
+   */
+  @Transactional(readOnly = true)
   public List<Workspace> getWorkspacesByUserId(Long userId) {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new CustomException(com.capstone.global.exception.ErrorCode.NOT_FOUND_USER));
@@ -103,45 +111,15 @@ public class WorkspaceService {
         .filter(w -> w.getDeletedAt() == null) // 삭제되지 않은 워크스페이스만
         .toList();
     
-    // 썸네일이 없거나 기본 썸네일인 경우 내용 기반 썸네일로 업데이트
+    // 썸네일이 없거나 기본 썸네일인 경우 내용 기반 썸네일 생성을 백그라운드로 예약
     for (Workspace workspace : workspaces) {
       String currentThumbnailUrl = workspace.getThumbnailUrl();
       boolean needsUpdate = currentThumbnailUrl == null || 
                            currentThumbnailUrl.trim().isEmpty() ||
-                           currentThumbnailUrl.contains("-default.png");
+                           FileStorageService.isDefaultThumbnailUrl(currentThumbnailUrl);
       
       if (needsUpdate) {
-        try {
-          // 워크스페이스의 아이디어 가져오기
-          List<Idea> ideas = ideaRepository.findByWorkspace(workspace);
-          
-          String thumbnailUrl;
-          if (ideas != null && !ideas.isEmpty()) {
-            // 아이디어가 있으면 내용 기반 썸네일 생성
-            thumbnailUrl = fileStorageService.generateWorkspaceContentThumbnail(
-                workspace.getName(), workspace.getWorkspaceId(), ideas);
-          } else {
-            // 아이디어가 없으면 기본 썸네일 생성
-            thumbnailUrl = fileStorageService.generateDefaultThumbnail(
-                workspace.getName(), workspace.getWorkspaceId());
-          }
-          
-          // 영속성 컨텍스트에 연결된 엔티티로 다시 조회하여 저장
-          Workspace managedWorkspace = workspaceRepository.findById(workspace.getWorkspaceId())
-              .orElse(workspace);
-          managedWorkspace.setThumbnailUrl(thumbnailUrl);
-          workspaceRepository.saveAndFlush(managedWorkspace);
-          
-          // 반환 리스트의 엔티티도 업데이트
-          workspace.setThumbnailUrl(thumbnailUrl);
-          
-          log.info("워크스페이스 썸네일 업데이트 완료 - workspaceId: {}, thumbnailUrl: {}, 아이디어 수: {}", 
-              workspace.getWorkspaceId(), thumbnailUrl, ideas != null ? ideas.size() : 0);
-        } catch (Exception e) {
-          log.error("워크스페이스 썸네일 생성 실패 - workspaceId: {}, error: {}", 
-              workspace.getWorkspaceId(), e.getMessage(), e);
-          // 썸네일 생성 실패해도 계속 진행
-        }
+        thumbnailRegenerationScheduler.request(workspace.getWorkspaceId());
       }
     }
     
@@ -423,9 +401,16 @@ public class WorkspaceService {
             workspace.getName(), workspace.getWorkspaceId());
       }
       
+      // 지문이 같아 같은 버전을 재사용했으면 저장·브로드캐스트 생략
+      if (thumbnailUrl.equals(workspace.getThumbnailUrl())) {
+        log.debug("워크스페이스 썸네일 변경 없음 - workspaceId: {}", workspaceId);
+        return;
+      }
+
       // 썸네일 URL 업데이트
       workspace.setThumbnailUrl(thumbnailUrl);
       workspaceRepository.saveAndFlush(workspace);
+      pruneThumbnailsAfterCommit(workspaceId, thumbnailUrl);
       
       log.info("워크스페이스 썸네일 자동 갱신 완료 - workspaceId: {}, thumbnailUrl: {}, 아이디어 수: {}", 
           workspaceId, thumbnailUrl, ideas != null ? ideas.size() : 0);
@@ -440,6 +425,20 @@ public class WorkspaceService {
     }
   }
 
+  /** 새 썸네일 URL 이 커밋된 뒤 이전 버전 파일을 정리 (롤백되면 이전 URL 이 계속 쓰이므로 남겨 둠) */
+  private void pruneThumbnailsAfterCommit(Long workspaceId, String thumbnailUrl) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      fileStorageService.pruneGeneratedThumbnails(workspaceId, thumbnailUrl);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        fileStorageService.pruneGeneratedThumbnails(workspaceId, thumbnailUrl);
+      }
+    });
+  }
+
   @Transactional
   public String updateThumbnail(Long workspaceId, MultipartFile file, Long userId) throws java.io.IOException {
     // owner를 함께 로드하여 조회
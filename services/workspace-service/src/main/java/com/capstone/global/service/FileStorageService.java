@@ -1,76 +1,118 @@
 package com.capstone.global.service;
 
 import com.capstone.domain.idea.Idea;
+import com.capstone.global.storage.BlobInfo;
+import com.capstone.global.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
+  /**
+   * 렌더링 결과가 입력 지문으로 결정되는 썸네일을 두는 하위 디렉토리. URL 이 곧 내용이므로 불변 캐시로 서빙됩니다
+   * (storage-service {@code UploadFileController}).
+   */
+  public static final String VERSIONED_THUMBNAIL_DIR = "versions";
+  /** 카드 안 텍스트는 몇 줄만 보이므로 지문에는 앞부분만 반영 */
+  private static final int FINGERPRINT_CONTENT_CHARS = 300;
+  /** 교체된 이전 버전은 이 시간이 지난 뒤 삭제 (다른 인스턴스가 막 만든 파일·아직 받아 가는 중인 클라이언트 보호) */
+  private static final Duration THUMBNAIL_PRUNE_GRACE = Duration.ofMinutes(1);
+  /**
+   * 생성 썸네일 변형: {@code {이름}.png} (280x210, DB 에 저장되는 URL), {@code {이름}-sm.png} (140x105),
+   * {@code {이름}-2x.png} (560x420), {@code {이름}-placeholder.jpg} (35x26, 늘려 그리면 흐린 미리보기).
+   * 업로드 썸네일은 같은 구성을 모두 JPEG 로 저장합니다.
+   */
+  public static final int HI_DPI_PIXEL_RATIO = 2;
+  public static final String SMALL_SUFFIX = "-sm";
+  public static final String HI_DPI_SUFFIX = "-2x";
+  public static final String PLACEHOLDER_SUFFIX = "-placeholder";
+  /** 자리표시 이미지는 작은 변형(140x105)의 1/4 */
+  private static final int PLACEHOLDER_DIVISOR = 4;
+  private static final float PLACEHOLDER_JPEG_QUALITY = 0.5f;
+  private static final float PHOTO_JPEG_QUALITY = 0.85f;
+
+  private final ThumbnailRenderer thumbnailRenderer;
+  /** 키는 썸네일 디렉토리 기준 상대 경로 ({@code versions/workspace-1-content-abc.png}) */
+  private final BlobStore thumbnailBlobStore;
+
   @Value("${app.file.upload-dir:./uploads}")
   private String uploadDir;
 
-  @Value("${app.file.thumbnail-dir:./uploads/thumbnails}")
-  private String thumbnailDir;
-
   @Value("${app.file.base-url:http://localhost:8080/api}")
   private String baseUrl;
 
+  @Value("${app.file.thumbnail-upload.max-bytes:10485760}")
+  private long uploadMaxBytes;
+
+  @Value("${app.file.thumbnail-upload.max-pixels:50000000}")
+  private long uploadMaxPixels;
+
   /**
-   * 썸네일 이미지를 저장하고 URL을 반환합니다.
+   * 업로드한 이미지를 썸네일 크기별 변형(JPEG)으로 줄여 저장하고 1x URL 을 반환합니다. 원본은 저장하지 않습니다.
+   *
+   * <p>형식은 내용으로 판별하고, 바이트 수와 해상도 제한을 디코딩 전에 검사합니다. 원본 해상도와 관계없이 필요한
+   * 만큼만 건너뛰며 디코딩하므로 메모리 사용이 일정하며, 메타데이터(EXIF 위치 정보 등)는 남지 않습니다. 변형은
+   * 저장소에 원자적으로 저장되고, 중간에 실패하면 이미 쓴 변형을 지웁니다.
    *
    * @param file 업로드할 파일
    * @param workspaceId 워크스페이스 ID
    * @return 저장된 파일의 URL
+   * @throws IllegalArgumentException 비어 있거나, 이미지가 아니거나, 크기 제한을 넘거나, 손상된 경우
    * @throws IOException 파일 저장 실패 시
    */
   public String saveThumbnail(MultipartFile file, Long workspaceId) throws IOException {
     if (file == null || file.isEmpty()) {
       throw new IllegalArgumentException("파일이 비어있습니다.");
     }
-
-    // 파일 확장자 확인
-    String originalFilename = file.getOriginalFilename();
-    String extension = "";
-    if (originalFilename != null && originalFilename.contains(".")) {
-      extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-    }
-    
-    // 이미지 파일만 허용
-    if (!extension.matches("\\.(png|jpg|jpeg|gif|webp)$")) {
-      throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+    if (file.getSize() > uploadMaxBytes) {
+      throw new IllegalArgumentException(String.format(
+          "이미지 파일은 최대 %dMB 까지 업로드할 수 있습니다.", uploadMaxBytes / (1024 * 1024)));
     }
 
-    // 디렉토리 생성
-    Path thumbnailPath = Paths.get(thumbnailDir).toAbsolutePath().normalize();
-    Files.createDirectories(thumbnailPath);
-
-    // 파일명 생성: workspace-{id}-{uuid}.{extension}
-    String filename = String.format("workspace-%d-%s%s", workspaceId, UUID.randomUUID(), extension);
-    Path targetPath = thumbnailPath.resolve(filename);
-
-    // 파일 저장
-    Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
-    log.info("썸네일 저장 완료: {}", targetPath);
+    // 파일명 생성: versions/workspace-{id}-upload-{uuid}.jpg (불변 캐시)
+    String filename = String.format("workspace-%d-upload-%s.jpg", workspaceId,
+        UUID.randomUUID().toString().replace("-", ""));
+    String key = versionedKey(filename);
+    try (InputStream input = file.getInputStream()) {
+      thumbnailRenderer.renderUpload(input, uploadMaxPixels, HI_DPI_PIXEL_RATIO,
+          image -> writeVariants(image, key));
+    } catch (IOException | RuntimeException e) {
+      try {
+        deleteWithVariants(key);
+      } catch (IOException cleanup) {
+        e.addSuppressed(cleanup);
+      }
+      throw e;
+    }
+    log.info("썸네일 저장 완료: {} (원본 {} bytes)", key, file.getSize());
 
-    // URL 생성: /api/uploads/thumbnails/{filename}
-    String url = baseUrl + "/uploads/thumbnails/" + filename;
-    return url;
+    return versionedThumbnailUrl(filename);
   }
 
   /**
@@ -84,14 +126,12 @@ public class FileStorageService {
     }
 
     try {
-      // URL에서 파일명 추출
-      String filename = thumbnailUrl.substring(thumbnailUrl.lastIndexOf("/") + 1);
-      Path filePath = Paths.get(thumbnailDir).resolve(filename).toAbsolutePath().normalize();
-      
-      // 파일이 존재하면 삭제
-      if (Files.exists(filePath)) {
-        Files.delete(filePath);
-        log.info("썸네일 삭제 완료: {}", filePath);
+      // URL에서 썸네일 디렉토리 기준 키 추출 (versions/ 하위 포함)
+      String key = thumbnailKey(thumbnailUrl);
+
+      // 있으면 삭제 (크기별 변형도 함께)
+      if (key != null && deleteWithVariants(key)) {
+        log.info("썸네일 삭제 완료: {}", key);
       }
     } catch (IOException e) {
       log.warn("썸네일 삭제 실패: {}", thumbnailUrl, e);
@@ -109,222 +149,26 @@ public class FileStorageService {
    * @throws IOException 이미지 생성 또는 저장 실패 시
    */
   public String generateWorkspaceContentThumbnail(String workspaceName, Long workspaceId, List<Idea> ideas) throws IOException {
-    // 디렉토리 생성
-    Path thumbnailPath = Paths.get(thumbnailDir).toAbsolutePath().normalize();
-    Files.createDirectories(thumbnailPath);
-
-    // 썸네일 크기 (프론트엔드 표시에 맞게 작게 조정)
-    int thumbnailWidth = 280;
-    int thumbnailHeight = 210;
-
-    // 아이디어가 없으면 기본 썸네일 생성
-    if (ideas == null || ideas.isEmpty()) {
+    // 아이디어가 없거나 위치가 있는 아이디어가 없으면 기본 썸네일 생성
+    if (ideas == null || ideas.stream().noneMatch(ThumbnailRenderer::isDrawable)) {
       return generateDefaultThumbnail(workspaceName, workspaceId);
     }
 
-    // 아이디어들의 위치와 크기를 기반으로 캔버스 범위 계산
-    double minX = Double.MAX_VALUE;
-    double minY = Double.MAX_VALUE;
-    double maxX = Double.MIN_VALUE;
-    double maxY = Double.MIN_VALUE;
-
-    for (Idea idea : ideas) {
-      if (idea.getPositionX() != null && idea.getPositionY() != null) {
-        double x = idea.getPositionX();
-        double y = idea.getPositionY();
-        double width = idea.getPatchSizeX() != null ? idea.getPatchSizeX() : 200;
-        double height = idea.getPatchSizeY() != null ? idea.getPatchSizeY() : 100;
-
-        minX = Math.min(minX, x);
-        minY = Math.min(minY, y);
-        maxX = Math.max(maxX, x + width);
-        maxY = Math.max(maxY, y + height);
-      }
+    // 보이는 입력(위치·크기·앞부분 내용·이름)이 같으면 이미 만든 버전을 그대로 사용
+    String filename = String.format("workspace-%d-content-%s.png", workspaceId,
+        contentFingerprint(workspaceName, ideas));
+    String key = versionedKey(filename);
+    if (reuseExisting(key)) {
+      log.debug("워크스페이스 내용 썸네일 변경 없음, 렌더링 생략: {}", key);
+      return versionedThumbnailUrl(filename);
     }
 
-    // 캔버스 범위가 없으면 기본 썸네일 생성
-    if (minX == Double.MAX_VALUE || minY == Double.MAX_VALUE) {
-      return generateDefaultThumbnail(workspaceName, workspaceId);
-    }
-
-    // 패딩 추가 (10%)
-    double padding = Math.max(maxX - minX, maxY - minY) * 0.1;
-    double canvasWidth = maxX - minX + padding * 2;
-    double canvasHeight = maxY - minY + padding * 2;
-
-    // 스케일 비율 계산 (썸네일 크기에 맞추기)
-    double scaleX = thumbnailWidth / canvasWidth;
-    double scaleY = thumbnailHeight / canvasHeight;
-    double scale = Math.min(scaleX, scaleY); // 비율 유지
-
-    // 실제 렌더링 크기 계산
-    int renderWidth = (int) (canvasWidth * scale);
-    int renderHeight = (int) (canvasHeight * scale);
-    int offsetX = (thumbnailWidth - renderWidth) / 2;
-    int offsetY = (thumbnailHeight - renderHeight) / 2;
-
-    // 이미지 생성
-    BufferedImage image = new BufferedImage(thumbnailWidth, thumbnailHeight, BufferedImage.TYPE_INT_RGB);
-    Graphics2D g2d = image.createGraphics();
-
-    // 고품질 렌더링 설정
-    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-    g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-    g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-
-    // 세련된 그라데이션 배경 (부드러운 파스텔 톤)
-    GradientPaint bgGradient = new GradientPaint(
-        0, 0, new Color(250, 251, 252),
-        thumbnailWidth, thumbnailHeight, new Color(243, 244, 246)
-    );
-    g2d.setPaint(bgGradient);
-    g2d.fillRect(0, 0, thumbnailWidth, thumbnailHeight);
-
-    // 캔버스 영역 배경 (미묘한 그림자 효과 포함)
-    int canvasPadding = 8;
-    int canvasX = offsetX - canvasPadding;
-    int canvasY = offsetY - canvasPadding;
-    int canvasW = renderWidth + canvasPadding * 2;
-    int canvasH = renderHeight + canvasPadding * 2;
-    
-    // 그림자 효과
-    g2d.setColor(new Color(0, 0, 0, 15));
-    g2d.fillRoundRect(canvasX + 2, canvasY + 2, canvasW, canvasH, 12, 12);
-    
-    // 캔버스 배경 (부드러운 흰색)
-    g2d.setColor(new Color(255, 255, 255));
-    g2d.fillRoundRect(canvasX, canvasY, canvasW, canvasH, 12, 12);
-    
-    // 미묘한 테두리
-    g2d.setColor(new Color(229, 231, 235));
-    g2d.setStroke(new BasicStroke(1.5f));
-    g2d.drawRoundRect(canvasX, canvasY, canvasW, canvasH, 12, 12);
-
-    // 아이디어들을 현대적인 카드 형태로 그리기
-    Font baseFont = new Font("Segoe UI", Font.PLAIN, Math.max(9, (int)(13 * scale)));
-    g2d.setFont(baseFont);
-    FontMetrics fm = g2d.getFontMetrics();
-
-    // 아이디어별 색상 팔레트 (부드러운 파스텔 톤)
-    Color[] ideaColors = {
-        new Color(219, 234, 254), // 연한 파랑
-        new Color(254, 243, 199), // 연한 노랑
-        new Color(221, 214, 254), // 연한 보라
-        new Color(209, 250, 229), // 연한 초록
-        new Color(254, 226, 226), // 연한 빨강
-        new Color(255, 237, 213), // 연한 주황
-    };
-    
-    Color[] borderColors = {
-        new Color(147, 197, 253), // 파랑 테두리
-        new Color(253, 224, 71),  // 노랑 테두리
-        new Color(196, 181, 253), // 보라 테두리
-        new Color(134, 239, 172), // 초록 테두리
-        new Color(252, 165, 165), // 빨강 테두리
-        new Color(251, 191, 36),  // 주황 테두리
-    };
-
-    int ideaIndex = 0;
-    for (Idea idea : ideas) {
-      if (idea.getPositionX() == null || idea.getPositionY() == null || idea.getContent() == null) {
-        continue;
-      }
-
-      // 아이디어 위치와 크기를 썸네일 좌표로 변환
-      double ideaX = idea.getPositionX() - minX + padding;
-      double ideaY = idea.getPositionY() - minY + padding;
-      double ideaWidth = idea.getPatchSizeX() != null ? idea.getPatchSizeX() : 200;
-      double ideaHeight = idea.getPatchSizeY() != null ? idea.getPatchSizeY() : 100;
-
-      int x = offsetX + (int) (ideaX * scale);
-      int y = offsetY + (int) (ideaY * scale);
-      int width = Math.max(24, (int) (ideaWidth * scale));
-      int height = Math.max(24, (int) (ideaHeight * scale));
-      
-      // 둥근 모서리 반경
-      int cornerRadius = Math.max(6, (int)(8 * scale));
-
-      // 색상 선택 (순환)
-      Color cardColor = ideaColors[ideaIndex % ideaColors.length];
-      Color borderColor = borderColors[ideaIndex % borderColors.length];
-      ideaIndex++;
-
-      // 그림자 효과
-      g2d.setColor(new Color(0, 0, 0, 20));
-      g2d.fillRoundRect(x + 1, y + 2, width, height, cornerRadius, cornerRadius);
-      
-      // 카드 배경 (그라데이션 효과)
-      GradientPaint cardGradient = new GradientPaint(
-          x, y, cardColor,
-          x, y + height, new Color(
-              Math.max(0, cardColor.getRed() - 10),
-              Math.max(0, cardColor.getGreen() - 10),
-              Math.max(0, cardColor.getBlue() - 10)
-          )
-      );
-      g2d.setPaint(cardGradient);
-      g2d.fillRoundRect(x, y, width, height, cornerRadius, cornerRadius);
-
-      // 카드 테두리 (부드러운 색상)
-      g2d.setColor(borderColor);
-      g2d.setStroke(new BasicStroke(Math.max(1.2f, (float)(1.5 * scale))));
-      g2d.drawRoundRect(x, y, width, height, cornerRadius, cornerRadius);
-
-      // 텍스트 내용 (줄바꿈 처리)
-      g2d.setColor(new Color(31, 41, 55)); // 진한 회색 텍스트
-      String content = idea.getContent();
-      if (content != null && !content.isEmpty()) {
-        // 텍스트가 박스 안에 맞도록 줄바꿈
-        String[] words = content.split("\\s+");
-        int lineHeight = (int)(fm.getHeight() * 1.1);
-        int textPadding = Math.max(4, (int)(6 * scale));
-        int currentY = y + textPadding + fm.getAscent();
-        int maxWidth = width - textPadding * 2;
-        int maxLines = Math.max(1, (height - textPadding * 2) / lineHeight);
-
-        StringBuilder line = new StringBuilder();
-        int lineCount = 0;
-        for (String word : words) {
-          String testLine = line.length() > 0 ? line + " " + word : word;
-          int textWidth = fm.stringWidth(testLine);
-          if (textWidth > maxWidth && line.length() > 0) {
-            // 현재 줄 그리기
-            g2d.drawString(line.toString(), x + textPadding, currentY);
-            line = new StringBuilder(word);
-            currentY += lineHeight;
-            lineCount++;
-            if (lineCount >= maxLines) break;
-          } else {
-            line = new StringBuilder(testLine);
-          }
-        }
-        // 마지막 줄 그리기
-        if (line.length() > 0 && lineCount < maxLines) {
-          g2d.drawString(line.toString(), x + textPadding, currentY);
-        }
-      }
-    }
-
-    g2d.dispose();
-
-    // 파일 저장
-    String filename = String.format("workspace-%d-content.png", workspaceId);
-    Path targetPath = thumbnailPath.resolve(filename);
-    ImageIO.write(image, "png", targetPath.toFile());
-    
-    // 파일이 실제로 생성되었는지 확인
-    boolean fileExists = Files.exists(targetPath);
-    log.info("워크스페이스 내용 썸네일 생성 완료: {} (아이디어 {}개, 파일 존재: {})", 
-        targetPath, ideas.size(), fileExists);
-    
-    if (!fileExists) {
-      log.error("썸네일 파일 생성 실패 - 경로: {}", targetPath);
-      throw new IOException("썸네일 파일 생성 실패: " + targetPath);
-    }
+    thumbnailRenderer.renderContent(ideas, HI_DPI_PIXEL_RATIO,
+        image -> writeVariants(image, key));
+    log.info("워크스페이스 내용 썸네일 생성 완료: {} (아이디어 {}개)", key, ideas.size());
 
     // URL 생성
-    String url = baseUrl + "/uploads/thumbnails/" + filename;
+    String url = versionedThumbnailUrl(filename);
     log.info("생성된 썸네일 URL: {}", url);
     return url;
   }
@@ -339,110 +183,215 @@ public class FileStorageService {
    * @throws IOException 이미지 생성 또는 저장 실패 시
    */
   public String generateDefaultThumbnail(String workspaceName, Long workspaceId) throws IOException {
-    // 디렉토리 생성
-    Path thumbnailPath = Paths.get(thumbnailDir).toAbsolutePath().normalize();
-    Files.createDirectories(thumbnailPath);
-
-    // 워크스페이스 이름에서 이니셜 추출 (최대 2글자)
-    String initials = extractInitials(workspaceName);
-    
-    // 랜덤 색상 생성 (워크스페이스 ID를 시드로 사용하여 일관성 유지)
-    Color backgroundColor = generateColorFromId(workspaceId);
-    Color textColor = getContrastColor(backgroundColor);
-
-    // 이미지 생성 (280x210 - 프론트엔드 표시에 맞게 작게 조정)
-    int width = 280;
-    int height = 210;
-    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    Graphics2D g2d = image.createGraphics();
-
-    // 안티앨리어싱 활성화
-    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-    // 배경 그리기
-    g2d.setColor(backgroundColor);
-    g2d.fillRect(0, 0, width, height);
-
-    // 텍스트 그리기
-    g2d.setColor(textColor);
-    g2d.setFont(new Font("Arial", Font.BOLD, 120));
-    FontMetrics fm = g2d.getFontMetrics();
-    int textWidth = fm.stringWidth(initials);
-    int textHeight = fm.getHeight();
-    
-    // 중앙 정렬
-    int x = (width - textWidth) / 2;
-    int y = (height + textHeight) / 2 - fm.getDescent();
-    
-    g2d.drawString(initials, x, y);
-    g2d.dispose();
-
-    // 파일 저장
-    String filename = String.format("workspace-%d-default.png", workspaceId);
-    Path targetPath = thumbnailPath.resolve(filename);
-    ImageIO.write(image, "png", targetPath.toFile());
-    log.info("기본 썸네일 생성 완료: {}", targetPath);
+    // 이름이 같으면 이미 만든 버전을 그대로 사용 (색상은 워크스페이스 ID 로 정해짐)
+    String filename = String.format("workspace-%d-default-%s.png", workspaceId,
+        fingerprint("default", String.valueOf(workspaceName)));
+    String key = versionedKey(filename);
+    if (reuseExisting(key)) {
+      return versionedThumbnailUrl(filename);
+    }
+
+    // 이름 이니셜을 워크스페이스 ID 로 정한 배경색 위에 그림
+    thumbnailRenderer.renderDefault(workspaceName, workspaceId, HI_DPI_PIXEL_RATIO,
+        image -> writeVariants(image, key));
+    log.info("기본 썸네일 생성 완료: {}", key);
 
     // URL 생성
-    String url = baseUrl + "/uploads/thumbnails/" + filename;
-    return url;
+    return versionedThumbnailUrl(filename);
+  }
+
+  /** 자동 생성된 기본(이니셜) 썸네일 URL 인지 (버전 붙은 이름과 예전 고정 이름 모두) */
+  public static boolean isDefaultThumbnailUrl(String thumbnailUrl) {
+    return thumbnailUrl != null
+        && thumbnailUrl.matches(".*/workspace-\\d+-default(-[0-9a-f]+)?\\.png$");
   }
 
   /**
-   * 워크스페이스 이름에서 이니셜을 추출합니다.
-   * 단어가 하나면 첫 2글자, 여러 단어면 각 단어의 첫 글자 (최대 2글자).
+   * 자동 생성·업로드 썸네일 URL({@code versions/...}) 의 크기별 변형 URL. 예전 방식으로 저장된 파일처럼 변형이 없는
+   * URL 이면 null.
    */
-  private String extractInitials(String name) {
-    if (name == null || name.trim().isEmpty()) {
-      return "WS";
+  public static String generatedVariantUrl(String thumbnailUrl, String suffix) {
+    if (thumbnailUrl == null || !thumbnailUrl.matches(
+        ".*/" + VERSIONED_THUMBNAIL_DIR
+            + "/workspace-\\d+-((content|default)-[0-9a-f]+\\.png|upload-[0-9a-f]+\\.jpg)$")) {
+      return null;
     }
+    int slash = thumbnailUrl.lastIndexOf('/') + 1;
+    return thumbnailUrl.substring(0, slash) + variantName(thumbnailUrl.substring(slash), suffix);
+  }
 
-    String trimmed = name.trim();
-    String[] words = trimmed.split("\\s+");
-
-    if (words.length == 1) {
-      // 단어가 하나면 첫 2글자
-      return trimmed.substring(0, Math.min(2, trimmed.length())).toUpperCase();
-    } else {
-      // 여러 단어면 각 단어의 첫 글자 (최대 2글자)
-      StringBuilder initials = new StringBuilder();
-      for (int i = 0; i < Math.min(2, words.length); i++) {
-        if (!words[i].isEmpty()) {
-          initials.append(words[i].charAt(0));
+  /**
+   * 워크스페이스의 자동 생성 썸네일 중 {@code currentUrl} (과 그 변형)이 아닌 이전 버전과 예전 고정 이름 파일을
+   * 삭제합니다.
+   * 새 URL 이 DB 에 커밋된 뒤에 호출해야 합니다. 방금 만들어진 파일은 유예 시간 동안 남겨 둡니다.
+   */
+  public void pruneGeneratedThumbnails(Long workspaceId, String currentUrl) {
+    String currentKey = thumbnailKey(currentUrl);
+    String currentStem = currentKey != null ? stem(currentKey) : null;
+    Instant cutoff = Instant.now().minus(THUMBNAIL_PRUNE_GRACE);
+    String name = "workspace-" + workspaceId + "-";
+    Pattern generated = Pattern.compile(
+        "(" + VERSIONED_THUMBNAIL_DIR + "/)?" + name + "(content|default)([-.][^/]*)?\\.(png|jpg)");
+    for (String prefix : List.of(name, VERSIONED_THUMBNAIL_DIR + "/" + name)) {
+      try {
+        for (BlobInfo blob : thumbnailBlobStore.list(prefix)) {
+          if (!generated.matcher(blob.key()).matches()) {
+            continue;
+          }
+          boolean currentVariant = currentStem != null && stem(blob.key()).startsWith(currentStem);
+          if (currentVariant || blob.lastModified().isAfter(cutoff)) {
+            continue;
+          }
+          thumbnailBlobStore.delete(blob.key());
+          log.debug("이전 썸네일 버전 삭제: {}", blob.key());
         }
+      } catch (IOException e) {
+        log.warn("이전 썸네일 정리 실패 - workspaceId: {}, error: {}", workspaceId, e.getMessage());
       }
-      return initials.toString().toUpperCase();
     }
   }
 
-  /**
-   * 워크스페이스 ID를 기반으로 일관된 색상을 생성합니다.
-   */
-  private Color generateColorFromId(Long workspaceId) {
-    // ID를 해시하여 색상 생성
-    int hash = workspaceId.hashCode();
-    
-    // 밝은 색상 범위 (200-255)에서 선택
-    int r = 100 + Math.abs(hash % 155);
-    int g = 100 + Math.abs((hash * 31) % 155);
-    int b = 100 + Math.abs((hash * 61) % 155);
-    
-    return new Color(r, g, b);
+  private String contentFingerprint(String workspaceName, List<Idea> ideas) {
+    StringBuilder input = new StringBuilder(ideas.size() * 64);
+    for (Idea idea : ideas) {
+      String content = idea.getContent();
+      if (content != null && content.length() > FINGERPRINT_CONTENT_CHARS) {
+        content = content.substring(0, FINGERPRINT_CONTENT_CHARS);
+      }
+      input.append(idea.getPositionX()).append('|').append(idea.getPositionY()).append('|')
+          .append(idea.getPatchSizeX()).append('|').append(idea.getPatchSizeY()).append('|')
+          .append(content).append('\n');
+    }
+    return fingerprint("content", String.valueOf(workspaceName), input.toString());
+  }
+
+  /** 렌더러 버전과 입력으로 만든 SHA-256 앞 64비트 (hex) */
+  private static String fingerprint(String... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(Integer.toString(ThumbnailRenderer.VERSION).getBytes(StandardCharsets.UTF_8));
+      for (String part : parts) {
+        digest.update((byte) 0);
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+      }
+      return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static String versionedKey(String filename) {
+    return VERSIONED_THUMBNAIL_DIR + "/" + filename;
+  }
+
+  private String versionedThumbnailUrl(String filename) {
+    return baseUrl + "/uploads/thumbnails/" + VERSIONED_THUMBNAIL_DIR + "/" + filename;
+  }
+
+  /** 같은 버전이 있으면 정리 대상에서 빠지도록 수정 시각을 갱신하고 재사용 */
+  private boolean reuseExisting(String key) {
+    try {
+      return thumbnailBlobStore.touch(key);
+    } catch (IOException e) {
+      // 갱신할 수 없으면 다시 렌더링
+      return false;
+    }
   }
 
   /**
-   * 배경색과 대비되는 텍스트 색상을 반환합니다.
-   * 밝은 배경이면 어두운 글자, 어두운 배경이면 밝은 글자.
+   * 2배 크기로 그린 이미지에서 반씩 줄여 가며 변형을 저장합니다. 1x 가 있으면 재사용하므로 1x 를 마지막에 씁니다.
+   * 카드·글자 위주의 단색 면이라 생성 썸네일은 PNG 가 JPEG 보다 작고, 흐리게 보일 자리표시만 JPEG 입니다. 업로드
+   * 썸네일(.jpg)은 사진이므로 모두 JPEG 입니다.
    */
-  private Color getContrastColor(Color backgroundColor) {
-    // 밝기 계산 (0-1)
-    double brightness = (backgroundColor.getRed() * 0.299 + 
-                         backgroundColor.getGreen() * 0.587 + 
-                         backgroundColor.getBlue() * 0.114) / 255.0;
-    
-    // 밝으면 어두운 색, 어두우면 밝은 색
-    return brightness > 0.5 ? Color.BLACK : Color.WHITE;
+  private void writeVariants(BufferedImage hiDpi, String key) throws IOException {
+    writeVariant(hiDpi, variantKey(key, HI_DPI_SUFFIX));
+    thumbnailRenderer.downscale(hiDpi, HI_DPI_PIXEL_RATIO, image -> {
+      thumbnailRenderer.downscale(image, 2, small -> {
+        writeVariant(small, variantKey(key, SMALL_SUFFIX));
+        thumbnailRenderer.downscale(small, PLACEHOLDER_DIVISOR,
+            placeholder -> writeJpeg(placeholder, variantKey(key, PLACEHOLDER_SUFFIX),
+                PLACEHOLDER_JPEG_QUALITY));
+      });
+      writeVariant(image, key);
+    });
   }
-}
 
+  private void writeVariant(BufferedImage image, String key) throws IOException {
+    if (key.endsWith(".jpg")) {
+      writeJpeg(image, key, PHOTO_JPEG_QUALITY);
+    } else {
+      writePng(image, key);
+    }
+  }
+
+  /** 1x 와 변형을 삭제하고, 하나라도 있었으면 true */
+  private boolean deleteWithVariants(String key) throws IOException {
+    boolean deleted = thumbnailBlobStore.delete(key);
+    for (String suffix : List.of(SMALL_SUFFIX, HI_DPI_SUFFIX, PLACEHOLDER_SUFFIX)) {
+      deleted |= thumbnailBlobStore.delete(variantKey(key, suffix));
+    }
+    return deleted;
+  }
+
+  /** 저장소가 원자적으로 교체하므로 불변 캐시되는 URL 에 쓰다 만 파일이 보이지 않음 */
+  private void writePng(BufferedImage image, String key) throws IOException {
+    thumbnailBlobStore.put(key, out -> {
+      try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+        if (!ImageIO.write(image, "png", stream)) {
+          throw new IOException("썸네일 파일 생성 실패: " + key);
+        }
+      }
+    });
+  }
+
+  private void writeJpeg(BufferedImage image, String key, float quality) throws IOException {
+    thumbnailBlobStore.put(key, out -> {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        writer.setOutput(stream);
+        writer.write(null, new IIOImage(image, null, null), param);
+      } finally {
+        writer.dispose();
+      }
+    });
+  }
+
+  private static String variantKey(String key, String suffix) {
+    int slash = key.lastIndexOf('/') + 1;
+    return key.substring(0, slash) + variantName(key.substring(slash), suffix);
+  }
+
+  /** {@code workspace-1-content-abc.png} + {@code -2x} → {@code workspace-1-content-abc-2x.png} (자리표시는 .jpg) */
+  private static String variantName(String name, String suffix) {
+    int dot = name.lastIndexOf('.');
+    String extension = PLACEHOLDER_SUFFIX.equals(suffix) ? ".jpg" : name.substring(dot);
+    return name.substring(0, dot) + suffix + extension;
+  }
+
+  /** 키에서 확장자를 뺀 부분 ({@code versions/a-sm.png} → {@code versions/a-sm}) */
+  public static String stem(String key) {
+    int dot = key.lastIndexOf('.');
+    return dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+  }
+
+  /** 썸네일 URL → 썸네일 저장소 키 (디렉토리 밖을 가리키면 null) */
+  public static String thumbnailKey(String thumbnailUrl) {
+    if (thumbnailUrl == null) {
+      return null;
+    }
+    String marker = "/uploads/thumbnails/";
+    int index = thumbnailUrl.indexOf(marker);
+    String key = index >= 0 ? thumbnailUrl.substring(index + marker.length())
+        : thumbnailUrl.substring(thumbnailUrl.lastIndexOf("/") + 1);
+    for (String segment : key.split("/", -1)) {
+      if (segment.isEmpty() || segment.equals(".") || segment.equals("..")
+          || segment.contains("\\")) {
+        return null;
+      }
+    }
+    return key;
+  }
+}
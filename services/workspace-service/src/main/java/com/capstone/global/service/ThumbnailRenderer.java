@@ -0,0 +1,567 @@
+package com.capstone.global.service;
+
+import com.capstone.domain.idea.Idea;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * 워크스페이스 썸네일(280x210) 렌더러.
+ *
+ * <p>렌더링마다 반복되던 할당을 줄이기 위해 다음을 재사용합니다.
+ * <ul>
+ *   <li>이미지 버퍼: 크기별 풀에서 빌려 쓰고 돌려받습니다 (배경을 전부 덮어 그리므로 지울 필요 없음).</li>
+ *   <li>폰트·FontMetrics: 글자 크기별로 한 번만 만듭니다.</li>
+ *   <li>카드 색상: 팔레트별 그림자·그라데이션 아래쪽 색과, 카드 높이별 {@link GradientPaint} 를 미리/한 번만
+ *   만듭니다 (카드 위치만큼 좌표계를 옮겨 같은 객체로 그림).</li>
+ *   <li>텍스트 줄바꿈: 단어 폭을 한 번씩만 재는 선형 배치이며, (내용, 폭, 글자 크기, 최대 줄 수) 별 결과를
+ *   LRU 캐시에 둡니다. 아이디어 하나만 바뀐 보드를 다시 그릴 때 나머지 카드는 배치를 다시 계산하지 않습니다.</li>
+ * </ul>
+ *
+ * <p>{@code pixelRatio} 를 주면 같은 배치를 배율만큼 큰 이미지에 그립니다 (고해상도 화면용). 작은 변형은 큰 이미지를
+ * {@link #downscale} 로 반씩 줄여 만듭니다.
+ *
+ * <p>스레드 안전합니다. 그린 이미지는 {@link ImageSink} 가 반환된 뒤 풀로 돌아가므로 sink 밖으로 참조를 넘기면
+ * 안 됩니다.
+ */
+@Component
+public class ThumbnailRenderer {
+
+  public static final int WIDTH = 280;
+  public static final int HEIGHT = 210;
+  /** 렌더링 결과가 바뀌는 수정을 하면 올려서 썸네일 지문을 무효화 */
+  public static final int VERSION = 3;
+
+  private static final double DEFAULT_PATCH_WIDTH = 200;
+  private static final double DEFAULT_PATCH_HEIGHT = 100;
+  private static final int MIN_FONT_SIZE = 9;
+  private static final int LAYOUT_CACHE_SIZE = 4_096;
+  /** 업로드 이미지로 받는 형식 (ImageIO 가 내용으로 판별한 이름) */
+  private static final Set<String> UPLOAD_FORMATS = Set.of("png", "jpeg", "gif", "bmp");
+  /** 디코더가 한 줄 단위 버퍼를 잡으므로 픽셀 수와 별도로 한 변 길이도 제한 */
+  private static final int MAX_UPLOAD_SIDE = 16_384;
+
+  private static final Color[] IDEA_COLORS = {
+      new Color(219, 234, 254), // 연한 파랑
+      new Color(254, 243, 199), // 연한 노랑
+      new Color(221, 214, 254), // 연한 보라
+      new Color(209, 250, 229), // 연한 초록
+      new Color(254, 226, 226), // 연한 빨강
+      new Color(255, 237, 213), // 연한 주황
+  };
+  private static final Color[] BORDER_COLORS = {
+      new Color(147, 197, 253), // 파랑 테두리
+      new Color(253, 224, 71),  // 노랑 테두리
+      new Color(196, 181, 253), // 보라 테두리
+      new Color(134, 239, 172), // 초록 테두리
+      new Color(252, 165, 165), // 빨강 테두리
+      new Color(251, 191, 36),  // 주황 테두리
+  };
+  /** 카드 그라데이션 아래쪽 색 (위쪽 색보다 10 어둡게) */
+  private static final Color[] IDEA_COLORS_DARK = new Color[IDEA_COLORS.length];
+
+  static {
+    for (int i = 0; i < IDEA_COLORS.length; i++) {
+      Color c = IDEA_COLORS[i];
+      IDEA_COLORS_DARK[i] = new Color(Math.max(0, c.getRed() - 10), Math.max(0, c.getGreen() - 10),
+          Math.max(0, c.getBlue() - 10));
+    }
+  }
+
+  private static final Color CANVAS_SHADOW = new Color(0, 0, 0, 15);
+  private static final Color CARD_SHADOW = new Color(0, 0, 0, 20);
+  private static final Color CANVAS_BORDER = new Color(229, 231, 235);
+  private static final Color TEXT_COLOR = new Color(31, 41, 55);
+  private static final BasicStroke CANVAS_STROKE = new BasicStroke(1.5f);
+  private static final GradientPaint BACKGROUND = new GradientPaint(
+      0, 0, new Color(250, 251, 252), WIDTH, HEIGHT, new Color(243, 244, 246));
+
+  private static final Font INITIALS_FONT = new Font("Arial", Font.BOLD, 120);
+
+  private final int poolSize;
+  /** (폭, 높이) → 이미지 버퍼 풀 */
+  private final Map<Integer, BlockingQueue<BufferedImage>> pools = new ConcurrentHashMap<>();
+  /** 글자 크기 → 폰트/메트릭 (Segoe UI PLAIN) */
+  private final Map<Integer, FontEntry> fonts = new ConcurrentHashMap<>();
+  /** (팔레트 번호, 카드 높이) → 세로 그라데이션 (원점 기준) */
+  private final Map<Integer, GradientPaint> cardGradients = new ConcurrentHashMap<>();
+  /** 카드 테두리 두께(1/100 단위) → stroke */
+  private final Map<Integer, BasicStroke> strokes = new ConcurrentHashMap<>();
+  private final FontMetrics initialsMetrics;
+  private final Map<LayoutKey, String[]> layouts =
+      new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayoutKey, String[]> eldest) {
+          return size() > LAYOUT_CACHE_SIZE;
+        }
+      };
+
+  public ThumbnailRenderer() {
+    this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+  }
+
+  public ThumbnailRenderer(int poolSize) {
+    this.poolSize = Math.max(1, poolSize);
+    this.initialsMetrics = metrics(INITIALS_FONT);
+  }
+
+  /** 그려진 이미지를 받아 저장·인코딩하는 쪽 */
+  @FunctionalInterface
+  public interface ImageSink {
+    void accept(BufferedImage image) throws IOException;
+  }
+
+  /** 위치가 있어 썸네일에 그려지는 아이디어인지 */
+  public static boolean isDrawable(Idea idea) {
+    return idea.getPositionX() != null && idea.getPositionY() != null;
+  }
+
+  /** 아이디어 카드 미리보기. 그릴 수 있는 아이디어가 하나도 없으면 false (sink 호출 안 함) */
+  public boolean renderContent(List<Idea> ideas, ImageSink sink) throws IOException {
+    return renderContent(ideas, 1, sink);
+  }
+
+  /** {@link #renderContent(List, ImageSink)} 를 {@code pixelRatio} 배 크기 이미지에 그림 */
+  public boolean renderContent(List<Idea> ideas, int pixelRatio, ImageSink sink)
+      throws IOException {
+    // 아이디어들의 위치와 크기를 기반으로 캔버스 범위 계산
+    double minX = Double.MAX_VALUE;
+    double minY = Double.MAX_VALUE;
+    double maxX = -Double.MAX_VALUE;
+    double maxY = -Double.MAX_VALUE;
+    for (Idea idea : ideas) {
+      if (isDrawable(idea)) {
+        double x = idea.getPositionX();
+        double y = idea.getPositionY();
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x + patchWidth(idea));
+        maxY = Math.max(maxY, y + patchHeight(idea));
+      }
+    }
+    if (minX == Double.MAX_VALUE) {
+      return false;
+    }
+
+    // 패딩(10%)을 더하고 비율을 유지하며 썸네일 크기에 맞춤
+    double padding = Math.max(maxX - minX, maxY - minY) * 0.1;
+    double canvasWidth = maxX - minX + padding * 2;
+    double canvasHeight = maxY - minY + padding * 2;
+    double scale = Math.min(WIDTH / canvasWidth, HEIGHT / canvasHeight);
+    int renderWidth = (int) (canvasWidth * scale);
+    int renderHeight = (int) (canvasHeight * scale);
+    int offsetX = (WIDTH - renderWidth) / 2;
+    int offsetY = (HEIGHT - renderHeight) / 2;
+
+    BufferedImage image = acquire(WIDTH * pixelRatio, HEIGHT * pixelRatio);
+    Graphics2D g2d = image.createGraphics();
+    try {
+      applyQualityHints(g2d);
+      g2d.scale(pixelRatio, pixelRatio);
+
+      // 배경 (부드러운 파스텔 그라데이션)
+      g2d.setPaint(BACKGROUND);
+      g2d.fillRect(0, 0, WIDTH, HEIGHT);
+
+      // 캔버스 영역 (그림자 + 흰 배경 + 테두리)
+      int canvasPadding = 8;
+      int canvasX = offsetX - canvasPadding;
+      int canvasY = offsetY - canvasPadding;
+      int canvasW = renderWidth + canvasPadding * 2;
+      int canvasH = renderHeight + canvasPadding * 2;
+      g2d.setColor(CANVAS_SHADOW);
+      g2d.fillRoundRect(canvasX + 2, canvasY + 2, canvasW, canvasH, 12, 12);
+      g2d.setColor(Color.WHITE);
+      g2d.fillRoundRect(canvasX, canvasY, canvasW, canvasH, 12, 12);
+      g2d.setColor(CANVAS_BORDER);
+      g2d.setStroke(CANVAS_STROKE);
+      g2d.drawRoundRect(canvasX, canvasY, canvasW, canvasH, 12, 12);
+
+      // 보드 전체에서 같은 값: 글꼴, 카드 테두리, 모서리, 여백
+      FontEntry font = font(Math.max(MIN_FONT_SIZE, (int) (13 * scale)));
+      g2d.setFont(font.font());
+      BasicStroke cardStroke = stroke(Math.max(1.2f, (float) (1.5 * scale)));
+      int cornerRadius = Math.max(6, (int) (8 * scale));
+      int textPadding = Math.max(4, (int) (6 * scale));
+      int lineHeight = (int) (font.metrics().getHeight() * 1.1);
+
+      int ideaIndex = 0;
+      for (Idea idea : ideas) {
+        if (!isDrawable(idea) || idea.getContent() == null) {
+          continue;
+        }
+        int x = offsetX + (int) ((idea.getPositionX() - minX + padding) * scale);
+        int y = offsetY + (int) ((idea.getPositionY() - minY + padding) * scale);
+        int width = Math.max(24, (int) (patchWidth(idea) * scale));
+        int height = Math.max(24, (int) (patchHeight(idea) * scale));
+        int palette = ideaIndex++ % IDEA_COLORS.length;
+
+        // 그림자
+        g2d.setColor(CARD_SHADOW);
+        g2d.fillRoundRect(x + 1, y + 2, width, height, cornerRadius, cornerRadius);
+
+        // 카드 배경 (원점 기준 그라데이션을 카드 위치로 옮겨서 그림)
+        g2d.translate(x, y);
+        g2d.setPaint(cardGradient(palette, height));
+        g2d.fillRoundRect(0, 0, width, height, cornerRadius, cornerRadius);
+        g2d.translate(-x, -y);
+
+        // 테두리
+        g2d.setColor(BORDER_COLORS[palette]);
+        g2d.setStroke(cardStroke);
+        g2d.drawRoundRect(x, y, width, height, cornerRadius, cornerRadius);
+
+        // 텍스트 (줄바꿈)
+        String content = idea.getContent();
+        if (!content.isEmpty()) {
+          int maxLines = Math.max(1, (height - textPadding * 2) / lineHeight);
+          String[] lines = layout(content, width - textPadding * 2, maxLines, font);
+          g2d.setColor(TEXT_COLOR);
+          int baseline = y + textPadding + font.metrics().getAscent();
+          for (String line : lines) {
+            g2d.drawString(line, x + textPadding, baseline);
+            baseline += lineHeight;
+          }
+        }
+      }
+    } finally {
+      g2d.dispose();
+    }
+    try {
+      sink.accept(image);
+    } finally {
+      release(image);
+    }
+    return true;
+  }
+
+  /** 이름 이니셜을 워크스페이스 ID 로 정한 배경색 위에 그린 기본 썸네일 */
+  public void renderDefault(String workspaceName, Long workspaceId, ImageSink sink)
+      throws IOException {
+    renderDefault(workspaceName, workspaceId, 1, sink);
+  }
+
+  /** {@link #renderDefault(String, Long, ImageSink)} 를 {@code pixelRatio} 배 크기 이미지에 그림 */
+  public void renderDefault(String workspaceName, Long workspaceId, int pixelRatio,
+      ImageSink sink)
+      throws IOException {
+    String initials = extractInitials(workspaceName);
+    Color backgroundColor = colorFromId(workspaceId);
+
+    BufferedImage image = acquire(WIDTH * pixelRatio, HEIGHT * pixelRatio);
+    Graphics2D g2d = image.createGraphics();
+    try {
+      g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g2d.scale(pixelRatio, pixelRatio);
+      g2d.setColor(backgroundColor);
+      g2d.fillRect(0, 0, WIDTH, HEIGHT);
+
+      // 가운데 정렬
+      g2d.setColor(contrastColor(backgroundColor));
+      g2d.setFont(INITIALS_FONT);
+      int x = (WIDTH - initialsMetrics.stringWidth(initials)) / 2;
+      int y = (HEIGHT + initialsMetrics.getHeight()) / 2 - initialsMetrics.getDescent();
+      g2d.drawString(initials, x, y);
+    } finally {
+      g2d.dispose();
+    }
+    try {
+      sink.accept(image);
+    } finally {
+      release(image);
+    }
+  }
+
+  /**
+   * 업로드 이미지를 썸네일 비율(4:3)로 가운데를 잘라 {@code pixelRatio} 배 크기로 줄여 sink 에 넘깁니다.
+   *
+   * <p>형식은 확장자가 아니라 내용으로 판별합니다. 헤더에서 크기를 먼저 읽어 {@code maxPixels} 를 넘으면 디코딩하지
+   * 않고, 잘라낼 영역만 목표 크기의 2배 미만이 되도록 건너뛰며(subsampling) 디코딩하므로 원본 해상도와 관계없이
+   * 메모리 사용이 일정합니다. 메타데이터(EXIF 등)는 읽지 않고 버립니다.
+   *
+   * @throws IllegalArgumentException 지원하지 않는 형식이거나, 해상도 제한을 넘거나, 손상된 이미지인 경우
+   */
+  public void renderUpload(InputStream input, long maxPixels, int pixelRatio, ImageSink sink)
+      throws IOException {
+    BufferedImage decoded = decodeUpload(input, maxPixels, WIDTH * pixelRatio,
+        HEIGHT * pixelRatio);
+    BufferedImage image = acquire(WIDTH * pixelRatio, HEIGHT * pixelRatio);
+    Graphics2D g2d = image.createGraphics();
+    try {
+      // 투명 영역은 흰 배경으로
+      g2d.setColor(Color.WHITE);
+      g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+      g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+      g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g2d.drawImage(decoded, 0, 0, image.getWidth(), image.getHeight(), null);
+    } finally {
+      g2d.dispose();
+    }
+    try {
+      sink.accept(image);
+    } finally {
+      release(image);
+    }
+  }
+
+  private static BufferedImage decodeUpload(InputStream input, long maxPixels, int targetWidth,
+      int targetHeight) throws IOException {
+    try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+      Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream)
+          : Collections.emptyIterator();
+      if (!readers.hasNext()) {
+        throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+      }
+      ImageReader reader = readers.next();
+      try {
+        if (!UPLOAD_FORMATS.contains(reader.getFormatName().toLowerCase(Locale.ROOT))) {
+          throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다. (PNG, JPEG, GIF, BMP)");
+        }
+        reader.setInput(stream, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if (width <= 0 || height <= 0 || width > MAX_UPLOAD_SIDE || height > MAX_UPLOAD_SIDE
+            || (long) width * height > maxPixels) {
+          throw new IllegalArgumentException(String.format(
+              "이미지 해상도가 너무 큽니다. (%dx%d, 최대 %d 픽셀, 한 변 최대 %d)", width, height,
+              maxPixels, MAX_UPLOAD_SIDE));
+        }
+
+        // 가운데 4:3 영역
+        int regionWidth = Math.min(width, (int) ((long) height * WIDTH / HEIGHT));
+        int regionHeight = Math.min(height, (int) ((long) width * HEIGHT / WIDTH));
+        int subsampling = Math.max(1,
+            Math.min(regionWidth / targetWidth, regionHeight / targetHeight));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle((width - regionWidth) / 2,
+            (height - regionHeight) / 2, Math.max(1, regionWidth), Math.max(1, regionHeight)));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IIOException | IndexOutOfBoundsException | NegativeArraySizeException
+        | IllegalStateException e) {
+      throw new IllegalArgumentException("손상되었거나 읽을 수 없는 이미지입니다.", e);
+    }
+  }
+
+  /**
+   * {@code source} 를 1/{@code divisor} 크기로 줄여 sink 에 넘깁니다. {@code divisor} 는 2의 거듭제곱이어야 하며,
+   * 한 번에 반씩 쌍선형으로 줄이므로 매 단계가 2x2 평균이 되어 큰 배율에서도 픽셀을 건너뛰지 않습니다.
+   * {@code source} 는 호출한 쪽 소유이며 풀로 돌려보내지 않습니다.
+   */
+  public void downscale(BufferedImage source, int divisor, ImageSink sink) throws IOException {
+    if (divisor < 2 || Integer.bitCount(divisor) != 1) {
+      throw new IllegalArgumentException("divisor must be a power of two: " + divisor);
+    }
+    BufferedImage current = source;
+    try {
+      for (int remaining = divisor; remaining > 1; remaining /= 2) {
+        BufferedImage next = acquire(current.getWidth() / 2, current.getHeight() / 2);
+        Graphics2D g2d = next.createGraphics();
+        try {
+          g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+              RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+          g2d.drawImage(current, 0, 0, next.getWidth(), next.getHeight(), null);
+        } finally {
+          g2d.dispose();
+        }
+        if (current != source) {
+          release(current);
+        }
+        current = next;
+      }
+      sink.accept(current);
+    } finally {
+      if (current != source) {
+        release(current);
+      }
+    }
+  }
+
+  /**
+   * 단어 단위 줄바꿈. 단어 폭을 한 번씩만 재고 줄 폭을 누적하므로 내용 길이에 선형입니다. 한 단어가 폭보다 길면
+   * 그 단어만 한 줄에 둡니다. 결과는 캐시됩니다.
+   */
+  private String[] layout(String content, int maxWidth, int maxLines, FontEntry font) {
+    LayoutKey key = new LayoutKey(content, maxWidth, maxLines, font.size());
+    synchronized (layouts) {
+      String[] cached = layouts.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    FontMetrics fm = font.metrics();
+    int spaceWidth = font.spaceWidth();
+    List<String> lines = new ArrayList<>(maxLines);
+    StringBuilder line = new StringBuilder(64);
+    int lineWidth = 0;
+    int length = content.length();
+    int i = 0;
+    while (i < length && lines.size() < maxLines) {
+      while (i < length && Character.isWhitespace(content.charAt(i))) {
+        i++;
+      }
+      int start = i;
+      while (i < length && !Character.isWhitespace(content.charAt(i))) {
+        i++;
+      }
+      if (start == i) {
+        break;
+      }
+      int wordWidth = fm.stringWidth(content.substring(start, i));
+      if (line.length() > 0 && lineWidth + spaceWidth + wordWidth > maxWidth) {
+        lines.add(line.toString());
+        line.setLength(0);
+        lineWidth = 0;
+      }
+      if (line.length() > 0) {
+        line.append(' ');
+        lineWidth += spaceWidth;
+      }
+      line.append(content, start, i);
+      lineWidth += wordWidth;
+    }
+    if (line.length() > 0 && lines.size() < maxLines) {
+      lines.add(line.toString());
+    }
+    String[] result = lines.toArray(String[]::new);
+    synchronized (layouts) {
+      layouts.put(key, result);
+    }
+    return result;
+  }
+
+  private FontEntry font(int size) {
+    return fonts.computeIfAbsent(size, s -> {
+      Font font = new Font("Segoe UI", Font.PLAIN, s);
+      FontMetrics metrics = metrics(font);
+      return new FontEntry(s, font, metrics, metrics.charWidth(' '));
+    });
+  }
+
+  private GradientPaint cardGradient(int palette, int height) {
+    return cardGradients.computeIfAbsent(palette << 16 | height, key -> new GradientPaint(
+        0, 0, IDEA_COLORS[palette], 0, height, IDEA_COLORS_DARK[palette]));
+  }
+
+  private BasicStroke stroke(float width) {
+    return strokes.computeIfAbsent(Math.round(width * 100), w -> new BasicStroke(w / 100f));
+  }
+
+  private BufferedImage acquire(int width, int height) {
+    BufferedImage image = pool(width, height).poll();
+    return image != null ? image : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+  }
+
+  private void release(BufferedImage image) {
+    pool(image.getWidth(), image.getHeight()).offer(image);
+  }
+
+  private BlockingQueue<BufferedImage> pool(int width, int height) {
+    return pools.computeIfAbsent(width << 16 | height, key -> new ArrayBlockingQueue<>(poolSize));
+  }
+
+  /** 렌더링 때와 같은 힌트를 건 그래픽스에서 잰 메트릭 */
+  private static FontMetrics metrics(Font font) {
+    BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2d = scratch.createGraphics();
+    try {
+      applyQualityHints(g2d);
+      return g2d.getFontMetrics(font);
+    } finally {
+      g2d.dispose();
+    }
+  }
+
+  private static void applyQualityHints(Graphics2D g2d) {
+    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+        RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+  }
+
+  private static double patchWidth(Idea idea) {
+    return idea.getPatchSizeX() != null ? idea.getPatchSizeX() : DEFAULT_PATCH_WIDTH;
+  }
+
+  private static double patchHeight(Idea idea) {
+    return idea.getPatchSizeY() != null ? idea.getPatchSizeY() : DEFAULT_PATCH_HEIGHT;
+  }
+
+  /**
+   * 워크스페이스 이름에서 이니셜을 추출합니다.
+   * 단어가 하나면 첫 2글자, 여러 단어면 각 단어의 첫 글자 (최대 2글자).
+   */
+  static String extractInitials(String name) {
+    if (name == null || name.trim().isEmpty()) {
+      return "WS";
+    }
+    String trimmed = name.trim();
+    String[] words = trimmed.split("\\s+");
+    if (words.length == 1) {
+      return trimmed.substring(0, Math.min(2, trimmed.length())).toUpperCase();
+    }
+    StringBuilder initials = new StringBuilder();
+    for (int i = 0; i < Math.min(2, words.length); i++) {
+      if (!words[i].isEmpty()) {
+        initials.append(words[i].charAt(0));
+      }
+    }
+    return initials.toString().toUpperCase();
+  }
+
+  /** 워크스페이스 ID 로 정해지는 밝은 배경색 */
+  private static Color colorFromId(Long workspaceId) {
+    int hash = workspaceId.hashCode();
+    int r = 100 + Math.abs(hash % 155);
+    int g = 100 + Math.abs((hash * 31) % 155);
+    int b = 100 + Math.abs((hash * 61) % 155);
+    return new Color(r, g, b);
+  }
+
+  /** 밝은 배경이면 검정, 어두운 배경이면 흰색 글자 */
+  private static Color contrastColor(Color backgroundColor) {
+    double brightness = (backgroundColor.getRed() * 0.299
+        + backgroundColor.getGreen() * 0.587
+        + backgroundColor.getBlue() * 0.114) / 255.0;
+    return brightness > 0.5 ? Color.BLACK : Color.WHITE;
+  }
+
+  private record FontEntry(int size, Font font, FontMetrics metrics, int spaceWidth) {
+  }
+
+  private record LayoutKey(String content, int maxWidth, int maxLines, int fontSize) {
+  }
+}
@@ -0,0 +1,63 @@
+package com.capstone.global.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 이름(키)으로 접근하는 바이너리 저장소. 키는 {@code /} 로 구분한 상대 경로이며({@code versions/a.png},
+ * {@code 12/src/App.tsx}) {@code .}·{@code ..}·빈 구간은 허용하지 않습니다.
+ *
+ * <p>구현은 내용을 SHA-256 으로 주소화해 같은 내용을 한 벌만 보관할 수 있고, 쓰기는 끝까지 성공했을 때만 보여야
+ * 합니다(쓰다 만 내용이 읽히지 않음). 로컬 디스크({@link LocalBlobStore}) 외에 S3 호환 저장소도 같은 계약으로
+ * 붙일 수 있도록 목록은 접두어 기준, 수정 시각은 객체 단위로만 다룹니다.
+ */
+public interface BlobStore {
+
+  /**
+   * {@code writer} 가 쓴 내용을 {@code key} 에 저장합니다. 이미 있으면 교체합니다.
+   *
+   * @return 저장된 내용의 SHA-256 (hex)
+   * @throws IOException writer 또는 저장 실패 시 (이 경우 기존 내용은 그대로)
+   */
+  String put(String key, BlobWriter writer) throws IOException;
+
+  /** 스트림 내용을 끝까지 읽어 저장합니다. 스트림은 닫지 않습니다. */
+  default String put(String key, InputStream content) throws IOException {
+    return put(key, content::transferTo);
+  }
+
+  /** 내용을 읽는 스트림 (없으면 empty). 호출한 쪽에서 닫아야 합니다. */
+  Optional<InputStream> open(String key) throws IOException;
+
+  Optional<BlobInfo> stat(String key) throws IOException;
+
+  /** 키가 {@code prefix} 로 시작하는 항목 (하위 경로 포함, 키 순) */
+  List<BlobInfo> list(String prefix) throws IOException;
+
+  /**
+   * {@link #list(String)} 의 한 페이지: 키가 {@code startAfter} 보다 큰 항목 중 앞에서부터 최대 {@code limit} 개.
+   * 결과가 {@code limit} 보다 적으면 마지막 페이지이며, 다음 페이지는 마지막 키를 {@code startAfter} 로 넘깁니다.
+   *
+   * @param startAfter null 이면 처음부터
+   */
+  default List<BlobInfo> list(String prefix, String startAfter, int limit) throws IOException {
+    return list(prefix).stream()
+        .filter(blob -> startAfter == null || blob.key().compareTo(startAfter) > 0)
+        .limit(limit)
+        .toList();
+  }
+
+  /** 수정 시각을 지금으로 갱신 (없으면 false) */
+  boolean touch(String key) throws IOException;
+
+  /** 삭제 (없었으면 false) */
+  boolean delete(String key) throws IOException;
+
+  @FunctionalInterface
+  interface BlobWriter {
+    void writeTo(OutputStream out) throws IOException;
+  }
+}
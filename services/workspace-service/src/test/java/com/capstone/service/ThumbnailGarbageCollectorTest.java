@@ -0,0 +1,197 @@
+package com.capstone.service;
+
+import com.capstone.domain.workspace.ThumbnailGarbageCollector;
+import com.capstone.domain.workspace.Workspace;
+import com.capstone.domain.workspace.WorkspaceRepository;
+import com.capstone.global.storage.BlobGarbageCollector;
+import com.capstone.global.storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ThumbnailGarbageCollectorTest {
+
+  private static final String BASE_URL = "http://localhost:8080/api/uploads/thumbnails/";
+
+  @TempDir
+  Path thumbnailDir;
+
+  @TempDir
+  Path objectDir;
+
+  private LocalBlobStore store;
+  private WorkspaceRepository workspaceRepository;
+  private SimpleMeterRegistry meterRegistry;
+  private final List<Workspace> workspaces = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    store = new LocalBlobStore(thumbnailDir, objectDir);
+    workspaceRepository = mock(WorkspaceRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(workspaceRepository.findAllById(any())).thenAnswer(invocation -> {
+      Collection<?> ids = invocation.getArgument(0);
+      return workspaces.stream().filter(w -> ids.contains(w.getWorkspaceId())).toList();
+    });
+  }
+
+  @Test
+  @DisplayName("삭제된 워크스페이스의 파일과 교체된 이전 버전을 지우고 현재 썸네일과 변형은 남긴다")
+  void removesOrphansAndKeepsCurrent() throws IOException {
+    workspace(1L, "versions/workspace-1-content-aaaa.png");
+    workspace(2L, null);
+    putOld("versions/workspace-1-content-aaaa.png", "current");
+    putOld("versions/workspace-1-content-aaaa-sm.png", "current-sm");
+    putOld("versions/workspace-1-content-aaaa-placeholder.jpg", "current-ph");
+    putOld("versions/workspace-1-upload-bbbb.jpg", "replaced upload");
+    putOld("workspace-1-content.png", "legacy");
+    putOld("workspace-2-default.png", "no thumbnail");
+    putOld("versions/workspace-3-content-cccc.png", "deleted workspace");
+    putOld("notes.txt", "not a thumbnail");
+
+    sweepPass(collector(false, 100));
+
+    assertThat(keys()).containsExactly(
+        "notes.txt",
+        "versions/workspace-1-content-aaaa-placeholder.jpg",
+        "versions/workspace-1-content-aaaa-sm.png",
+        "versions/workspace-1-content-aaaa.png");
+    assertThat(meterRegistry.get("storage.gc.orphans").tags("kind", "key", "mode", "delete")
+        .counter().count()).isEqualTo(4.0);
+  }
+
+  @Test
+  @DisplayName("배치 크기만큼씩 이어서 검사하고 한 바퀴가 끝나면 처음부터 다시 시작한다")
+  void sweepsIncrementally() throws IOException {
+    for (int i = 1; i <= 5; i++) {
+      putOld("versions/workspace-" + i + "-content-" + i + ".png", "orphan " + i);
+    }
+    ThumbnailGarbageCollector collector = collector(false, 2);
+
+    BlobGarbageCollector.Batch first = collector.sweepOnce();
+    assertThat(first.scanned()).isEqualTo(2);
+    assertThat(first.passComplete()).isFalse();
+    assertThat(keys()).hasSize(3);
+    verify(workspaceRepository, times(1)).findAllById(any());
+
+    sweepPass(collector);
+    assertThat(keys()).isEmpty();
+    // 키 5개 + 내용 객체 5개
+    assertThat(meterRegistry.get("storage.gc.scanned").counter().count()).isEqualTo(10.0);
+
+    putOld("versions/workspace-9-content-9.png", "next pass");
+    sweepPass(collector);
+    assertThat(keys()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("dry-run 은 지우지 않고 대상만 센다")
+  void dryRunOnlyReports() throws IOException {
+    putOld("versions/workspace-3-content-cccc.png", "deleted workspace");
+
+    sweepPass(collector(true, 100));
+
+    assertThat(keys()).containsExactly("versions/workspace-3-content-cccc.png");
+    assertThat(meterRegistry.get("storage.gc.orphans").tags("kind", "key", "mode", "dry-run")
+        .counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("storage.gc.reclaimed.bytes").tags("kind", "key", "mode",
+        "dry-run").counter().count()).isEqualTo("deleted workspace".length());
+  }
+
+  @Test
+  @DisplayName("유예 시간 안에 쓰인 파일은 DB 에 없어도 남긴다")
+  void keepsRecentFiles() throws IOException {
+    store.put("versions/workspace-4-content-dddd.png", bytes("just rendered"));
+
+    sweepPass(collector(false, 100));
+
+    assertThat(keys()).containsExactly("versions/workspace-4-content-dddd.png");
+    verify(workspaceRepository, never()).findAllById(any());
+  }
+
+  @Test
+  @DisplayName("키를 한 바퀴 돈 뒤 어떤 키도 가리키지 않는 내용 객체를 지운다")
+  void sweepsUnreferencedObjects() throws IOException {
+    workspace(1L, "versions/workspace-1-content-aaaa.png");
+    putOld("versions/workspace-1-content-aaaa.png", "current");
+    putOld("versions/workspace-3-content-cccc.png", "deleted workspace");
+    ageObjects();
+
+    sweepPass(collector(false, 100));
+
+    assertThat(objects()).hasSize(1);
+    assertThat(meterRegistry.get("storage.gc.reclaimed.bytes").tags("kind", "object", "mode",
+        "delete").counter().count()).isEqualTo("deleted workspace".length());
+    assertThat(Files.readString(thumbnailDir.resolve("versions/workspace-1-content-aaaa.png")))
+        .isEqualTo("current");
+  }
+
+  private ThumbnailGarbageCollector collector(boolean dryRun, int batchSize) {
+    return new ThumbnailGarbageCollector(workspaceRepository, store, meterRegistry, false, dryRun,
+        Duration.ofSeconds(30), batchSize, Duration.ofHours(1), true);
+  }
+
+  /** 키와 객체를 한 바퀴 모두 처리 */
+  private static void sweepPass(ThumbnailGarbageCollector collector) throws IOException {
+    for (int i = 0; i < 100; i++) {
+      if (collector.sweepOnce().passComplete()) {
+        return;
+      }
+    }
+    throw new AssertionError("한 바퀴가 끝나지 않음");
+  }
+
+  private void workspace(Long id, String thumbnailKey) {
+    Workspace workspace = new Workspace();
+    workspace.setWorkspaceId(id);
+    workspace.setThumbnailUrl(thumbnailKey != null ? BASE_URL + thumbnailKey : null);
+    workspaces.add(workspace);
+  }
+
+  /** 유예 시간보다 오래전에 쓴 것처럼 저장 */
+  private void putOld(String key, String content) throws IOException {
+    store.put(key, bytes(content));
+    Files.setLastModifiedTime(thumbnailDir.resolve(key),
+        FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+  }
+
+  /** 키와 하드 링크로 같은 파일이라 putOld 로 함께 오래됨. 남은 객체도 확실히 오래되게 */
+  private void ageObjects() throws IOException {
+    for (Path object : objects()) {
+      Files.setLastModifiedTime(object, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    }
+  }
+
+  private List<String> keys() throws IOException {
+    return store.list("").stream().map(blob -> blob.key()).toList();
+  }
+
+  private List<Path> objects() throws IOException {
+    try (Stream<Path> files = Files.walk(objectDir)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+
+  private static ByteArrayInputStream bytes(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
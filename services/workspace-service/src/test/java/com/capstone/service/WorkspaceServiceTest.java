@@ -2,6 +2,7 @@ package com.capstone.service;
 
 import com.capstone.domain.user.User;
 import com.capstone.domain.user.UserRepository;
+import com.capstone.domain.workspace.ThumbnailRegenerationScheduler;
 import com.capstone.domain.workspace.Workspace;
 import com.capstone.domain.workspace.WorkspaceDtos;
 import com.capstone.domain.workspace.WorkspaceRepository;
@@ -15,7 +16,9 @@ import com.capstone.domain.workspaceInvitation.WorkspaceInvitationRepository;
 import com.capstone.domain.workspaceInvite.WorkspaceInviteRepository;
 import com.capstone.domain.workspaceUser.WorkspaceUser;
 import com.capstone.domain.workspaceUser.WorkspaceUserRepository;
+import com.capstone.global.service.FileStorageService;
 import com.capstone.global.service.WebSocketService;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +33,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,13 +63,17 @@ class WorkspaceServiceTest {
   private VoiceSessionUserRepository voiceSessionUserRepository;
   @Mock
   private WebSocketService webSocketService;
+  @Mock
+  private FileStorageService fileStorageService;
+  @Mock
+  private ThumbnailRegenerationScheduler thumbnailRegenerationScheduler;
 
   @InjectMocks
   private WorkspaceService workspaceService;
 
   @Test
   @DisplayName("워크스페이스 생성 시 정상적으로 생성")
-  void createWorkspace() {
+  void createWorkspace() throws Exception {
     Long userId = 10L;
     String workspaceName = "캡스톤 워크스페이스";
 
@@ -75,6 +85,9 @@ class WorkspaceServiceTest {
     when(userRepository.findById(userId)).thenReturn(Optional.of(user));
     when(workspaceRepository.save(org.mockito.ArgumentMatchers.any(Workspace.class)))
         .thenReturn(savedWorkspace);
+    when(fileStorageService.generateDefaultThumbnail(workspaceName, 1L))
+        .thenReturn("http://localhost:8080/api/uploads/thumbnails/workspace-1-default.png");
+    when(workspaceRepository.saveAndFlush(savedWorkspace)).thenReturn(savedWorkspace);
     when(workspaceUserRepository.save(any(WorkspaceUser.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
     doNothing().when(webSocketService).broadcastWorkspaceChange(any(), any(), any());
@@ -85,6 +98,44 @@ class WorkspaceServiceTest {
     assertThat(result.getName()).isEqualTo("캡스톤 워크스페이스");
   }
 
+  @Test
+  @DisplayName("워크스페이스 목록 조회 시 썸네일은 렌더링하지 않고 없거나 기본인 것만 백그라운드로 예약")
+  void getWorkspacesByUserIdSchedulesMissingThumbnails() {
+    Long userId = 10L;
+    User user = User.builder().id(userId).email("캡스톤@user.com").name("캡스톤").build();
+    Workspace missing = workspace(1L, null);
+    Workspace defaultThumbnail = workspace(2L, "http://localhost:8080/api/uploads/thumbnails/"
+        + "versions/workspace-2-default-0123456789abcdef.png");
+    Workspace uploaded = workspace(3L,
+        "http://localhost:8080/api/uploads/thumbnails/workspace-3-4f1c0a.png");
+    Workspace deleted = workspace(4L, null);
+    deleted.setDeletedAt(Instant.now());
+
+    when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+    when(workspaceUserRepository.findByUser(user)).thenReturn(
+        List.of(missing, defaultThumbnail, uploaded, deleted).stream()
+            .map(w -> WorkspaceUser.builder().workspace(w).user(user).build())
+            .toList());
+
+    List<Workspace> result = workspaceService.getWorkspacesByUserId(userId);
+
+    assertThat(result).containsExactly(missing, defaultThumbnail, uploaded);
+    assertThat(defaultThumbnail.getThumbnailUrl()).contains("-default-");
+    verify(thumbnailRegenerationScheduler).request(1L);
+    verify(thumbnailRegenerationScheduler).request(2L);
+    verify(thumbnailRegenerationScheduler, never()).request(3L);
+    verify(thumbnailRegenerationScheduler, never()).request(4L);
+    verifyNoInteractions(fileStorageService, ideaRepository);
+  }
+
+  private Workspace workspace(Long id, String thumbnailUrl) {
+    Workspace workspace = new Workspace();
+    workspace.setWorkspaceId(id);
+    workspace.setName("워크스페이스" + id);
+    workspace.setThumbnailUrl(thumbnailUrl);
+    return workspace;
+  }
+
   @Test
   @DisplayName("모든 워크스페이스 조회 시 전체 리스트를 반환")
   void getAllWorkspaces() {